@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.controller.repository.FileSystemRepository;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.util.file.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of writing content to, and reading it back from, a {@link FileSystemRepository} that is backed by a
+ * temporary directory. Content is released the same way that the FlowFile Repository releases it, by marking its
+ * Resource Claim destructable once it has no more claimants; archiving is disabled so that the repository's background
+ * threads delete released content rather than accumulating it on disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentRepositoryBenchmark {
+
+    @Param({"128", "16384", "1048576"})
+    private int contentSize;
+
+    private File directory;
+    private StandardResourceClaimManager claimManager;
+    private FileSystemRepository repository;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("nifi-benchmark-content").toFile();
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.REPOSITORY_CONTENT_PREFIX + "default", directory.getAbsolutePath());
+        properties.put(NiFiProperties.CONTENT_ARCHIVE_ENABLED, "false");
+
+        repository = new FileSystemRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+        claimManager = new StandardResourceClaimManager();
+        repository.initialize(claimManager);
+
+        content = new byte[contentSize];
+        new Random(contentSize).nextBytes(content);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        repository.shutdown();
+        FileUtils.deleteFile(directory, true);
+    }
+
+    @Benchmark
+    public long writeAndRelease() throws IOException {
+        final ContentClaim claim = write();
+        final long length = claim.getLength();
+        release(claim);
+        return length;
+    }
+
+    @Benchmark
+    public long writeReadAndRelease() throws IOException {
+        final ContentClaim claim = write();
+
+        final byte[] buffer = new byte[8192];
+        long total = 0L;
+        try (final InputStream in = repository.read(claim)) {
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                total += len;
+            }
+        }
+
+        release(claim);
+        return total;
+    }
+
+    private ContentClaim write() throws IOException {
+        final ContentClaim claim = repository.create(false);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write(content);
+        }
+        return claim;
+    }
+
+    private void release(final ContentClaim claim) {
+        if (repository.decrementClaimantCount(claim) == 0) {
+            claimManager.markDestructable(claim.getResourceClaim());
+        }
+    }
+}
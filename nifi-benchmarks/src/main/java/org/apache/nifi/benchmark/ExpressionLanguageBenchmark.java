@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.attribute.expression.language.PreparedQuery;
+import org.apache.nifi.attribute.expression.language.Query;
+import org.apache.nifi.attribute.expression.language.StandardPropertyValue;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.registry.VariableRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of evaluating Expression Language against FlowFiles, both through an already prepared query and
+ * through a {@link StandardPropertyValue}, which is how processors evaluate their properties, and against a batch of
+ * FlowFiles at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ExpressionLanguageBenchmark.FLOWFILE_COUNT)
+public class ExpressionLanguageBenchmark {
+
+    static final int FLOWFILE_COUNT = 1000;
+
+    @Param({"${filename}",
+        "${filename:toUpper():substringBefore('.')}",
+        "${attr.1:equals('value-1'):and(${fileSize:gt(1024)})}",
+        "prefix-${filename:replaceAll('[0-9]+', 'x')}-${uuid:substring(0, 8)}"})
+    private String expression;
+
+    @Param({"5", "50"})
+    private int attributeCount;
+
+    private PreparedQuery preparedQuery;
+    private List<FlowFile> flowFiles;
+
+    @Setup
+    public void setup() {
+        preparedQuery = Query.prepare(expression);
+
+        flowFiles = new ArrayList<>(FLOWFILE_COUNT);
+        for (int i = 0; i < FLOWFILE_COUNT; i++) {
+            final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder()
+                .id(i)
+                .entryDate(System.currentTimeMillis())
+                .size(i * 16L)
+                .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+                .addAttribute(CoreAttributes.FILENAME.key(), "file-" + i + ".txt");
+
+            for (int j = 0; j < attributeCount; j++) {
+                builder.addAttribute("attr." + j, "value-" + j);
+            }
+
+            flowFiles.add(builder.build());
+        }
+    }
+
+    @Benchmark
+    public void evaluatePreparedQuery(final Blackhole blackhole) {
+        for (final FlowFile flowFile : flowFiles) {
+            blackhole.consume(preparedQuery.evaluateExpressions(flowFile.getAttributes(), null));
+        }
+    }
+
+    @Benchmark
+    public void evaluatePropertyValue(final Blackhole blackhole) {
+        final StandardPropertyValue propertyValue = new StandardPropertyValue(expression, null, preparedQuery, VariableRegistry.EMPTY_REGISTRY);
+        for (final FlowFile flowFile : flowFiles) {
+            blackhole.consume(propertyValue.evaluateAttributeExpressions(flowFile).getValue());
+        }
+    }
+
+    @Benchmark
+    public void evaluateBatch(final Blackhole blackhole) {
+        blackhole.consume(preparedQuery.evaluateExpressions(flowFiles, null, VariableRegistry.EMPTY_REGISTRY, null));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1)
+    public void prepareQuery(final Blackhole blackhole) {
+        blackhole.consume(Query.prepare(expression));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.ProcessScheduler;
+import org.apache.nifi.controller.StandardFlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of moving FlowFiles through a {@link StandardFlowFileQueue}: enqueuing a batch of FlowFiles, then
+ * polling and acknowledging them. The queue is shared by all benchmark threads, so running with <code>-t</code> greater
+ * than 1 measures contention on the queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowFileQueueBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int flowFileCount;
+
+    @Param({"5", "50"})
+    private int attributeCount;
+
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private StandardFlowFileQueue queue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Connection connection = Stubs.stub(Connection.class);
+        Mockito.when(connection.getSource()).thenReturn(Stubs.stub(Connectable.class));
+        Mockito.when(connection.getDestination()).thenReturn(Stubs.stub(Connectable.class));
+
+        final ProvenanceEventRepository provRepo = Stubs.stub(ProvenanceEventRepository.class);
+        Mockito.when(provRepo.eventBuilder()).thenReturn(new StandardProvenanceEventRecord.Builder());
+
+        // The swap threshold is set well above the number of FlowFiles that can be queued at once so that no FlowFiles
+        // are swapped out; swapping is dominated by disk I/O and is not what this benchmark is measuring.
+        queue = new StandardFlowFileQueue("benchmark-queue", connection, Stubs.stub(FlowFileRepository.class), provRepo,
+            new StandardResourceClaimManager(), Stubs.stub(ProcessScheduler.class), Stubs.stub(FlowFileSwapManager.class), null, Integer.MAX_VALUE);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private List<FlowFileRecord> flowFiles;
+
+        @Setup(Level.Trial)
+        public void setup(final FlowFileQueueBenchmark benchmark) {
+            flowFiles = new ArrayList<>(benchmark.flowFileCount);
+            for (int i = 0; i < benchmark.flowFileCount; i++) {
+                final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder()
+                    .id(benchmark.idGenerator.getAndIncrement())
+                    .entryDate(System.currentTimeMillis())
+                    .size(1024L);
+
+                for (int j = 0; j < benchmark.attributeCount; j++) {
+                    builder.addAttribute("attr." + j, "value-" + j);
+                }
+
+                flowFiles.add(builder.build());
+            }
+        }
+    }
+
+    @Benchmark
+    public void putAndPoll(final ThreadState state, final Blackhole blackhole) {
+        for (final FlowFileRecord flowFile : state.flowFiles) {
+            queue.put(flowFile);
+        }
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        for (int i = 0; i < state.flowFiles.size(); i++) {
+            final FlowFileRecord polled = queue.poll(expired);
+            if (polled != null) {
+                queue.acknowledge(polled);
+                blackhole.consume(polled);
+            }
+        }
+    }
+
+    @Benchmark
+    public void putAllAndPollBatch(final ThreadState state, final Blackhole blackhole) {
+        queue.putAll(state.flowFiles);
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final List<FlowFileRecord> polled = queue.poll(state.flowFiles.size(), expired);
+        queue.acknowledge(polled);
+        blackhole.consume(polled);
+    }
+}
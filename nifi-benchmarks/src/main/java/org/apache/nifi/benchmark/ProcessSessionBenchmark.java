@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.ConnectableType;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.ProcessScheduler;
+import org.apache.nifi.controller.StandardFlowFileQueue;
+import org.apache.nifi.controller.repository.FileSystemRepository;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.ProcessContext;
+import org.apache.nifi.controller.repository.RingBufferEventRepository;
+import org.apache.nifi.controller.repository.StandardCounterRepository;
+import org.apache.nifi.controller.repository.StandardProcessSession;
+import org.apache.nifi.controller.repository.VolatileFlowFileRepository;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.util.file.FileUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Measures the cost of a {@link StandardProcessSession} moving FlowFiles through the framework the way that a pair of
+ * processors would: one session creates FlowFiles, adds attributes, writes their content and transfers them to a
+ * connection, and a second session pulls them from that connection and removes them. Each session is committed.
+ * </p>
+ *
+ * <p>
+ * Content is stored in a {@link FileSystemRepository} in a temporary directory, FlowFiles are held in a
+ * {@link VolatileFlowFileRepository} and Provenance Events are discarded, so the results reflect the cost of the session
+ * and content handling rather than that of journaling FlowFiles or indexing events.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessSessionBenchmark {
+
+    private static final Relationship SUCCESS = new Relationship.Builder().name("success").build();
+
+    @Param({"1", "100"})
+    private int flowFileCount;
+
+    @Param({"5", "50"})
+    private int attributeCount;
+
+    @Param({"0", "1024", "65536"})
+    private int contentSize;
+
+    private File directory;
+    private FileSystemRepository contentRepository;
+    private ProcessContext context;
+    private Map<String, String> attributes;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("nifi-benchmark-session").toFile();
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.REPOSITORY_CONTENT_PREFIX + "default", directory.getAbsolutePath());
+        properties.put(NiFiProperties.CONTENT_ARCHIVE_ENABLED, "false");
+
+        final StandardResourceClaimManager claimManager = new StandardResourceClaimManager();
+        contentRepository = new FileSystemRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+        contentRepository.initialize(claimManager);
+
+        final VolatileFlowFileRepository flowFileRepository = new VolatileFlowFileRepository();
+        flowFileRepository.initialize(claimManager);
+
+        final ProvenanceEventRepository provenanceRepository = Stubs.stub(ProvenanceEventRepository.class);
+        Mockito.when(provenanceRepository.eventBuilder()).thenAnswer(invocation -> new StandardProvenanceEventRecord.Builder());
+
+        // A single component that transfers FlowFiles to a connection that loops back to itself, so that the FlowFiles
+        // created by one session can be pulled by the next.
+        final Connectable connectable = Stubs.stub(Connectable.class);
+        final ProcessGroup group = Stubs.stub(ProcessGroup.class);
+        Mockito.when(group.getIdentifier()).thenReturn("benchmark-group");
+        Mockito.when(connectable.getIdentifier()).thenReturn("benchmark-component");
+        Mockito.when(connectable.getConnectableType()).thenReturn(ConnectableType.INPUT_PORT);
+        Mockito.when(connectable.getComponentType()).thenReturn("Benchmark");
+        Mockito.when(connectable.getProcessGroup()).thenReturn(group);
+
+        final Connection connection = Stubs.stub(Connection.class);
+        final StandardFlowFileQueue queue = new StandardFlowFileQueue("benchmark-queue", connection, flowFileRepository, provenanceRepository,
+            claimManager, Stubs.stub(ProcessScheduler.class), Stubs.stub(FlowFileSwapManager.class), null, Integer.MAX_VALUE);
+        Mockito.when(connection.getIdentifier()).thenReturn("benchmark-connection");
+        Mockito.when(connection.getFlowFileQueue()).thenReturn(queue);
+        Mockito.when(connection.getSource()).thenReturn(connectable);
+        Mockito.when(connection.getDestination()).thenReturn(connectable);
+        Mockito.doAnswer(invocation -> {
+            queue.put((FlowFileRecord) invocation.getArguments()[0]);
+            return null;
+        }).when(connection).enqueue(Mockito.any(FlowFileRecord.class));
+        Mockito.doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final Collection<FlowFileRecord> flowFiles = (Collection<FlowFileRecord>) invocation.getArguments()[0];
+            queue.putAll(flowFiles);
+            return null;
+        }).when(connection).enqueue(Mockito.anyCollectionOf(FlowFileRecord.class));
+
+        Mockito.when(connectable.hasIncomingConnection()).thenReturn(true);
+        Mockito.when(connectable.getIncomingConnections()).thenReturn(Collections.singletonList(connection));
+        Mockito.when(connectable.getConnections()).thenReturn(Collections.singleton(connection));
+        Mockito.when(connectable.getConnections(SUCCESS)).thenReturn(Collections.singleton(connection));
+        Mockito.when(connectable.getRelationships()).thenReturn(Collections.singleton(SUCCESS));
+
+        context = new ProcessContext(connectable, new AtomicLong(0L), contentRepository, flowFileRepository,
+            new RingBufferEventRepository(5), new StandardCounterRepository(), provenanceRepository);
+
+        attributes = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put("attr." + i, "value-" + i);
+        }
+
+        content = new byte[contentSize];
+        new Random(contentSize).nextBytes(content);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        contentRepository.shutdown();
+        FileUtils.deleteFile(directory, true);
+    }
+
+    @Benchmark
+    public int createTransferAndRemove() {
+        final StandardProcessSession createSession = new StandardProcessSession(context);
+        for (int i = 0; i < flowFileCount; i++) {
+            FlowFile flowFile = createSession.create();
+            flowFile = createSession.putAllAttributes(flowFile, attributes);
+            if (contentSize > 0) {
+                flowFile = createSession.write(flowFile, out -> out.write(content));
+            }
+            createSession.transfer(flowFile, SUCCESS);
+        }
+        createSession.commit();
+
+        final StandardProcessSession removeSession = new StandardProcessSession(context);
+        final List<FlowFile> flowFiles = removeSession.get(flowFileCount);
+        removeSession.remove(flowFiles);
+        removeSession.commit();
+
+        return flowFiles.size();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import org.mockito.Mockito;
+
+/**
+ * Creates stand-ins for the components that a benchmarked class depends on but that are not themselves being measured.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Creates a mock that does not record its invocations. Ordinary mocks remember every call made to them, which in a
+     * benchmark that runs for millions of operations would consume the heap and skew the results.
+     *
+     * @param type the type to mock
+     * @param <T> the type to mock
+     * @return a mock of the given type
+     */
+    static <T> T stub(final Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.benchmark;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.util.file.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wali.MinimalLockingWriteAheadLog;
+import org.wali.SerDe;
+import org.wali.SyncListener;
+import org.wali.UpdateType;
+
+/**
+ * Measures the cost of journaling updates to a {@link MinimalLockingWriteAheadLog} that is stored in a temporary
+ * directory. Each benchmark thread repeatedly updates its own fixed set of records, so the number of records held by
+ * the log stays constant; the log is checkpointed after each iteration so that its journals do not grow without bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    @Param({"1", "100"})
+    private int recordsPerUpdate;
+
+    @Param({"64", "4096"})
+    private int recordSize;
+
+    @Param({"16"})
+    private int partitionCount;
+
+    @Param({"false", "true"})
+    private boolean forceSync;
+
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private File directory;
+    private MinimalLockingWriteAheadLog<BenchmarkRecord> writeAheadLog;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("nifi-benchmark-wali").toFile();
+        writeAheadLog = new MinimalLockingWriteAheadLog<>(directory.toPath(), partitionCount, new BenchmarkRecordSerDe(), new NopSyncListener());
+        writeAheadLog.recoverRecords();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkpoint() throws IOException {
+        writeAheadLog.checkpoint();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        writeAheadLog.shutdown();
+        FileUtils.deleteFile(directory, true);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private List<BenchmarkRecord> records;
+
+        @Setup(Level.Trial)
+        public void setup(final WriteAheadLogBenchmark benchmark) {
+            final Random random = new Random();
+            records = new ArrayList<>(benchmark.recordsPerUpdate);
+            for (int i = 0; i < benchmark.recordsPerUpdate; i++) {
+                final byte[] payload = new byte[benchmark.recordSize];
+                random.nextBytes(payload);
+                records.add(new BenchmarkRecord(benchmark.idGenerator.getAndIncrement(), payload));
+            }
+        }
+    }
+
+    @Benchmark
+    public int update(final ThreadState state) throws IOException {
+        return writeAheadLog.update(state.records, forceSync);
+    }
+
+    private static class BenchmarkRecord {
+        private final long id;
+        private final byte[] payload;
+
+        BenchmarkRecord(final long id, final byte[] payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+    }
+
+    private static class BenchmarkRecordSerDe implements SerDe<BenchmarkRecord> {
+
+        @Override
+        public void serializeEdit(final BenchmarkRecord previousRecordState, final BenchmarkRecord newRecordState, final DataOutputStream out) throws IOException {
+            serializeRecord(newRecordState, out);
+        }
+
+        @Override
+        public void serializeRecord(final BenchmarkRecord record, final DataOutputStream out) throws IOException {
+            out.writeLong(record.id);
+            out.writeInt(record.payload.length);
+            out.write(record.payload);
+        }
+
+        @Override
+        public BenchmarkRecord deserializeEdit(final DataInputStream in, final Map<Object, BenchmarkRecord> currentRecordStates, final int version) throws IOException {
+            return deserializeRecord(in, version);
+        }
+
+        @Override
+        public BenchmarkRecord deserializeRecord(final DataInputStream in, final int version) throws IOException {
+            final long id = in.readLong();
+            final byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            return new BenchmarkRecord(id, payload);
+        }
+
+        @Override
+        public Object getRecordIdentifier(final BenchmarkRecord record) {
+            return record.id;
+        }
+
+        @Override
+        public UpdateType getUpdateType(final BenchmarkRecord record) {
+            return UpdateType.UPDATE;
+        }
+
+        @Override
+        public String getLocation(final BenchmarkRecord record) {
+            return null;
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+    }
+
+    private static class NopSyncListener implements SyncListener {
+        @Override
+        public void onSync(final int partitionIndex) {
+        }
+
+        @Override
+        public void onGlobalSync() {
+        }
+    }
+}
@@ -17,9 +17,14 @@
 package org.apache.nifi.attribute.expression.language;
 
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.nifi.expression.AttributeValueDecorator;
+import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.registry.VariableRegistry;
 
 public class EmptyPreparedQuery implements PreparedQuery {
 
@@ -33,4 +38,10 @@ public class EmptyPreparedQuery implements PreparedQuery {
     public String evaluateExpressions(Map<String, String> valueLookup, AttributeValueDecorator decorator) throws ProcessException {
         return value;
     }
+
+    @Override
+    public List<String> evaluateExpressions(final List<FlowFile> flowFiles, final Map<String, String> additionalAttributes, final VariableRegistry registry,
+        final AttributeValueDecorator decorator) throws ProcessException {
+        return new ArrayList<>(Collections.nCopies(flowFiles.size(), value));
+    }
 }
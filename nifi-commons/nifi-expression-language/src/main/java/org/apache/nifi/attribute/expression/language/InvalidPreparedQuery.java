@@ -17,10 +17,13 @@
 package org.apache.nifi.attribute.expression.language;
 
 
+import java.util.List;
 import java.util.Map;
 import org.apache.nifi.attribute.expression.language.exception.AttributeExpressionLanguageException;
 import org.apache.nifi.expression.AttributeValueDecorator;
+import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.registry.VariableRegistry;
 
 /**
  * An implementation of PreparedQuery that throws an
@@ -43,5 +46,10 @@ public class InvalidPreparedQuery implements PreparedQuery {
         throw new AttributeExpressionLanguageException("Invalid Expression: " + query + " due to " + explanation);
     }
 
+    @Override
+    public List<String> evaluateExpressions(final List<FlowFile> flowFiles, final Map<String, String> additionalAttributes, final VariableRegistry registry,
+        final AttributeValueDecorator decorator) throws ProcessException {
+        throw new AttributeExpressionLanguageException("Invalid Expression: " + query + " due to " + explanation);
+    }
 
 }
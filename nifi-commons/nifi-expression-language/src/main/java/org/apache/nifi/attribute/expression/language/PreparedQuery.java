@@ -17,12 +17,32 @@
 package org.apache.nifi.attribute.expression.language;
 
 
+import java.util.List;
 import java.util.Map;
 import org.apache.nifi.expression.AttributeValueDecorator;
+import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.registry.VariableRegistry;
 
 public interface PreparedQuery {
 
     String evaluateExpressions(Map<String, String> valueLookup, AttributeValueDecorator decorator) throws ProcessException;
 
+    /**
+     * Evaluates the query against each of the given FlowFiles. The result for each FlowFile is the same as evaluating
+     * the query against that FlowFile alone, with values looked up first in the additional attributes, then in the
+     * FlowFile's properties and attributes, and finally in the variable registry; but work that does not differ from
+     * one FlowFile to the next may be done only once for the whole batch.
+     *
+     * @param flowFiles the FlowFiles to evaluate the query against
+     * @param additionalAttributes values that take precedence over those of every FlowFile; may be null
+     * @param registry the variable registry to look up values from; may be null
+     * @param decorator the decorator to apply to the value of each Expression; may be null. Because results may be
+     *            shared between FlowFiles, the decorator must always return the same value for the same input.
+     * @return the result of evaluating the query against each FlowFile, in the same order as the FlowFiles
+     * @throws ProcessException if the query cannot be evaluated
+     */
+    List<String> evaluateExpressions(List<FlowFile> flowFiles, Map<String, String> additionalAttributes, VariableRegistry registry, AttributeValueDecorator decorator)
+        throws ProcessException;
+
 }
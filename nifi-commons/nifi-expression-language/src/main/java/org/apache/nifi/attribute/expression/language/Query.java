@@ -18,10 +18,14 @@ package org.apache.nifi.attribute.expression.language;
 
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionLexer;
 import org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionParser;
@@ -376,6 +380,15 @@ public class Query {
 
     static String evaluateExpression(final Tree tree, final String queryText, final Map<String, String> valueMap, final AttributeValueDecorator decorator) throws ProcessException {
         final Object evaluated = Query.fromTree(tree, queryText).evaluate(valueMap).getValue();
+        return toExpressionValue(evaluated, decorator);
+    }
+
+    static String evaluateExpression(final Evaluator<?> evaluator, final Map<String, String> valueMap, final AttributeValueDecorator decorator) throws ProcessException {
+        final Object evaluated = evaluator.evaluate(valueMap).getValue();
+        return toExpressionValue(evaluated, decorator);
+    }
+
+    private static String toExpressionValue(final Object evaluated, final AttributeValueDecorator decorator) {
         if (evaluated == null) {
             return null;
         }
@@ -421,6 +434,114 @@ public class Query {
         return new Query(text, tree, buildEvaluator(tree));
     }
 
+    /**
+     * Builds an Evaluator for the given tree that may be evaluated any number of times and by any number of threads
+     * concurrently. Evaluators that reference multiple attributes, or that reduce the results of such a reference,
+     * keep track of their progress while being evaluated; if the tree contains any of these, a new Evaluator must be
+     * built for each evaluation, and <code>null</code> is returned.
+     *
+     * @param tree the tree to build an Evaluator for
+     * @param subexpressions the cache of subexpressions to share with other queries, or <code>null</code> if subexpressions are not to be shared
+     * @return an Evaluator that can be reused, or <code>null</code> if the tree requires a new Evaluator for each evaluation
+     */
+    static Evaluator<?> buildReusableEvaluator(final Tree tree, final SubexpressionCache subexpressions) {
+        if (!isReusable(tree)) {
+            return null;
+        }
+
+        return buildEvaluator(tree, subexpressions);
+    }
+
+    private static boolean isReusable(final Tree tree) {
+        switch (tree.getType()) {
+            case MULTI_ATTRIBUTE_REFERENCE:
+            case COUNT:
+            case JOIN:
+                return false;
+            case STRING_LITERAL:
+                return isReusable(tree.getText());
+            case ATTR_NAME:
+                return isReusable(tree.getChild(0).getText());
+        }
+
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (!isReusable(tree.getChild(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isReusable(final String literalValue) {
+        // String literals may contain embedded Expressions, which are compiled along with the literal
+        if (literalValue == null || literalValue.length() < 2) {
+            return true;
+        }
+
+        for (final Range range : extractExpressionRanges(literalValue)) {
+            if (!isReusable(compileTree(literalValue.substring(range.getStart(), range.getEnd() + 1)))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the names of the attributes that the given tree references, if the result of evaluating the tree depends
+     * only on the values that those names are mapped to. This is not the case if the tree references multiple attributes
+     * at once, references an attribute whose name is itself an Expression, or calls a function such as
+     * <code>now()</code> or <code>random()</code> whose result differs from one evaluation to the next; in each of those
+     * cases, <code>null</code> is returned.
+     *
+     * @param tree the tree of an Expression
+     * @return the names of the attributes that the Expression depends on, or <code>null</code> if its result may depend on more than their values
+     */
+    static Set<String> getReferencedAttributeNames(final Tree tree) {
+        if (!isReusable(tree) || !isDeterministic(tree)) {
+            return null;
+        }
+
+        final Set<String> attributeNames = new LinkedHashSet<>();
+        return addReferencedAttributeNames(tree, attributeNames) ? attributeNames : null;
+    }
+
+    private static boolean addReferencedAttributeNames(final Tree tree, final Set<String> attributeNames) {
+        switch (tree.getType()) {
+            case ATTR_NAME: {
+                final String name = tree.getChild(0).getText();
+                if (name != null && name.length() > 1 && !extractExpressionRanges(name).isEmpty()) {
+                    return false;
+                }
+
+                attributeNames.add(newStringLiteralEvaluator(name).evaluate(null).getValue());
+                return true;
+            }
+            case STRING_LITERAL: {
+                final String literalValue = tree.getText();
+                if (literalValue == null || literalValue.length() < 2) {
+                    return true;
+                }
+
+                for (final Range range : extractExpressionRanges(literalValue)) {
+                    if (!addReferencedAttributeNames(compileTree(literalValue.substring(range.getStart(), range.getEnd() + 1)), attributeNames)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (!addReferencedAttributeNames(tree.getChild(i), attributeNames)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static Tree compileTree(final String query) throws AttributeExpressionLanguageParsingException {
         try {
             final CommonTokenStream lexerTokenStream = createTokenStream(query);
@@ -440,6 +561,19 @@ public class Query {
     }
 
     public static PreparedQuery prepare(final String query) throws AttributeExpressionLanguageParsingException {
+        return prepare(query, null);
+    }
+
+    /**
+     * Prepares the given query so that it can be evaluated any number of times. Identical subexpressions of all queries
+     * that are prepared with the same {@link SubexpressionCache} are evaluated only once for each FlowFile.
+     *
+     * @param query the query to prepare
+     * @param subexpressions the cache of subexpressions to share with other queries, or <code>null</code> if subexpressions are not to be shared
+     * @return the prepared query
+     * @throws AttributeExpressionLanguageParsingException if unable to parse the query
+     */
+    public static PreparedQuery prepare(final String query, final SubexpressionCache subexpressions) throws AttributeExpressionLanguageParsingException {
         if (query == null) {
             return new EmptyPreparedQuery(null);
         }
@@ -473,9 +607,12 @@ public class Query {
                 substrings.add(treeText);
             }
 
-            return new StandardPreparedQuery(substrings, trees);
+            return new StandardPreparedQuery(substrings, trees, subexpressions);
         } catch (final AttributeExpressionLanguageParsingException e) {
             return new InvalidPreparedQuery(query, e.getMessage());
+        } catch (final PatternSyntaxException e) {
+            // regular expressions given as literals, or folded into literals, are compiled when the query is prepared
+            return new InvalidPreparedQuery(query, e.getMessage());
         }
     }
 
@@ -570,6 +707,10 @@ public class Query {
     }
 
     private static Evaluator<String> newStringLiteralEvaluator(final String literalValue) {
+        return newStringLiteralEvaluator(literalValue, null);
+    }
+
+    private static Evaluator<String> newStringLiteralEvaluator(final String literalValue, final SubexpressionCache subexpressions) {
         if (literalValue == null || literalValue.length() < 2) {
             return new StringLiteralEvaluator(literalValue);
         }
@@ -584,18 +725,18 @@ public class Query {
         int lastIndex = 0;
         for (final Range range : ranges) {
             if (range.getStart() > lastIndex) {
-                evaluators.add(newStringLiteralEvaluator(literalValue.substring(lastIndex, range.getStart())));
+                evaluators.add(newStringLiteralEvaluator(literalValue.substring(lastIndex, range.getStart()), subexpressions));
             }
 
             final String treeText = literalValue.substring(range.getStart(), range.getEnd() + 1);
-            evaluators.add(buildEvaluator(compileTree(treeText)));
+            evaluators.add(buildEvaluator(compileTree(treeText), subexpressions));
             lastIndex = range.getEnd() + 1;
         }
 
         final Range lastRange = ranges.get(ranges.size() - 1);
         if (lastRange.getEnd() + 1 < literalValue.length()) {
             final String treeText = literalValue.substring(lastRange.getEnd() + 1);
-            evaluators.add(newStringLiteralEvaluator(treeText));
+            evaluators.add(newStringLiteralEvaluator(treeText, subexpressions));
         }
 
         if (evaluators.size() == 1) {
@@ -611,12 +752,16 @@ public class Query {
     }
 
     private static Evaluator<?> buildEvaluator(final Tree tree) {
+        return buildEvaluator(tree, null);
+    }
+
+    private static Evaluator<?> buildEvaluator(final Tree tree, final SubexpressionCache subexpressions) {
         switch (tree.getType()) {
             case EXPRESSION: {
-                return buildExpressionEvaluator(tree);
+                return buildExpressionEvaluator(tree, subexpressions);
             }
             case ATTRIBUTE_REFERENCE: {
-                final Evaluator<?> childEvaluator = buildEvaluator(tree.getChild(0));
+                final Evaluator<?> childEvaluator = buildEvaluator(tree.getChild(0), subexpressions);
                 if (childEvaluator instanceof MultiAttributeEvaluator) {
                     return childEvaluator;
                 }
@@ -668,13 +813,13 @@ public class Query {
                 }
             }
             case ATTR_NAME: {
-                return newStringLiteralEvaluator(tree.getChild(0).getText());
+                return newStringLiteralEvaluator(tree.getChild(0).getText(), subexpressions);
             }
             case NUMBER: {
                 return new NumberLiteralEvaluator(tree.getText());
             }
             case STRING_LITERAL: {
-                return newStringLiteralEvaluator(tree.getText());
+                return newStringLiteralEvaluator(tree.getText(), subexpressions);
             }
             case TRUE:
             case FALSE:
@@ -686,8 +831,8 @@ public class Query {
                 return new NowEvaluator();
             }
             case TO_LITERAL: {
-                final Evaluator<?> argEvaluator = buildEvaluator(tree.getChild(0));
-                return new ToLiteralEvaluator(argEvaluator);
+                final Evaluator<?> argEvaluator = buildEvaluator(tree.getChild(0), subexpressions);
+                return foldConstant(new ToLiteralEvaluator(argEvaluator), null, Collections.<Evaluator<?>> singletonList(argEvaluator));
             }
             case IP: {
                 try {
@@ -748,14 +893,14 @@ public class Query {
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private static Evaluator<?> buildExpressionEvaluator(final Tree tree) {
+    private static Evaluator<?> buildExpressionEvaluator(final Tree tree, final SubexpressionCache subexpressions) {
         if (tree.getChildCount() == 0) {
             throw new AttributeExpressionLanguageParsingException("EXPRESSION tree node has no children");
         }
 
         final Evaluator<?> evaluator;
         if (tree.getChildCount() == 1) {
-            evaluator = buildEvaluator(tree.getChild(0));
+            evaluator = buildEvaluator(tree.getChild(0), subexpressions);
         } else {
             // we can chain together functions in the form of:
             // ${x:trim():substring(1,2):trim()}
@@ -763,7 +908,7 @@ public class Query {
             // subject is the function to its left (the first trim()), and its subject is the value of
             // the 'x' attribute. We accomplish this logic by iterating over all of the children of the
             // tree from the right-most child going left-ward.
-            evaluator = buildFunctionExpressionEvaluator(tree, 0);
+            evaluator = buildFunctionExpressionEvaluator(tree, 0, subexpressions);
         }
 
         Evaluator<?> chosenEvaluator = evaluator;
@@ -819,24 +964,135 @@ public class Query {
         return chosenEvaluator;
     }
 
-    private static Evaluator<?> buildFunctionExpressionEvaluator(final Tree tree, final int offset) {
+    private static Evaluator<?> buildFunctionExpressionEvaluator(final Tree tree, final int offset, final SubexpressionCache subexpressions) {
         if (tree.getChildCount() == 0) {
             throw new AttributeExpressionLanguageParsingException("EXPRESSION tree node has no children");
         }
         final int firstChildIndex = tree.getChildCount() - offset - 1;
         if (firstChildIndex == 0) {
-            return buildEvaluator(tree.getChild(0));
+            return buildEvaluator(tree.getChild(0), subexpressions);
         }
 
         final Tree functionTree = tree.getChild(firstChildIndex);
-        final Evaluator<?> subjectEvaluator = buildFunctionExpressionEvaluator(tree, offset + 1);
+        final Evaluator<?> subjectEvaluator = buildFunctionExpressionEvaluator(tree, offset + 1, subexpressions);
 
         final Tree functionNameTree = functionTree.getChild(0);
         final List<Evaluator<?>> argEvaluators = new ArrayList<>();
         for (int i = 1; i < functionTree.getChildCount(); i++) {
-            argEvaluators.add(buildEvaluator(functionTree.getChild(i)));
+            argEvaluators.add(buildEvaluator(functionTree.getChild(i), subexpressions));
+        }
+
+        final Evaluator<?> evaluator = foldConstant(buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators), subjectEvaluator, argEvaluators);
+        if (subexpressions == null || isConstant(evaluator) || !isDeterministic(tree, firstChildIndex)) {
+            return evaluator;
+        }
+
+        // share the evaluation of the subject and the functions applied to it so far with identical subexpressions
+        final StringBuilder key = new StringBuilder();
+        for (int i = 0; i <= firstChildIndex; i++) {
+            key.append(tree.getChild(i).toStringTree()).append(' ');
+        }
+        return subexpressions.share(key.toString(), evaluator);
+    }
+
+    /**
+     * If the given function is applied only to literal values, evaluates it once and returns a literal Evaluator for
+     * the result, so that the function is not evaluated again for each FlowFile. Otherwise, or if the function cannot
+     * be evaluated until it is applied to a FlowFile, returns the given function.
+     */
+    private static Evaluator<?> foldConstant(final Evaluator<?> function, final Evaluator<?> subjectEvaluator, final List<Evaluator<?>> argEvaluators) {
+        if (subjectEvaluator != null && !isConstant(subjectEvaluator)) {
+            return function;
+        }
+        for (final Evaluator<?> argEvaluator : argEvaluators) {
+            if (!isConstant(argEvaluator)) {
+                return function;
+            }
+        }
+
+        final Object value;
+        try {
+            value = function.evaluate(null).getValue();
+        } catch (final Exception e) {
+            // leave it to the evaluation to report the failure
+            return function;
+        }
+
+        final Evaluator<?> literal;
+        switch (function.getResultType()) {
+            case STRING:
+                literal = StringLiteralEvaluator.forEvaluatedValue((String) value);
+                break;
+            case NUMBER:
+                if (value == null) {
+                    return function;
+                }
+                literal = new NumberLiteralEvaluator(String.valueOf(value));
+                break;
+            case BOOLEAN:
+                if (value == null) {
+                    return function;
+                }
+                literal = new BooleanLiteralEvaluator((Boolean) value);
+                break;
+            default:
+                return function;
+        }
+
+        return addToken(literal, function.getToken());
+    }
+
+    private static boolean isConstant(final Evaluator<?> evaluator) {
+        return evaluator instanceof StringLiteralEvaluator || evaluator instanceof NumberLiteralEvaluator || evaluator instanceof BooleanLiteralEvaluator;
+    }
+
+    /**
+     * @return <code>true</code> if the children of the given tree, up to and including the child at the given index,
+     *         produce the same result each time that they are evaluated against the same FlowFile
+     */
+    private static boolean isDeterministic(final Tree tree, final int lastChildIndex) {
+        for (int i = 0; i <= lastChildIndex; i++) {
+            if (!isDeterministic(tree.getChild(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDeterministic(final Tree tree) {
+        switch (tree.getType()) {
+            case NOW:
+            case RANDOM:
+            case NEXT_INT:
+            case UUID:
+            case IP:
+            case HOSTNAME:
+                return false;
+            case STRING_LITERAL:
+                return isDeterministic(tree.getText());
+            case ATTR_NAME:
+                return isDeterministic(tree.getChild(0).getText());
+        }
+
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (!isDeterministic(tree.getChild(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDeterministic(final String literalValue) {
+        if (literalValue == null || literalValue.length() < 2) {
+            return true;
+        }
+
+        for (final Range range : extractExpressionRanges(literalValue)) {
+            if (!isDeterministic(compileTree(literalValue.substring(range.getStart(), range.getEnd() + 1)))) {
+                return false;
+            }
         }
-        return buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+        return true;
     }
 
     private static List<Evaluator<?>> verifyArgCount(final List<Evaluator<?>> args, final int count, final String functionName) {
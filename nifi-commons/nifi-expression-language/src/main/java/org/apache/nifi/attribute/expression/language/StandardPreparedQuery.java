@@ -17,23 +17,57 @@
 package org.apache.nifi.attribute.expression.language;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.expression.AttributeValueDecorator;
+import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.registry.VariableRegistry;
 
 import org.antlr.runtime.tree.Tree;
 
+/**
+ * A PreparedQuery whose Evaluators are built once, when the query is prepared, and then shared by all evaluations of
+ * the query. Expressions whose Evaluators keep track of state while being evaluated (see
+ * {@link Query#buildReusableEvaluator(Tree, SubexpressionCache)}) are still built anew for each evaluation.
+ *
+ * When the query is evaluated against a batch of FlowFiles, an Expression whose result depends only on the values of
+ * the attributes that it names (see {@link Query#getReferencedAttributeNames(Tree)}) is evaluated once for each distinct
+ * combination of those values in the batch, rather than once for each FlowFile.
+ */
 public class StandardPreparedQuery implements PreparedQuery {
 
     private final List<String> queryStrings;
     private final Map<String, Tree> trees;
+    private final Map<String, Evaluator<?>> evaluators;
+    private final Map<String, String[]> referencedAttributeNames;
 
     public StandardPreparedQuery(final List<String> queryStrings, final Map<String, Tree> trees) {
+        this(queryStrings, trees, null);
+    }
+
+    public StandardPreparedQuery(final List<String> queryStrings, final Map<String, Tree> trees, final SubexpressionCache subexpressions) {
         this.queryStrings = new ArrayList<>(queryStrings);
         this.trees = new HashMap<>(trees);
+
+        this.evaluators = new HashMap<>();
+        this.referencedAttributeNames = new HashMap<>();
+        for (final Map.Entry<String, Tree> entry : trees.entrySet()) {
+            final Evaluator<?> evaluator = Query.buildReusableEvaluator(entry.getValue(), subexpressions);
+            if (evaluator != null) {
+                evaluators.put(entry.getKey(), evaluator);
+
+                final Set<String> attributeNames = Query.getReferencedAttributeNames(entry.getValue());
+                if (attributeNames != null) {
+                    referencedAttributeNames.put(entry.getKey(), attributeNames.toArray(new String[attributeNames.size()]));
+                }
+            }
+        }
     }
 
 
@@ -45,7 +79,14 @@ public class StandardPreparedQuery implements PreparedQuery {
             if (tree == null) {
                 sb.append(val);
             } else {
-                final String evaluated = Query.evaluateExpression(tree, val, valueMap, decorator);
+                final Evaluator<?> evaluator = evaluators.get(val);
+                final String evaluated;
+                if (evaluator == null) {
+                    evaluated = Query.evaluateExpression(tree, val, valueMap, decorator);
+                } else {
+                    evaluated = Query.evaluateExpression(evaluator, valueMap, decorator);
+                }
+
                 if (evaluated != null) {
                     sb.append(evaluated);
                 }
@@ -54,4 +95,67 @@ public class StandardPreparedQuery implements PreparedQuery {
         return sb.toString();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> evaluateExpressions(final List<FlowFile> flowFiles, final Map<String, String> additionalAttributes, final VariableRegistry registry,
+        final AttributeValueDecorator decorator) throws ProcessException {
+        final int count = flowFiles.size();
+        final ValueLookup[] lookups = new ValueLookup[count];
+        for (int i = 0; i < count; i++) {
+            lookups[i] = new ValueLookup(registry, flowFiles.get(i), additionalAttributes);
+        }
+
+        // Each part of the query is evaluated against every FlowFile before moving on to the next part, so that an
+        // Expression's results for the whole batch can be shared between FlowFiles.
+        final StringBuilder[] builders = new StringBuilder[count];
+        for (int i = 0; i < count; i++) {
+            builders[i] = new StringBuilder();
+        }
+
+        for (final String val : queryStrings) {
+            final Tree tree = trees.get(val);
+            if (tree == null) {
+                for (final StringBuilder sb : builders) {
+                    sb.append(val);
+                }
+                continue;
+            }
+
+            final Evaluator<?> evaluator = evaluators.get(val);
+            final String[] attributeNames = referencedAttributeNames.get(val);
+            final Map<List<String>, String> results = attributeNames == null ? null : new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                final String evaluated;
+                if (evaluator == null) {
+                    evaluated = Query.evaluateExpression(tree, val, lookups[i], decorator);
+                } else if (results == null) {
+                    evaluated = Query.evaluateExpression(evaluator, lookups[i], decorator);
+                } else {
+                    final String[] values = new String[attributeNames.length];
+                    for (int j = 0; j < attributeNames.length; j++) {
+                        values[j] = lookups[i].get(attributeNames[j]);
+                    }
+
+                    final List<String> key = Arrays.asList(values);
+                    if (results.containsKey(key)) {
+                        evaluated = results.get(key);
+                    } else {
+                        evaluated = Query.evaluateExpression(evaluator, lookups[i], decorator);
+                        results.put(key, evaluated);
+                    }
+                }
+
+                if (evaluated != null) {
+                    builders[i].append(evaluated);
+                }
+            }
+        }
+
+        final List<String> evaluated = new ArrayList<>(count);
+        for (final StringBuilder sb : builders) {
+            evaluated.add(sb.toString());
+        }
+        return evaluated;
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.nifi.attribute.expression.language.evaluation.BooleanEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.NumberEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
+import org.apache.nifi.attribute.expression.language.evaluation.StringEvaluator;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.registry.VariableRegistry;
+
+/**
+ * <p>
+ * Shares the evaluation of identical subexpressions among all of the Prepared Queries that are prepared with the same
+ * cache, typically all of the property values of a single component. For example, if several properties of a
+ * processor reference <code>${filename:toLower()}</code>, that subexpression is evaluated only once for a given
+ * FlowFile, no matter how many of the properties are evaluated against it.
+ * </p>
+ *
+ * <p>
+ * Only subexpressions that apply at least one function to their subject and whose result depends on nothing but the
+ * FlowFile and the Variable Registry are shared. The result of each shared subexpression is remembered, per thread,
+ * for the last FlowFile that it was evaluated against. Because a FlowFile is immutable, a FlowFile object always has
+ * the same attributes. Evaluations that supply additional attributes beyond those of the FlowFile are never served
+ * from the cache.
+ * </p>
+ */
+public class SubexpressionCache {
+
+    private final ConcurrentMap<String, Evaluator<?>> evaluators = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared Evaluator for the subexpression with the given key, registering the given Evaluator if no
+     * subexpression with the key has been registered yet.
+     *
+     * @param key a canonical representation of the subexpression
+     * @param evaluator the Evaluator for the subexpression
+     * @return the Evaluator to use for the subexpression
+     */
+    Evaluator<?> share(final String key, final Evaluator<?> evaluator) {
+        final Evaluator<?> existing = evaluators.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Evaluator<?> shared;
+        switch (evaluator.getResultType()) {
+            case STRING:
+                shared = new SharedStringEvaluator(new LastResult<>(evaluator));
+                break;
+            case NUMBER:
+                shared = new SharedNumberEvaluator(new LastResult<>(evaluator));
+                break;
+            case BOOLEAN:
+                shared = new SharedBooleanEvaluator(new LastResult<>(evaluator));
+                break;
+            default:
+                return evaluator;
+        }
+
+        final Evaluator<?> raced = evaluators.putIfAbsent(key, shared);
+        return raced == null ? shared : raced;
+    }
+
+    /**
+     * @return the number of distinct subexpressions that are shared
+     */
+    public int size() {
+        return evaluators.size();
+    }
+
+    private static class LastResult<T> {
+        private final Evaluator<T> delegate;
+        private final ThreadLocal<Evaluation<T>> lastEvaluation = new ThreadLocal<Evaluation<T>>() {
+            @Override
+            protected Evaluation<T> initialValue() {
+                return new Evaluation<>();
+            }
+        };
+
+        @SuppressWarnings("unchecked")
+        LastResult(final Evaluator<?> delegate) {
+            this.delegate = (Evaluator<T>) delegate;
+        }
+
+        QueryResult<T> evaluate(final Map<String, String> attributes) {
+            if (!(attributes instanceof ValueLookup)) {
+                return delegate.evaluate(attributes);
+            }
+
+            final ValueLookup lookup = (ValueLookup) attributes;
+            if (lookup.flowFile == null || !lookup.maps.isEmpty()) {
+                return delegate.evaluate(attributes);
+            }
+
+            final Evaluation<T> last = lastEvaluation.get();
+            if (last.flowFile == lookup.flowFile && last.registry == lookup.registry) {
+                return last.result;
+            }
+
+            final QueryResult<T> result = delegate.evaluate(attributes);
+            last.flowFile = lookup.flowFile;
+            last.registry = lookup.registry;
+            last.result = result;
+            return result;
+        }
+    }
+
+    private static class Evaluation<T> {
+        private FlowFile flowFile;
+        private VariableRegistry registry;
+        private QueryResult<T> result;
+    }
+
+    private static class SharedStringEvaluator extends StringEvaluator {
+        private final LastResult<String> lastResult;
+
+        SharedStringEvaluator(final LastResult<String> lastResult) {
+            this.lastResult = lastResult;
+            setToken(lastResult.delegate.getToken());
+        }
+
+        @Override
+        public QueryResult<String> evaluate(final Map<String, String> attributes) {
+            return lastResult.evaluate(attributes);
+        }
+
+        @Override
+        public Evaluator<?> getSubjectEvaluator() {
+            return lastResult.delegate.getSubjectEvaluator();
+        }
+    }
+
+    private static class SharedNumberEvaluator extends NumberEvaluator {
+        private final LastResult<Long> lastResult;
+
+        SharedNumberEvaluator(final LastResult<Long> lastResult) {
+            this.lastResult = lastResult;
+            setToken(lastResult.delegate.getToken());
+        }
+
+        @Override
+        public QueryResult<Long> evaluate(final Map<String, String> attributes) {
+            return lastResult.evaluate(attributes);
+        }
+
+        @Override
+        public Evaluator<?> getSubjectEvaluator() {
+            return lastResult.delegate.getSubjectEvaluator();
+        }
+    }
+
+    private static class SharedBooleanEvaluator extends BooleanEvaluator {
+        private final LastResult<Boolean> lastResult;
+
+        SharedBooleanEvaluator(final LastResult<Boolean> lastResult) {
+            this.lastResult = lastResult;
+            setToken(lastResult.delegate.getToken());
+        }
+
+        @Override
+        public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
+            return lastResult.evaluate(attributes);
+        }
+
+        @Override
+        public Evaluator<?> getSubjectEvaluator() {
+            return lastResult.delegate.getSubjectEvaluator();
+        }
+    }
+}
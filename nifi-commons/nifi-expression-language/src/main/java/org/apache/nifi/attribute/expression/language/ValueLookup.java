@@ -32,10 +32,23 @@ import org.apache.nifi.registry.VariableRegistry;
  * A convenience class to encapsulate the logic of variable substitution
  * based first on any additional variable maps, then flow file properties,
  * then flow file attributes, and finally the provided variable registry.
+ *
+ * Values are read directly from the maps, the FlowFile and the registry as
+ * they are requested; nothing is copied when the lookup is created, so that
+ * evaluating an Expression against a FlowFile does not require building a
+ * new map of the FlowFile's properties and attributes.
  */
 final class ValueLookup implements Map<String, String> {
 
-    final List<Map<String, String>> maps = new ArrayList<>();
+    private static final String FLOWFILE_ID = "flowFileId";
+    private static final String FILE_SIZE = "fileSize";
+    private static final String ENTRY_DATE = "entryDate";
+    private static final String LINEAGE_START_DATE = "lineageStartDate";
+    private static final String LAST_QUEUE_DATE = "lastQueueDate";
+    private static final String QUEUE_DATE_INDEX = "queueDateIndex";
+
+    final List<Map<String, String>> maps;
+    final FlowFile flowFile;
     final VariableRegistry registry;
 
     /**
@@ -50,30 +63,56 @@ final class ValueLookup implements Map<String, String> {
      * @param additionalMaps the maps to pull values from; may be null or empty
      */
     ValueLookup(final VariableRegistry registry, final FlowFile flowFile, final Map<String, String>... additionalMaps) {
-        for (final Map<String, String> map : additionalMaps) {
-            if (map != null && !map.isEmpty()) {
-                maps.add(map);
+        List<Map<String, String>> nonEmptyMaps = null;
+        if (additionalMaps != null) {
+            for (final Map<String, String> map : additionalMaps) {
+                if (map != null && !map.isEmpty()) {
+                    if (nonEmptyMaps == null) {
+                        nonEmptyMaps = new ArrayList<>(additionalMaps.length);
+                    }
+                    nonEmptyMaps.add(map);
+                }
             }
         }
-        if (flowFile != null) {
-            maps.add(ValueLookup.extractFlowFileProperties(flowFile));
-            maps.add(flowFile.getAttributes());
-        }
 
+        this.maps = nonEmptyMaps == null ? Collections.emptyList() : nonEmptyMaps;
+        this.flowFile = flowFile;
         this.registry = registry == null ? VariableRegistry.EMPTY_REGISTRY : registry;
     }
 
     static final Map<String, String> extractFlowFileProperties(final FlowFile flowFile) {
         final Map<String, String> flowFileProps = new HashMap<>();
-        flowFileProps.put("flowFileId", String.valueOf(flowFile.getId()));
-        flowFileProps.put("fileSize", String.valueOf(flowFile.getSize()));
-        flowFileProps.put("entryDate", String.valueOf(flowFile.getEntryDate()));
-        flowFileProps.put("lineageStartDate", String.valueOf(flowFile.getLineageStartDate()));
-        flowFileProps.put("lastQueueDate", String.valueOf(flowFile.getLastQueueDate()));
-        flowFileProps.put("queueDateIndex", String.valueOf(flowFile.getQueueDateIndex()));
+        flowFileProps.put(FLOWFILE_ID, String.valueOf(flowFile.getId()));
+        flowFileProps.put(FILE_SIZE, String.valueOf(flowFile.getSize()));
+        flowFileProps.put(ENTRY_DATE, String.valueOf(flowFile.getEntryDate()));
+        flowFileProps.put(LINEAGE_START_DATE, String.valueOf(flowFile.getLineageStartDate()));
+        flowFileProps.put(LAST_QUEUE_DATE, String.valueOf(flowFile.getLastQueueDate()));
+        flowFileProps.put(QUEUE_DATE_INDEX, String.valueOf(flowFile.getQueueDateIndex()));
         return flowFileProps;
     }
 
+    /**
+     * @return the value of the FlowFile property with the given name, or <code>null</code> if the name does not refer to a FlowFile property
+     */
+    private static String getFlowFileProperty(final FlowFile flowFile, final String name) {
+        switch (name) {
+            case FLOWFILE_ID:
+                return String.valueOf(flowFile.getId());
+            case FILE_SIZE:
+                return String.valueOf(flowFile.getSize());
+            case ENTRY_DATE:
+                return String.valueOf(flowFile.getEntryDate());
+            case LINEAGE_START_DATE:
+                return String.valueOf(flowFile.getLineageStartDate());
+            case LAST_QUEUE_DATE:
+                return String.valueOf(flowFile.getLastQueueDate());
+            case QUEUE_DATE_INDEX:
+                return String.valueOf(flowFile.getQueueDateIndex());
+            default:
+                return null;
+        }
+    }
+
     @Override
     public int size() {
         return keySet().size();
@@ -81,6 +120,9 @@ final class ValueLookup implements Map<String, String> {
 
     @Override
     public boolean isEmpty() {
+        if (flowFile != null) {
+            return false;
+        }
         for (final Map<String, String> map : maps) {
             if (!map.isEmpty()) {
                 return false;
@@ -94,10 +136,7 @@ final class ValueLookup implements Map<String, String> {
         if (key == null) {
             return false;
         }
-        if (maps.stream().anyMatch((map) -> (map.containsKey(key)))) {
-            return true;
-        }
-        return registry.getVariableKey(key.toString()) != null;
+        return get(key) != null || registry.getVariableKey(key.toString()) != null;
     }
 
     @Override
@@ -116,13 +155,27 @@ final class ValueLookup implements Map<String, String> {
             return null;
         }
 
+        final String name = key.toString();
         for (final Map<String, String> map : maps) {
-            final String val = map.get(key.toString());
+            final String val = map.get(name);
             if (val != null) {
                 return val;
             }
         }
-        return registry.getVariableValue(key.toString());
+
+        if (flowFile != null) {
+            final String property = getFlowFileProperty(flowFile, name);
+            if (property != null) {
+                return property;
+            }
+
+            final String attribute = flowFile.getAttribute(name);
+            if (attribute != null) {
+                return attribute;
+            }
+        }
+
+        return registry.getVariableValue(name);
     }
 
     @Override
@@ -172,6 +225,10 @@ final class ValueLookup implements Map<String, String> {
         }
         //put attribute maps in reverse order
         final List<Map<String,String>> listOfMaps = new ArrayList<>(maps);
+        if (flowFile != null) {
+            listOfMaps.add(extractFlowFileProperties(flowFile));
+            listOfMaps.add(flowFile.getAttributes());
+        }
         Collections.reverse(listOfMaps);
         for(final Map<String,String> map : listOfMaps){
             for(final Map.Entry<String, String> entry : map.entrySet()){
@@ -20,12 +20,29 @@ import org.apache.nifi.expression.AttributeExpression.ResultType;
 
 public class BooleanQueryResult implements QueryResult<Boolean> {
 
+    private static final BooleanQueryResult TRUE = new BooleanQueryResult(Boolean.TRUE);
+    private static final BooleanQueryResult FALSE = new BooleanQueryResult(Boolean.FALSE);
+    private static final BooleanQueryResult NULL = new BooleanQueryResult(null);
+
     private final Boolean value;
 
     public BooleanQueryResult(final Boolean value) {
         this.value = value;
     }
 
+    /**
+     * Returns a shared, immutable result for the given value so that evaluating a boolean function does not create a new result object
+     *
+     * @param value the value of the result
+     * @return a result for the given value
+     */
+    public static BooleanQueryResult valueOf(final Boolean value) {
+        if (value == null) {
+            return NULL;
+        }
+        return value ? TRUE : FALSE;
+    }
+
     @Override
     public Boolean getValue() {
         return value;
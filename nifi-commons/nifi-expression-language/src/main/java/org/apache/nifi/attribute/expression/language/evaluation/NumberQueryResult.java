@@ -20,12 +20,43 @@ import org.apache.nifi.expression.AttributeExpression.ResultType;
 
 public class NumberQueryResult implements QueryResult<Long> {
 
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final NumberQueryResult NULL = new NumberQueryResult(null);
+    private static final NumberQueryResult[] CACHE = new NumberQueryResult[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NumberQueryResult(Long.valueOf(i + CACHE_LOW));
+        }
+    }
+
     private final Long value;
 
     public NumberQueryResult(final Long value) {
         this.value = value;
     }
 
+    /**
+     * Returns a result for the given value. Results for small values, such as lengths, indices and counts, are shared
+     * so that evaluating these functions does not create a new result object.
+     *
+     * @param value the value of the result
+     * @return a result for the given value
+     */
+    public static NumberQueryResult valueOf(final Long value) {
+        if (value == null) {
+            return NULL;
+        }
+
+        final long longValue = value.longValue();
+        if (longValue >= CACHE_LOW && longValue <= CACHE_HIGH) {
+            return CACHE[(int) longValue - CACHE_LOW];
+        }
+
+        return new NumberQueryResult(value);
+    }
+
     @Override
     public Long getValue() {
         return value;
@@ -36,10 +36,10 @@ public class BooleanCastEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final QueryResult<String> result = subjectEvaluator.evaluate(attributes);
         if (result.getValue() == null) {
-            return new BooleanQueryResult(null);
+            return BooleanQueryResult.valueOf(null);
         }
 
-        return new BooleanQueryResult(Boolean.valueOf(result.getValue().trim()));
+        return BooleanQueryResult.valueOf(Boolean.valueOf(result.getValue().trim()));
     }
 
     @Override
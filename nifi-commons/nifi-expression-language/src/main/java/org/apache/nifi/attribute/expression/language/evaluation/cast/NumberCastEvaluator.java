@@ -44,7 +44,7 @@ public class NumberCastEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final QueryResult<?> result = subjectEvaluator.evaluate(attributes);
         if (result.getValue() == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         switch (result.getResultType()) {
@@ -53,14 +53,14 @@ public class NumberCastEvaluator extends NumberEvaluator {
             case STRING:
                 final String trimmed = ((StringQueryResult) result).getValue().trim();
                 if (NUMBER_PATTERN.matcher(trimmed).matches()) {
-                    return new NumberQueryResult(Long.valueOf(trimmed));
+                    return NumberQueryResult.valueOf(Long.valueOf(trimmed));
                 } else {
-                    return new NumberQueryResult(null);
+                    return NumberQueryResult.valueOf(null);
                 }
             case DATE:
-                return new NumberQueryResult(((DateQueryResult) result).getValue().getTime());
+                return NumberQueryResult.valueOf(((DateQueryResult) result).getValue().getTime());
             default:
-                return new NumberQueryResult(null);
+                return NumberQueryResult.valueOf(null);
         }
     }
 
@@ -37,19 +37,19 @@ public class AndEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final QueryResult<Boolean> subjectValue = subjectEvaluator.evaluate(attributes);
         if (subjectValue == null) {
-            return new BooleanQueryResult(null);
+            return BooleanQueryResult.valueOf(null);
         }
 
         if (Boolean.FALSE.equals(subjectValue.getValue())) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         final QueryResult<Boolean> rhsValue = rhsEvaluator.evaluate(attributes);
         if (rhsValue == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
-        return new BooleanQueryResult(rhsValue.getValue());
+        return BooleanQueryResult.valueOf(rhsValue.getValue());
     }
 
     @Override
@@ -37,10 +37,10 @@ public class DateToNumberEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final QueryResult<Date> subjectResult = subjectEvaluator.evaluate(attributes);
         if (subjectResult.getValue() == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
-        return new NumberQueryResult(subjectResult.getValue().getTime());
+        return NumberQueryResult.valueOf(subjectResult.getValue().getTime());
     }
 
     @Override
@@ -37,16 +37,16 @@ public class DivideEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final Long divide = divideValue.evaluate(attributes).getValue();
         if (divide == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final long result = subjectValue / divide;
-        return new NumberQueryResult(result);
+        return NumberQueryResult.valueOf(result);
     }
 
     @Override
@@ -37,11 +37,11 @@ public class EndsWithEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final String subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         final String searchString = search.evaluate(attributes).getValue();
-        return new BooleanQueryResult(searchString == null ? false : subjectValue.endsWith(searchString));
+        return BooleanQueryResult.valueOf(searchString == null ? false : subjectValue.endsWith(searchString));
     }
 
     @Override
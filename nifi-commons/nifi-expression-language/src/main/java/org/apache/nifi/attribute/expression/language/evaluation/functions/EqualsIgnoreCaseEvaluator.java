@@ -37,19 +37,19 @@ public class EqualsIgnoreCaseEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final Object a = subject.evaluate(attributes).getValue();
         if (a == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         final Object b = compareTo.evaluate(attributes).getValue();
         if (b == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         if (a instanceof String && b instanceof String) {
-            return new BooleanQueryResult(((String) a).equalsIgnoreCase((String) b));
+            return BooleanQueryResult.valueOf(((String) a).equalsIgnoreCase((String) b));
         }
 
-        return new BooleanQueryResult(a.equals(b));
+        return BooleanQueryResult.valueOf(a.equals(b));
     }
 
     @Override
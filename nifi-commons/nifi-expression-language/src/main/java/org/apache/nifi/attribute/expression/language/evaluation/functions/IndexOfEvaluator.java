@@ -37,11 +37,11 @@ public class IndexOfEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final String subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(-1L);
+            return NumberQueryResult.valueOf(-1L);
         }
         final String indexEvalValue = indexEvaluator.evaluate(attributes).getValue();
 
-        return new NumberQueryResult((long) subjectValue.indexOf(indexEvalValue));
+        return NumberQueryResult.valueOf((long) subjectValue.indexOf(indexEvalValue));
     }
 
     @Override
@@ -34,7 +34,7 @@ public class IsEmptyEvaluator extends BooleanEvaluator {
     @Override
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final Object subjectValue = subjectEvaluator.evaluate(attributes).getValue();
-        return new BooleanQueryResult(subjectValue == null || subjectValue.toString().trim().isEmpty());
+        return BooleanQueryResult.valueOf(subjectValue == null || subjectValue.toString().trim().isEmpty());
     }
 
     @Override
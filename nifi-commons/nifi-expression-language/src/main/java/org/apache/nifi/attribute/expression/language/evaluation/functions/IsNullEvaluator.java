@@ -34,7 +34,7 @@ public class IsNullEvaluator extends BooleanEvaluator {
     @Override
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final Object subjectValue = subject.evaluate(attributes).getValue();
-        return new BooleanQueryResult(subjectValue == null);
+        return BooleanQueryResult.valueOf(subjectValue == null);
     }
 
     @Override
@@ -34,7 +34,7 @@ public class LengthEvaluator extends NumberEvaluator {
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final String subjectValue = subject.evaluate(attributes).getValue();
-        return new NumberQueryResult((long) (subjectValue == null ? 0 : subjectValue.length()));
+        return NumberQueryResult.valueOf((long) (subjectValue == null ? 0 : subjectValue.length()));
     }
 
     @Override
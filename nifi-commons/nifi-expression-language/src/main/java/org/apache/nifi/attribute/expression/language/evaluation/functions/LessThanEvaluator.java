@@ -37,15 +37,15 @@ public class LessThanEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         final Long comparisonValue = comparison.evaluate(attributes).getValue();
         if (comparisonValue == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
-        return new BooleanQueryResult(subjectValue < comparisonValue);
+        return BooleanQueryResult.valueOf(subjectValue < comparisonValue);
     }
 
     @Override
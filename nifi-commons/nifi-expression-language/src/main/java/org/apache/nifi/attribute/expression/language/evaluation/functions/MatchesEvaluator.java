@@ -37,7 +37,7 @@ public class MatchesEvaluator extends BooleanEvaluator {
         this.search = search;
 
         // if the search string is a literal, we don't need to evaluate it each time; we can just
-        // pre-compile it. Otherwise, it must be compiled every time.
+        // pre-compile it. Otherwise, it is looked up in the cache of compiled patterns each time.
         if (search instanceof StringLiteralEvaluator) {
             this.compiledPattern = Pattern.compile(search.evaluate(null).getValue());
         } else {
@@ -49,17 +49,17 @@ public class MatchesEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final String subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
         final Pattern pattern;
         if (compiledPattern == null) {
-            pattern = Pattern.compile(search.evaluate(attributes).getValue());
+            pattern = PatternCache.getPattern(search.evaluate(attributes).getValue());
         } else {
             pattern = compiledPattern;
         }
 
         final boolean matches = pattern.matcher(subjectValue).matches();
-        return new BooleanQueryResult(matches);
+        return BooleanQueryResult.valueOf(matches);
     }
 
     @Override
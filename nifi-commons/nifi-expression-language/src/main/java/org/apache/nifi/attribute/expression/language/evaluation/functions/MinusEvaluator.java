@@ -37,16 +37,16 @@ public class MinusEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final Long minus = minusValue.evaluate(attributes).getValue();
         if (minus == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final long result = subjectValue - minus;
-        return new NumberQueryResult(result);
+        return NumberQueryResult.valueOf(result);
     }
 
     @Override
@@ -37,16 +37,16 @@ public class ModEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final Long mod = modValue.evaluate(attributes).getValue();
         if (mod == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final long result = subjectValue % mod;
-        return new NumberQueryResult(result);
+        return NumberQueryResult.valueOf(result);
     }
 
     @Override
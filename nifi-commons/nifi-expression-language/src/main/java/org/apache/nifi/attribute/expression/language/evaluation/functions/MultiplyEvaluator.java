@@ -37,16 +37,16 @@ public class MultiplyEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final Long multiply = multiplyValue.evaluate(attributes).getValue();
         if (multiply == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final long result = subjectValue * multiply;
-        return new NumberQueryResult(result);
+        return NumberQueryResult.valueOf(result);
     }
 
     @Override
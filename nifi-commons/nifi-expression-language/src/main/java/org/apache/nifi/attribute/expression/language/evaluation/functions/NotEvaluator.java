@@ -35,10 +35,10 @@ public class NotEvaluator extends BooleanEvaluator {
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
         final QueryResult<Boolean> subjectValue = subjectEvaluator.evaluate(attributes);
         if (subjectValue == null) {
-            return new BooleanQueryResult(null);
+            return BooleanQueryResult.valueOf(null);
         }
 
-        return new BooleanQueryResult(!subjectValue.getValue());
+        return BooleanQueryResult.valueOf(!subjectValue.getValue());
     }
 
     @Override
@@ -30,7 +30,7 @@ public class OneUpSequenceEvaluator extends NumberEvaluator {
 
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        return new NumberQueryResult(value.getAndIncrement());
+        return NumberQueryResult.valueOf(value.getAndIncrement());
     }
 
     @Override
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.evaluation.functions;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * A cache of compiled regular expressions for functions whose pattern is itself the result of an Expression and
+ * therefore cannot be compiled when the Expression is compiled. Such patterns typically take only a handful of
+ * distinct values, so compiling each of them once avoids compiling a Pattern for every evaluation. The cache is
+ * bounded; once it is full, it is cleared rather than growing without limit.
+ */
+final class PatternCache {
+
+    private static final int MAX_SIZE = 1000;
+    private static final ConcurrentMap<String, Pattern> patterns = new ConcurrentHashMap<>();
+
+    private PatternCache() {
+    }
+
+    static Pattern getPattern(final String regex) {
+        Pattern pattern = patterns.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            if (patterns.size() >= MAX_SIZE) {
+                patterns.clear();
+            }
+            patterns.putIfAbsent(regex, pattern);
+        }
+
+        return pattern;
+    }
+}
@@ -37,16 +37,16 @@ public class PlusEvaluator extends NumberEvaluator {
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final Long subjectValue = subject.evaluate(attributes).getValue();
         if (subjectValue == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final Long plus = plusValue.evaluate(attributes).getValue();
         if (plus == null) {
-            return new NumberQueryResult(null);
+            return NumberQueryResult.valueOf(null);
         }
 
         final long result = subjectValue + plus;
-        return new NumberQueryResult(result);
+        return NumberQueryResult.valueOf(result);
     }
 
     @Override
@@ -31,7 +31,7 @@ public class RandomNumberGeneratorEvaluator extends NumberEvaluator {
 
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        return new NumberQueryResult(Math.abs(RNG.nextLong()));
+        return NumberQueryResult.valueOf(Math.abs(RNG.nextLong()));
     }
 
     @Override
@@ -34,7 +34,7 @@ public class ToNumberEvaluator extends NumberEvaluator {
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final String subjectValue = subject.evaluate(attributes).getValue();
-        return new NumberQueryResult(subjectValue == null || subjectValue.trim().isEmpty() ? null : Long.valueOf(subjectValue));
+        return NumberQueryResult.valueOf(subjectValue == null || subjectValue.trim().isEmpty() ? null : Long.valueOf(subjectValue));
     }
 
     @Override
@@ -33,7 +33,7 @@ public class BooleanLiteralEvaluator extends BooleanEvaluator {
 
     @Override
     public QueryResult<Boolean> evaluate(final Map<String, String> attributes) {
-        return new BooleanQueryResult(value);
+        return BooleanQueryResult.valueOf(value);
     }
 
     @Override
@@ -33,7 +33,7 @@ public class NumberLiteralEvaluator extends NumberEvaluator {
 
     @Override
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        return new NumberQueryResult(literal);
+        return NumberQueryResult.valueOf(literal);
     }
 
     @Override
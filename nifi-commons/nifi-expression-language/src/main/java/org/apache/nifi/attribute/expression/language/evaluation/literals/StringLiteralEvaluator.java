@@ -25,9 +25,28 @@ import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResul
 
 public class StringLiteralEvaluator extends StringEvaluator {
 
-    private final String value;
+    private final StringQueryResult result;
 
     public StringLiteralEvaluator(final String value) {
+        this(new StringQueryResult(unescape(value)));
+    }
+
+    private StringLiteralEvaluator(final StringQueryResult result) {
+        this.result = result;
+    }
+
+    /**
+     * Creates an evaluator that always returns the given value. Unlike the public constructor, backslashes in the value are
+     * not treated as escape characters, so this should be used for values that have already been evaluated.
+     *
+     * @param value the value to return
+     * @return an evaluator that returns the given value
+     */
+    public static StringLiteralEvaluator forEvaluatedValue(final String value) {
+        return new StringLiteralEvaluator(new StringQueryResult(value));
+    }
+
+    private static String unescape(final String value) {
         // need to escape characters after backslashes
         final StringBuilder sb = new StringBuilder();
         boolean lastCharIsBackslash = false;
@@ -61,12 +80,12 @@ public class StringLiteralEvaluator extends StringEvaluator {
             }
         }
 
-        this.value = sb.toString();
+        return sb.toString();
     }
 
     @Override
     public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        return new StringQueryResult(value);
+        return result;
     }
 
     @Override
@@ -37,15 +37,15 @@ public class CountEvaluator extends NumberEvaluator implements ReduceEvaluator<L
     public QueryResult<Long> evaluate(final Map<String, String> attributes) {
         final QueryResult<?> result = subjectEvaluator.evaluate(attributes);
         if (result.getValue() == null) {
-            return new NumberQueryResult(count);
+            return NumberQueryResult.valueOf(count);
         }
 
         if (result.getResultType() == ResultType.BOOLEAN && ((Boolean) result.getValue()).equals(Boolean.FALSE)) {
-            return new NumberQueryResult(count);
+            return NumberQueryResult.valueOf(count);
         }
 
         count++;
-        return new NumberQueryResult(count);
+        return NumberQueryResult.valueOf(count);
     }
 
     @Override
@@ -38,11 +38,11 @@ public class AllAttributesEvaluator extends BooleanEvaluator implements Iteratin
         QueryResult<Boolean> attributeValueQuery = booleanEvaluator.evaluate(attributes);
         Boolean result = attributeValueQuery.getValue();
         if (result == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         if (!result) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         while (multiAttributeEvaluator.getEvaluationsRemaining() > 0) {
@@ -53,7 +53,7 @@ public class AllAttributesEvaluator extends BooleanEvaluator implements Iteratin
             }
         }
 
-        return new BooleanQueryResult(true);
+        return BooleanQueryResult.valueOf(true);
     }
 
     @Override
@@ -38,11 +38,11 @@ public class AnyAttributeEvaluator extends BooleanEvaluator implements Iterating
         QueryResult<Boolean> attributeValueQuery = booleanEvaluator.evaluate(attributes);
         Boolean result = attributeValueQuery.getValue();
         if (result == null) {
-            return new BooleanQueryResult(false);
+            return BooleanQueryResult.valueOf(false);
         }
 
         if (result) {
-            return new BooleanQueryResult(true);
+            return BooleanQueryResult.valueOf(true);
         }
 
         while (multiAttributeEvaluator.getEvaluationsRemaining() > 0) {
@@ -53,7 +53,7 @@ public class AnyAttributeEvaluator extends BooleanEvaluator implements Iterating
             }
         }
 
-        return new BooleanQueryResult(false);
+        return BooleanQueryResult.valueOf(false);
     }
 
     @Override
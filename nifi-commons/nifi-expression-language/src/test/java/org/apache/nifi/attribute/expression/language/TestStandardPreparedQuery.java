@@ -17,11 +17,20 @@
 package org.apache.nifi.attribute.expression.language;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.nifi.attribute.expression.language.exception.AttributeExpressionLanguageException;
+import org.apache.nifi.expression.AttributeValueDecorator;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.registry.VariableRegistry;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -84,6 +93,261 @@ public class TestStandardPreparedQuery {
 
     }
 
+    @Test
+    public void testPreparedQueryEvaluatedMultipleTimes() {
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${xx:toUpper()}-${yy:equals('${xx}')}");
+
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", "hello");
+        attrs.put("yy", "hello");
+        assertEquals("HELLO-true", prepared.evaluateExpressions(attrs, null));
+
+        attrs.put("xx", "world");
+        assertEquals("WORLD-false", prepared.evaluateExpressions(attrs, null));
+    }
+
+    @Test
+    public void testPreparedQueryWithMultiAttributeReferenceEvaluatedMultipleTimes() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("a.a", "a");
+        attrs.put("a.b", "b");
+
+        final StandardPreparedQuery join = (StandardPreparedQuery) Query.prepare("${allAttributes('a.a', 'a.b'):join(', ')}");
+        assertEquals("a, b", join.evaluateExpressions(attrs, null));
+        assertEquals("a, b", join.evaluateExpressions(attrs, null));
+
+        final StandardPreparedQuery count = (StandardPreparedQuery) Query.prepare("${allMatchingAttributes('a.*'):count()}");
+        assertEquals("2", count.evaluateExpressions(attrs, null));
+        attrs.put("a.c", "c");
+        assertEquals("3", count.evaluateExpressions(attrs, null));
+
+        final StandardPreparedQuery embedded = (StandardPreparedQuery) Query.prepare("${literal(${allAttributes('a.a', 'a.b'):join('-')}):toUpper()}");
+        assertEquals("A-B", embedded.evaluateExpressions(attrs, null));
+        assertEquals("A-B", embedded.evaluateExpressions(attrs, null));
+    }
+
+    @Test
+    public void testPreparedQueryEvaluatedConcurrently() throws InterruptedException {
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${xx:substringAfter('-'):toNumber():plus(1)}");
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread thread = new Thread(() -> {
+                final Map<String, String> attrs = new HashMap<>();
+                for (int i = 0; i < 10000; i++) {
+                    attrs.put("xx", Thread.currentThread().getName() + "-" + i);
+                    if (!String.valueOf(i + 1).equals(prepared.evaluateExpressions(attrs, null))) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testConstantSubexpressionsFolded() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", "a.b.c");
+
+        assertEquals("HELLO", evaluate("${literal('hello'):toUpper()}", attrs));
+        assertEquals("true", evaluate("${literal(3):plus(4):equals(7)}", attrs));
+        assertEquals("a\\b", evaluate("${literal('a'):append('\\\\'):append('b')}", attrs));
+        assertEquals("a-b-c", evaluate("${xx:replaceAll(${literal('\\.')}, '-')}", attrs));
+        assertEquals("a-b.c", evaluate("${xx:replaceFirst('\\.', '-')}", attrs));
+    }
+
+    @Test
+    public void testInvalidLiteralPattern() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("xx", "abc");
+
+        assertTrue(Query.prepare("${xx:matches('[')}") instanceof InvalidPreparedQuery);
+        assertTrue(Query.prepare("${xx:find(${literal('['):trim()})}") instanceof InvalidPreparedQuery);
+
+        try {
+            Query.prepare("${xx:replaceAll(${literal('('):append('a')}, 'b')}").evaluateExpressions(attrs, null);
+            fail("Expected the invalid regular expression to be reported");
+        } catch (final AttributeExpressionLanguageException expected) {
+        }
+    }
+
+    @Test
+    public void testPatternFromSubexpression() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("regex", "a.*");
+
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${xx:matches(${regex})}:${xx:find(${regex})}");
+        attrs.put("xx", "abc");
+        assertEquals("true:true", prepared.evaluateExpressions(attrs, null));
+        attrs.put("xx", "cba");
+        assertEquals("false:true", prepared.evaluateExpressions(attrs, null));
+        attrs.put("regex", "z");
+        assertEquals("false:false", prepared.evaluateExpressions(attrs, null));
+    }
+
+    @Test
+    public void testSubexpressionsSharedAcrossQueries() {
+        final SubexpressionCache subexpressions = new SubexpressionCache();
+        final PreparedQuery first = Query.prepare("${filename:toLower():equals('abc')}", subexpressions);
+        final PreparedQuery second = Query.prepare("${filename:toLower():equals('xyz')}", subexpressions);
+        final PreparedQuery random = Query.prepare("${random():mod(10):plus(${filename:length()})}", subexpressions);
+        assertEquals(4, subexpressions.size());
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "ABC");
+        final AtomicInteger lookups = new AtomicInteger(0);
+        final FlowFile flowFile = createFlowFile(attributes, lookups);
+
+        assertEquals("true", new StandardPropertyValue("", null, first, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(flowFile).getValue());
+        assertEquals("false", new StandardPropertyValue("", null, second, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(flowFile).getValue());
+        assertEquals(1, lookups.get());
+
+        // additional attributes may hide those of the FlowFile, so results are not shared
+        final Map<String, String> additional = new HashMap<>();
+        additional.put("filename", "XYZ");
+        assertEquals("true", new StandardPropertyValue("", null, second, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(flowFile, additional).getValue());
+
+        // a different FlowFile is evaluated again
+        final Map<String, String> otherAttributes = new HashMap<>();
+        otherAttributes.put("filename", "Xyz");
+        final FlowFile otherFlowFile = createFlowFile(otherAttributes, lookups);
+        assertEquals("false", new StandardPropertyValue("", null, first, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(otherFlowFile).getValue());
+        assertEquals("true", new StandardPropertyValue("", null, second, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(otherFlowFile).getValue());
+        assertEquals(2, lookups.get());
+
+        final long value = Long.parseLong(new StandardPropertyValue("", null, random, VariableRegistry.EMPTY_REGISTRY).evaluateAttributeExpressions(flowFile).getValue());
+        assertTrue(value >= 3 && value < 13);
+    }
+
+    @Test
+    public void testEvaluateBatch() {
+        final AtomicInteger lookups = new AtomicInteger(0);
+        final List<FlowFile> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("filename", "file-" + (i % 2));
+            attributes.put("index", String.valueOf(i));
+            attributes.put("a.a", "a" + i);
+            attributes.put("a.b", "b");
+            flowFiles.add(createFlowFile(attributes, lookups));
+        }
+
+        final Map<String, String> additional = new HashMap<>();
+        additional.put("suffix", ".txt");
+
+        final String[] queries = {"no expressions", "${filename:toUpper()}${suffix}", "${index:plus(1)}-${filename}",
+            "${allAttributes('a.a', 'a.b'):join(', ')}", "${literal('x'):append(${filename})}", "${missing}"};
+        for (final String query : queries) {
+            final PreparedQuery prepared = Query.prepare(query);
+            final List<String> batch = prepared.evaluateExpressions(flowFiles, additional, VariableRegistry.EMPTY_REGISTRY, null);
+            assertEquals(flowFiles.size(), batch.size());
+
+            for (int i = 0; i < flowFiles.size(); i++) {
+                final String expected = new StandardPropertyValue(query, null, prepared, VariableRegistry.EMPTY_REGISTRY)
+                    .evaluateAttributeExpressions(flowFiles.get(i), additional).getValue();
+                assertEquals(expected, batch.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluateBatchSharesResultsForEqualAttributeValues() {
+        final AtomicInteger lookups = new AtomicInteger(0);
+        final List<FlowFile> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("filename", "file-" + (i % 2));
+            attributes.put("index", String.valueOf(i));
+            flowFiles.add(createFlowFile(attributes, lookups));
+        }
+
+        final AtomicInteger decorated = new AtomicInteger(0);
+        final AttributeValueDecorator decorator = value -> {
+            decorated.incrementAndGet();
+            return value;
+        };
+
+        final List<String> shared = Query.prepare("${filename:toUpper()}").evaluateExpressions(flowFiles, null, null, decorator);
+        assertEquals("FILE-0", shared.get(0));
+        assertEquals("FILE-1", shared.get(1));
+        assertEquals("FILE-0", shared.get(8));
+        assertEquals(2, decorated.get());
+
+        // the result of random() is not shared, even though it references no attributes
+        decorated.set(0);
+        Query.prepare("${filename}-${random()}").evaluateExpressions(flowFiles, null, null, decorator);
+        assertEquals(12, decorated.get());
+    }
+
+    private FlowFile createFlowFile(final Map<String, String> attributes, final AtomicInteger lookups) {
+        return new FlowFile() {
+            @Override
+            public long getId() {
+                return 1;
+            }
+
+            @Override
+            public long getEntryDate() {
+                return 0;
+            }
+
+            @Override
+            public long getLineageStartDate() {
+                return 0;
+            }
+
+            @Override
+            public Long getLastQueueDate() {
+                return null;
+            }
+
+            @Override
+            public boolean isPenalized() {
+                return false;
+            }
+
+            @Override
+            public String getAttribute(final String key) {
+                lookups.incrementAndGet();
+                return attributes.get(key);
+            }
+
+            @Override
+            public long getSize() {
+                return 0;
+            }
+
+            @Override
+            public long getLineageStartIndex() {
+                return 0;
+            }
+
+            @Override
+            public long getQueueDateIndex() {
+                return 0;
+            }
+
+            @Override
+            public Map<String, String> getAttributes() {
+                return attributes;
+            }
+
+            @Override
+            public int compareTo(final FlowFile o) {
+                return 0;
+            }
+        };
+    }
+
     private String evaluate(final String query, final Map<String, String> attrs) {
         final String evaluated = ((StandardPreparedQuery) Query.prepare(query)).evaluateExpressions(attrs, null);
         return evaluated;
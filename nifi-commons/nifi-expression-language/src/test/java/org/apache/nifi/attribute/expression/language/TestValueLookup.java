@@ -85,6 +85,94 @@ public class TestValueLookup {
         assertEquals("done you are now overridden", newOverriddenLookup.get("override me"));
     }
 
+    @Test
+    public void testLookupDoesNotCopyFlowFileAttributes() {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "fakefile.txt");
+        attributes.put("fileSize", "should be hidden by the FlowFile property");
+
+        final FlowFile flowFile = createFlowFile(attributes, false);
+        final ValueLookup lookup = new ValueLookup(VariableRegistry.EMPTY_REGISTRY, flowFile);
+        assertEquals("fakefile.txt", lookup.get("filename"));
+        assertEquals("50", lookup.get("fileSize"));
+        assertEquals("null", lookup.get("lastQueueDate"));
+        assertTrue(lookup.containsKey("filename"));
+        assertFalse(lookup.containsKey("missing"));
+        assertFalse(lookup.isEmpty());
+
+        final FlowFile copyingFlowFile = createFlowFile(attributes, true);
+        final Map<String, String> entries = new HashMap<>();
+        for (final Map.Entry<String, String> entry : new ValueLookup(VariableRegistry.EMPTY_REGISTRY, copyingFlowFile).entrySet()) {
+            entries.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals("fakefile.txt", entries.get("filename"));
+        assertEquals("50", entries.get("fileSize"));
+        assertEquals("1", entries.get("flowFileId"));
+    }
+
+    private FlowFile createFlowFile(final Map<String, String> attributes, final boolean allowGetAttributes) {
+        final FlowFile delegate = createFlowFile();
+        return new FlowFile() {
+            @Override
+            public long getId() {
+                return delegate.getId();
+            }
+
+            @Override
+            public long getEntryDate() {
+                return delegate.getEntryDate();
+            }
+
+            @Override
+            public long getLineageStartDate() {
+                return delegate.getLineageStartDate();
+            }
+
+            @Override
+            public Long getLastQueueDate() {
+                return delegate.getLastQueueDate();
+            }
+
+            @Override
+            public boolean isPenalized() {
+                return false;
+            }
+
+            @Override
+            public String getAttribute(String key) {
+                return attributes.get(key);
+            }
+
+            @Override
+            public long getSize() {
+                return delegate.getSize();
+            }
+
+            @Override
+            public long getLineageStartIndex() {
+                return 0;
+            }
+
+            @Override
+            public long getQueueDateIndex() {
+                return 0;
+            }
+
+            @Override
+            public Map<String, String> getAttributes() {
+                if (!allowGetAttributes) {
+                    throw new AssertionError("Attributes should be looked up individually rather than copied");
+                }
+                return attributes;
+            }
+
+            @Override
+            public int compareTo(FlowFile o) {
+                return 0;
+            }
+        };
+    }
+
     private FlowFile createFlowFile() {
         return new FlowFile() {
             @Override
@@ -68,6 +68,7 @@ public abstract class NiFiProperties {
     public static final String H2_URL_APPEND = "nifi.h2.url.append";
     public static final String REMOTE_INPUT_HOST = "nifi.remote.input.host";
     public static final String REMOTE_INPUT_PORT = "nifi.remote.input.socket.port";
+    public static final String REMOTE_INPUT_SOCKET_THREADS = "nifi.remote.input.socket.threads";
     public static final String SITE_TO_SITE_SECURE = "nifi.remote.input.secure";
     public static final String SITE_TO_SITE_HTTP_ENABLED = "nifi.remote.input.http.enabled";
     public static final String SITE_TO_SITE_HTTP_TRANSACTION_TTL = "nifi.remote.input.http.transaction.ttl";
@@ -116,6 +117,7 @@ public abstract class NiFiProperties {
     public static final String PROVENANCE_INDEXED_ATTRIBUTES = "nifi.provenance.repository.indexed.attributes";
     public static final String PROVENANCE_INDEX_SHARD_SIZE = "nifi.provenance.repository.index.shard.size";
     public static final String PROVENANCE_JOURNAL_COUNT = "nifi.provenance.repository.journal.count";
+    public static final String PROVENANCE_POLICY_PREFIX = "nifi.provenance.policy.";
 
     // component status repository properties
     public static final String COMPONENT_STATUS_REPOSITORY_IMPLEMENTATION = "nifi.components.status.repository.implementation";
@@ -160,6 +162,7 @@ public abstract class NiFiProperties {
     // cluster common properties
     public static final String CLUSTER_PROTOCOL_HEARTBEAT_INTERVAL = "nifi.cluster.protocol.heartbeat.interval";
     public static final String CLUSTER_PROTOCOL_IS_SECURE = "nifi.cluster.protocol.is.secure";
+    public static final String CLUSTER_PROTOCOL_BINARY_ENABLED = "nifi.cluster.protocol.binary.enabled";
 
     // cluster node properties
     public static final String CLUSTER_IS_NODE = "nifi.cluster.is.node";
@@ -203,6 +206,7 @@ public abstract class NiFiProperties {
     public static final String DEFAULT_LOGIN_IDENTITY_PROVIDER_CONFIGURATION_FILE = "conf/login-identity-providers.xml";
     public static final String DEFAULT_USER_CREDENTIAL_CACHE_DURATION = "24 hours";
     public static final Integer DEFAULT_REMOTE_INPUT_PORT = null;
+    public static final int DEFAULT_REMOTE_INPUT_SOCKET_THREADS = 50;
     public static final Path DEFAULT_TEMPLATE_DIRECTORY = Paths.get("conf", "templates");
     public static final int DEFAULT_WEB_THREADS = 200;
     public static final String DEFAULT_WEB_WORKING_DIR = "./work/jetty";
@@ -232,6 +236,7 @@ public abstract class NiFiProperties {
 
     // cluster common defaults
     public static final String DEFAULT_CLUSTER_PROTOCOL_HEARTBEAT_INTERVAL = "5 sec";
+    public static final boolean DEFAULT_CLUSTER_PROTOCOL_BINARY_ENABLED = false;
     public static final String DEFAULT_CLUSTER_PROTOCOL_MULTICAST_SERVICE_BROADCAST_DELAY = "500 ms";
     public static final int DEFAULT_CLUSTER_PROTOCOL_MULTICAST_SERVICE_LOCATOR_ATTEMPTS = 3;
     public static final String DEFAULT_CLUSTER_PROTOCOL_MULTICAST_SERVICE_LOCATOR_ATTEMPTS_DELAY = "1 sec";
@@ -372,6 +377,17 @@ public abstract class NiFiProperties {
         return getPropertyAsPort(REMOTE_INPUT_PORT, DEFAULT_REMOTE_INPUT_PORT);
     }
 
+    /**
+     * The number of threads that serve requests from peers connected to the
+     * RAW socket Site-to-Site port. Connections that are waiting for their
+     * peer's next request do not hold a thread.
+     *
+     * @return the number of Site-to-Site socket worker threads
+     */
+    public int getRemoteInputSocketThreads() {
+        return getIntegerProperty(REMOTE_INPUT_SOCKET_THREADS, DEFAULT_REMOTE_INPUT_SOCKET_THREADS);
+    }
+
     /**
      * @return False if property value is 'false'; True otherwise.
      */
@@ -687,6 +703,21 @@ public abstract class NiFiProperties {
         }
     }
 
+    /**
+     * Whether heartbeats, connection requests and flow transfers between
+     * nodes should be sent in the compact binary format rather than as XML.
+     * Nodes always accept both formats and answer in the format of the request.
+     *
+     * @return true if cluster protocol messages should be sent in binary
+     */
+    public boolean isClusterProtocolBinaryEnabled() {
+        final String binaryEnabled = getProperty(CLUSTER_PROTOCOL_BINARY_ENABLED);
+        if (StringUtils.isBlank(binaryEnabled)) {
+            return DEFAULT_CLUSTER_PROTOCOL_BINARY_ENABLED;
+        }
+        return Boolean.parseBoolean(binaryEnabled.trim());
+    }
+
     public String getClusterProtocolManagerToNodeApiScheme() {
         final String isSecureProperty = getProperty(CLUSTER_PROTOCOL_IS_SECURE);
         if (Boolean.valueOf(isSecureProperty)) {
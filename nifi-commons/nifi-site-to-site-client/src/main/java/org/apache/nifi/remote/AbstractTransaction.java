@@ -70,6 +70,11 @@ public abstract class AbstractTransaction implements Transaction {
         this.protocolVersion = protocolVersion;
         this.penaltyMillis = penaltyMillis;
         this.destinationId = destinationId;
+
+        // the codec may be reused from a previous Transaction with the same peer
+        if (codec != null) {
+            codec.reset();
+        }
     }
 
     protected void close() throws IOException {
@@ -270,7 +275,7 @@ public abstract class AbstractTransaction implements Transaction {
     }
 
     @Override
-    public final TransactionCompletion complete() throws IOException {
+    public TransactionCompletion complete() throws IOException {
         try {
             try {
                 if (state != TransactionState.TRANSACTION_CONFIRMED) {
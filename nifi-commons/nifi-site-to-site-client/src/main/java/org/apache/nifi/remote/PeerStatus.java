@@ -18,14 +18,22 @@ package org.apache.nifi.remote;
 
 public class PeerStatus {
 
+    public static final int MAX_HEALTH_SCORE = 100;
+
     private final PeerDescription description;
     private final int numFlowFiles;
     private final boolean queryForPeers;
+    private final int healthScore;
 
     public PeerStatus(final PeerDescription description, final int numFlowFiles, final boolean queryForPeers) {
+        this(description, numFlowFiles, queryForPeers, MAX_HEALTH_SCORE);
+    }
+
+    public PeerStatus(final PeerDescription description, final int numFlowFiles, final boolean queryForPeers, final int healthScore) {
         this.description = description;
         this.numFlowFiles = numFlowFiles;
         this.queryForPeers = queryForPeers;
+        this.healthScore = healthScore;
     }
 
     public PeerDescription getPeerDescription() {
@@ -43,10 +51,18 @@ public class PeerStatus {
         return queryForPeers;
     }
 
+    /**
+     * @return the health of the peer, from 0 to {@link #MAX_HEALTH_SCORE}, as reported by the remote instance, or
+     *         {@link #MAX_HEALTH_SCORE} if the remote instance does not report it
+     */
+    public int getHealthScore() {
+        return healthScore;
+    }
+
     @Override
     public String toString() {
         return "PeerStatus[hostname=" + description.getHostname() + ",port=" + description.getPort()
-                + ",secure=" + description.isSecure() + ",flowFileCount=" + numFlowFiles + "]";
+                + ",secure=" + description.isSecure() + ",flowFileCount=" + numFlowFiles + ",healthScore=" + healthScore + "]";
     }
 
     @Override
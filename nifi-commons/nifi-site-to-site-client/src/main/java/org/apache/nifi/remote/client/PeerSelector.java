@@ -20,6 +20,7 @@ import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.remote.Peer;
 import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.PeerStatus;
+import org.apache.nifi.remote.TransactionCompletion;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.util.PeerStatusCache;
 import org.apache.nifi.stream.io.BufferedOutputStream;
@@ -36,14 +37,17 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
@@ -60,6 +64,9 @@ public class PeerSelector {
 
     private static final long PEER_REFRESH_PERIOD = 60000L;
 
+    // the weight given to the most recent transaction when updating the average transaction duration and throughput of a peer
+    private static final double STATISTICS_WEIGHT = 0.3D;
+
     private final ReentrantLock peerRefreshLock = new ReentrantLock();
     private volatile List<PeerStatus> peerStatuses;
     private volatile Set<PeerStatus> lastFetchedQueryablePeers;
@@ -72,6 +79,7 @@ public class PeerSelector {
 
     private final PeerStatusProvider peerStatusProvider;
     private final ConcurrentMap<PeerDescription, Long> peerTimeoutExpirations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PeerDescription, TransactionStatistics> transactionStatistics = new ConcurrentHashMap<>();
 
     static class SystemTime {
         long currentTimeMillis() {
@@ -170,7 +178,12 @@ public class PeerSelector {
             final int flowFileCount = nodeInfo.getFlowFileCount();
             // don't allow any node to get more than 80% of the data
             final double percentageOfFlowFiles = Math.min(0.8D, ((double) flowFileCount / (double) totalFlowFileCount));
-            final double relativeWeighting = (direction == TransferDirection.SEND) ? (1 - percentageOfFlowFiles) : percentageOfFlowFiles;
+            double relativeWeighting = (direction == TransferDirection.SEND) ? (1 - percentageOfFlowFiles) : percentageOfFlowFiles;
+            if (direction == TransferDirection.SEND) {
+                // Send less data to unhealthy nodes. Pulling data from a node only relieves it, so the health of the node
+                // does not change how much is received from it.
+                relativeWeighting *= (double) Math.max(0, Math.min(PeerStatus.MAX_HEALTH_SCORE, nodeInfo.getHealthScore())) / PeerStatus.MAX_HEALTH_SCORE;
+            }
             final int entries = Math.max(1, (int) (numDestinations * relativeWeighting));
 
             entryCountMap.put(nodeInfo, Math.max(1, entries));
@@ -192,7 +205,7 @@ public class PeerSelector {
                     final int index = n % destinations.size();
                     PeerStatus status = destinations.get(index);
                     if (status == null) {
-                        status = new PeerStatus(nodeInfo.getPeerDescription(), nodeInfo.getFlowFileCount(), nodeInfo.isQueryForPeers());
+                        status = new PeerStatus(nodeInfo.getPeerDescription(), nodeInfo.getFlowFileCount(), nodeInfo.isQueryForPeers(), nodeInfo.getHealthScore());
                         destinations.set(index, status);
                         break;
                     } else {
@@ -242,6 +255,69 @@ public class PeerSelector {
 
     public void clear() {
         peerTimeoutExpirations.clear();
+        transactionStatistics.clear();
+    }
+
+    /**
+     * Updates the average transaction duration and throughput of the given peer with a transaction that the client has
+     * completed with it. These averages are used by {@link #getNextPeerStatus(TransferDirection)} to favor the peers that
+     * are currently serving transactions the fastest.
+     *
+     * @param peerDescription the peer that the transaction was performed with
+     * @param completion the completion of the transaction
+     */
+    public void recordTransaction(final PeerDescription peerDescription, final TransactionCompletion completion) {
+        TransactionStatistics statistics = transactionStatistics.get(peerDescription);
+        if (statistics == null) {
+            final TransactionStatistics newStatistics = new TransactionStatistics();
+            statistics = transactionStatistics.putIfAbsent(peerDescription, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+
+        statistics.add(completion.getDuration(TimeUnit.NANOSECONDS), completion.getBytesTransferred(), systemTime.currentTimeMillis());
+    }
+
+    /**
+     * @return the statistics of each of the peers that are currently known, including those that are penalized
+     */
+    public Collection<PeerStatistics> getPeerStatistics() {
+        final List<PeerStatus> peerList = peerStatuses;
+        if (peerList == null) {
+            return Collections.emptyList();
+        }
+
+        // the list of peers is weighted, so it may contain the same peer several times
+        final Map<PeerDescription, PeerStatus> distinctPeers = new LinkedHashMap<>();
+        for (final PeerStatus peerStatus : peerList) {
+            distinctPeers.putIfAbsent(peerStatus.getPeerDescription(), peerStatus);
+        }
+
+        final List<PeerStatistics> peerStatistics = new ArrayList<>(distinctPeers.size());
+        for (final PeerStatus peerStatus : distinctPeers.values()) {
+            final TransactionStatistics statistics = transactionStatistics.get(peerStatus.getPeerDescription());
+            if (statistics == null) {
+                peerStatistics.add(new PeerStatistics(peerStatus.getPeerDescription(), peerStatus.getFlowFileCount(), isPenalized(peerStatus), 0L, 0L, 0D));
+            } else {
+                peerStatistics.add(statistics.toPeerStatistics(peerStatus, isPenalized(peerStatus)));
+            }
+        }
+
+        return peerStatistics;
+    }
+
+    /**
+     * @return the average duration of the recent transactions with the given peer, or 0 if the client has not completed a
+     * transaction with the peer within the last peer refresh period, so that such a peer is tried again
+     */
+    private long getExpectedTransactionNanos(final PeerStatus peerStatus) {
+        final TransactionStatistics statistics = transactionStatistics.get(peerStatus.getPeerDescription());
+        if (statistics == null) {
+            return 0L;
+        }
+
+        return statistics.getExpectedDurationNanos(systemTime.currentTimeMillis() - PEER_REFRESH_PERIOD);
     }
 
     private boolean isPeerRefreshNeeded(final List<PeerStatus> peerList) {
@@ -251,6 +327,9 @@ public class PeerSelector {
     /**
      * Return status of a peer that will be used for the next communication.
      * The peer with less workload will be selected with higher probability.
+     * Two candidates are drawn from the list of peers, which is weighted by the number of
+     * FlowFiles that each peer reported, and the candidate whose recent transactions with
+     * this client completed faster on average is selected.
      * @param direction the amount of workload is calculated based on transaction direction,
      *                  for SEND, a peer with less flow files is preferred,
      *                  for RECEIVE, a peer with more flow files is preferred
@@ -277,6 +356,12 @@ public class PeerSelector {
 
                     this.peerStatuses = peerList;
                     peerRefreshTime = systemTime.currentTimeMillis();
+
+                    if (peerList != null) {
+                        // forget about peers that are no longer part of the remote cluster
+                        final Set<PeerDescription> descriptions = peerList.stream().map(PeerStatus::getPeerDescription).collect(Collectors.toSet());
+                        transactionStatistics.keySet().retainAll(descriptions);
+                    }
                 }
             } finally {
                 peerRefreshLock.unlock();
@@ -287,21 +372,38 @@ public class PeerSelector {
             return null;
         }
 
-        PeerStatus peerStatus;
+        PeerStatus peerStatus = null;
         for (int i = 0; i < peerList.size(); i++) {
             final long idx = peerIndex.getAndIncrement();
             final int listIndex = (int) (idx % peerList.size());
-            peerStatus = peerList.get(listIndex);
+            final PeerStatus candidate = peerList.get(listIndex);
 
-            if (isPenalized(peerStatus)) {
-                logger.debug("{} {} is penalized; will not communicate with this peer", this, peerStatus);
+            if (isPenalized(candidate)) {
+                logger.debug("{} {} is penalized; will not communicate with this peer", this, candidate);
             } else {
-                return peerStatus;
+                peerStatus = candidate;
+                break;
             }
         }
 
-        logger.debug("{} All peers appear to be penalized; returning null", this);
-        return null;
+        if (peerStatus == null) {
+            logger.debug("{} All peers appear to be penalized; returning null", this);
+            return null;
+        }
+
+        // Choose the better of two candidates, so that a peer that is slow to serve transactions gets less of the data
+        // than its reported FlowFile count alone would give it, without sending all of the data to the fastest peer.
+        final PeerStatus alternative = peerList.get(ThreadLocalRandom.current().nextInt(peerList.size()));
+        if (alternative.getPeerDescription().equals(peerStatus.getPeerDescription()) || isPenalized(alternative)) {
+            return peerStatus;
+        }
+
+        if (getExpectedTransactionNanos(alternative) < getExpectedTransactionNanos(peerStatus)) {
+            logger.debug("{} Selected {} rather than {} because its recent transactions completed faster", this, alternative, peerStatus);
+            return alternative;
+        }
+
+        return peerStatus;
     }
 
     private List<PeerStatus> createPeerStatusList(final TransferDirection direction) throws IOException {
@@ -397,4 +499,38 @@ public class PeerSelector {
         throw ioe;
     }
 
+    /**
+     * The exponentially weighted averages of the transactions that the client has completed with a single peer.
+     */
+    private static class TransactionStatistics {
+        private long transactionCount = 0L;
+        private double averageDurationNanos = 0D;
+        private double averageBytesPerSecond = 0D;
+        private long lastUpdated = 0L;
+
+        synchronized void add(final long durationNanos, final long bytesTransferred, final long timestamp) {
+            if (transactionCount == 0L) {
+                averageDurationNanos = durationNanos;
+            } else {
+                averageDurationNanos += STATISTICS_WEIGHT * (durationNanos - averageDurationNanos);
+            }
+
+            if (bytesTransferred > 0L && durationNanos > 0L) {
+                final double bytesPerSecond = bytesTransferred * (double) TimeUnit.SECONDS.toNanos(1L) / durationNanos;
+                averageBytesPerSecond = (averageBytesPerSecond == 0D) ? bytesPerSecond : averageBytesPerSecond + STATISTICS_WEIGHT * (bytesPerSecond - averageBytesPerSecond);
+            }
+
+            transactionCount++;
+            lastUpdated = timestamp;
+        }
+
+        synchronized long getExpectedDurationNanos(final long oldestTimestamp) {
+            return lastUpdated < oldestTimestamp ? 0L : (long) averageDurationNanos;
+        }
+
+        synchronized PeerStatistics toPeerStatistics(final PeerStatus peerStatus, final boolean penalized) {
+            return new PeerStatistics(peerStatus.getPeerDescription(), peerStatus.getFlowFileCount(), penalized, transactionCount,
+                (long) averageDurationNanos, averageBytesPerSecond);
+        }
+    }
 }
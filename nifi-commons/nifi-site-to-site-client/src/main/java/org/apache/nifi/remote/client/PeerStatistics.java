@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.remote.PeerDescription;
+
+/**
+ * A snapshot of what a {@link SiteToSiteClient} knows about one of the peers that it may communicate with: the number of
+ * FlowFiles that the peer last reported as queued for its ports, and the averages of the transactions that the client has
+ * completed with the peer. The averages are exponentially weighted so that recent transactions count the most.
+ */
+public class PeerStatistics {
+
+    private final PeerDescription peerDescription;
+    private final int flowFileCount;
+    private final boolean penalized;
+    private final long transactionCount;
+    private final long averageDurationNanos;
+    private final double averageBytesPerSecond;
+
+    public PeerStatistics(final PeerDescription peerDescription, final int flowFileCount, final boolean penalized, final long transactionCount,
+                          final long averageDurationNanos, final double averageBytesPerSecond) {
+        this.peerDescription = peerDescription;
+        this.flowFileCount = flowFileCount;
+        this.penalized = penalized;
+        this.transactionCount = transactionCount;
+        this.averageDurationNanos = averageDurationNanos;
+        this.averageBytesPerSecond = averageBytesPerSecond;
+    }
+
+    public PeerDescription getPeerDescription() {
+        return peerDescription;
+    }
+
+    /**
+     * @return the number of FlowFiles that the peer reported the last time that the client refreshed its list of peers
+     */
+    public int getFlowFileCount() {
+        return flowFileCount;
+    }
+
+    /**
+     * @return <code>true</code> if the client is currently not communicating with the peer because it was penalized
+     */
+    public boolean isPenalized() {
+        return penalized;
+    }
+
+    /**
+     * @return the number of transactions that the client has completed with the peer
+     */
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * @param timeUnit the unit of time in which to report the duration
+     * @return the average amount of time that a transaction with the peer took, or 0 if no transaction has completed
+     */
+    public long getAverageTransactionDuration(final TimeUnit timeUnit) {
+        return timeUnit.convert(averageDurationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the average number of bytes of FlowFile content transferred per second in the transactions with the peer
+     * that transferred any data, or 0 if there were none
+     */
+    public double getAverageBytesPerSecond() {
+        return averageBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "PeerStatistics[peer=" + peerDescription + ",flowFileCount=" + flowFileCount + ",penalized=" + penalized + ",transactions=" + transactionCount
+                + ",averageDuration=" + getAverageTransactionDuration(TimeUnit.MILLISECONDS) + " millis,averageBytesPerSecond=" + (long) averageBytesPerSecond + "]";
+    }
+}
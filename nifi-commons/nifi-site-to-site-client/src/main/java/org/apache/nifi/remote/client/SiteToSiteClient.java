@@ -40,6 +40,7 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.security.KeyStore;
 import java.security.SecureRandom;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -133,6 +134,19 @@ public interface SiteToSiteClient extends Closeable {
      */
     SiteToSiteClientConfig getConfig();
 
+    /**
+     * <p>
+     * Returns what this client knows about each of the nodes of the remote
+     * instance: the number of FlowFiles that the node last reported and the
+     * average duration and throughput of the recent Transactions that this
+     * client has completed with it. This information is used to decide which
+     * node each Transaction is created with.
+     * </p>
+     *
+     * @return the statistics of each known node of the remote instance
+     */
+    Collection<PeerStatistics> getPeerStatistics();
+
     /**
      * <p>
      * The Builder is the mechanism by which all configuration is passed to the
@@ -21,9 +21,11 @@ import org.apache.nifi.remote.Peer;
 import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.PeerStatus;
 import org.apache.nifi.remote.Transaction;
+import org.apache.nifi.remote.TransactionCompletion;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.client.AbstractSiteToSiteClient;
 import org.apache.nifi.remote.client.PeerSelector;
+import org.apache.nifi.remote.client.PeerStatistics;
 import org.apache.nifi.remote.client.PeerStatusProvider;
 import org.apache.nifi.remote.client.SiteToSiteClientConfig;
 import org.apache.nifi.remote.exception.HandshakeException;
@@ -33,6 +35,7 @@ import org.apache.nifi.remote.exception.UnknownPortException;
 import org.apache.nifi.remote.io.http.HttpCommunicationsSession;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
 import org.apache.nifi.remote.protocol.http.HttpClientTransaction;
+import org.apache.nifi.remote.util.SiteToSiteHttpConnectionPool;
 import org.apache.nifi.remote.util.SiteToSiteRestApiClient;
 import org.apache.nifi.web.api.dto.remote.PeerDTO;
 import org.slf4j.Logger;
@@ -57,6 +60,7 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
     private final ScheduledExecutorService taskExecutor;
     private final PeerSelector peerSelector;
+    private final SiteToSiteHttpConnectionPool connectionPool;
     private final Set<HttpClientTransaction> activeTransactions = Collections.synchronizedSet(new HashSet<>());
 
     public HttpClient(final SiteToSiteClientConfig config) {
@@ -65,6 +69,8 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         peerSelector = new PeerSelector(this, config.getPeerPersistenceFile());
         peerSelector.setEventReporter(config.getEventReporter());
 
+        connectionPool = new SiteToSiteHttpConnectionPool(config.getSslContext());
+
         taskExecutor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
             private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
 
@@ -84,6 +90,13 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
             }
         }, 0, 5, TimeUnit.SECONDS);
 
+        final long idleExpirationMillis = config.getIdleConnectionExpiration(TimeUnit.MILLISECONDS);
+        taskExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                connectionPool.closeIdleConnections(idleExpirationMillis, TimeUnit.MILLISECONDS);
+            }
+        }, 5, 5, TimeUnit.SECONDS);
     }
 
     @Override
@@ -105,7 +118,7 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
     @Override
     public Set<PeerStatus> fetchRemotePeerStatuses(PeerDescription peerDescription) throws IOException {
         // Each node should has the same URL structure and network reach-ability with the proxy configuration.
-        try (final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter())) {
+        try (final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter(), connectionPool)) {
             final String scheme = peerDescription.isSecure() ? "https" : "http";
             final String clusterApiUrl = apiClient.resolveBaseUrl(scheme, peerDescription.getHostname(), peerDescription.getPort());
 
@@ -120,7 +133,9 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
             // Convert the PeerDTO's to PeerStatus objects. Use 'true' for the query-peer-for-peers flag because Site-to-Site over HTTP
             // was added in NiFi 1.0.0, which means that peer-to-peer queries are always allowed.
-            return peers.stream().map(p -> new PeerStatus(new PeerDescription(p.getHostname(), p.getPort(), p.isSecure()), p.getFlowFileCount(), true))
+            // The health score is only reported by instances that track the health of their nodes.
+            return peers.stream().map(p -> new PeerStatus(new PeerDescription(p.getHostname(), p.getPort(), p.isSecure()), p.getFlowFileCount(), true,
+                    p.getHealthScore() == null ? PeerStatus.MAX_HEALTH_SCORE : p.getHealthScore()))
                     .collect(Collectors.toSet());
         }
     }
@@ -148,7 +163,7 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
                 }
             }
 
-            final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter());
+            final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter(), connectionPool);
 
             apiClient.setBaseUrl(peer.getUrl());
             apiClient.setConnectTimeoutMillis(timeoutMillis);
@@ -185,6 +200,13 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
             final HttpClientTransaction transaction = new HttpClientTransaction(transactionProtocolVersion, peer, direction,
                 config.isUseCompression(), portId, penaltyMillis, config.getEventReporter()) {
 
+                @Override
+                public TransactionCompletion complete() throws IOException {
+                    final TransactionCompletion completion = super.complete();
+                    peerSelector.recordTransaction(peer.getDescription(), completion);
+                    return completion;
+                }
+
                 @Override
                 protected void close() throws IOException {
                     try {
@@ -219,6 +241,11 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         return siteInfoProvider.isWebInterfaceSecure();
     }
 
+    @Override
+    public Collection<PeerStatistics> getPeerStatistics() {
+        return peerSelector.getPeerStatistics();
+    }
+
     @Override
     public void close() throws IOException {
         taskExecutor.shutdown();
@@ -227,5 +254,7 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         for (final HttpClientTransaction transaction : activeTransactions) {
             transaction.getCommunicant().getCommunicationsSession().interrupt();
         }
+
+        connectionPool.close();
     }
 }
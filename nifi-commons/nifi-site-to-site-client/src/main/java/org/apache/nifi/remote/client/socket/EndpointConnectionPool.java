@@ -28,6 +28,7 @@ import java.net.URI;
 import java.nio.channels.SocketChannel;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -50,8 +51,10 @@ import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.PeerStatus;
 import org.apache.nifi.remote.RemoteDestination;
 import org.apache.nifi.remote.RemoteResourceInitiator;
+import org.apache.nifi.remote.TransactionCompletion;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.client.PeerSelector;
+import org.apache.nifi.remote.client.PeerStatistics;
 import org.apache.nifi.remote.client.PeerStatusProvider;
 import org.apache.nifi.remote.client.SiteInfoProvider;
 import org.apache.nifi.remote.client.SiteToSiteClientConfig;
@@ -337,6 +340,21 @@ public class EndpointConnectionPool implements PeerStatusProvider {
         }
     }
 
+    /**
+     * Records a transaction that was completed with the given peer, so that its duration is taken into account when
+     * selecting the peer for later transactions.
+     *
+     * @param peer the peer that the transaction was completed with
+     * @param completion the completion of the transaction
+     */
+    public void recordTransaction(final Peer peer, final TransactionCompletion completion) {
+        peerSelector.recordTransaction(peer.getDescription(), completion);
+    }
+
+    public Collection<PeerStatistics> getPeerStatistics() {
+        return peerSelector.getPeerStatistics();
+    }
+
     private void cleanup(final SocketClientProtocol protocol, final Peer peer) {
         if (protocol != null && peer != null) {
             try {
@@ -22,12 +22,14 @@ import org.apache.nifi.remote.Transaction;
 import org.apache.nifi.remote.TransactionCompletion;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.client.AbstractSiteToSiteClient;
+import org.apache.nifi.remote.client.PeerStatistics;
 import org.apache.nifi.remote.client.SiteToSiteClientConfig;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -66,6 +68,11 @@ public class SocketClient extends AbstractSiteToSiteClient {
         return siteInfoProvider.isSecure();
     }
 
+    @Override
+    public Collection<PeerStatistics> getPeerStatistics() {
+        return pool.getPeerStatistics();
+    }
+
     private String getPortIdentifier(final TransferDirection direction) throws IOException {
         final String id = this.portIdentifier;
         if (id != null) {
@@ -150,7 +157,9 @@ public class SocketClient extends AbstractSiteToSiteClient {
             @Override
             public TransactionCompletion complete() throws IOException {
                 try {
-                    return transaction.complete();
+                    final TransactionCompletion completion = transaction.complete();
+                    pool.recordTransaction(connectionState.getPeer(), completion);
+                    return completion;
                 } finally {
                     final EndpointConnection state = connectionStateRef.get();
                     if (state != null) {
@@ -69,4 +69,14 @@ public interface FlowFileCodec extends VersionedRemoteResource {
      * @throws TransmissionDisabledException if a user terminates the connection
      */
     DataPacket decode(InputStream stream) throws IOException, ProtocolException, TransmissionDisabledException;
+
+    /**
+     * Discards any state that the codec has accumulated while encoding or
+     * decoding DataPackets. A codec may keep state between the DataPackets of
+     * a Transaction in order to encode them more compactly; both the sending
+     * and the receiving peer call this method at the start of every
+     * Transaction so that their state is kept in step.
+     */
+    default void reset() {
+    }
 }
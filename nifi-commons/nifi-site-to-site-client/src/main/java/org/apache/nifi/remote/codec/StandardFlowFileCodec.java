@@ -22,6 +22,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,21 +35,74 @@ import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.stream.io.StreamUtils;
 
+/**
+ * <p>
+ * The standard codec for transferring FlowFiles between peers. Two versions of the encoding are supported:
+ * </p>
+ *
+ * <ul>
+ * <li>Version 1 writes each attribute name and value, and the length of the content, as fixed-width integers followed by
+ * the UTF-8 bytes of the strings.</li>
+ * <li>Version 2 writes all lengths as variable-length integers and writes each attribute name in full only the first
+ * time that it is used in a Transaction; after that, the name is referred to by its index. Because the FlowFiles of a
+ * Transaction usually share most of their attribute names, this considerably reduces the number of bytes that must be
+ * sent for FlowFiles with many attributes and small content.</li>
+ * </ul>
+ *
+ * <p>
+ * Version 1 is used unless a different version is requested or negotiated, because some peers do not negotiate the codec
+ * version at all.
+ * </p>
+ */
 public class StandardFlowFileCodec implements FlowFileCodec {
 
     public static final int MAX_NUM_ATTRIBUTES = 25000;
 
     public static final String DEFAULT_FLOWFILE_PATH = "./";
 
+    /**
+     * The version of the codec that encodes attribute names once per Transaction
+     */
+    public static final int ATTRIBUTE_DICTIONARY_VERSION = 2;
+
+    // Limits the memory used for the names of a Transaction. Names are sent in full once the dictionary is full.
+    static final int MAX_DICTIONARY_SIZE = 10000;
+
     private final VersionNegotiator versionNegotiator;
 
+    private final Map<String, Integer> encodedNames = new HashMap<>();
+    private final List<String> decodedNames = new ArrayList<>();
+
     public StandardFlowFileCodec() {
-        versionNegotiator = new StandardVersionNegotiator(1);
+        this(1);
+    }
+
+    public StandardFlowFileCodec(final int version) {
+        versionNegotiator = new StandardVersionNegotiator(ATTRIBUTE_DICTIONARY_VERSION, 1);
+        versionNegotiator.setVersion(version);
+    }
+
+    @Override
+    public void reset() {
+        encodedNames.clear();
+        decodedNames.clear();
     }
 
     @Override
     public void encode(final DataPacket dataPacket, final OutputStream encodedOut) throws IOException {
         final DataOutputStream out = new DataOutputStream(encodedOut);
+        if (versionNegotiator.getVersion() >= ATTRIBUTE_DICTIONARY_VERSION) {
+            encodeWithDictionary(dataPacket, out);
+        } else {
+            encodeFixedWidth(dataPacket, out);
+        }
+
+        final InputStream in = dataPacket.getData();
+        StreamUtils.copy(in, encodedOut);
+        encodedOut.flush();
+    }
+
+    private void encodeFixedWidth(final DataPacket dataPacket, final DataOutputStream out) throws IOException {
 
         final Map<String, String> attributes = dataPacket.getAttributes();
         out.writeInt(attributes.size());
@@ -57,15 +112,38 @@ public class StandardFlowFileCodec implements FlowFileCodec {
         }
 
         out.writeLong(dataPacket.getSize());
+    }
 
-        final InputStream in = dataPacket.getData();
-        StreamUtils.copy(in, encodedOut);
-        encodedOut.flush();
+    private void encodeWithDictionary(final DataPacket dataPacket, final DataOutputStream out) throws IOException {
+        final Map<String, String> attributes = dataPacket.getAttributes();
+        writeVarLong(attributes.size(), out);
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            final String name = entry.getKey();
+
+            // Index 0 indicates that the name follows in full; any other value refers to a name already sent.
+            final Integer index = encodedNames.get(name);
+            if (index == null) {
+                writeVarLong(0, out);
+                writeVarString(name, out);
+                if (encodedNames.size() < MAX_DICTIONARY_SIZE) {
+                    encodedNames.put(name, encodedNames.size() + 1);
+                }
+            } else {
+                writeVarLong(index, out);
+            }
+
+            writeVarString(entry.getValue(), out);
+        }
+
+        writeVarLong(dataPacket.getSize(), out);
     }
 
     @Override
     public DataPacket decode(final InputStream stream) throws IOException, ProtocolException {
         final DataInputStream in = new DataInputStream(stream);
+        if (versionNegotiator.getVersion() >= ATTRIBUTE_DICTIONARY_VERSION) {
+            return decodeWithDictionary(stream, in);
+        }
 
         final int numAttributes;
         try {
@@ -93,6 +171,40 @@ public class StandardFlowFileCodec implements FlowFileCodec {
         return new StandardDataPacket(attributes, stream, numBytes);
     }
 
+    private DataPacket decodeWithDictionary(final InputStream stream, final DataInputStream in) throws IOException, ProtocolException {
+        final int firstByte = in.read();
+        if (firstByte < 0) {
+            // we're out of data.
+            return null;
+        }
+
+        final long numAttributes = readVarLong(firstByte, in);
+        if (numAttributes > MAX_NUM_ATTRIBUTES) {
+            throw new ProtocolException("FlowFile exceeds maximum number of attributes with a total of " + numAttributes);
+        }
+
+        final Map<String, String> attributes = new HashMap<>((int) numAttributes);
+        for (int i = 0; i < numAttributes; i++) {
+            final long index = readVarLong(in);
+            final String attrName;
+            if (index == 0) {
+                attrName = readVarString(in);
+                if (decodedNames.size() < MAX_DICTIONARY_SIZE) {
+                    decodedNames.add(attrName);
+                }
+            } else if (index > decodedNames.size()) {
+                throw new ProtocolException("Received reference to attribute name " + index + " but only " + decodedNames.size() + " names have been sent");
+            } else {
+                attrName = decodedNames.get((int) index - 1);
+            }
+
+            attributes.put(attrName, readVarString(in));
+        }
+
+        final long numBytes = readVarLong(in);
+        return new StandardDataPacket(attributes, stream, numBytes);
+    }
+
     private void writeString(final String val, final DataOutputStream out) throws IOException {
         final byte[] bytes = val.getBytes("UTF-8");
         out.writeInt(bytes.length);
@@ -106,6 +218,64 @@ public class StandardFlowFileCodec implements FlowFileCodec {
         return new String(bytes, "UTF-8");
     }
 
+    private void writeVarString(final String val, final DataOutputStream out) throws IOException {
+        final byte[] bytes = val.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private String readVarString(final DataInputStream in) throws IOException, ProtocolException {
+        final long numBytes = readVarLong(in);
+        if (numBytes > Integer.MAX_VALUE) {
+            throw new ProtocolException("Received string of " + numBytes + " bytes, which exceeds the maximum length");
+        }
+
+        final byte[] bytes = new byte[(int) numBytes];
+        StreamUtils.fillBuffer(in, bytes, true);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the given non-negative value using 7 bits per byte, least significant group first, with the high bit of each
+     * byte indicating whether or not more bytes follow.
+     */
+    private void writeVarLong(final long value, final DataOutputStream out) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private long readVarLong(final DataInputStream in) throws IOException, ProtocolException {
+        final int firstByte = in.read();
+        if (firstByte < 0) {
+            throw new EOFException();
+        }
+        return readVarLong(firstByte, in);
+    }
+
+    private long readVarLong(final int firstByte, final DataInputStream in) throws IOException, ProtocolException {
+        long value = firstByte & 0x7F;
+        int currentByte = firstByte;
+        int shift = 7;
+        while ((currentByte & 0x80) != 0) {
+            if (shift > 63) {
+                throw new ProtocolException("Received malformed variable-length integer");
+            }
+
+            currentByte = in.read();
+            if (currentByte < 0) {
+                throw new EOFException();
+            }
+
+            value |= (long) (currentByte & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
     @Override
     public List<Integer> getSupportedVersions() {
         return versionNegotiator.getSupportedVersions();
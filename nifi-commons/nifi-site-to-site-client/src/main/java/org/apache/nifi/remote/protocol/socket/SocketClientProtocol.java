@@ -52,7 +52,8 @@ import java.util.concurrent.TimeUnit;
 public class SocketClientProtocol implements ClientProtocol {
 
     // Version 6 added to support Zero-Master Clustering, which was introduced in NiFi 1.0.0
-    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(6, 5, 4, 3, 2, 1);
+    // Version 7 added to indicate support for Version 2 of the StandardFlowFileCodec
+    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(7, 6, 5, 4, 3, 2, 1);
 
     private RemoteDestination destination;
     private boolean useCompression = false;
@@ -249,7 +250,10 @@ public class SocketClientProtocol implements ClientProtocol {
 
         RequestType.NEGOTIATE_FLOWFILE_CODEC.writeRequestType(dos);
 
-        FlowFileCodec codec = new StandardFlowFileCodec();
+        // Peers that do not support Version 7 of the protocol fail the negotiation, rather than offering a different
+        // version, if asked for a version of the codec that they do not know.
+        final int codecVersion = versionNegotiator.getVersion() >= 7 ? StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION : 1;
+        FlowFileCodec codec = new StandardFlowFileCodec(codecVersion);
         try {
             codec = (FlowFileCodec) RemoteResourceInitiator.initiateResourceNegotiation(codec, dis, dos);
         } catch (HandshakeException e) {
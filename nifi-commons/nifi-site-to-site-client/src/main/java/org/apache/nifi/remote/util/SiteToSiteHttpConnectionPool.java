@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.util;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Holds the HTTP connections that are used by all of the {@link SiteToSiteRestApiClient}s of a single Site-to-Site client.
+ * </p>
+ *
+ * <p>
+ * Each transaction creates its own SiteToSiteRestApiClient, and each of those used to create its own HTTP clients,
+ * so every request for creating, transferring, extending and committing a transaction opened a new connection and,
+ * for a secure peer, performed a new TLS handshake. When the API clients are created with a connection pool, their
+ * requests are sent over persistent connections that are kept open between transactions and reused for any request
+ * to the same peer.
+ * </p>
+ */
+public class SiteToSiteHttpConnectionPool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SiteToSiteHttpConnectionPool.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_PEER = 50;
+
+    // Connections that have been idle for longer than this are validated before being reused, so that a connection
+    // that was closed by the peer or a proxy while in the pool is not handed to a non-repeatable request.
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    private final SSLContext sslContext;
+    private final int maxConnectionsPerPeer;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private PoolingNHttpClientConnectionManager asyncConnectionManager;
+    private CloseableHttpAsyncClient ioReactorClient;
+    private boolean closed = false;
+
+    public SiteToSiteHttpConnectionPool(final SSLContext sslContext) {
+        this(sslContext, DEFAULT_MAX_CONNECTIONS_PER_PEER);
+    }
+
+    public SiteToSiteHttpConnectionPool(final SSLContext sslContext, final int maxConnectionsPerPeer) {
+        if (maxConnectionsPerPeer < 1) {
+            throw new IllegalArgumentException("Max connections per peer must be at least 1");
+        }
+
+        this.sslContext = sslContext;
+        this.maxConnectionsPerPeer = maxConnectionsPerPeer;
+    }
+
+    /**
+     * @return the connection manager for blocking requests, which is shared by all of the HTTP clients that are built on it
+     * @throws IllegalStateException if this pool has been closed
+     */
+    synchronized PoolingHttpClientConnectionManager getConnectionManager() {
+        ensureOpen();
+
+        if (connectionManager == null) {
+            final Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslContext == null ? SSLConnectionSocketFactory.getSocketFactory() : new SSLConnectionSocketFactory(sslContext))
+                .build();
+
+            connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+            connectionManager.setDefaultMaxPerRoute(maxConnectionsPerPeer);
+            connectionManager.setMaxTotal(Integer.MAX_VALUE);
+            connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+        }
+
+        return connectionManager;
+    }
+
+    /**
+     * Returns the connection manager for asynchronous requests. The I/O reactor of the connection manager is run by this pool,
+     * so HTTP clients that are built on it must declare it as shared.
+     *
+     * @return the connection manager for asynchronous requests
+     * @throws IOException if unable to create the I/O reactor
+     * @throws IllegalStateException if this pool has been closed
+     */
+    synchronized PoolingNHttpClientConnectionManager getAsyncConnectionManager() throws IOException {
+        ensureOpen();
+
+        if (asyncConnectionManager == null) {
+            final Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", sslContext == null ? SSLIOSessionStrategy.getDefaultStrategy() : new SSLIOSessionStrategy(sslContext))
+                .build();
+
+            final PoolingNHttpClientConnectionManager manager;
+            try {
+                manager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT), sessionStrategyRegistry);
+            } catch (final IOReactorException e) {
+                throw new IOException("Failed to create I/O reactor for Site-to-Site HTTP connections", e);
+            }
+            manager.setDefaultMaxPerRoute(maxConnectionsPerPeer);
+            manager.setMaxTotal(Integer.MAX_VALUE);
+
+            // The client that owns the connection manager runs its I/O reactor until the pool is closed.
+            ioReactorClient = HttpAsyncClients.custom().setConnectionManager(manager).build();
+            ioReactorClient.start();
+            asyncConnectionManager = manager;
+        }
+
+        return asyncConnectionManager;
+    }
+
+    /**
+     * Closes any pooled connection that has not been used for at least the given amount of time.
+     *
+     * @param idleTime the amount of time that a connection must have been idle before it is closed
+     * @param timeUnit the unit of the idle time
+     */
+    public synchronized void closeIdleConnections(final long idleTime, final TimeUnit timeUnit) {
+        if (connectionManager != null) {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTime, timeUnit);
+        }
+
+        if (asyncConnectionManager != null) {
+            asyncConnectionManager.closeExpiredConnections();
+            asyncConnectionManager.closeIdleConnections(idleTime, timeUnit);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Site-to-Site HTTP connection pool has been closed");
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+            connectionManager = null;
+        }
+
+        if (ioReactorClient != null) {
+            try {
+                ioReactorClient.close();
+            } catch (final IOException e) {
+                logger.warn("Failed to shut down I/O reactor of Site-to-Site HTTP connection pool due to {}", e.toString());
+            }
+            ioReactorClient = null;
+            asyncConnectionManager = null;
+        }
+    }
+}
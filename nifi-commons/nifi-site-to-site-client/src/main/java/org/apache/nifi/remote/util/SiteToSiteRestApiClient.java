@@ -148,6 +148,7 @@ public class SiteToSiteRestApiClient implements Closeable {
     protected final HttpProxy proxy;
     private final AtomicBoolean proxyAuthRequiresResend = new AtomicBoolean(false);
     private final EventReporter eventReporter;
+    private final SiteToSiteHttpConnectionPool connectionPool;
 
     private RequestConfig requestConfig;
     private CredentialsProvider credentialsProvider;
@@ -176,9 +177,25 @@ public class SiteToSiteRestApiClient implements Closeable {
 
 
     public SiteToSiteRestApiClient(final SSLContext sslContext, final HttpProxy proxy, final EventReporter eventReporter) {
+        this(sslContext, proxy, eventReporter, null);
+    }
+
+    /**
+     * Creates a client whose requests are sent over the persistent connections of the given pool, rather than over connections
+     * that are opened for this client alone. The pool is not closed when this client is closed. If the proxy requires
+     * authentication, the pool is not used, because the proxy auth check relies on connections that are not shared.
+     *
+     * @param sslContext the SSL context to use for secure peers, or <code>null</code>
+     * @param proxy the proxy to communicate through, or <code>null</code>
+     * @param eventReporter the event reporter to report warnings to
+     * @param connectionPool the connection pool to use, or <code>null</code> to open connections for this client alone
+     */
+    public SiteToSiteRestApiClient(final SSLContext sslContext, final HttpProxy proxy, final EventReporter eventReporter,
+                                   final SiteToSiteHttpConnectionPool connectionPool) {
         this.sslContext = sslContext;
         this.proxy = proxy;
         this.eventReporter = eventReporter;
+        this.connectionPool = connectionPool;
 
         ttlExtendTaskExecutor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
             private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
@@ -207,7 +224,7 @@ public class SiteToSiteRestApiClient implements Closeable {
         return httpClient;
     }
 
-    private CloseableHttpAsyncClient getHttpAsyncClient() {
+    private CloseableHttpAsyncClient getHttpAsyncClient() throws IOException {
         if (httpAsyncClient == null) {
             setupAsyncClient();
         }
@@ -253,9 +270,21 @@ public class SiteToSiteRestApiClient implements Closeable {
         }
     }
 
+    private boolean isConnectionPoolUsed() {
+        return connectionPool != null && !shouldCheckProxyAuth();
+    }
+
     private void setupClient() {
         final HttpClientBuilder clientBuilder = HttpClients.custom();
 
+        if (isConnectionPoolUsed()) {
+            // Pooled connections are authenticated with the same client certificate regardless of which
+            // API client leased them, so they can be reused without tracking a per-connection user token.
+            clientBuilder.setConnectionManager(connectionPool.getConnectionManager())
+                .setConnectionManagerShared(true)
+                .disableConnectionState();
+        }
+
         if (sslContext != null) {
             clientBuilder.setSslcontext(sslContext);
             clientBuilder.addInterceptorFirst(new HttpsResponseInterceptor());
@@ -265,9 +294,15 @@ public class SiteToSiteRestApiClient implements Closeable {
             .setDefaultCredentialsProvider(getCredentialsProvider()).build();
     }
 
-    private void setupAsyncClient() {
+    private void setupAsyncClient() throws IOException {
         final HttpAsyncClientBuilder clientBuilder = HttpAsyncClients.custom();
 
+        if (isConnectionPoolUsed()) {
+            clientBuilder.setConnectionManager(connectionPool.getAsyncConnectionManager())
+                .setConnectionManagerShared(true)
+                .disableConnectionState();
+        }
+
         if (sslContext != null) {
             clientBuilder.setSSLContext(sslContext);
             clientBuilder.addInterceptorFirst(new HttpsResponseInterceptor());
@@ -866,7 +901,7 @@ public class SiteToSiteRestApiClient implements Closeable {
 
         logger.debug("Starting extending TTL thread...");
 
-        extendingApiClient = new SiteToSiteRestApiClient(sslContext, proxy, EventReporter.NO_OP);
+        extendingApiClient = new SiteToSiteRestApiClient(sslContext, proxy, EventReporter.NO_OP, connectionPool);
         extendingApiClient.transportProtocolVersionNegotiator = this.transportProtocolVersionNegotiator;
         extendingApiClient.connectTimeoutMillis = this.connectTimeoutMillis;
         extendingApiClient.readTimeoutMillis = this.readTimeoutMillis;
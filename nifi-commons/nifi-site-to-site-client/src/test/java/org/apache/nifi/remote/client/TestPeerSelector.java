@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.remote.client;
 
+import org.apache.nifi.remote.ClientTransactionCompletion;
 import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.PeerStatus;
 import org.apache.nifi.remote.TransferDirection;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,7 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.reducing;
 import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -131,6 +134,48 @@ public class TestPeerSelector {
         assertTrue("HasLots should get little", selectedCounts.get("HasLots") < selectedCounts.get("HasLittle"));
     }
 
+    @Test
+    public void testHealthAffectsOnlyInputPorts() throws IOException {
+        final Set<PeerStatus> collection = new HashSet<>();
+        collection.add(new PeerStatus(new PeerDescription("Healthy", 1111, true), 1000, true, PeerStatus.MAX_HEALTH_SCORE));
+        collection.add(new PeerStatus(new PeerDescription("Unhealthy", 2222, true), 1000, true, 20));
+
+        PeerStatusProvider peerStatusProvider = Mockito.mock(PeerStatusProvider.class);
+        PeerSelector peerSelector = new PeerSelector(peerStatusProvider, null);
+
+        // an unhealthy node is sent less data
+        final List<PeerStatus> sendDestinations = peerSelector.formulateDestinationList(collection, TransferDirection.SEND);
+        final Map<String, Integer> sendCounts = calculateAverageSelectedCount(collection, sendDestinations);
+        logger.info("sendCounts={}", sendCounts);
+        assertTrue("Unhealthy should get little", sendCounts.get("Unhealthy") < sendCounts.get("Healthy"));
+
+        // but data is still pulled from it according to its queued FlowFiles, as that relieves it
+        final List<PeerStatus> receiveDestinations = peerSelector.formulateDestinationList(collection, TransferDirection.RECEIVE);
+        final Map<String, Integer> receiveCounts = calculateAverageSelectedCount(collection, receiveDestinations);
+        logger.info("receiveCounts={}", receiveCounts);
+        assertEquals(receiveCounts.get("Healthy"), receiveCounts.get("Unhealthy"));
+    }
+
+    @Test
+    public void testUnhealthyNodeWithMoreFlowFilesIsPulledFromMore() throws IOException {
+        final Set<PeerStatus> collection = new HashSet<>();
+        collection.add(new PeerStatus(new PeerDescription("Healthy", 1111, true), 100, true, PeerStatus.MAX_HEALTH_SCORE));
+        collection.add(new PeerStatus(new PeerDescription("Unhealthy", 2222, true), 10000, true, 20));
+
+        PeerStatusProvider peerStatusProvider = Mockito.mock(PeerStatusProvider.class);
+        PeerSelector peerSelector = new PeerSelector(peerStatusProvider, null);
+
+        final List<PeerStatus> sendDestinations = peerSelector.formulateDestinationList(collection, TransferDirection.SEND);
+        final Map<String, Integer> sendCounts = calculateAverageSelectedCount(collection, sendDestinations);
+        logger.info("sendCounts={}", sendCounts);
+        assertTrue("Unhealthy should get little", sendCounts.get("Unhealthy") < sendCounts.get("Healthy"));
+
+        final List<PeerStatus> receiveDestinations = peerSelector.formulateDestinationList(collection, TransferDirection.RECEIVE);
+        final Map<String, Integer> receiveCounts = calculateAverageSelectedCount(collection, receiveDestinations);
+        logger.info("receiveCounts={}", receiveCounts);
+        assertTrue("Unhealthy should send lots", receiveCounts.get("Unhealthy") > receiveCounts.get("Healthy"));
+    }
+
     private static class UnitTestSystemTime extends PeerSelector.SystemTime {
         private long offset = 0;
 
@@ -217,4 +262,55 @@ public class TestPeerSelector {
         peerStatus = peerSelector.getNextPeerStatus(TransferDirection.RECEIVE);
         assertEquals("Node1 should be returned since node 1 is the only available node.", bootstrapNode, peerStatus.getPeerDescription());
     }
+
+    @Test
+    public void testPeerWithSlowTransactionsSelectedLess() throws IOException {
+        final PeerDescription fastNode = new PeerDescription("Fast", 1111, true);
+        final PeerDescription slowNode = new PeerDescription("Slow", 2222, true);
+        final Set<PeerStatus> peerStatuses = new HashSet<>();
+        peerStatuses.add(new PeerStatus(fastNode, 100, true));
+        peerStatuses.add(new PeerStatus(slowNode, 100, true));
+
+        final PeerStatusProvider peerStatusProvider = Mockito.mock(PeerStatusProvider.class);
+        doReturn(fastNode).when(peerStatusProvider).getBootstrapPeerDescription();
+        doReturn(peerStatuses).when(peerStatusProvider).fetchRemotePeerStatuses(any(PeerDescription.class));
+
+        final PeerSelector peerSelector = new PeerSelector(peerStatusProvider, null);
+        peerSelector.refreshPeers();
+
+        // Without any transactions, both peers get the same share because they reported the same number of FlowFiles.
+        int fastCount = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (fastNode.equals(peerSelector.getNextPeerStatus(TransferDirection.SEND).getPeerDescription())) {
+                fastCount++;
+            }
+        }
+        assertTrue(fastCount > 400 && fastCount < 600);
+
+        peerSelector.recordTransaction(fastNode, new ClientTransactionCompletion(false, 10, 1000L, TimeUnit.MILLISECONDS.toNanos(10L)));
+        peerSelector.recordTransaction(slowNode, new ClientTransactionCompletion(false, 10, 1000L, TimeUnit.MILLISECONDS.toNanos(1000L)));
+
+        fastCount = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (fastNode.equals(peerSelector.getNextPeerStatus(TransferDirection.SEND).getPeerDescription())) {
+                fastCount++;
+            }
+        }
+        assertTrue("Expected the fast peer to be selected about 75% of the time but was selected " + fastCount + " times", fastCount > 650 && fastCount < 850);
+
+        final Collection<PeerStatistics> statistics = peerSelector.getPeerStatistics();
+        assertEquals(2, statistics.size());
+        for (final PeerStatistics peerStatistics : statistics) {
+            assertEquals(100, peerStatistics.getFlowFileCount());
+            assertEquals(1L, peerStatistics.getTransactionCount());
+            assertFalse(peerStatistics.isPenalized());
+            if (fastNode.equals(peerStatistics.getPeerDescription())) {
+                assertEquals(10L, peerStatistics.getAverageTransactionDuration(TimeUnit.MILLISECONDS));
+                assertEquals(100000D, peerStatistics.getAverageBytesPerSecond(), 0.001D);
+            } else {
+                assertEquals(1000L, peerStatistics.getAverageTransactionDuration(TimeUnit.MILLISECONDS));
+                assertEquals(1000D, peerStatistics.getAverageBytesPerSecond(), 0.001D);
+            }
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.nifi.remote.exception.ProtocolException;
+import org.apache.nifi.remote.protocol.DataPacket;
+import org.apache.nifi.remote.util.StandardDataPacket;
+import org.apache.nifi.stream.io.StreamUtils;
+import org.junit.Test;
+
+public class TestStandardFlowFileCodec {
+
+    private DataPacket createDataPacket(final int index) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "file-" + index + ".txt");
+        attributes.put("path", "./");
+        attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + index);
+        attributes.put("unicode.\u00e9", "\u00fc\u00f1\u00ee");
+
+        final byte[] content = ("Hello " + index).getBytes(StandardCharsets.UTF_8);
+        return new StandardDataPacket(attributes, new ByteArrayInputStream(content), content.length);
+    }
+
+    private byte[] encode(final StandardFlowFileCodec codec, final int packets) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        codec.reset();
+        for (int i = 0; i < packets; i++) {
+            codec.encode(createDataPacket(i), baos);
+        }
+        return baos.toByteArray();
+    }
+
+    private void verifyDecode(final StandardFlowFileCodec codec, final byte[] encoded, final int packets) throws IOException, ProtocolException {
+        codec.reset();
+        final InputStream in = new ByteArrayInputStream(encoded);
+        for (int i = 0; i < packets; i++) {
+            final DataPacket expected = createDataPacket(i);
+            final DataPacket packet = codec.decode(in);
+            assertEquals(expected.getAttributes(), packet.getAttributes());
+            assertEquals(expected.getSize(), packet.getSize());
+
+            final byte[] content = new byte[(int) packet.getSize()];
+            StreamUtils.fillBuffer(packet.getData(), content, true);
+            final byte[] expectedContent = new byte[(int) expected.getSize()];
+            StreamUtils.fillBuffer(expected.getData(), expectedContent, true);
+            assertArrayEquals(expectedContent, content);
+        }
+
+        assertNull(codec.decode(in));
+    }
+
+    @Test
+    public void testDefaultsToVersion1() {
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec();
+        assertEquals(1, codec.getVersionNegotiator().getVersion());
+        assertTrue(codec.getVersionNegotiator().isVersionSupported(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, ProtocolException {
+        for (final int version : new int[] {1, StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION}) {
+            final byte[] encoded = encode(new StandardFlowFileCodec(version), 5);
+            verifyDecode(new StandardFlowFileCodec(version), encoded, 5);
+        }
+    }
+
+    @Test
+    public void testAttributeNamesSentOncePerTransaction() throws IOException, ProtocolException {
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION);
+        final int singlePacketLength = encode(codec, 1).length;
+        final int tenPacketLength = encode(codec, 10).length;
+        assertTrue(tenPacketLength < 10 * singlePacketLength);
+        assertTrue(tenPacketLength < encode(new StandardFlowFileCodec(1), 10).length);
+
+        // the same codec decodes a second transaction after being reset
+        final StandardFlowFileCodec decoder = new StandardFlowFileCodec(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION);
+        verifyDecode(decoder, encode(codec, 10), 10);
+        verifyDecode(decoder, encode(codec, 3), 3);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testUnknownAttributeNameReference() throws IOException, ProtocolException {
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION);
+        final byte[] encoded = encode(codec, 2);
+
+        // the second packet refers to names that were sent with the first, which the decoder has not seen
+        final int firstPacketLength = encode(codec, 1).length;
+        final byte[] secondPacket = new byte[encoded.length - firstPacketLength];
+        System.arraycopy(encoded, firstPacketLength, secondPacket, 0, secondPacket.length);
+
+        codec.reset();
+        codec.decode(new ByteArrayInputStream(secondPacket));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+
+/**
+ * <p>
+ * A lock-free implementation of a RingBuffer that supports many concurrent producers and readers. It offers
+ * the same operations as {@link RingBuffer} but, rather than guarding the buffer with a read/write lock, each
+ * producer claims a unique sequence number and then publishes its element into the slot for that sequence.
+ * </p>
+ *
+ * <p>
+ * Readers never block and never block producers. Each read operation takes a snapshot of the range of sequence
+ * numbers that are currently held in the buffer and visits only those elements whose slot still contains that
+ * sequence number. As a result, an element that has not yet been published, or that is overwritten while the
+ * read is in progress, is skipped rather than returned out of order.
+ * </p>
+ *
+ * @param <T> the type of element held in the buffer
+ */
+public class ConcurrentRingBuffer<T> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong nextSequence = new AtomicLong(0L);
+
+    public ConcurrentRingBuffer(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Adds the given value to the RingBuffer and returns the value that was removed in order to make room.
+     *
+     * @param value the new value to add
+     * @return value previously in the buffer
+     */
+    public T add(final T value) {
+        Objects.requireNonNull(value);
+
+        final long sequence = nextSequence.getAndIncrement();
+        final int index = indexOf(sequence);
+        final Slot<T> slot = new Slot<>(sequence, value);
+
+        while (true) {
+            final Slot<T> current = slots.get(index);
+
+            // If a producer that claimed a later sequence has already published to this slot, then our value
+            // has already been aged off as far as any reader is concerned, so we must not overwrite the newer one.
+            if (current != null && current.sequence > sequence) {
+                return value;
+            }
+
+            if (slots.compareAndSet(index, current, slot)) {
+                return current == null ? null : current.value;
+            }
+        }
+    }
+
+    /**
+     * @return the number of elements that have been added to the buffer, up to the capacity of the buffer
+     */
+    public int getSize() {
+        return (int) Math.min(nextSequence.get(), capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public List<T> getSelectedElements(final Filter<T> filter) {
+        return getSelectedElements(filter, Integer.MAX_VALUE);
+    }
+
+    public List<T> getSelectedElements(final Filter<T> filter, final int maxElements) {
+        if (maxElements < 1) {
+            return new ArrayList<>(0);
+        }
+
+        final List<T> selected = new ArrayList<>(Math.min(getSize(), 1000));
+        forEach(new ForEachEvaluator<T>() {
+            @Override
+            public boolean evaluate(final T value) {
+                if (filter.select(value)) {
+                    selected.add(value);
+                }
+
+                return selected.size() < maxElements;
+            }
+        });
+
+        return selected;
+    }
+
+    public int countSelectedElements(final Filter<T> filter) {
+        final int[] count = new int[1];
+        forEach(new ForEachEvaluator<T>() {
+            @Override
+            public boolean evaluate(final T value) {
+                if (filter.select(value)) {
+                    count[0]++;
+                }
+
+                return true;
+            }
+        });
+
+        return count[0];
+    }
+
+    /**
+     * Removes all elements from the RingBuffer that match the given filter. An element that is overwritten
+     * by a producer while this method is running will not be removed.
+     *
+     * @param filter to use for deciding what is removed
+     * @return the number of elements removed
+     */
+    public int removeSelectedElements(final Filter<T> filter) {
+        int count = 0;
+
+        final long end = nextSequence.get();
+        for (long sequence = Math.max(0L, end - capacity); sequence < end; sequence++) {
+            final int index = indexOf(sequence);
+            final Slot<T> slot = slots.get(index);
+            if (slot == null || slot.sequence != sequence) {
+                continue;
+            }
+
+            if (filter.select(slot.value) && slots.compareAndSet(index, slot, null)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public List<T> asList() {
+        return getSelectedElements(new Filter<T>() {
+            @Override
+            public boolean select(final T value) {
+                return true;
+            }
+        });
+    }
+
+    public T getOldestElement() {
+        return getFirstElement(IterationDirection.FORWARD);
+    }
+
+    public T getNewestElement() {
+        return getFirstElement(IterationDirection.BACKWARD);
+    }
+
+    private T getFirstElement(final IterationDirection direction) {
+        final List<T> first = new ArrayList<>(1);
+        forEach(new ForEachEvaluator<T>() {
+            @Override
+            public boolean evaluate(final T value) {
+                first.add(value);
+                return false;
+            }
+        }, direction);
+
+        return first.isEmpty() ? null : first.get(0);
+    }
+
+    /**
+     * Iterates over each element in the RingBuffer, calling the {@link ForEachEvaluator#evaluate(Object) evaluate} method on each element in the RingBuffer. If the Evaluator returns {@code false},
+     * the method will skip all remaining elements in the RingBuffer; otherwise, the next element will be evaluated until all elements have been evaluated.
+     *
+     * @param evaluator used to evaluate each item in the ring buffer
+     */
+    public void forEach(final ForEachEvaluator<T> evaluator) {
+        forEach(evaluator, IterationDirection.FORWARD);
+    }
+
+    /**
+     * Iterates over each element in the RingBuffer, calling the {@link ForEachEvaluator#evaluate(Object) evaluate} method on each element in the RingBuffer. If the Evaluator returns {@code false},
+     * the method will skip all remaining elements in the RingBuffer; otherwise, the next element will be evaluated until all elements have been evaluated.
+     * Only those elements that were added before this method was called are evaluated.
+     *
+     * @param evaluator the evaluator
+     * @param iterationDirection the order in which to iterate over the elements in the RingBuffer
+     */
+    public void forEach(final ForEachEvaluator<T> evaluator, final IterationDirection iterationDirection) {
+        final long end = nextSequence.get();
+        final long start = Math.max(0L, end - capacity);
+
+        if (iterationDirection == IterationDirection.FORWARD) {
+            for (long sequence = start; sequence < end; sequence++) {
+                final T value = getElement(sequence);
+                if (value != null && !evaluator.evaluate(value)) {
+                    return;
+                }
+            }
+        } else {
+            for (long sequence = end - 1; sequence >= start; sequence--) {
+                final T value = getElement(sequence);
+                if (value != null && !evaluator.evaluate(value)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private T getElement(final long sequence) {
+        final Slot<T> slot = slots.get(indexOf(sequence));
+        if (slot == null || slot.sequence != sequence) {
+            return null;
+        }
+
+        return slot.value;
+    }
+
+    private int indexOf(final long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static class Slot<T> {
+        private final long sequence;
+        private final T value;
+
+        public Slot(final long sequence, final T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+import org.junit.Test;
+
+public class TestConcurrentRingBuffer {
+
+    @Test
+    public void testGetNewestAndOldestElement() {
+        final ConcurrentRingBuffer<Integer> ringBuffer = new ConcurrentRingBuffer<>(10);
+        assertNull(ringBuffer.getNewestElement());
+        assertNull(ringBuffer.getOldestElement());
+
+        for (int i = 0; i < 25; i++) {
+            ringBuffer.add(i);
+            assertEquals(i, ringBuffer.getNewestElement().intValue());
+            assertEquals(Math.max(0, i - 9), ringBuffer.getOldestElement().intValue());
+        }
+    }
+
+    @Test
+    public void testAddReturnsRemovedElement() {
+        final ConcurrentRingBuffer<Integer> ringBuffer = new ConcurrentRingBuffer<>(3);
+        assertNull(ringBuffer.add(0));
+        assertNull(ringBuffer.add(1));
+        assertNull(ringBuffer.add(2));
+        assertEquals(Integer.valueOf(0), ringBuffer.add(3));
+        assertEquals(Integer.valueOf(1), ringBuffer.add(4));
+        assertEquals(3, ringBuffer.getSize());
+    }
+
+    @Test
+    public void testAsListAfterFull() {
+        final ConcurrentRingBuffer<Integer> ringBuffer = new ConcurrentRingBuffer<>(10);
+        assertTrue(ringBuffer.asList().isEmpty());
+
+        for (int i = 0; i < 16; i++) {
+            ringBuffer.add(i);
+        }
+
+        final List<Integer> list = ringBuffer.asList();
+        assertEquals(10, list.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i + 6), list.get(i));
+        }
+    }
+
+    @Test
+    public void testIterateBackwards() {
+        final ConcurrentRingBuffer<Integer> ringBuffer = new ConcurrentRingBuffer<>(10);
+        for (int i = 0; i < 14; i++) {
+            ringBuffer.add(i);
+        }
+
+        final List<Integer> visited = new ArrayList<>();
+        ringBuffer.forEach(value -> {
+            visited.add(value);
+            return visited.size() < 3;
+        }, IterationDirection.BACKWARD);
+
+        assertEquals(3, visited.size());
+        assertEquals(Integer.valueOf(13), visited.get(0));
+        assertEquals(Integer.valueOf(12), visited.get(1));
+        assertEquals(Integer.valueOf(11), visited.get(2));
+    }
+
+    @Test
+    public void testSelectCountAndRemove() {
+        final ConcurrentRingBuffer<Integer> ringBuffer = new ConcurrentRingBuffer<>(10);
+        for (int i = 0; i < 10; i++) {
+            ringBuffer.add(i);
+        }
+
+        final Filter<Integer> evens = value -> value % 2 == 0;
+        assertEquals(5, ringBuffer.countSelectedElements(evens));
+
+        final List<Integer> firstTwo = ringBuffer.getSelectedElements(evens, 2);
+        assertEquals(2, firstTwo.size());
+        assertEquals(Integer.valueOf(0), firstTwo.get(0));
+        assertEquals(Integer.valueOf(2), firstTwo.get(1));
+
+        assertEquals(5, ringBuffer.removeSelectedElements(evens));
+        assertEquals(0, ringBuffer.countSelectedElements(evens));
+        assertEquals(5, ringBuffer.asList().size());
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducers() throws InterruptedException {
+        final int capacity = 1000;
+        final int threadCount = 8;
+        final int perThread = 50000;
+        final ConcurrentRingBuffer<Long> ringBuffer = new ConcurrentRingBuffer<>(capacity);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final long base = (long) t * perThread;
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ringBuffer.add(base + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // readers must never see more elements than the capacity while producers are running
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            assertTrue(ringBuffer.asList().size() <= capacity);
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(capacity, ringBuffer.getSize());
+        assertEquals(capacity, ringBuffer.asList().size());
+    }
+}
@@ -39,6 +39,8 @@ public class ConnectionDTO extends ComponentDTO {
     private String backPressureDataSizeThreshold;
     private String flowFileExpiration;
     private List<String> prioritizers;
+    private String loadBalanceStrategy;
+    private String loadBalancePartitionAttribute;
     private List<PositionDTO> bends;
 
     /**
@@ -230,6 +232,40 @@ public class ConnectionDTO extends ComponentDTO {
         this.prioritizers = prioritizers;
     }
 
+    /**
+     * How this connection distributes its FlowFiles across the nodes of a cluster.
+     *
+     * @return The load balance strategy
+     */
+    @ApiModelProperty(
+            value = "How this connection distributes its FlowFiles across the nodes of a cluster.",
+            allowableValues = "DO_NOT_LOAD_BALANCE, ROUND_ROBIN, PARTITION_BY_ATTRIBUTE, SINGLE_NODE"
+    )
+    public String getLoadBalanceStrategy() {
+        return loadBalanceStrategy;
+    }
+
+    public void setLoadBalanceStrategy(String loadBalanceStrategy) {
+        this.loadBalanceStrategy = loadBalanceStrategy;
+    }
+
+    /**
+     * The FlowFile attribute used to choose a node when the load balance strategy is PARTITION_BY_ATTRIBUTE.
+     *
+     * @return The partition attribute
+     */
+    @ApiModelProperty(
+            value = "The FlowFile attribute whose value determines which node a FlowFile is sent to when the load balance strategy is PARTITION_BY_ATTRIBUTE. "
+                    + "All FlowFiles with the same value are sent to the same node."
+    )
+    public String getLoadBalancePartitionAttribute() {
+        return loadBalancePartitionAttribute;
+    }
+
+    public void setLoadBalancePartitionAttribute(String loadBalancePartitionAttribute) {
+        this.loadBalancePartitionAttribute = loadBalancePartitionAttribute;
+    }
+
     @Override
     public String toString() {
         return "ConnectionDTO [id: " + getId() + "]";
@@ -40,6 +40,7 @@ public class NodeDTO {
     private Set<String> roles;
     private Integer activeThreadCount;
     private String queued;
+    private Integer healthScore;
     private List<NodeEventDTO> events;
     private Date nodeStartTime;
 
@@ -107,6 +108,22 @@ public class NodeDTO {
         this.queued = queued;
     }
 
+    /**
+     * @return the node's health score
+     */
+    @ApiModelProperty(
+            value = "The health score of the node, from 0 to 100, as calculated by the cluster coordinator from the node's last heartbeat. "
+                    + "Nodes with a low score are given less work.",
+            readOnly = true
+    )
+    public Integer getHealthScore() {
+        return healthScore;
+    }
+
+    public void setHealthScore(Integer healthScore) {
+        this.healthScore = healthScore;
+    }
+
     /**
      * @return node's host/IP address
      */
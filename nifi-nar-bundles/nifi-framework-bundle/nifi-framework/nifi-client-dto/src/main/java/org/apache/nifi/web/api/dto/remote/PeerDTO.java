@@ -30,6 +30,7 @@ public class PeerDTO {
     private int port;
     private boolean secure;
     private int flowFileCount;
+    private Integer healthScore;
 
     @ApiModelProperty(
             value = "The hostname of this peer."
@@ -75,4 +76,15 @@ public class PeerDTO {
     public void setFlowFileCount(int flowFileCount) {
         this.flowFileCount = flowFileCount;
     }
+
+    @ApiModelProperty(
+            value = "The health of this peer, from 0 to 100, where 100 is fully healthy. Not set if the health of the peer is not known."
+    )
+    public Integer getHealthScore() {
+        return healthScore;
+    }
+
+    public void setHealthScore(Integer healthScore) {
+        this.healthScore = healthScore;
+    }
 }
@@ -24,6 +24,7 @@ import java.util.Set;
 import org.apache.nifi.cluster.coordination.node.DisconnectionCode;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.event.NodeEvent;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.reporting.Severity;
@@ -236,4 +237,18 @@ public interface ClusterCoordinator {
      * @return the current status of Flow Election.
      */
     String getFlowElectionStatus();
+
+    /**
+     * Replaces the known health of the nodes in the cluster with the health that was calculated by the
+     * active Cluster Coordinator
+     *
+     * @param nodeHealth the health of each connected node
+     */
+    void setNodeHealth(List<NodeHealth> nodeHealth);
+
+    /**
+     * @param nodeId the identifier of the node
+     * @return the most recently calculated health of the given node, or <code>null</code> if it is not known
+     */
+    NodeHealth getNodeHealth(NodeIdentifier nodeId);
 }
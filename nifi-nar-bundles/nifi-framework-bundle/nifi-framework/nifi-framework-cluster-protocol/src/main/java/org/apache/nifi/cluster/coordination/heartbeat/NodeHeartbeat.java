@@ -56,4 +56,41 @@ public interface NodeHeartbeat {
      * @return the time that the node reports having started NiFi
      */
     long getSystemStartTime();
+
+    /**
+     * @return the number of Connections on the node
+     */
+    int getConnectionCount();
+
+    /**
+     * @return the number of Connections on the node whose queues have reached their back pressure threshold
+     */
+    int getBackPressuredConnectionCount();
+
+    /**
+     * @return the disk utilization, as a percentage, of the node's fullest repository storage location
+     */
+    int getRepositoryUtilization();
+
+    /**
+     * @return the total time, in milliseconds, that the node's JVM has spent in garbage collection since it started
+     */
+    long getGarbageCollectionMillis();
+
+    /**
+     * @return the maximum number of threads that Processors and Reporting Tasks may use on the node
+     */
+    int getMaxThreadCount();
+
+    /**
+     * @return the health score that the Cluster Coordinator calculated for the node when the heartbeat was received,
+     *         between 0 and {@link org.apache.nifi.cluster.coordination.node.NodeHealth#MAX_HEALTH_SCORE}
+     */
+    int getHealthScore();
+
+    /**
+     * @return <code>true</code> if the heartbeat was not received from the node but created by the Cluster Coordinator to
+     *         stand in for one, in which case it does not carry the node's health metrics
+     */
+    boolean isPlaceholder();
 }
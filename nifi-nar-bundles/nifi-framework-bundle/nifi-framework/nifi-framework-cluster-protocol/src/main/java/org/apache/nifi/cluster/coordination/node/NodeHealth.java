@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.coordination.node;
+
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.jaxb.message.NodeIdentifierAdapter;
+
+/**
+ * Describes the health of a node, as calculated by the Cluster Coordinator from the node's heartbeats. The health score
+ * ranges from 0 to {@link #MAX_HEALTH_SCORE}; a node whose queues are backed up, whose repositories are nearly full, that
+ * spends much of its time in garbage collection or whose thread pools are saturated has a lower score.
+ */
+public class NodeHealth {
+
+    public static final int MAX_HEALTH_SCORE = 100;
+
+    /**
+     * Nodes whose health score is below this value should be given less work, or none at all, until they recover
+     */
+    public static final int UNHEALTHY_THRESHOLD = 50;
+
+    private NodeIdentifier nodeId;
+    private int healthScore = MAX_HEALTH_SCORE;
+    private int flowFileCount;
+
+    public NodeHealth() {
+    }
+
+    public NodeHealth(final NodeIdentifier nodeId, final int healthScore, final int flowFileCount) {
+        this.nodeId = nodeId;
+        this.healthScore = healthScore;
+        this.flowFileCount = flowFileCount;
+    }
+
+    @XmlJavaTypeAdapter(NodeIdentifierAdapter.class)
+    public NodeIdentifier getNodeIdentifier() {
+        return nodeId;
+    }
+
+    public void setNodeIdentifier(final NodeIdentifier nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getHealthScore() {
+        return healthScore;
+    }
+
+    public void setHealthScore(final int healthScore) {
+        this.healthScore = healthScore;
+    }
+
+    /**
+     * @return the number of FlowFiles queued on the node when it last sent a heartbeat
+     */
+    public int getFlowFileCount() {
+        return flowFileCount;
+    }
+
+    public void setFlowFileCount(final int flowFileCount) {
+        this.flowFileCount = flowFileCount;
+    }
+
+    public boolean isHealthy() {
+        return healthScore >= UNHEALTHY_THRESHOLD;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeHealth[nodeId=" + nodeId + ", healthScore=" + healthScore + ", flowFileCount=" + flowFileCount + "]";
+    }
+}
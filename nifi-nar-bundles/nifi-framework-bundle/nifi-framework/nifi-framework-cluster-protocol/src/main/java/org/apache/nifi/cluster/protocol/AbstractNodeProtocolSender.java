@@ -25,6 +25,8 @@ import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
 import org.apache.nifi.cluster.protocol.message.ConnectionResponseMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatResponseMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
 import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
 import org.apache.nifi.cluster.protocol.message.ProtocolMessage.MessageType;
 import org.apache.nifi.io.socket.SocketConfiguration;
@@ -94,6 +96,16 @@ public abstract class AbstractNodeProtocolSender implements NodeProtocolSender {
         throw new ProtocolException("Expected message type '" + MessageType.HEARTBEAT_RESPONSE + "' but found '" + responseMessage.getType() + "'");
     }
 
+    @Override
+    public LoadBalanceFlowFilesResponseMessage loadBalanceFlowFiles(final LoadBalanceFlowFilesMessage msg, final NodeIdentifier nodeId) throws ProtocolException {
+        final ProtocolMessage responseMessage = sendProtocolMessage(msg, nodeId.getSocketAddress(), nodeId.getSocketPort());
+        if (MessageType.LOAD_BALANCE_FLOWFILES_RESPONSE == responseMessage.getType()) {
+            return (LoadBalanceFlowFilesResponseMessage) responseMessage;
+        }
+
+        throw new ProtocolException("Expected message type '" + MessageType.LOAD_BALANCE_FLOWFILES_RESPONSE + "' but found '" + responseMessage.getType() + "'");
+    }
+
 
     private Socket createSocket() {
         InetSocketAddress socketAddress = null;
@@ -120,7 +132,7 @@ public abstract class AbstractNodeProtocolSender implements NodeProtocolSender {
             try {
                 socket = SocketUtils.createSocket(new InetSocketAddress(hostname, port), socketConfiguration);
             } catch (IOException e) {
-                throw new ProtocolException("Failed to send message to Cluster Coordinator due to: " + e, e);
+                throw new ProtocolException("Failed to send message to " + hostname + ":" + port + " due to: " + e, e);
             }
 
             try {
@@ -29,14 +29,20 @@ public class ConnectionRequest {
 
     private final NodeIdentifier proposedNodeIdentifier;
     private final DataFlow dataFlow;
+    private final boolean flowDeltaSupported;
 
     public ConnectionRequest(final NodeIdentifier proposedNodeIdentifier, final DataFlow dataFlow) {
+        this(proposedNodeIdentifier, dataFlow, false);
+    }
+
+    public ConnectionRequest(final NodeIdentifier proposedNodeIdentifier, final DataFlow dataFlow, final boolean flowDeltaSupported) {
         if (proposedNodeIdentifier == null) {
             throw new IllegalArgumentException("Proposed node identifier may not be null.");
         }
 
         this.proposedNodeIdentifier = proposedNodeIdentifier;
         this.dataFlow = dataFlow;
+        this.flowDeltaSupported = flowDeltaSupported;
     }
 
     public NodeIdentifier getProposedNodeIdentifier() {
@@ -46,4 +52,13 @@ public class ConnectionRequest {
     public DataFlow getDataFlow() {
         return dataFlow;
     }
+
+    /**
+     * @return <code>true</code> if the node is able to restore the Process Groups that the Cluster Coordinator leaves
+     *         out of the flow in its response because they are unchanged. Nodes that do not set this flag must be sent
+     *         the full flow.
+     */
+    public boolean isFlowDeltaSupported() {
+        return flowDeltaSupported;
+    }
 }
@@ -51,6 +51,11 @@ public class HeartbeatPayload {
     private long totalFlowFileCount;
     private long totalFlowFileBytes;
     private long systemStartTime;
+    private int connectionCount;
+    private int backPressuredConnectionCount;
+    private int repositoryUtilization;
+    private long garbageCollectionMillis;
+    private int maxThreadCount;
     private List<NodeConnectionStatus> clusterStatus;
 
     public int getActiveThreadCount() {
@@ -85,6 +90,58 @@ public class HeartbeatPayload {
         this.systemStartTime = systemStartTime;
     }
 
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(final int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * @return the number of connections whose queue has reached its back pressure threshold
+     */
+    public int getBackPressuredConnectionCount() {
+        return backPressuredConnectionCount;
+    }
+
+    public void setBackPressuredConnectionCount(final int backPressuredConnectionCount) {
+        this.backPressuredConnectionCount = backPressuredConnectionCount;
+    }
+
+    /**
+     * @return the disk utilization, as a percentage, of the fullest FlowFile or Content Repository storage location
+     */
+    public int getRepositoryUtilization() {
+        return repositoryUtilization;
+    }
+
+    public void setRepositoryUtilization(final int repositoryUtilization) {
+        this.repositoryUtilization = repositoryUtilization;
+    }
+
+    /**
+     * @return the total time, in milliseconds, that the JVM has spent in garbage collection since it started
+     */
+    public long getGarbageCollectionMillis() {
+        return garbageCollectionMillis;
+    }
+
+    public void setGarbageCollectionMillis(final long garbageCollectionMillis) {
+        this.garbageCollectionMillis = garbageCollectionMillis;
+    }
+
+    /**
+     * @return the maximum number of threads that Processors and Reporting Tasks may use
+     */
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    public void setMaxThreadCount(final int maxThreadCount) {
+        this.maxThreadCount = maxThreadCount;
+    }
+
     public List<NodeConnectionStatus> getClusterStatus() {
         return clusterStatus;
     }
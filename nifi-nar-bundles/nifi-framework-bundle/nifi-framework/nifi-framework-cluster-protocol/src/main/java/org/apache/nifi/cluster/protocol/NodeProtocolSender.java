@@ -20,6 +20,8 @@ import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
 import org.apache.nifi.cluster.protocol.message.ConnectionResponseMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatResponseMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
 
 /**
  * An interface for sending protocol messages from a node to the cluster
@@ -49,4 +51,15 @@ public interface NodeProtocolSender {
      * @return the response from the Cluster Coordinator
      */
     HeartbeatResponseMessage heartbeat(HeartbeatMessage msg, String address) throws ProtocolException;
+
+    /**
+     * Sends FlowFiles of a load-balanced Connection to another node in the cluster
+     *
+     * @param msg the message that holds the FlowFiles
+     * @param nodeId the node to send the FlowFiles to
+     * @throws ProtocolException if unable to send the FlowFiles
+     *
+     * @return the response from the receiving node, indicating whether or not it took ownership of the FlowFiles
+     */
+    LoadBalanceFlowFilesResponseMessage loadBalanceFlowFiles(LoadBalanceFlowFilesMessage msg, NodeIdentifier nodeId) throws ProtocolException;
 }
@@ -37,4 +37,17 @@ public interface ProtocolContext<T> {
      * @return a unmarshaller
      */
     ProtocolMessageUnmarshaller<T> createUnmarshaller();
+
+    /**
+     * Creates a marshaller for serializing the response to a message that was
+     * deserialized by the given unmarshaller. Contexts that support more than
+     * one format use this to answer a request in the format that it was sent
+     * in.
+     *
+     * @param requestUnmarshaller the unmarshaller that read the request
+     * @return a marshaller
+     */
+    default ProtocolMessageMarshaller<T> createResponseMarshaller(ProtocolMessageUnmarshaller<T> requestUnmarshaller) {
+        return createMarshaller();
+    }
 }
@@ -0,0 +1,537 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.protocol.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.nifi.cluster.coordination.node.DisconnectionCode;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.ComponentRevision;
+import org.apache.nifi.cluster.protocol.ConnectionRequest;
+import org.apache.nifi.cluster.protocol.ConnectionResponse;
+import org.apache.nifi.cluster.protocol.DataFlow;
+import org.apache.nifi.cluster.protocol.Heartbeat;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.StandardDataFlow;
+import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
+import org.apache.nifi.cluster.protocol.message.ConnectionResponseMessage;
+import org.apache.nifi.cluster.protocol.message.FlowRequestMessage;
+import org.apache.nifi.cluster.protocol.message.FlowResponseMessage;
+import org.apache.nifi.cluster.protocol.message.HeartbeatMessage;
+import org.apache.nifi.cluster.protocol.message.HeartbeatResponseMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
+import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
+import org.apache.nifi.cluster.protocol.message.ProtocolMessage.MessageType;
+import org.apache.nifi.cluster.protocol.message.ReconnectionRequestMessage;
+
+/**
+ * Encodes and decodes the body of the protocol messages that have a binary form. Fields are written in a fixed order,
+ * and the values that JAXB would drop, such as the DN of a Node Identifier, are dropped here as well so that a message
+ * is read back the same way regardless of the format that it was sent in.
+ */
+final class BinaryMessageCodec {
+
+    private static final Set<MessageType> SUPPORTED_TYPES = EnumSet.of(MessageType.HEARTBEAT, MessageType.HEARTBEAT_RESPONSE,
+        MessageType.CONNECTION_REQUEST, MessageType.CONNECTION_RESPONSE, MessageType.FLOW_REQUEST, MessageType.FLOW_RESPONSE,
+        MessageType.RECONNECTION_REQUEST, MessageType.LOAD_BALANCE_FLOWFILES, MessageType.LOAD_BALANCE_FLOWFILES_RESPONSE);
+
+    private static final int BUF_SIZE = 8192;
+
+    private BinaryMessageCodec() {
+    }
+
+    static boolean isSupported(final MessageType type) {
+        return SUPPORTED_TYPES.contains(type);
+    }
+
+    static void encode(final ProtocolMessage msg, final DataOutputStream out) throws IOException {
+        out.writeUTF(msg.getType().name());
+
+        switch (msg.getType()) {
+            case HEARTBEAT: {
+                final Heartbeat heartbeat = ((HeartbeatMessage) msg).getHeartbeat();
+                out.writeBoolean(heartbeat != null);
+                if (heartbeat != null) {
+                    writeNodeIdentifier(heartbeat.getNodeIdentifier(), out);
+                    writeNodeConnectionStatus(heartbeat.getConnectionStatus(), out);
+                    writeBytes(heartbeat.getPayload(), out);
+                }
+                break;
+            }
+            case HEARTBEAT_RESPONSE: {
+                final HeartbeatResponseMessage response = (HeartbeatResponseMessage) msg;
+                writeNodeConnectionStatuses(response.getUpdatedNodeStatuses(), out);
+                writeString(response.getFlowElectionMessage(), out);
+                writeNodeHealth(response.getNodeHealth(), out);
+                break;
+            }
+            case CONNECTION_REQUEST: {
+                final ConnectionRequest request = ((ConnectionRequestMessage) msg).getConnectionRequest();
+                out.writeBoolean(request != null);
+                if (request != null) {
+                    writeNodeIdentifier(request.getProposedNodeIdentifier(), out);
+                    writeDataFlow(request.getDataFlow(), out);
+                    out.writeBoolean(request.isFlowDeltaSupported());
+                }
+                break;
+            }
+            case CONNECTION_RESPONSE: {
+                final ConnectionResponse response = ((ConnectionResponseMessage) msg).getConnectionResponse();
+                out.writeBoolean(response != null);
+                if (response != null) {
+                    out.writeInt(response.getTryLaterSeconds());
+                    writeString(response.getRejectionReason(), out);
+                    writeNodeIdentifier(response.getNodeIdentifier(), out);
+                    writeDataFlow(response.getDataFlow(), out);
+                    writeString(response.getInstanceId(), out);
+                    writeNodeConnectionStatuses(response.getNodeConnectionStatuses(), out);
+                    writeComponentRevisions(response.getComponentRevisions(), out);
+                }
+                break;
+            }
+            case FLOW_REQUEST:
+                writeNodeIdentifier(((FlowRequestMessage) msg).getNodeId(), out);
+                break;
+            case FLOW_RESPONSE:
+                writeDataFlow(((FlowResponseMessage) msg).getDataFlow(), out);
+                break;
+            case RECONNECTION_REQUEST: {
+                final ReconnectionRequestMessage request = (ReconnectionRequestMessage) msg;
+                writeNodeIdentifier(request.getNodeId(), out);
+                writeDataFlow(request.getDataFlow(), out);
+                out.writeBoolean(request.isPrimary());
+                writeString(request.getInstanceId(), out);
+                writeNodeConnectionStatuses(request.getNodeConnectionStatuses(), out);
+                writeComponentRevisions(request.getComponentRevisions(), out);
+                break;
+            }
+            case LOAD_BALANCE_FLOWFILES: {
+                final LoadBalanceFlowFilesMessage request = (LoadBalanceFlowFilesMessage) msg;
+                writeNodeIdentifier(request.getNodeId(), out);
+                writeString(request.getConnectionId(), out);
+                out.writeInt(request.getCodecVersion());
+                out.writeInt(request.getFlowFileCount());
+                writeBytes(request.getFlowFiles(), out);
+                break;
+            }
+            case LOAD_BALANCE_FLOWFILES_RESPONSE: {
+                final LoadBalanceFlowFilesResponseMessage response = (LoadBalanceFlowFilesResponseMessage) msg;
+                out.writeBoolean(response.isAccepted());
+                writeString(response.getRejectionReason(), out);
+                break;
+            }
+            default:
+                throw new IOException("Protocol message type " + msg.getType() + " has no binary form");
+        }
+
+        out.flush();
+    }
+
+    static ProtocolMessage decode(final byte[] msgBytes) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(msgBytes));
+
+        final MessageType type;
+        try {
+            type = MessageType.valueOf(in.readUTF());
+        } catch (final IllegalArgumentException iae) {
+            throw new IOException("Failed reading protocol message due to unknown message type", iae);
+        }
+
+        switch (type) {
+            case HEARTBEAT: {
+                final HeartbeatMessage msg = new HeartbeatMessage();
+                if (in.readBoolean()) {
+                    final NodeIdentifier nodeId = readNodeIdentifier(in);
+                    final NodeConnectionStatus connectionStatus = readNodeConnectionStatus(in);
+                    msg.setHeartbeat(new Heartbeat(nodeId, connectionStatus, readBytes(in)));
+                }
+                return msg;
+            }
+            case HEARTBEAT_RESPONSE: {
+                final HeartbeatResponseMessage msg = new HeartbeatResponseMessage();
+                final List<NodeConnectionStatus> statuses = readNodeConnectionStatuses(in);
+                if (statuses != null) {
+                    msg.setUpdatedNodeStatuses(statuses);
+                }
+                msg.setFlowElectionMessage(readString(in));
+                final List<NodeHealth> nodeHealth = readNodeHealth(in);
+                if (nodeHealth != null) {
+                    msg.setNodeHealth(nodeHealth);
+                }
+                return msg;
+            }
+            case CONNECTION_REQUEST: {
+                final ConnectionRequestMessage msg = new ConnectionRequestMessage();
+                if (in.readBoolean()) {
+                    final NodeIdentifier nodeId = readNodeIdentifier(in);
+                    final DataFlow dataFlow = readDataFlow(in);
+                    // the flag was appended later, so requests from older nodes end without it
+                    final boolean flowDeltaSupported = in.available() > 0 && in.readBoolean();
+                    msg.setConnectionRequest(new ConnectionRequest(nodeId, dataFlow, flowDeltaSupported));
+                }
+                return msg;
+            }
+            case CONNECTION_RESPONSE: {
+                final ConnectionResponseMessage msg = new ConnectionResponseMessage();
+                if (in.readBoolean()) {
+                    final int tryLaterSeconds = in.readInt();
+                    final String rejectionReason = readString(in);
+                    final NodeIdentifier nodeId = readNodeIdentifier(in);
+                    final DataFlow dataFlow = readDataFlow(in);
+                    final String instanceId = readString(in);
+                    final List<NodeConnectionStatus> statuses = readNodeConnectionStatuses(in);
+                    final List<ComponentRevision> revisions = readComponentRevisions(in);
+
+                    if (tryLaterSeconds > 0) {
+                        msg.setConnectionResponse(new ConnectionResponse(tryLaterSeconds, rejectionReason));
+                    } else if (rejectionReason != null) {
+                        msg.setConnectionResponse(ConnectionResponse.createRejectionResponse(rejectionReason));
+                    } else {
+                        msg.setConnectionResponse(new ConnectionResponse(nodeId, dataFlow, instanceId, statuses, revisions));
+                    }
+                }
+                return msg;
+            }
+            case FLOW_REQUEST: {
+                final FlowRequestMessage msg = new FlowRequestMessage();
+                msg.setNodeId(readNodeIdentifier(in));
+                return msg;
+            }
+            case FLOW_RESPONSE: {
+                final FlowResponseMessage msg = new FlowResponseMessage();
+                msg.setDataFlow(readDataFlow(in));
+                return msg;
+            }
+            case RECONNECTION_REQUEST: {
+                final ReconnectionRequestMessage msg = new ReconnectionRequestMessage();
+                msg.setNodeId(readNodeIdentifier(in));
+                msg.setDataFlow(readDataFlow(in));
+                msg.setPrimary(in.readBoolean());
+                msg.setInstanceId(readString(in));
+                msg.setNodeConnectionStatuses(readNodeConnectionStatuses(in));
+                msg.setComponentRevisions(readComponentRevisions(in));
+                return msg;
+            }
+            case LOAD_BALANCE_FLOWFILES: {
+                final LoadBalanceFlowFilesMessage msg = new LoadBalanceFlowFilesMessage();
+                msg.setNodeId(readNodeIdentifier(in));
+                msg.setConnectionId(readString(in));
+                msg.setCodecVersion(in.readInt());
+                msg.setFlowFileCount(in.readInt());
+                msg.setFlowFiles(readBytes(in));
+                return msg;
+            }
+            case LOAD_BALANCE_FLOWFILES_RESPONSE: {
+                final LoadBalanceFlowFilesResponseMessage msg = new LoadBalanceFlowFilesResponseMessage();
+                msg.setAccepted(in.readBoolean());
+                msg.setRejectionReason(readString(in));
+                return msg;
+            }
+            default:
+                throw new IOException("Protocol message type " + type + " has no binary form");
+        }
+    }
+
+    private static void writeNodeIdentifier(final NodeIdentifier nodeId, final DataOutputStream out) throws IOException {
+        out.writeBoolean(nodeId != null);
+        if (nodeId == null) {
+            return;
+        }
+
+        writeString(nodeId.getId(), out);
+        writeString(nodeId.getApiAddress(), out);
+        out.writeInt(nodeId.getApiPort());
+        writeString(nodeId.getSocketAddress(), out);
+        out.writeInt(nodeId.getSocketPort());
+        writeString(nodeId.getSiteToSiteAddress(), out);
+        writeInteger(nodeId.getSiteToSitePort(), out);
+        writeInteger(nodeId.getSiteToSiteHttpApiPort(), out);
+        out.writeBoolean(nodeId.isSiteToSiteSecure());
+    }
+
+    private static NodeIdentifier readNodeIdentifier(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        final String id = readString(in);
+        final String apiAddress = readString(in);
+        final int apiPort = in.readInt();
+        final String socketAddress = readString(in);
+        final int socketPort = in.readInt();
+        final String siteToSiteAddress = readString(in);
+        final Integer siteToSitePort = readInteger(in);
+        final Integer siteToSiteHttpApiPort = readInteger(in);
+        final boolean siteToSiteSecure = in.readBoolean();
+        return new NodeIdentifier(id, apiAddress, apiPort, socketAddress, socketPort, siteToSiteAddress, siteToSitePort, siteToSiteHttpApiPort, siteToSiteSecure);
+    }
+
+    private static void writeNodeConnectionStatus(final NodeConnectionStatus status, final DataOutputStream out) throws IOException {
+        out.writeBoolean(status != null);
+        if (status == null) {
+            return;
+        }
+
+        out.writeLong(status.getUpdateIdentifier());
+        writeNodeIdentifier(status.getNodeIdentifier(), out);
+        writeString(status.getState() == null ? null : status.getState().name(), out);
+        writeString(status.getDisconnectCode() == null ? null : status.getDisconnectCode().name(), out);
+        writeString(status.getDisconnectReason(), out);
+        writeLong(status.getConnectionRequestTime(), out);
+    }
+
+    private static NodeConnectionStatus readNodeConnectionStatus(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        final long updateId = in.readLong();
+        final NodeIdentifier nodeId = readNodeIdentifier(in);
+        final String state = readString(in);
+        final String disconnectCode = readString(in);
+        final String disconnectReason = readString(in);
+        final Long connectionRequestTime = readLong(in);
+
+        try {
+            return new NodeConnectionStatus(updateId, nodeId, state == null ? null : NodeConnectionState.valueOf(state),
+                disconnectCode == null ? null : DisconnectionCode.valueOf(disconnectCode), disconnectReason, connectionRequestTime);
+        } catch (final IllegalArgumentException iae) {
+            throw new IOException("Failed reading protocol message due to unknown node connection state", iae);
+        }
+    }
+
+    private static void writeNodeConnectionStatuses(final List<NodeConnectionStatus> statuses, final DataOutputStream out) throws IOException {
+        out.writeInt(statuses == null ? -1 : statuses.size());
+        if (statuses != null) {
+            for (final NodeConnectionStatus status : statuses) {
+                writeNodeConnectionStatus(status, out);
+            }
+        }
+    }
+
+    private static List<NodeConnectionStatus> readNodeConnectionStatuses(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+
+        final List<NodeConnectionStatus> statuses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            statuses.add(readNodeConnectionStatus(in));
+        }
+        return statuses;
+    }
+
+    private static void writeNodeHealth(final List<NodeHealth> nodeHealth, final DataOutputStream out) throws IOException {
+        out.writeInt(nodeHealth == null ? -1 : nodeHealth.size());
+        if (nodeHealth != null) {
+            for (final NodeHealth health : nodeHealth) {
+                writeNodeIdentifier(health.getNodeIdentifier(), out);
+                out.writeInt(health.getHealthScore());
+                out.writeInt(health.getFlowFileCount());
+            }
+        }
+    }
+
+    private static List<NodeHealth> readNodeHealth(final DataInputStream in) throws IOException {
+        // heartbeat responses from a Cluster Coordinator that does not calculate node health end here
+        if (in.available() == 0) {
+            return null;
+        }
+
+        final int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+
+        final List<NodeHealth> nodeHealth = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final NodeIdentifier nodeId = readNodeIdentifier(in);
+            nodeHealth.add(new NodeHealth(nodeId, in.readInt(), in.readInt()));
+        }
+        return nodeHealth;
+    }
+
+    private static void writeComponentRevisions(final List<ComponentRevision> revisions, final DataOutputStream out) throws IOException {
+        out.writeInt(revisions == null ? -1 : revisions.size());
+        if (revisions != null) {
+            for (final ComponentRevision revision : revisions) {
+                writeLong(revision.getVersion(), out);
+                writeString(revision.getClientId(), out);
+                writeString(revision.getComponentId(), out);
+            }
+        }
+    }
+
+    private static List<ComponentRevision> readComponentRevisions(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+
+        final List<ComponentRevision> revisions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ComponentRevision revision = new ComponentRevision();
+            revision.setVersion(readLong(in));
+            revision.setClientId(readString(in));
+            revision.setComponentId(readString(in));
+            revisions.add(revision);
+        }
+        return revisions;
+    }
+
+    private static void writeDataFlow(final DataFlow dataFlow, final DataOutputStream out) throws IOException {
+        out.writeBoolean(dataFlow != null);
+        if (dataFlow == null) {
+            return;
+        }
+
+        writeCompressedBytes(dataFlow.getFlow(), out);
+        writeCompressedBytes(dataFlow.getSnippets(), out);
+        writeCompressedBytes(dataFlow.getAuthorizerFingerprint(), out);
+    }
+
+    private static StandardDataFlow readDataFlow(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        final byte[] flow = readCompressedBytes(in);
+        final byte[] snippets = readCompressedBytes(in);
+        final byte[] authorizerFingerprint = readCompressedBytes(in);
+        return new StandardDataFlow(flow, snippets, authorizerFingerprint);
+    }
+
+    private static void writeCompressedBytes(final byte[] bytes, final DataOutputStream out) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            final byte[] buffer = new byte[BUF_SIZE];
+            while (!deflater.finished()) {
+                final int len = deflater.deflate(buffer);
+                compressed.write(buffer, 0, len);
+            }
+
+            out.writeInt(bytes.length);
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] readCompressedBytes(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                final int len = inflater.inflate(bytes, offset, length - offset);
+                if (len == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Failed reading protocol message due to truncated compressed data");
+                }
+                offset += len;
+            }
+            return bytes;
+        } catch (final DataFormatException dfe) {
+            throw new IOException("Failed reading protocol message due to corrupted compressed data", dfe);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeBytes(final byte[] bytes, final DataOutputStream out) throws IOException {
+        out.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeString(final String value, final DataOutputStream out) throws IOException {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8), out);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(final Integer value, final DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeLong(final Long value, final DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
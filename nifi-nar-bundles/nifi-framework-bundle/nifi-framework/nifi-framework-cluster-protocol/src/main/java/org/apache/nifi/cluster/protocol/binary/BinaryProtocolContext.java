@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.protocol.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+
+import org.apache.nifi.cluster.protocol.ProtocolContext;
+import org.apache.nifi.cluster.protocol.ProtocolMessageMarshaller;
+import org.apache.nifi.cluster.protocol.ProtocolMessageUnmarshaller;
+import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
+
+/**
+ * <p>
+ * Implements a context for communicating internally amongst the cluster using a compact, versioned binary format for
+ * the messages that are exchanged most often or that carry the flow: heartbeats, connection requests and responses,
+ * flow requests and responses and reconnection requests. The flow, snippets and authorizer fingerprint are compressed.
+ * All other messages are serialized with the given fallback context.
+ * </p>
+ *
+ * <p>
+ * A binary message begins with a sentinel that differs from the one used by the fallback context, so the unmarshaller
+ * accepts messages in either format. The response to a request is always written in the format of the request, so a
+ * node that has binary messages disabled continues to receive responses that it can read.
+ * </p>
+ */
+public class BinaryProtocolContext implements ProtocolContext<ProtocolMessage> {
+
+    /*
+     * Must differ from the sentinel of the fallback context so that the two formats can be told apart.
+     */
+    static final byte MESSAGE_PROTOCOL_START_SENTINEL = 0x5B;
+
+    static final int PROTOCOL_VERSION = 1;
+
+    private final ProtocolContext<ProtocolMessage> fallbackContext;
+    private final boolean binaryEnabled;
+
+    /**
+     * @param fallbackContext the context used for the messages that have no binary form, and for reading messages that were not written in binary
+     * @param binaryEnabled whether requests should be written in binary when possible; if false, requests are written with the fallback context
+     */
+    public BinaryProtocolContext(final ProtocolContext<ProtocolMessage> fallbackContext, final boolean binaryEnabled) {
+        if (fallbackContext == null) {
+            throw new IllegalArgumentException("Fallback protocol context may not be null.");
+        }
+        this.fallbackContext = fallbackContext;
+        this.binaryEnabled = binaryEnabled;
+    }
+
+    @Override
+    public ProtocolMessageMarshaller<ProtocolMessage> createMarshaller() {
+        return createMarshaller(binaryEnabled);
+    }
+
+    @Override
+    public ProtocolMessageMarshaller<ProtocolMessage> createResponseMarshaller(final ProtocolMessageUnmarshaller<ProtocolMessage> requestUnmarshaller) {
+        if (requestUnmarshaller instanceof BinaryUnmarshaller) {
+            return createMarshaller(((BinaryUnmarshaller) requestUnmarshaller).isBinary());
+        }
+        return createMarshaller();
+    }
+
+    private ProtocolMessageMarshaller<ProtocolMessage> createMarshaller(final boolean binary) {
+        final ProtocolMessageMarshaller<ProtocolMessage> fallbackMarshaller = fallbackContext.createMarshaller();
+        if (!binary) {
+            return fallbackMarshaller;
+        }
+
+        return new ProtocolMessageMarshaller<ProtocolMessage>() {
+            @Override
+            public void marshal(final ProtocolMessage msg, final OutputStream os) throws IOException {
+                if (!BinaryMessageCodec.isSupported(msg.getType())) {
+                    fallbackMarshaller.marshal(msg, os);
+                    return;
+                }
+
+                final ByteArrayOutputStream msgBytes = new ByteArrayOutputStream();
+                BinaryMessageCodec.encode(msg, new DataOutputStream(msgBytes));
+
+                final DataOutputStream dos = new DataOutputStream(os);
+                dos.write(MESSAGE_PROTOCOL_START_SENTINEL);
+                dos.write(PROTOCOL_VERSION);
+                dos.writeInt(msgBytes.size());
+                msgBytes.writeTo(dos);
+                dos.flush();
+            }
+        };
+    }
+
+    @Override
+    public ProtocolMessageUnmarshaller<ProtocolMessage> createUnmarshaller() {
+        return new BinaryUnmarshaller(fallbackContext.createUnmarshaller());
+    }
+
+    /**
+     * Reads a message in either format, remembering which format it was so that a response can be written in the same one.
+     */
+    private static class BinaryUnmarshaller implements ProtocolMessageUnmarshaller<ProtocolMessage> {
+        private final ProtocolMessageUnmarshaller<ProtocolMessage> fallbackUnmarshaller;
+        private volatile boolean binary = false;
+
+        BinaryUnmarshaller(final ProtocolMessageUnmarshaller<ProtocolMessage> fallbackUnmarshaller) {
+            this.fallbackUnmarshaller = fallbackUnmarshaller;
+        }
+
+        boolean isBinary() {
+            return binary;
+        }
+
+        @Override
+        public ProtocolMessage unmarshal(final InputStream is) throws IOException {
+            final PushbackInputStream in = new PushbackInputStream(is, 1);
+            final int sentinel = in.read();
+            if (sentinel == -1) {
+                throw new EOFException();
+            }
+
+            if ((byte) sentinel != MESSAGE_PROTOCOL_START_SENTINEL) {
+                binary = false;
+                in.unread(sentinel);
+                return fallbackUnmarshaller.unmarshal(in);
+            }
+
+            binary = true;
+            final DataInputStream dis = new DataInputStream(in);
+            final int version = dis.read();
+            if (version < 1 || version > PROTOCOL_VERSION) {
+                throw new IOException("Failed reading protocol message due to unsupported binary protocol version " + version);
+            }
+
+            final int msgBytesSize = dis.readInt();
+            if (msgBytesSize < 0) {
+                throw new IOException("Failed reading protocol message due to malformed header");
+            }
+
+            final byte[] msgBytes = new byte[msgBytesSize];
+            dis.readFully(msgBytes);
+            return BinaryMessageCodec.decode(msgBytes);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.nifi.cluster.protocol.impl;
 import java.io.IOException;
 import java.util.Collection;
 
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.cluster.protocol.NodeProtocolSender;
 import org.apache.nifi.cluster.protocol.ProtocolException;
 import org.apache.nifi.cluster.protocol.ProtocolHandler;
@@ -28,6 +29,8 @@ import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
 import org.apache.nifi.cluster.protocol.message.ConnectionResponseMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatMessage;
 import org.apache.nifi.cluster.protocol.message.HeartbeatResponseMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
 import org.apache.nifi.reporting.BulletinRepository;
 
 public class NodeProtocolSenderListener implements NodeProtocolSender, ProtocolListener {
@@ -96,4 +99,9 @@ public class NodeProtocolSenderListener implements NodeProtocolSender, ProtocolL
     public HeartbeatResponseMessage heartbeat(final HeartbeatMessage msg, final String address) throws ProtocolException {
         return sender.heartbeat(msg, address);
     }
+
+    @Override
+    public LoadBalanceFlowFilesResponseMessage loadBalanceFlowFiles(final LoadBalanceFlowFilesMessage msg, final NodeIdentifier nodeId) throws ProtocolException {
+        return sender.loadBalanceFlowFiles(msg, nodeId);
+    }
 }
@@ -27,6 +27,7 @@ public class AdaptedConnectionRequest {
 
     private NodeIdentifier nodeIdentifier;
     private DataFlow dataFlow;
+    private boolean flowDeltaSupported;
 
     public AdaptedConnectionRequest() {
     }
@@ -48,4 +49,12 @@ public class AdaptedConnectionRequest {
     public void setDataFlow(final DataFlow dataFlow) {
         this.dataFlow = dataFlow;
     }
+
+    public boolean isFlowDeltaSupported() {
+        return flowDeltaSupported;
+    }
+
+    public void setFlowDeltaSupported(final boolean flowDeltaSupported) {
+        this.flowDeltaSupported = flowDeltaSupported;
+    }
 }
@@ -29,13 +29,14 @@ public class ConnectionRequestAdapter extends XmlAdapter<AdaptedConnectionReques
         if (cr != null) {
             aCr.setNodeIdentifier(cr.getProposedNodeIdentifier());
             aCr.setDataFlow(cr.getDataFlow());
+            aCr.setFlowDeltaSupported(cr.isFlowDeltaSupported());
         }
         return aCr;
     }
 
     @Override
     public ConnectionRequest unmarshal(final AdaptedConnectionRequest aCr) {
-        return new ConnectionRequest(aCr.getNodeIdentifier(), aCr.getDataFlow());
+        return new ConnectionRequest(aCr.getNodeIdentifier(), aCr.getDataFlow(), aCr.isFlowDeltaSupported());
     }
 
 }
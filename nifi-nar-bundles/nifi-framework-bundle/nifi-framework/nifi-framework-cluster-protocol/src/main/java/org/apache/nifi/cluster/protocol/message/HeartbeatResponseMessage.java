@@ -23,12 +23,14 @@ import java.util.List;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 
 @XmlRootElement(name = "heartbeatResponse")
 public class HeartbeatResponseMessage extends ProtocolMessage {
 
     private List<NodeConnectionStatus> updatedNodeStatuses = new ArrayList<>();
     private String flowElectionMessage = null;
+    private List<NodeHealth> nodeHealth = new ArrayList<>();
 
     @Override
     public MessageType getType() {
@@ -50,4 +52,15 @@ public class HeartbeatResponseMessage extends ProtocolMessage {
     public void setFlowElectionMessage(String flowElectionMessage) {
         this.flowElectionMessage = flowElectionMessage;
     }
+
+    /**
+     * @return the health of each connected node, as calculated by the Cluster Coordinator
+     */
+    public List<NodeHealth> getNodeHealth() {
+        return nodeHealth;
+    }
+
+    public void setNodeHealth(final List<NodeHealth> nodeHealth) {
+        this.nodeHealth = new ArrayList<>(nodeHealth);
+    }
 }
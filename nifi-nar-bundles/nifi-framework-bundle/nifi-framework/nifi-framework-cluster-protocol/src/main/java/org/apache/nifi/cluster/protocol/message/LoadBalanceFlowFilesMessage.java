@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.protocol.message;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.jaxb.message.NodeIdentifierAdapter;
+
+/**
+ * Transfers FlowFiles from the queue of a load-balanced Connection on one node to the queue of the same Connection on
+ * another node. The FlowFiles are encoded, attributes followed by content, with the codec version given by
+ * {@link #getCodecVersion()}.
+ */
+@XmlRootElement(name = "loadBalanceFlowFilesMessage")
+public class LoadBalanceFlowFilesMessage extends ProtocolMessage {
+
+    private NodeIdentifier nodeId;
+    private String connectionId;
+    private int codecVersion;
+    private int flowFileCount;
+    private byte[] flowFiles;
+
+    @Override
+    public MessageType getType() {
+        return MessageType.LOAD_BALANCE_FLOWFILES;
+    }
+
+    /**
+     * @return the node that sent the FlowFiles
+     */
+    @XmlJavaTypeAdapter(NodeIdentifierAdapter.class)
+    public NodeIdentifier getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(final NodeIdentifier nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    public void setConnectionId(final String connectionId) {
+        this.connectionId = connectionId;
+    }
+
+    public int getCodecVersion() {
+        return codecVersion;
+    }
+
+    public void setCodecVersion(final int codecVersion) {
+        this.codecVersion = codecVersion;
+    }
+
+    public int getFlowFileCount() {
+        return flowFileCount;
+    }
+
+    public void setFlowFileCount(final int flowFileCount) {
+        this.flowFileCount = flowFileCount;
+    }
+
+    public byte[] getFlowFiles() {
+        return flowFiles;
+    }
+
+    public void setFlowFiles(final byte[] flowFiles) {
+        this.flowFiles = flowFiles;
+    }
+}
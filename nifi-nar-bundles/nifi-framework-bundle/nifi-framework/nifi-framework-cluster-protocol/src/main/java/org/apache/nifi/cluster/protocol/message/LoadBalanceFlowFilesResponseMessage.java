@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.protocol.message;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Indicates whether the FlowFiles of a {@link LoadBalanceFlowFilesMessage} were accepted. The sending node remains
+ * responsible for FlowFiles that were not accepted.
+ */
+@XmlRootElement(name = "loadBalanceFlowFilesResponseMessage")
+public class LoadBalanceFlowFilesResponseMessage extends ProtocolMessage {
+
+    private boolean accepted;
+    private String rejectionReason;
+
+    @Override
+    public MessageType getType() {
+        return MessageType.LOAD_BALANCE_FLOWFILES_RESPONSE;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(final boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    public String getRejectionReason() {
+        return rejectionReason;
+    }
+
+    public void setRejectionReason(final String rejectionReason) {
+        this.rejectionReason = rejectionReason;
+    }
+}
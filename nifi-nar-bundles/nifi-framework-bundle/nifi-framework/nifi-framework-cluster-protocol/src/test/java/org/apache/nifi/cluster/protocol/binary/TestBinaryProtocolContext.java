@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.protocol.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.nifi.cluster.coordination.node.DisconnectionCode;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.ComponentRevision;
+import org.apache.nifi.cluster.protocol.ConnectionRequest;
+import org.apache.nifi.cluster.protocol.ConnectionResponse;
+import org.apache.nifi.cluster.protocol.DataFlow;
+import org.apache.nifi.cluster.protocol.Heartbeat;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.ProtocolContext;
+import org.apache.nifi.cluster.protocol.ProtocolMessageUnmarshaller;
+import org.apache.nifi.cluster.protocol.StandardDataFlow;
+import org.apache.nifi.cluster.protocol.jaxb.JaxbProtocolContext;
+import org.apache.nifi.cluster.protocol.jaxb.message.JaxbProtocolUtils;
+import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
+import org.apache.nifi.cluster.protocol.message.ConnectionResponseMessage;
+import org.apache.nifi.cluster.protocol.message.HeartbeatMessage;
+import org.apache.nifi.cluster.protocol.message.HeartbeatResponseMessage;
+import org.apache.nifi.cluster.protocol.message.PingMessage;
+import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
+import org.apache.nifi.web.Revision;
+import org.junit.Test;
+
+public class TestBinaryProtocolContext {
+
+    @SuppressWarnings("unchecked")
+    private final ProtocolContext<ProtocolMessage> jaxbContext = new JaxbProtocolContext<>(JaxbProtocolUtils.JAXB_CONTEXT);
+
+    private final NodeIdentifier nodeId = new NodeIdentifier("id", "localhost", 8000, "localhost", 8001, "localhost", 8002, 8003, true);
+
+    private byte[] marshal(final ProtocolContext<ProtocolMessage> context, final ProtocolMessage msg) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        context.createMarshaller().marshal(msg, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testRoundTripConnectionResponse() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final StringBuilder flow = new StringBuilder("<flowController>");
+        for (int i = 0; i < 1000; i++) {
+            flow.append("<processor><id>").append(i).append("</id></processor>");
+        }
+        flow.append("</flowController>");
+        final byte[] flowBytes = flow.toString().getBytes(StandardCharsets.UTF_8);
+
+        final DataFlow dataFlow = new StandardDataFlow(flowBytes, new byte[0], null);
+        final List<NodeConnectionStatus> nodeStatuses = Collections.singletonList(new NodeConnectionStatus(nodeId, DisconnectionCode.NOT_YET_CONNECTED));
+        final List<ComponentRevision> componentRevisions = Collections.singletonList(ComponentRevision.fromRevision(new Revision(8L, "client-1", "component-1")));
+        final ConnectionResponseMessage msg = new ConnectionResponseMessage();
+        msg.setConnectionResponse(new ConnectionResponse(nodeId, dataFlow, "instance-1", nodeStatuses, componentRevisions));
+
+        final byte[] marshalled = marshal(context, msg);
+        assertEquals(BinaryProtocolContext.MESSAGE_PROTOCOL_START_SENTINEL, marshalled[0]);
+        assertTrue(marshalled.length < flowBytes.length);
+
+        final ProtocolMessage unmarshalled = context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshalled));
+        assertTrue(unmarshalled instanceof ConnectionResponseMessage);
+        final ConnectionResponse response = ((ConnectionResponseMessage) unmarshalled).getConnectionResponse();
+
+        assertEquals(nodeId, response.getNodeIdentifier());
+        assertEquals(8003, response.getNodeIdentifier().getSiteToSiteHttpApiPort().intValue());
+        assertEquals("instance-1", response.getInstanceId());
+        assertArrayEquals(flowBytes, response.getDataFlow().getFlow());
+        assertArrayEquals(new byte[0], response.getDataFlow().getSnippets());
+        assertNull(response.getDataFlow().getAuthorizerFingerprint());
+        assertEquals(nodeStatuses, response.getNodeConnectionStatuses());
+        assertEquals(DisconnectionCode.NOT_YET_CONNECTED, response.getNodeConnectionStatuses().get(0).getDisconnectCode());
+        assertEquals(componentRevisions, response.getComponentRevisions());
+    }
+
+    @Test
+    public void testRoundTripRejectedConnectionResponse() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final ConnectionResponseMessage msg = new ConnectionResponseMessage();
+        msg.setConnectionResponse(new ConnectionResponse(30, "Try later"));
+
+        final ProtocolMessage unmarshalled = context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshal(context, msg)));
+        final ConnectionResponse response = ((ConnectionResponseMessage) unmarshalled).getConnectionResponse();
+        assertTrue(response.shouldTryLater());
+        assertEquals(30, response.getTryLaterSeconds());
+        assertEquals("Try later", response.getRejectionReason());
+    }
+
+    @Test
+    public void testRoundTripConnectionRequest() throws IOException {
+        final DataFlow dataFlow = new StandardDataFlow("<flowController/>".getBytes(StandardCharsets.UTF_8), new byte[0], new byte[0]);
+        for (final ProtocolContext<ProtocolMessage> context : Arrays.asList(new BinaryProtocolContext(jaxbContext, true), jaxbContext)) {
+            for (final boolean flowDeltaSupported : new boolean[] {true, false}) {
+                final ConnectionRequestMessage msg = new ConnectionRequestMessage();
+                msg.setConnectionRequest(new ConnectionRequest(nodeId, dataFlow, flowDeltaSupported));
+
+                final ProtocolMessage unmarshalled = context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshal(context, msg)));
+                final ConnectionRequest request = ((ConnectionRequestMessage) unmarshalled).getConnectionRequest();
+                assertEquals(nodeId, request.getProposedNodeIdentifier());
+                assertArrayEquals(dataFlow.getFlow(), request.getDataFlow().getFlow());
+                assertEquals(flowDeltaSupported, request.isFlowDeltaSupported());
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripHeartbeat() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final NodeConnectionStatus nodeStatus = new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED);
+        final byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+        final HeartbeatMessage msg = new HeartbeatMessage();
+        msg.setHeartbeat(new Heartbeat(nodeId, nodeStatus, payload));
+
+        final byte[] marshalled = marshal(context, msg);
+        assertEquals(BinaryProtocolContext.MESSAGE_PROTOCOL_START_SENTINEL, marshalled[0]);
+
+        final ProtocolMessage unmarshalled = context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshalled));
+        assertTrue(unmarshalled instanceof HeartbeatMessage);
+        final Heartbeat heartbeat = ((HeartbeatMessage) unmarshalled).getHeartbeat();
+        assertEquals(nodeId, heartbeat.getNodeIdentifier());
+        assertEquals(nodeStatus, heartbeat.getConnectionStatus());
+        assertEquals(NodeConnectionState.CONNECTED, heartbeat.getConnectionStatus().getState());
+        assertArrayEquals(payload, heartbeat.getPayload());
+    }
+
+    @Test
+    public void testRoundTripHeartbeatResponse() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final HeartbeatResponseMessage msg = new HeartbeatResponseMessage();
+        msg.setUpdatedNodeStatuses(Collections.singletonList(new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED)));
+        msg.setNodeHealth(Collections.singletonList(new NodeHealth(nodeId, 42, 1000)));
+
+        final ProtocolMessage unmarshalled = context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshal(context, msg)));
+        assertTrue(unmarshalled instanceof HeartbeatResponseMessage);
+        final HeartbeatResponseMessage response = (HeartbeatResponseMessage) unmarshalled;
+        assertEquals(1, response.getUpdatedNodeStatuses().size());
+        assertNull(response.getFlowElectionMessage());
+
+        final List<NodeHealth> nodeHealth = response.getNodeHealth();
+        assertEquals(1, nodeHealth.size());
+        assertEquals(nodeId, nodeHealth.get(0).getNodeIdentifier());
+        assertEquals(42, nodeHealth.get(0).getHealthScore());
+        assertEquals(1000, nodeHealth.get(0).getFlowFileCount());
+    }
+
+    @Test
+    public void testUnsupportedMessageUsesFallback() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final byte[] marshalled = marshal(context, new PingMessage());
+        assertArrayEquals(marshal(jaxbContext, new PingMessage()), marshalled);
+        assertTrue(context.createUnmarshaller().unmarshal(new ByteArrayInputStream(marshalled)) instanceof PingMessage);
+    }
+
+    @Test
+    public void testResponseFormatFollowsRequest() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, true);
+
+        final HeartbeatMessage msg = new HeartbeatMessage();
+        msg.setHeartbeat(new Heartbeat(nodeId, new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED), new byte[0]));
+
+        // a request from a node that sends XML is read and answered in XML
+        final ProtocolMessageUnmarshaller<ProtocolMessage> xmlUnmarshaller = context.createUnmarshaller();
+        assertTrue(xmlUnmarshaller.unmarshal(new ByteArrayInputStream(marshal(jaxbContext, msg))) instanceof HeartbeatMessage);
+        final ByteArrayOutputStream xmlResponse = new ByteArrayOutputStream();
+        context.createResponseMarshaller(xmlUnmarshaller).marshal(msg, xmlResponse);
+        assertTrue(jaxbContext.createUnmarshaller().unmarshal(new ByteArrayInputStream(xmlResponse.toByteArray())) instanceof HeartbeatMessage);
+
+        // a binary request is answered in binary
+        final ProtocolMessageUnmarshaller<ProtocolMessage> binaryUnmarshaller = context.createUnmarshaller();
+        binaryUnmarshaller.unmarshal(new ByteArrayInputStream(marshal(context, msg)));
+        final ByteArrayOutputStream binaryResponse = new ByteArrayOutputStream();
+        context.createResponseMarshaller(binaryUnmarshaller).marshal(msg, binaryResponse);
+        assertEquals(BinaryProtocolContext.MESSAGE_PROTOCOL_START_SENTINEL, binaryResponse.toByteArray()[0]);
+    }
+
+    @Test
+    public void testBinaryDisabled() throws IOException {
+        final ProtocolContext<ProtocolMessage> context = new BinaryProtocolContext(jaxbContext, false);
+
+        final HeartbeatMessage msg = new HeartbeatMessage();
+        msg.setHeartbeat(new Heartbeat(nodeId, new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED), new byte[0]));
+        assertArrayEquals(marshal(jaxbContext, msg), marshal(context, msg));
+    }
+}
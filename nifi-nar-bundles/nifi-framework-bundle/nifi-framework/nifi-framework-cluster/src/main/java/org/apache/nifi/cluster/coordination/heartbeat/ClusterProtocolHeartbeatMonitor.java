@@ -30,6 +30,7 @@ import javax.xml.bind.Unmarshaller;
 import org.apache.nifi.cluster.coordination.ClusterCoordinator;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.protocol.Heartbeat;
 import org.apache.nifi.cluster.protocol.HeartbeatPayload;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
@@ -141,15 +142,17 @@ public class ClusterProtocolHeartbeatMonitor extends AbstractHeartbeatMonitor im
         final NodeConnectionStatus connectionStatus = heartbeat.getConnectionStatus();
         final byte[] payloadBytes = heartbeat.getPayload();
         final HeartbeatPayload payload = HeartbeatPayload.unmarshal(payloadBytes);
-        final int activeThreadCount = payload.getActiveThreadCount();
-        final int flowFileCount = (int) payload.getTotalFlowFileCount();
-        final long flowFileBytes = payload.getTotalFlowFileBytes();
-        final long systemStartTime = payload.getSystemStartTime();
 
-        final NodeHeartbeat nodeHeartbeat = new StandardNodeHeartbeat(nodeId, System.currentTimeMillis(),
-                connectionStatus, flowFileCount, flowFileBytes, activeThreadCount, systemStartTime);
+        final long timestamp = System.currentTimeMillis();
+        final NodeHeartbeat previousHeartbeat = heartbeatMessages.get(nodeId);
+        final int healthScore = NodeHealthCalculator.calculateHealthScore(previousHeartbeat, timestamp, payload);
+        final NodeHeartbeat nodeHeartbeat = new StandardNodeHeartbeat(nodeId, timestamp, connectionStatus, payload, healthScore);
         heartbeatMessages.put(heartbeat.getNodeIdentifier(), nodeHeartbeat);
-        logger.debug("Received new heartbeat from {}", nodeId);
+        logger.debug("Received new heartbeat from {} with health score {}", nodeId, healthScore);
+
+        if (previousHeartbeat != null && previousHeartbeat.getHealthScore() >= NodeHealth.UNHEALTHY_THRESHOLD && healthScore < NodeHealth.UNHEALTHY_THRESHOLD) {
+            logger.warn("Health score of {} dropped to {}; the node will be given less work until it recovers", nodeId, healthScore);
+        }
 
         // Formulate a List of differences between our view of the cluster topology and the node's view
         // and send that back to the node so that it is in-sync with us
@@ -162,6 +165,8 @@ public class ClusterProtocolHeartbeatMonitor extends AbstractHeartbeatMonitor im
         final HeartbeatResponseMessage responseMessage = new HeartbeatResponseMessage();
         responseMessage.setUpdatedNodeStatuses(updatedStatuses);
 
+        responseMessage.setNodeHealth(getNodeHealth());
+
         if (!getClusterCoordinator().isFlowElectionComplete()) {
             responseMessage.setFlowElectionMessage(getClusterCoordinator().getFlowElectionStatus());
         }
@@ -169,6 +174,20 @@ public class ClusterProtocolHeartbeatMonitor extends AbstractHeartbeatMonitor im
         return responseMessage;
     }
 
+    /**
+     * @return the health of each connected node, based on its latest heartbeat
+     */
+    private List<NodeHealth> getNodeHealth() {
+        final List<NodeHealth> nodeHealth = new ArrayList<>();
+        for (final NodeIdentifier nodeId : clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED)) {
+            final NodeHeartbeat nodeHeartbeat = heartbeatMessages.get(nodeId);
+            if (nodeHeartbeat != null) {
+                nodeHealth.add(new NodeHealth(nodeId, nodeHeartbeat.getHealthScore(), nodeHeartbeat.getFlowFileCount()));
+            }
+        }
+        return nodeHealth;
+    }
+
     private List<NodeConnectionStatus> getUpdatedStatuses(final List<NodeConnectionStatus> nodeStatusList) {
         // Map node's statuses by NodeIdentifier for quick & easy lookup
         final Map<NodeIdentifier, NodeConnectionStatus> nodeStatusMap = nodeStatusList.stream()
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.coordination.heartbeat;
+
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.HeartbeatPayload;
+
+/**
+ * Calculates the health score of a node from its heartbeats. The score starts at {@link NodeHealth#MAX_HEALTH_SCORE}
+ * and is reduced by a penalty for each of the following, in proportion to how far the node is past the point at which
+ * it starts to struggle:
+ * <ul>
+ * <li>the share of its Connections that are applying back pressure</li>
+ * <li>the utilization of its fullest repository, once above {@value #REPOSITORY_UTILIZATION_THRESHOLD}%</li>
+ * <li>the share of the time since the previous heartbeat that was spent in garbage collection</li>
+ * <li>the saturation of its thread pools, once above {@value #THREAD_SATURATION_THRESHOLD}%</li>
+ * </ul>
+ */
+final class NodeHealthCalculator {
+
+    static final int BACK_PRESSURE_PENALTY = 30;
+    static final int REPOSITORY_PENALTY = 25;
+    static final int GARBAGE_COLLECTION_PENALTY = 30;
+    static final int THREAD_SATURATION_PENALTY = 15;
+
+    static final int REPOSITORY_UTILIZATION_THRESHOLD = 80;
+    static final int THREAD_SATURATION_THRESHOLD = 75;
+
+    // the share of time spent in garbage collection at which the full penalty applies
+    static final double MAX_GARBAGE_COLLECTION_RATIO = 0.25D;
+
+    private NodeHealthCalculator() {
+    }
+
+    /**
+     * @param previous the previous heartbeat from the node, or <code>null</code> if there is none
+     * @param timestamp the time at which the new heartbeat was received
+     * @param payload the payload of the new heartbeat
+     * @return the health score of the node
+     */
+    static int calculateHealthScore(final NodeHeartbeat previous, final long timestamp, final HeartbeatPayload payload) {
+        double penalty = 0D;
+
+        if (payload.getConnectionCount() > 0) {
+            penalty += BACK_PRESSURE_PENALTY * ratio(payload.getBackPressuredConnectionCount(), payload.getConnectionCount());
+        }
+
+        penalty += REPOSITORY_PENALTY * excess(payload.getRepositoryUtilization(), REPOSITORY_UTILIZATION_THRESHOLD, 100);
+
+        // the node reports the total time spent in garbage collection, so the share of time is taken from the difference
+        // between two heartbeats. There is nothing to compare against if the previous heartbeat was only a placeholder
+        // without metrics or was sent before the node restarted.
+        if (previous != null && !previous.isPlaceholder() && previous.getSystemStartTime() == payload.getSystemStartTime()) {
+            final long elapsedMillis = timestamp - previous.getTimestamp();
+            final long gcMillis = payload.getGarbageCollectionMillis() - previous.getGarbageCollectionMillis();
+            if (elapsedMillis > 0 && gcMillis > 0) {
+                penalty += GARBAGE_COLLECTION_PENALTY * Math.min(1D, (double) gcMillis / elapsedMillis / MAX_GARBAGE_COLLECTION_RATIO);
+            }
+        }
+
+        if (payload.getMaxThreadCount() > 0) {
+            final double saturation = 100D * payload.getActiveThreadCount() / payload.getMaxThreadCount();
+            penalty += THREAD_SATURATION_PENALTY * excess(saturation, THREAD_SATURATION_THRESHOLD, 100);
+        }
+
+        final long score = Math.round(NodeHealth.MAX_HEALTH_SCORE - penalty);
+        return (int) Math.max(0L, Math.min(NodeHealth.MAX_HEALTH_SCORE, score));
+    }
+
+    private static double ratio(final double value, final double max) {
+        return Math.max(0D, Math.min(1D, value / max));
+    }
+
+    private static double excess(final double value, final double threshold, final double max) {
+        return ratio(value - threshold, max - threshold);
+    }
+}
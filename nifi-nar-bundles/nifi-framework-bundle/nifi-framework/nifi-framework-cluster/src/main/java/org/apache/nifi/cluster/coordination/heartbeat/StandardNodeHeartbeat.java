@@ -18,6 +18,7 @@
 package org.apache.nifi.cluster.coordination.heartbeat;
 
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.protocol.Heartbeat;
 import org.apache.nifi.cluster.protocol.HeartbeatPayload;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
@@ -32,6 +33,13 @@ public class StandardNodeHeartbeat implements NodeHeartbeat {
     private final long flowFileBytes;
     private final int activeThreadCount;
     private final long systemStartTime;
+    private final int connectionCount;
+    private final int backPressuredConnectionCount;
+    private final int repositoryUtilization;
+    private final long garbageCollectionMillis;
+    private final int maxThreadCount;
+    private final int healthScore;
+    private final boolean placeholder;
 
     public StandardNodeHeartbeat(final NodeIdentifier nodeId, final long timestamp, final NodeConnectionStatus connectionStatus,
         final int flowFileCount, final long flowFileBytes, final int activeThreadCount, final long systemStartTime) {
@@ -42,6 +50,31 @@ public class StandardNodeHeartbeat implements NodeHeartbeat {
         this.flowFileBytes = flowFileBytes;
         this.activeThreadCount = activeThreadCount;
         this.systemStartTime = systemStartTime;
+        this.connectionCount = 0;
+        this.backPressuredConnectionCount = 0;
+        this.repositoryUtilization = 0;
+        this.garbageCollectionMillis = 0L;
+        this.maxThreadCount = 0;
+        this.healthScore = NodeHealth.MAX_HEALTH_SCORE;
+        this.placeholder = true;
+    }
+
+    public StandardNodeHeartbeat(final NodeIdentifier nodeId, final long timestamp, final NodeConnectionStatus connectionStatus,
+        final HeartbeatPayload payload, final int healthScore) {
+        this.timestamp = timestamp;
+        this.nodeId = nodeId;
+        this.connectionStatus = connectionStatus;
+        this.flowFileCount = (int) payload.getTotalFlowFileCount();
+        this.flowFileBytes = payload.getTotalFlowFileBytes();
+        this.activeThreadCount = payload.getActiveThreadCount();
+        this.systemStartTime = payload.getSystemStartTime();
+        this.connectionCount = payload.getConnectionCount();
+        this.backPressuredConnectionCount = payload.getBackPressuredConnectionCount();
+        this.repositoryUtilization = payload.getRepositoryUtilization();
+        this.garbageCollectionMillis = payload.getGarbageCollectionMillis();
+        this.maxThreadCount = payload.getMaxThreadCount();
+        this.healthScore = healthScore;
+        this.placeholder = false;
     }
 
     @Override
@@ -79,12 +112,46 @@ public class StandardNodeHeartbeat implements NodeHeartbeat {
         return systemStartTime;
     }
 
+    @Override
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    @Override
+    public int getBackPressuredConnectionCount() {
+        return backPressuredConnectionCount;
+    }
+
+    @Override
+    public int getRepositoryUtilization() {
+        return repositoryUtilization;
+    }
+
+    @Override
+    public long getGarbageCollectionMillis() {
+        return garbageCollectionMillis;
+    }
+
+    @Override
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    @Override
+    public int getHealthScore() {
+        return healthScore;
+    }
+
+    @Override
+    public boolean isPlaceholder() {
+        return placeholder;
+    }
+
     public static StandardNodeHeartbeat fromHeartbeatMessage(final HeartbeatMessage message, final long timestamp) {
         final Heartbeat heartbeat = message.getHeartbeat();
         final HeartbeatPayload payload = HeartbeatPayload.unmarshal(heartbeat.getPayload());
 
         return new StandardNodeHeartbeat(heartbeat.getNodeIdentifier(), timestamp, heartbeat.getConnectionStatus(),
-            (int) payload.getTotalFlowFileCount(), payload.getTotalFlowFileBytes(),
-            payload.getActiveThreadCount(), payload.getSystemStartTime());
+            payload, NodeHealthCalculator.calculateHealthScore(null, timestamp, payload));
     }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import java.net.URI;
 import java.util.Set;
 
 import org.apache.nifi.cluster.manager.NodeResponse;
+import org.apache.nifi.web.api.entity.Entity;
 
 /**
  * <p>
@@ -59,4 +60,16 @@ public interface EndpointResponseMerger {
      */
     NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse);
 
+    /**
+     * Indicates the type of Entity that this EndpointResponseMerger reads from each successful Node Response, by means of
+     * {@link NodeResponse#getClientEntity(Class)}. When a type is given, each node's response is read as soon as it is
+     * received, rather than all of the responses being read once every node has responded.
+     *
+     * @return the type of Entity that is read from each successful Node Response, or <code>null</code> if the responses
+     *         are not read as a single type of Entity
+     */
+    default Class<? extends Entity> getResponseEntityClass() {
+        return null;
+    }
+
 }
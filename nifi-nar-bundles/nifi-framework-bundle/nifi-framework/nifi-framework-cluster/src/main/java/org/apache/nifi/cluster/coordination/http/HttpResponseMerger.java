@@ -43,6 +43,18 @@ public interface HttpResponseMerger {
      */
     NodeResponse mergeResponses(URI uri, String httpMethod, Set<NodeResponse> nodeResponses);
 
+    /**
+     * Reads from the given Node Response whatever will be needed in order to merge it with the responses from the other nodes.
+     * This is called for each node's response as soon as it is received, so that the responses are parsed concurrently, as they
+     * arrive, and the connections to the nodes are released while waiting for the slowest node, rather than every response being
+     * parsed by the thread that merges them once all nodes have responded.
+     *
+     * @param uri the URI of the web request that was made
+     * @param httpMethod the HTTP Method that was used when making the request
+     * @param nodeResponse the response received from one of the nodes
+     */
+    void readNodeResponse(URI uri, String httpMethod, NodeResponse nodeResponse);
+
     /**
      * Returns a subset (or equal set) of the given Node Responses, such that all of those returned are the responses
      * that indicate that the node was unable to fulfill the request
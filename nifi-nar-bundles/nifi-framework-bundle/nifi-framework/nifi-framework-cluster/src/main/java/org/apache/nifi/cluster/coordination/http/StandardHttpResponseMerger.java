@@ -62,6 +62,7 @@ import org.apache.nifi.cluster.coordination.http.endpoints.TemplatesEndpointMerg
 import org.apache.nifi.cluster.coordination.http.replication.RequestReplicator;
 import org.apache.nifi.cluster.manager.NodeResponse;
 import org.apache.nifi.stream.io.NullOutputStream;
+import org.apache.nifi.web.api.entity.Entity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -180,6 +181,31 @@ public class StandardHttpResponseMerger implements HttpResponseMerger {
         return response;
     }
 
+    @Override
+    public void readNodeResponse(final URI uri, final String httpMethod, final NodeResponse nodeResponse) {
+        // Only successful responses are merged; any other response may be returned to the client as-is.
+        if (nodeResponse.hasThrowable() || !nodeResponse.is2xx() || "HEAD".equalsIgnoreCase(httpMethod)) {
+            return;
+        }
+
+        final EndpointResponseMerger merger = getEndpointResponseMerger(uri, httpMethod);
+        if (merger == null) {
+            return;
+        }
+
+        final Class<? extends Entity> entityClass = merger.getResponseEntityClass();
+        if (entityClass == null) {
+            return;
+        }
+
+        try {
+            nodeResponse.getClientEntity(entityClass);
+        } catch (final RuntimeException e) {
+            // The failure is retained by the Node Response and surfaces when the responses are merged.
+            logger.debug("Failed to read response from {} for {} {} as {}", nodeResponse.getNodeId(), httpMethod, uri.getPath(), entityClass.getSimpleName(), e);
+        }
+    }
+
     @Override
     public Set<NodeResponse> getProblematicNodeResponses(final Set<NodeResponse> allResponses) {
         // Check if there are any 2xx responses
@@ -29,18 +29,23 @@ import java.util.Set;
 
 public abstract class AbstractSingleDTOEndpoint<EntityType extends Entity, DtoType> implements EndpointResponseMerger {
 
+    @Override
+    public Class<EntityType> getResponseEntityClass() {
+        return getEntityClass();
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final EntityType responseEntity = clientResponse.getClientResponse().getEntity(getEntityClass());
+        final EntityType responseEntity = clientResponse.getClientEntity(getEntityClass());
         final DtoType dto = getDto(responseEntity);
 
         final Map<NodeIdentifier, DtoType> dtoMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final EntityType nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(getEntityClass());
+            final EntityType nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(getEntityClass());
             final DtoType nodeDto = getDto(nodeResponseEntity);
             dtoMap.put(nodeResponse.getNodeId(), nodeDto);
         }
@@ -38,18 +38,23 @@ public class ConnectionsEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && CONNECTIONS_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public Class<ConnectionsEntity> getResponseEntityClass() {
+        return ConnectionsEntity.class;
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final ConnectionsEntity responseEntity = clientResponse.getClientResponse().getEntity(ConnectionsEntity.class);
+        final ConnectionsEntity responseEntity = clientResponse.getClientEntity(ConnectionsEntity.class);
         final Set<ConnectionEntity> connectionEntities = responseEntity.getConnections();
 
         final Map<String, Map<NodeIdentifier, ConnectionEntity>> entityMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final ConnectionsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(ConnectionsEntity.class);
+            final ConnectionsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(ConnectionsEntity.class);
             final Set<ConnectionEntity> nodeConnectionEntities = nodeResponseEntity.getConnections();
 
             for (final ConnectionEntity nodeConnectionEntity : nodeConnectionEntities) {
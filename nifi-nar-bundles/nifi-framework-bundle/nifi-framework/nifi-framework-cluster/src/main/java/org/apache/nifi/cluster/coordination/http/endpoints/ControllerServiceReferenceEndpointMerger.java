@@ -42,19 +42,24 @@ public class ControllerServiceReferenceEndpointMerger implements EndpointRespons
         return false;
     }
 
+    @Override
+    public Class<ControllerServiceReferencingComponentsEntity> getResponseEntityClass() {
+        return ControllerServiceReferencingComponentsEntity.class;
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final ControllerServiceReferencingComponentsEntity responseEntity = clientResponse.getClientResponse().getEntity(ControllerServiceReferencingComponentsEntity.class);
+        final ControllerServiceReferencingComponentsEntity responseEntity = clientResponse.getClientEntity(ControllerServiceReferencingComponentsEntity.class);
         final Set<ControllerServiceReferencingComponentEntity> referencingComponents = responseEntity.getControllerServiceReferencingComponents();
 
         final Map<NodeIdentifier, Set<ControllerServiceReferencingComponentEntity>> resultsMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
             final ControllerServiceReferencingComponentsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity
-                : nodeResponse.getClientResponse().getEntity(ControllerServiceReferencingComponentsEntity.class);
+                : nodeResponse.getClientEntity(ControllerServiceReferencingComponentsEntity.class);
             final Set<ControllerServiceReferencingComponentEntity> nodeReferencingComponents = nodeResponseEntity.getControllerServiceReferencingComponents();
 
             resultsMap.put(nodeResponse.getNodeId(), nodeReferencingComponents);
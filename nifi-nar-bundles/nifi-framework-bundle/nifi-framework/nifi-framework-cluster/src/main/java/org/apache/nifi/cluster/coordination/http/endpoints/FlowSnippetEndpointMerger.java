@@ -41,9 +41,14 @@ public class FlowSnippetEndpointMerger implements EndpointResponseMerger {
             || FLOW_SNIPPET_INSTANCE_URI_PATTERN.matcher(uri.getPath()).matches());
     }
 
+    @Override
+    public Class<FlowEntity> getResponseEntityClass() {
+        return FlowEntity.class;
+    }
+
     @Override
     public NodeResponse merge(final URI uri, final String method, Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
-        final FlowEntity responseEntity = clientResponse.getClientResponse().getEntity(FlowEntity.class);
+        final FlowEntity responseEntity = clientResponse.getClientEntity(FlowEntity.class);
         final FlowDTO flowDto = responseEntity.getFlow();
 
         if (flowDto == null) {
@@ -53,7 +58,7 @@ public class FlowSnippetEndpointMerger implements EndpointResponseMerger {
             final Map<String, Map<NodeIdentifier, RemoteProcessGroupEntity>> remoteProcessGroupMap = new HashMap<>();
 
             for (final NodeResponse nodeResponse : successfulResponses) {
-                final FlowEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(FlowEntity.class);
+                final FlowEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(FlowEntity.class);
                 final FlowDTO nodeContents = nodeResponseEntity.getFlow();
 
                 for (final ProcessorEntity nodeProcessor : nodeContents.getProcessors()) {
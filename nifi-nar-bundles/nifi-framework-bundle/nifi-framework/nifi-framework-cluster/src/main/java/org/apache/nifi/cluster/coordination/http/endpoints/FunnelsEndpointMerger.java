@@ -37,18 +37,23 @@ public class FunnelsEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && FUNNELS_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public Class<FunnelsEntity> getResponseEntityClass() {
+        return FunnelsEntity.class;
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final FunnelsEntity responseEntity = clientResponse.getClientResponse().getEntity(FunnelsEntity.class);
+        final FunnelsEntity responseEntity = clientResponse.getClientEntity(FunnelsEntity.class);
         final Set<FunnelEntity> funnelEntities = responseEntity.getFunnels();
 
         final Map<String, Map<NodeIdentifier, FunnelEntity>> entityMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final FunnelsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(FunnelsEntity.class);
+            final FunnelsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(FunnelsEntity.class);
             final Set<FunnelEntity> nodeFunnelEntities = nodeResponseEntity.getFunnels();
 
             for (final FunnelEntity nodeFunnelEntity : nodeFunnelEntities) {
@@ -37,18 +37,23 @@ public class LabelsEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && LABELS_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public Class<LabelsEntity> getResponseEntityClass() {
+        return LabelsEntity.class;
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final LabelsEntity responseEntity = clientResponse.getClientResponse().getEntity(LabelsEntity.class);
+        final LabelsEntity responseEntity = clientResponse.getClientEntity(LabelsEntity.class);
         final Set<LabelEntity> labelEntities = responseEntity.getLabels();
 
         final Map<String, Map<NodeIdentifier, LabelEntity>> entityMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final LabelsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(LabelsEntity.class);
+            final LabelsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(LabelsEntity.class);
             final Set<LabelEntity> nodeLabelEntities = nodeResponseEntity.getLabels();
 
             for (final LabelEntity nodeLabelEntity : nodeLabelEntities) {
@@ -35,7 +35,12 @@ public class ProcessorsEndpointMerger implements EndpointResponseMerger {
 
     @Override
     public boolean canHandle(final URI uri, final String method) {
-        return "GET".equalsIgnoreCase(method) && PROCESSORS_URI_PATTERN.matcher(uri.getPath()).matches();
+        return ("GET".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) && PROCESSORS_URI_PATTERN.matcher(uri.getPath()).matches();
+    }
+
+    @Override
+    public Class<ProcessorsEntity> getResponseEntityClass() {
+        return ProcessorsEntity.class;
     }
 
     @Override
@@ -44,17 +49,17 @@ public class ProcessorsEndpointMerger implements EndpointResponseMerger {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final ProcessorsEntity responseEntity = clientResponse.getClientResponse().getEntity(ProcessorsEntity.class);
+        final ProcessorsEntity responseEntity = clientResponse.getClientEntity(ProcessorsEntity.class);
         final Set<ProcessorEntity> processorEntities = responseEntity.getProcessors();
 
         final Map<String, Map<NodeIdentifier, ProcessorEntity>> entityMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final ProcessorsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(ProcessorsEntity.class);
+            final ProcessorsEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(ProcessorsEntity.class);
             final Set<ProcessorEntity> nodeProcessorEntities = nodeResponseEntity.getProcessors();
 
             for (final ProcessorEntity nodeProcessorEntity : nodeProcessorEntities) {
                 final NodeIdentifier nodeId = nodeResponse.getNodeId();
-                Map<NodeIdentifier, ProcessorEntity> innerMap = entityMap.get(nodeId);
+                Map<NodeIdentifier, ProcessorEntity> innerMap = entityMap.get(nodeProcessorEntity.getId());
                 if (innerMap == null) {
                     innerMap = new HashMap<>();
                     entityMap.put(nodeProcessorEntity.getId(), innerMap);
@@ -54,18 +54,23 @@ public class ProvenanceQueryEndpointMerger implements EndpointResponseMerger {
     }
 
 
+    @Override
+    public Class<ProvenanceEntity> getResponseEntityClass() {
+        return ProvenanceEntity.class;
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final ProvenanceEntity responseEntity = clientResponse.getClientResponse().getEntity(ProvenanceEntity.class);
+        final ProvenanceEntity responseEntity = clientResponse.getClientEntity(ProvenanceEntity.class);
         final ProvenanceDTO dto = responseEntity.getProvenance();
 
         final Map<NodeIdentifier, ProvenanceDTO> dtoMap = new HashMap<>();
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final ProvenanceEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(ProvenanceEntity.class);
+            final ProvenanceEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(ProvenanceEntity.class);
             final ProvenanceDTO nodeDto = nodeResponseEntity.getProvenance();
             dtoMap.put(nodeResponse.getNodeId(), nodeDto);
         }
@@ -91,17 +91,22 @@ public class StatusHistoryEndpointMerger implements EndpointResponseMerger {
         return descriptors != null && !descriptors.isEmpty();
     }
 
+    @Override
+    public Class<StatusHistoryEntity> getResponseEntityClass() {
+        return StatusHistoryEntity.class;
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         final Map<String, MetricDescriptor<?>> metricDescriptors = getMetricDescriptors(uri);
 
-        final StatusHistoryEntity responseEntity = clientResponse.getClientResponse().getEntity(StatusHistoryEntity.class);
+        final StatusHistoryEntity responseEntity = clientResponse.getClientEntity(StatusHistoryEntity.class);
 
         StatusHistoryDTO lastStatusHistory = null;
         final List<NodeStatusSnapshotsDTO> nodeStatusSnapshots = new ArrayList<>(successfulResponses.size());
         LinkedHashMap<String, String> noReadPermissionsComponentDetails = null;
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final StatusHistoryEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(StatusHistoryEntity.class);
+            final StatusHistoryEntity nodeResponseEntity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(StatusHistoryEntity.class);
             final StatusHistoryDTO nodeStatus = nodeResponseEntity.getStatusHistory();
             lastStatusHistory = nodeStatus;
             if (noReadPermissionsComponentDetails == null && !nodeResponseEntity.getCanRead()) {
@@ -51,20 +51,25 @@ public class TemplatesEndpointMerger implements EndpointResponseMerger {
         return dto.getId();
     }
 
+    @Override
+    public Class<TemplatesEntity> getResponseEntityClass() {
+        return TemplatesEntity.class;
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
             throw new IllegalArgumentException("Cannot use Endpoint Mapper of type " + getClass().getSimpleName() + " to map responses for URI " + uri + ", HTTP Method " + method);
         }
 
-        final TemplatesEntity responseEntity = clientResponse.getClientResponse().getEntity(getEntityClass());
+        final TemplatesEntity responseEntity = clientResponse.getClientEntity(getEntityClass());
 
         // Find the templates that all nodes know about. We do this by mapping Template ID to Template and
         // then for each node, removing any template whose ID is not known to that node. After iterating over
         // all of the nodes, we are left with a Map whose contents are those Templates known by all nodes.
         Map<String, TemplateEntity> templatesById = null;
         for (final NodeResponse nodeResponse : successfulResponses) {
-            final TemplatesEntity entity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientResponse().getEntity(TemplatesEntity.class);
+            final TemplatesEntity entity = nodeResponse == clientResponse ? responseEntity : nodeResponse.getClientEntity(TemplatesEntity.class);
             final Set<TemplateEntity> templateEntities = entity.getTemplates();
             final Map<String, TemplateEntity> nodeTemplatesById = templateEntities.stream().collect(Collectors.toMap(ent -> ent.getId(), ent -> ent));
 
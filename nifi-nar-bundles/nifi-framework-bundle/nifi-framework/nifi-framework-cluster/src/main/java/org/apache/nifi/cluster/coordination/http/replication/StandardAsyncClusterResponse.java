@@ -204,6 +204,12 @@ public class StandardAsyncClusterResponse implements AsyncClusterResponse {
             throw new IllegalStateException("Node " + nodeResponse.getNodeId() + " is not known for this request");
         }
 
+        // Read the response now, while waiting on the other nodes, so that only the merging itself is left once all nodes have
+        // responded. A lone response is not merged but returned as-is, so its content is left to be streamed to the client.
+        if (responseMap.size() > 1) {
+            responseMerger.readNodeResponse(uri, method, nodeResponse);
+        }
+
         responseHolder.setResponse(nodeResponse);
         final int completedCount = requestsCompleted.incrementAndGet();
 
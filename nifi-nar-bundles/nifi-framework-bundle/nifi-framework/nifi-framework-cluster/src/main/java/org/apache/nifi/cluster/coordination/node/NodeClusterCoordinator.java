@@ -62,6 +62,7 @@ import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
 import org.apache.nifi.cluster.protocol.message.ProtocolMessage.MessageType;
 import org.apache.nifi.cluster.protocol.message.ReconnectionRequestMessage;
 import org.apache.nifi.controller.leader.election.LeaderElectionManager;
+import org.apache.nifi.controller.serialization.FlowDelta;
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.reporting.Severity;
 import org.apache.nifi.services.FlowService;
@@ -96,6 +97,7 @@ public class NodeClusterCoordinator implements ClusterCoordinator, ProtocolHandl
 
     private final ConcurrentMap<NodeIdentifier, NodeConnectionStatus> nodeStatuses = new ConcurrentHashMap<>();
     private final ConcurrentMap<NodeIdentifier, CircularFifoQueue<NodeEvent>> nodeEvents = new ConcurrentHashMap<>();
+    private volatile Map<NodeIdentifier, NodeHealth> nodeHealth = Collections.emptyMap();
 
     public NodeClusterCoordinator(final ClusterCoordinationProtocolSenderListener senderListener, final EventReporter eventReporter, final LeaderElectionManager leaderElectionManager,
             final FlowElection flowElection, final ClusterNodeFirewall firewall, final RevisionManager revisionManager, final NiFiProperties nifiProperties) {
@@ -822,6 +824,23 @@ public class NodeClusterCoordinator implements ClusterCoordinator, ProtocolHandl
         return !requireElection || flowElection.isElectionComplete();
     }
 
+    @Override
+    public void setNodeHealth(final List<NodeHealth> nodeHealth) {
+        final Map<NodeIdentifier, NodeHealth> healthMap = new HashMap<>();
+        if (nodeHealth != null) {
+            for (final NodeHealth health : nodeHealth) {
+                healthMap.put(health.getNodeIdentifier(), health);
+            }
+        }
+
+        this.nodeHealth = healthMap;
+    }
+
+    @Override
+    public NodeHealth getNodeHealth(final NodeIdentifier nodeId) {
+        return nodeHealth.get(nodeId);
+    }
+
     private NodeIdentifier resolveNodeId(final NodeIdentifier proposedIdentifier) {
         final NodeConnectionStatus proposedConnectionStatus = new NodeConnectionStatus(proposedIdentifier, DisconnectionCode.NOT_YET_CONNECTED);
         final NodeConnectionStatus existingStatus = nodeStatuses.putIfAbsent(proposedIdentifier, proposedConnectionStatus);
@@ -851,7 +870,7 @@ public class NodeClusterCoordinator implements ClusterCoordinator, ProtocolHandl
         final NodeIdentifier proposedIdentifier = requestMessage.getConnectionRequest().getProposedNodeIdentifier();
         final NodeIdentifier withRequestorDn = addRequestorDn(proposedIdentifier, requestMessage.getRequestorDN());
         final DataFlow dataFlow = requestMessage.getConnectionRequest().getDataFlow();
-        final ConnectionRequest requestWithDn = new ConnectionRequest(withRequestorDn, dataFlow);
+        final ConnectionRequest requestWithDn = new ConnectionRequest(withRequestorDn, dataFlow, requestMessage.getConnectionRequest().isFlowDeltaSupported());
 
         // Resolve Node identifier.
         final NodeIdentifier resolvedNodeId = resolveNodeId(proposedIdentifier);
@@ -920,7 +939,9 @@ public class NodeClusterCoordinator implements ClusterCoordinator, ProtocolHandl
         status = new NodeConnectionStatus(resolvedNodeIdentifier, NodeConnectionState.CONNECTING, null, null, System.currentTimeMillis());
         updateNodeStatus(status);
 
-        final ConnectionResponse response = new ConnectionResponse(resolvedNodeIdentifier, clusterDataFlow, instanceId, getConnectionStatuses(),
+        // older nodes cannot restore the Process Groups that a delta leaves out, so they are sent the full flow
+        final DataFlow responseDataFlow = request.isFlowDeltaSupported() ? createDeltaDataFlow(clusterDataFlow, request.getDataFlow(), resolvedNodeIdentifier) : clusterDataFlow;
+        final ConnectionResponse response = new ConnectionResponse(resolvedNodeIdentifier, responseDataFlow, instanceId, getConnectionStatuses(),
                 revisionManager.getAllRevisions().stream().map(rev -> ComponentRevision.fromRevision(rev)).collect(Collectors.toList()));
 
         final ConnectionResponseMessage responseMessage = new ConnectionResponseMessage();
@@ -929,6 +950,30 @@ public class NodeClusterCoordinator implements ClusterCoordinator, ProtocolHandl
     }
 
 
+    /**
+     * Creates the DataFlow to send to a connecting node, leaving out all Process Groups that are unchanged in the flow
+     * that the node sent with its connection request. The node restores them from its own flow before loading it.
+     */
+    private DataFlow createDeltaDataFlow(final DataFlow clusterDataFlow, final DataFlow nodeDataFlow, final NodeIdentifier nodeId) {
+        if (nodeDataFlow == null || nodeDataFlow.getFlow() == null) {
+            return clusterDataFlow;
+        }
+
+        try {
+            final byte[] clusterFlow = clusterDataFlow.getFlow();
+            final byte[] delta = FlowDelta.createDelta(clusterFlow, nodeDataFlow.getFlow());
+            if (delta == clusterFlow) {
+                return clusterDataFlow;
+            }
+
+            logger.debug("Sending flow delta of {} bytes instead of full flow of {} bytes to {}", delta.length, clusterFlow.length, nodeId);
+            return new StandardDataFlow(delta, clusterDataFlow.getSnippets(), clusterDataFlow.getAuthorizerFingerprint());
+        } catch (final Exception e) {
+            logger.warn("Failed to create flow delta for {}; will send the full flow instead", nodeId, e);
+            return clusterDataFlow;
+        }
+    }
+
     private NodeIdentifier addRequestorDn(final NodeIdentifier nodeId, final String dn) {
         return new NodeIdentifier(nodeId.getId(), nodeId.getApiAddress(), nodeId.getApiPort(),
                 nodeId.getSocketAddress(), nodeId.getSocketPort(),
@@ -65,6 +65,9 @@ public class NodeResponse {
     private final long requestDurationNanos;
     private final String requestId;
 
+    private Object clientEntity; // guarded by synchronizing on this
+    private RuntimeException clientEntityFailure; // guarded by synchronizing on this
+
     public NodeResponse(final NodeIdentifier nodeId, final String httpMethod, final URI requestUri, final ClientResponse clientResponse, final long requestDurationNanos, final String requestId) {
         if (nodeId == null) {
             throw new IllegalArgumentException("Node identifier may not be null.");
@@ -117,6 +120,11 @@ public class NodeResponse {
         this.updatedEntity = updatedEntity;
         this.requestDurationNanos = example.requestDurationNanos;
         this.requestId = null;
+
+        synchronized (example) {
+            this.clientEntity = example.clientEntity;
+            this.clientEntityFailure = example.clientEntityFailure;
+        }
     }
 
     public NodeIdentifier getNodeId() {
@@ -162,6 +170,34 @@ public class NodeResponse {
         return clientResponse;
     }
 
+    /**
+     * Reads the entity of the ClientResponse as the given type. The entity is read from the node's input stream the first time
+     * that this method is called, and the same object is returned by subsequent calls, so that a response can be read as soon as it
+     * is received and merged later. If reading the entity fails, subsequent calls throw the same Exception. Once this method has been
+     * called, the entity is no longer available from the ClientResponse itself.
+     *
+     * @param entityClass the type of the entity
+     * @param <T> the type of the entity
+     * @return the entity of the ClientResponse
+     * @throws ClassCastException if the entity was previously read as a different type
+     */
+    public synchronized <T> T getClientEntity(final Class<T> entityClass) {
+        if (clientEntityFailure != null) {
+            throw clientEntityFailure;
+        }
+
+        if (clientEntity == null) {
+            try {
+                clientEntity = clientResponse.getEntity(entityClass);
+            } catch (final RuntimeException e) {
+                clientEntityFailure = e;
+                throw e;
+            }
+        }
+
+        return entityClass.cast(clientEntity);
+    }
+
 
     public Entity getUpdatedEntity() {
         return updatedEntity;
@@ -251,8 +287,13 @@ public class NodeResponse {
         // head requests must not have a message-body in the response
         if (!HttpMethod.HEAD.equalsIgnoreCase(httpMethod)) {
 
-            // set the entity
-            if (updatedEntity == null) {
+            final Object entity;
+            synchronized (this) {
+                entity = updatedEntity == null ? clientEntity : updatedEntity;
+            }
+
+            // set the entity; if it has already been read from the client response, the input stream can no longer be copied
+            if (entity == null) {
                 responseBuilder.entity(new StreamingOutput() {
                     @Override
                     public void write(final OutputStream output) throws IOException, WebApplicationException {
@@ -266,7 +307,7 @@ public class NodeResponse {
                     }
                 });
             } else {
-                responseBuilder.entity(updatedEntity);
+                responseBuilder.entity(entity);
             }
         }
 
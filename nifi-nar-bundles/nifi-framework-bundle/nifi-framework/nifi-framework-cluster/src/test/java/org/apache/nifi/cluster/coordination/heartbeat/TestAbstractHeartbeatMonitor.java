@@ -36,6 +36,7 @@ import org.apache.nifi.cluster.coordination.ClusterCoordinator;
 import org.apache.nifi.cluster.coordination.node.DisconnectionCode;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.event.NodeEvent;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.reporting.Severity;
@@ -329,6 +330,15 @@ public class TestAbstractHeartbeatMonitor {
         public String getFlowElectionStatus() {
             return null;
         }
+
+        @Override
+        public void setNodeHealth(List<NodeHealth> nodeHealth) {
+        }
+
+        @Override
+        public NodeHealth getNodeHealth(NodeIdentifier nodeId) {
+            return null;
+        }
     }
 
 
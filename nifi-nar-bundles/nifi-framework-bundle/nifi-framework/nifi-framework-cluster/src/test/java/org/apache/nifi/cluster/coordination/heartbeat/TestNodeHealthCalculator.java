@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.cluster.coordination.heartbeat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.HeartbeatPayload;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.junit.Test;
+
+public class TestNodeHealthCalculator {
+
+    private final NodeIdentifier nodeId = new NodeIdentifier("node-1", "localhost", 8000, "localhost", 8001, "localhost", 8002, 8003, false);
+
+    private HeartbeatPayload createPayload(final int backPressured, final int repositoryUtilization, final long gcMillis, final int activeThreads) {
+        final HeartbeatPayload payload = new HeartbeatPayload();
+        payload.setConnectionCount(10);
+        payload.setBackPressuredConnectionCount(backPressured);
+        payload.setRepositoryUtilization(repositoryUtilization);
+        payload.setGarbageCollectionMillis(gcMillis);
+        payload.setActiveThreadCount(activeThreads);
+        payload.setMaxThreadCount(20);
+        return payload;
+    }
+
+    private NodeHeartbeat createHeartbeat(final long timestamp, final HeartbeatPayload payload) {
+        return new StandardNodeHeartbeat(nodeId, timestamp, new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED), payload, NodeHealth.MAX_HEALTH_SCORE);
+    }
+
+    @Test
+    public void testIdleNodeIsHealthy() {
+        assertEquals(NodeHealth.MAX_HEALTH_SCORE, NodeHealthCalculator.calculateHealthScore(null, 5000L, createPayload(0, 50, 0L, 2)));
+        assertEquals(NodeHealth.MAX_HEALTH_SCORE, NodeHealthCalculator.calculateHealthScore(null, 5000L, new HeartbeatPayload()));
+    }
+
+    @Test
+    public void testIndividualPenalties() {
+        // half of the connections are applying back pressure
+        assertEquals(100 - NodeHealthCalculator.BACK_PRESSURE_PENALTY / 2, NodeHealthCalculator.calculateHealthScore(null, 5000L, createPayload(5, 0, 0L, 0)));
+
+        // repositories are full
+        assertEquals(100 - NodeHealthCalculator.REPOSITORY_PENALTY, NodeHealthCalculator.calculateHealthScore(null, 5000L, createPayload(0, 100, 0L, 0)));
+
+        // all threads are in use
+        assertEquals(100 - NodeHealthCalculator.THREAD_SATURATION_PENALTY, NodeHealthCalculator.calculateHealthScore(null, 5000L, createPayload(0, 0, 0L, 20)));
+    }
+
+    @Test
+    public void testGarbageCollectionMeasuredBetweenHeartbeats() {
+        final NodeHeartbeat previous = createHeartbeat(0L, createPayload(0, 0, 60_000L, 0));
+
+        // 2.5 of the last 5 seconds in garbage collection
+        final int stuckInGc = NodeHealthCalculator.calculateHealthScore(previous, 5000L, createPayload(0, 0, 62_500L, 0));
+        assertEquals(100 - NodeHealthCalculator.GARBAGE_COLLECTION_PENALTY, stuckInGc);
+
+        // the total went down, so the node restarted and there is nothing to compare against
+        assertEquals(NodeHealth.MAX_HEALTH_SCORE, NodeHealthCalculator.calculateHealthScore(previous, 5000L, createPayload(0, 0, 100L, 0)));
+    }
+
+    @Test
+    public void testGarbageCollectionNotMeasuredAgainstPlaceholderOrRestart() {
+        final HeartbeatPayload payload = createPayload(0, 0, 62_500L, 0);
+        payload.setSystemStartTime(1000L);
+
+        // the Cluster Coordinator seeds its heartbeats with placeholders that do not know the time spent in garbage collection
+        final NodeHeartbeat placeholder = new StandardNodeHeartbeat(nodeId, 0L, new NodeConnectionStatus(nodeId, NodeConnectionState.CONNECTED), 0, 0L, 0, 0L);
+        assertEquals(NodeHealth.MAX_HEALTH_SCORE, NodeHealthCalculator.calculateHealthScore(placeholder, 5000L, payload));
+
+        // the node restarted since the previous heartbeat, so the totals belong to different JVMs
+        final HeartbeatPayload beforeRestart = createPayload(0, 0, 0L, 0);
+        beforeRestart.setSystemStartTime(500L);
+        assertEquals(NodeHealth.MAX_HEALTH_SCORE, NodeHealthCalculator.calculateHealthScore(createHeartbeat(0L, beforeRestart), 5000L, payload));
+
+        final HeartbeatPayload sameStart = createPayload(0, 0, 0L, 0);
+        sameStart.setSystemStartTime(1000L);
+        assertEquals(100 - NodeHealthCalculator.GARBAGE_COLLECTION_PENALTY, NodeHealthCalculator.calculateHealthScore(createHeartbeat(0L, sameStart), 5000L, payload));
+    }
+
+    @Test
+    public void testStrugglingNodeIsUnhealthy() {
+        final NodeHeartbeat previous = createHeartbeat(0L, createPayload(0, 0, 0L, 0));
+        final int score = NodeHealthCalculator.calculateHealthScore(previous, 5000L, createPayload(10, 95, 2000L, 20));
+        assertTrue(score >= 0);
+        assertTrue(score < NodeHealth.UNHEALTHY_THRESHOLD);
+
+        assertFalse(new NodeHealth(nodeId, score, 0).isHealthy());
+        assertTrue(new NodeHealth(nodeId, NodeHealth.MAX_HEALTH_SCORE, 0).isHealthy());
+    }
+}
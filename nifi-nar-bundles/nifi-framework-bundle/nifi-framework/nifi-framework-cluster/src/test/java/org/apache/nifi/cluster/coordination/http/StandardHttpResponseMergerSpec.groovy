@@ -215,4 +215,30 @@ class StandardHttpResponseMergerSpec extends Specification {
                 // expectedEntity
                 new FunnelEntity(id: '1', permissions: new PermissionsDTO(canRead: false, canWrite: false))
     }
+
+    def "ReadNodeResponse: node responses read as they arrive are not read again when merged"() {
+        given:
+        def responseMerger = new StandardHttpResponseMerger(NiFiProperties.createBasicNiFiProperties(null, null))
+        def requestUri = new URI('http://server/nifi-api/controller/config')
+        def requestId = UUID.randomUUID().toString()
+        def clientResponses = (1..3).collect { Mock(ClientResponse) }
+        def n = 0
+        def nodeResponseSet = clientResponses.collect {
+            ++n
+            new NodeResponse(new NodeIdentifier("cluster-node-$n", 'addr', n, 'sktaddr', n * 10, 'stsaddr', n * 100, n * 1000, false, null), "get", requestUri, it, 500L, requestId)
+        } as Set
+
+        when:
+        nodeResponseSet.each { responseMerger.readNodeResponse(requestUri, 'get', it) }
+        def returnedResponse = responseMerger.mergeResponses(requestUri, 'get', nodeResponseSet)
+
+        then:
+        clientResponses.each {
+            _ * it.getStatus() >> 200
+            1 * it.getEntity(ControllerConfigurationEntity) >> new ControllerConfigurationEntity(permissions: new PermissionsDTO(canRead: true, canWrite: true),
+                    component: new ControllerConfigurationDTO(maxEventDrivenThreadCount: 10, maxTimerDrivenThreadCount: 10))
+        }
+        0 * _
+        returnedResponse.getUpdatedEntity() instanceof ControllerConfigurationEntity
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.cluster.coordination.http.endpoints;
+
+import com.sun.jersey.api.client.ClientResponse;
+import org.apache.nifi.cluster.manager.NodeResponse;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.web.api.dto.PermissionsDTO;
+import org.apache.nifi.web.api.dto.ProcessorConfigDTO;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.api.dto.status.ProcessorStatusDTO;
+import org.apache.nifi.web.api.entity.ProcessorEntity;
+import org.apache.nifi.web.api.entity.ProcessorsEntity;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestProcessorsEndpointMerger {
+
+    private static final String PROCESSOR_ID = "00000000-0000-0000-0000-000000000001";
+    private static final URI PROCESSORS_URI = URI.create("http://localhost:8080/nifi-api/process-groups/root/processors");
+
+    @Test
+    public void testCanHandle() {
+        final ProcessorsEndpointMerger merger = new ProcessorsEndpointMerger();
+        assertTrue(merger.canHandle(PROCESSORS_URI, "GET"));
+        assertTrue(merger.canHandle(PROCESSORS_URI, "PUT"));
+        assertFalse(merger.canHandle(PROCESSORS_URI, "POST"));
+        assertFalse(merger.canHandle(URI.create("http://localhost:8080/nifi-api/processors/" + PROCESSOR_ID), "PUT"));
+    }
+
+    @Test
+    public void testMergesProcessorFromEveryNode() {
+        final NodeIdentifier node1 = new NodeIdentifier("1", "localhost", 8000, "localhost", 8001, "localhost", 8002, 8003, false);
+        final NodeIdentifier node2 = new NodeIdentifier("2", "localhost", 9000, "localhost", 9001, "localhost", 9002, 9003, false);
+        final NodeIdentifier node3 = new NodeIdentifier("3", "localhost", 10000, "localhost", 10001, "localhost", 10002, 10003, false);
+
+        final NodeResponse response1 = createNodeResponse(node1, Collections.singletonList("error 1"));
+        final NodeResponse response2 = createNodeResponse(node2, Collections.singletonList("error 2"));
+        final NodeResponse response3 = createNodeResponse(node3, Collections.emptyList());
+
+        final Set<NodeResponse> responses = new HashSet<>();
+        responses.add(response1);
+        responses.add(response2);
+        responses.add(response3);
+
+        final ProcessorsEndpointMerger merger = new ProcessorsEndpointMerger();
+        final NodeResponse merged = merger.merge(PROCESSORS_URI, "PUT", responses, Collections.emptySet(), response3);
+
+        final ProcessorsEntity mergedEntity = (ProcessorsEntity) merged.getUpdatedEntity();
+        assertEquals(1, mergedEntity.getProcessors().size());
+
+        // each error is reported by only one of the nodes, so both must be attributed to the node that reported it
+        final Set<String> validationErrors = new HashSet<>(mergedEntity.getProcessors().iterator().next().getComponent().getValidationErrors());
+        assertEquals(2, validationErrors.size());
+        assertTrue(validationErrors.contains("localhost:8000 -- error 1"));
+        assertTrue(validationErrors.contains("localhost:9000 -- error 2"));
+    }
+
+    private NodeResponse createNodeResponse(final NodeIdentifier nodeId, final List<String> validationErrors) {
+        final ProcessorConfigDTO config = new ProcessorConfigDTO();
+        config.setDescriptors(new HashMap<>());
+
+        final ProcessorDTO processor = new ProcessorDTO();
+        processor.setId(PROCESSOR_ID);
+        processor.setConfig(config);
+        processor.setValidationErrors(validationErrors);
+
+        final PermissionsDTO permissions = new PermissionsDTO();
+        permissions.setCanRead(true);
+        permissions.setCanWrite(true);
+
+        final ProcessorEntity processorEntity = new ProcessorEntity();
+        processorEntity.setId(PROCESSOR_ID);
+        processorEntity.setComponent(processor);
+        processorEntity.setPermissions(permissions);
+        processorEntity.setStatus(new ProcessorStatusDTO());
+
+        final ProcessorsEntity processorsEntity = new ProcessorsEntity();
+        processorsEntity.setProcessors(Collections.singleton(processorEntity));
+
+        final ClientResponse clientResponse = mock(ClientResponse.class);
+        when(clientResponse.getEntity(ProcessorsEntity.class)).thenReturn(processorsEntity);
+        return new NodeResponse(nodeId, "PUT", PROCESSORS_URI, clientResponse, TimeUnit.MILLISECONDS.toNanos(10), "1");
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.cluster.coordination.node;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -23,6 +24,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -435,6 +437,36 @@ public class TestNodeClusterCoordinator {
         assertEquals(conflictingId.getSocketPort(), conflictingNodeId.getSocketPort());
     }
 
+    @Test
+    public void testFlowDeltaOnlySentToNodesThatSupportIt() throws IOException {
+        final byte[] flow = ("<flowController><rootGroup><id>root</id><name>root</name>"
+            + "<processGroup><id>child</id><name>child</name></processGroup></rootGroup></flowController>").getBytes(StandardCharsets.UTF_8);
+        final FlowService flowService = Mockito.mock(FlowService.class);
+        Mockito.when(flowService.createDataFlow()).thenReturn(new StandardDataFlow(flow, new byte[0], new byte[0]));
+        coordinator.setFlowService(flowService);
+        coordinator.setConnected(true);
+
+        // a node that does not advertise support for deltas could not restore the groups that are left out
+        final ConnectionRequest oldNodeRequest = new ConnectionRequest(createNodeId(1), new StandardDataFlow(flow, new byte[0], new byte[0]));
+        final DataFlow oldNodeFlow = getResponseDataFlow(oldNodeRequest);
+        assertArrayEquals(flow, oldNodeFlow.getFlow());
+
+        final ConnectionRequest newNodeRequest = new ConnectionRequest(createNodeId(2), new StandardDataFlow(flow, new byte[0], new byte[0]), true);
+        final DataFlow newNodeFlow = getResponseDataFlow(newNodeRequest);
+        assertTrue(new String(newNodeFlow.getFlow(), StandardCharsets.UTF_8).contains("unchangedHash"));
+    }
+
+    private DataFlow getResponseDataFlow(final ConnectionRequest request) {
+        final ConnectionRequestMessage requestMsg = new ConnectionRequestMessage();
+        requestMsg.setConnectionRequest(request);
+        final ProtocolMessage protocolResponse = coordinator.handle(requestMsg);
+        assertTrue(protocolResponse instanceof ConnectionResponseMessage);
+
+        final ConnectionResponse response = ((ConnectionResponseMessage) protocolResponse).getConnectionResponse();
+        assertNotNull(response.getDataFlow());
+        return response.getDataFlow();
+    }
+
     private NodeIdentifier createNodeId(final int index) {
         return new NodeIdentifier(String.valueOf(index), "localhost", 8000 + index, "localhost", 9000 + index, "localhost", 10000 + index, 11000 + index, false);
     }
@@ -73,6 +73,21 @@ public interface Connection extends Authorizable {
 
     List<FlowFileRecord> poll(FlowFileFilter filter, Set<FlowFileRecord> expiredRecords);
 
+    /**
+     * @return the strategy used to distribute this Connection's FlowFiles across the nodes of a cluster
+     */
+    LoadBalanceStrategy getLoadBalanceStrategy();
+
+    void setLoadBalanceStrategy(LoadBalanceStrategy strategy);
+
+    /**
+     * @return the name of the attribute used to partition FlowFiles when the strategy is
+     *         {@link LoadBalanceStrategy#PARTITION_BY_ATTRIBUTE}, or <code>null</code> if not set
+     */
+    String getLoadBalancePartitionAttribute();
+
+    void setLoadBalancePartitionAttribute(String partitionAttribute);
+
     void verifyCanUpdate() throws IllegalStateException;
 
     void verifyCanDelete() throws IllegalStateException;
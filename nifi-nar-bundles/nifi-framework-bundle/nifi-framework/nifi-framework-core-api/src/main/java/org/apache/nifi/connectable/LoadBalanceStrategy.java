@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.connectable;
+
+/**
+ * Determines how the FlowFiles that are queued in a Connection are distributed across the nodes of a cluster. When
+ * running standalone, or when the strategy is {@link #DO_NOT_LOAD_BALANCE}, FlowFiles remain on the node that queued them.
+ */
+public enum LoadBalanceStrategy {
+
+    DO_NOT_LOAD_BALANCE,
+    /**
+     * FlowFiles are distributed evenly across all connected nodes
+     */
+    ROUND_ROBIN,
+    /**
+     * FlowFiles with the same value for the partitioning attribute are always sent to the same node
+     */
+    PARTITION_BY_ATTRIBUTE,
+    /**
+     * All FlowFiles are sent to a single node: the connected node with the lowest identifier
+     */
+    SINGLE_NODE
+}
@@ -69,6 +69,8 @@ public final class StandardConnection implements Connection {
     private final StandardFlowFileQueue flowFileQueue;
     private final AtomicInteger labelIndex = new AtomicInteger(1);
     private final AtomicLong zIndex = new AtomicLong(0L);
+    private final AtomicReference<LoadBalanceStrategy> loadBalanceStrategy = new AtomicReference<>(LoadBalanceStrategy.DO_NOT_LOAD_BALANCE);
+    private final AtomicReference<String> loadBalancePartitionAttribute = new AtomicReference<>();
     private final ProcessScheduler scheduler;
     private final int hashCode;
 
@@ -287,6 +289,26 @@ public final class StandardConnection implements Connection {
         return flowFileQueue.poll(filter, expiredRecords);
     }
 
+    @Override
+    public LoadBalanceStrategy getLoadBalanceStrategy() {
+        return loadBalanceStrategy.get();
+    }
+
+    @Override
+    public void setLoadBalanceStrategy(final LoadBalanceStrategy strategy) {
+        this.loadBalanceStrategy.set(strategy == null ? LoadBalanceStrategy.DO_NOT_LOAD_BALANCE : strategy);
+    }
+
+    @Override
+    public String getLoadBalancePartitionAttribute() {
+        return loadBalancePartitionAttribute.get();
+    }
+
+    @Override
+    public void setLoadBalancePartitionAttribute(final String partitionAttribute) {
+        this.loadBalancePartitionAttribute.set(partitionAttribute);
+    }
+
     @Override
     public boolean equals(final Object other) {
         if (!(other instanceof Connection)) {
@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.apache.nifi.cluster.coordination.ClusterCoordinator;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.remote.cluster.ClusterNodeInformation;
 import org.apache.nifi.remote.cluster.NodeInformant;
@@ -40,10 +41,12 @@ public class ClusterCoordinatorNodeInformant implements NodeInformant {
         final List<NodeInformation> nodeInfoCollection = new ArrayList<>();
         final Set<NodeIdentifier> nodeIds = clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED);
 
-        // TODO: Get total number of FlowFiles for each node
         for (final NodeIdentifier nodeId : nodeIds) {
+            final NodeHealth nodeHealth = clusterCoordinator.getNodeHealth(nodeId);
+            final int flowFileCount = nodeHealth == null ? 0 : nodeHealth.getFlowFileCount();
+
             final NodeInformation nodeInfo = new NodeInformation(nodeId.getSiteToSiteAddress(), nodeId.getSiteToSitePort(),
-                nodeId.getSiteToSiteHttpApiPort(), nodeId.getApiPort(), nodeId.isSiteToSiteSecure(), 0);
+                nodeId.getSiteToSiteHttpApiPort(), nodeId.getApiPort(), nodeId.isSiteToSiteSecure(), flowFileCount);
             nodeInfoCollection.add(nodeInfo);
         }
 
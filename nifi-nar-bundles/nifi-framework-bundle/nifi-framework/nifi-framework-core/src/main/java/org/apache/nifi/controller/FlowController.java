@@ -81,12 +81,14 @@ import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Funnel;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
 import org.apache.nifi.connectable.LocalPort;
 import org.apache.nifi.connectable.Port;
 import org.apache.nifi.connectable.Position;
 import org.apache.nifi.connectable.Size;
 import org.apache.nifi.connectable.StandardConnection;
 import org.apache.nifi.controller.cluster.ClusterProtocolHeartbeater;
+import org.apache.nifi.controller.cluster.ConnectionLoadBalancer;
 import org.apache.nifi.controller.cluster.Heartbeater;
 import org.apache.nifi.controller.exception.CommunicationsException;
 import org.apache.nifi.controller.exception.ComponentLifeCycleException;
@@ -108,6 +110,7 @@ import org.apache.nifi.controller.repository.FlowFileEventRepository;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.FlowFileRepository;
 import org.apache.nifi.controller.repository.FlowFileSwapManager;
+import org.apache.nifi.controller.repository.ProvenancePolicies;
 import org.apache.nifi.controller.repository.QueueProvider;
 import org.apache.nifi.controller.repository.RepositoryRecord;
 import org.apache.nifi.controller.repository.RepositoryStatusReport;
@@ -148,6 +151,8 @@ import org.apache.nifi.controller.status.TransmissionStatus;
 import org.apache.nifi.controller.status.history.ComponentStatusRepository;
 import org.apache.nifi.controller.status.history.StatusHistoryUtil;
 import org.apache.nifi.controller.tasks.ExpireFlowFiles;
+import org.apache.nifi.diagnostics.GarbageCollection;
+import org.apache.nifi.diagnostics.StorageUsage;
 import org.apache.nifi.diagnostics.SystemDiagnostics;
 import org.apache.nifi.diagnostics.SystemDiagnosticsFactory;
 import org.apache.nifi.encrypt.StringEncryptor;
@@ -330,6 +335,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
     private ScheduledFuture<?> heartbeatSenderFuture;
     private final Heartbeater heartbeater;
     private final HeartbeatMonitor heartbeatMonitor;
+    private final ConnectionLoadBalancer connectionLoadBalancer;
 
     // guarded by FlowController lock
     /**
@@ -474,7 +480,8 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         processScheduler = new StandardProcessScheduler(this, encryptor, stateManagerProvider, this.variableRegistry, this.nifiProperties);
         eventDrivenWorkerQueue = new EventDrivenWorkerQueue(false, false, processScheduler);
 
-        final ProcessContextFactory contextFactory = new ProcessContextFactory(contentRepository, flowFileRepository, flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository);
+        final ProcessContextFactory contextFactory = new ProcessContextFactory(contentRepository, flowFileRepository, flowFileEventRepository, counterRepositoryRef.get(), provenanceRepository,
+            ProvenancePolicies.fromProperties(nifiProperties));
         processScheduler.setSchedulingAgent(SchedulingStrategy.EVENT_DRIVEN, new EventDrivenSchedulingAgent(
                 eventDrivenEngineRef.get(), this, stateManagerProvider, eventDrivenWorkerQueue, contextFactory, maxEventDrivenThreads.get(), encryptor, this.variableRegistry));
 
@@ -582,6 +589,9 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         if (configuredForClustering) {
             heartbeater = new ClusterProtocolHeartbeater(protocolSender, clusterCoordinator, leaderElectionManager);
 
+            connectionLoadBalancer = new ConnectionLoadBalancer(this, protocolSender, clusterCoordinator, contentRepository, flowFileRepository, provenanceRepository);
+            processScheduler.scheduleFrameworkTask(connectionLoadBalancer, "Load Balance Connections", 1L, 1L, TimeUnit.SECONDS);
+
             // Check if there is already a cluster coordinator elected. If not, go ahead
             // and register for coordinator role. If there is already one elected, do not register until
             // we have connected to the cluster. This allows us to avoid becoming the coordinator with a
@@ -611,6 +621,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
             heartbeatMonitor.start();
         } else {
             heartbeater = null;
+            connectionLoadBalancer = null;
         }
     }
 
@@ -1131,6 +1142,14 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         return heartbeater;
     }
 
+    /**
+     * @return the balancer that distributes the FlowFiles of load-balanced Connections across the cluster, or
+     *         <code>null</code> if this instance is not configured for clustering
+     */
+    public ConnectionLoadBalancer getConnectionLoadBalancer() {
+        return connectionLoadBalancer;
+    }
+
     /**
      * @return the BulletinRepository for storing and retrieving Bulletins
      */
@@ -1860,6 +1879,11 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 queue.setBackPressureObjectThreshold(connectionDTO.getBackPressureObjectThreshold());
                 queue.setFlowFileExpiration(connectionDTO.getFlowFileExpiration());
 
+                if (connectionDTO.getLoadBalanceStrategy() != null) {
+                    connection.setLoadBalanceStrategy(LoadBalanceStrategy.valueOf(connectionDTO.getLoadBalanceStrategy()));
+                }
+                connection.setLoadBalancePartitionAttribute(connectionDTO.getLoadBalancePartitionAttribute());
+
                 final List<String> prioritizers = connectionDTO.getPrioritizers();
                 if (prioritizers != null) {
                     final List<String> newPrioritizersClasses = new ArrayList<>(prioritizers);
@@ -3919,6 +3943,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
             hbPayload.setTotalFlowFileCount(queueSize.getObjectCount());
             hbPayload.setTotalFlowFileBytes(queueSize.getByteCount());
             hbPayload.setClusterStatus(clusterCoordinator.getConnectionStatuses());
+            populateHealthMetrics(hbPayload, bean.getRootGroup());
 
             // create heartbeat message
             final NodeIdentifier nodeId = getNodeId();
@@ -3940,6 +3965,41 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
         }
     }
 
+    /**
+     * Adds the measurements that the Cluster Coordinator uses to determine the health of this node to the given payload
+     */
+    private void populateHealthMetrics(final HeartbeatPayload hbPayload, final ProcessGroup rootGroup) {
+        int connectionCount = 0;
+        int backPressuredConnectionCount = 0;
+        for (final Connection connection : rootGroup.findAllConnections()) {
+            connectionCount++;
+            if (connection.getFlowFileQueue().isFull()) {
+                backPressuredConnectionCount++;
+            }
+        }
+        hbPayload.setConnectionCount(connectionCount);
+        hbPayload.setBackPressuredConnectionCount(backPressuredConnectionCount);
+        hbPayload.setMaxThreadCount(getMaxTimerDrivenThreadCount() + getMaxEventDrivenThreadCount());
+
+        final SystemDiagnostics systemDiagnostics = getSystemDiagnostics();
+        final List<StorageUsage> storageUsages = new ArrayList<>(systemDiagnostics.getContentRepositoryStorageUsage().values());
+        storageUsages.add(systemDiagnostics.getFlowFileRepositoryStorageUsage());
+        int repositoryUtilization = 0;
+        for (final StorageUsage storageUsage : storageUsages) {
+            // the total space is not positive if the usage of the storage location could not be determined
+            if (storageUsage.getTotalSpace() > 0) {
+                repositoryUtilization = Math.max(repositoryUtilization, storageUsage.getDiskUtilization());
+            }
+        }
+        hbPayload.setRepositoryUtilization(repositoryUtilization);
+
+        long garbageCollectionMillis = 0L;
+        for (final GarbageCollection garbageCollection : systemDiagnostics.getGarbageCollection().values()) {
+            garbageCollectionMillis += garbageCollection.getCollectionTime();
+        }
+        hbPayload.setGarbageCollectionMillis(garbageCollectionMillis);
+    }
+
     private void updateRemoteProcessGroups() {
         final List<RemoteProcessGroup> remoteGroups = getGroup(getRootGroupId()).findAllRemoteProcessGroups();
         for (final RemoteProcessGroup remoteGroup : remoteGroups) {
@@ -67,11 +67,15 @@ import org.apache.nifi.cluster.protocol.message.ConnectionRequestMessage;
 import org.apache.nifi.cluster.protocol.message.DisconnectMessage;
 import org.apache.nifi.cluster.protocol.message.FlowRequestMessage;
 import org.apache.nifi.cluster.protocol.message.FlowResponseMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
 import org.apache.nifi.cluster.protocol.message.ProtocolMessage;
 import org.apache.nifi.cluster.protocol.message.ReconnectionRequestMessage;
 import org.apache.nifi.cluster.protocol.message.ReconnectionResponseMessage;
 import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.components.state.StateManager;
+import org.apache.nifi.controller.cluster.ConnectionLoadBalancer;
+import org.apache.nifi.controller.serialization.FlowDelta;
 import org.apache.nifi.controller.serialization.FlowSerializationException;
 import org.apache.nifi.controller.serialization.FlowSynchronizationException;
 import org.apache.nifi.encrypt.StringEncryptor;
@@ -377,6 +381,7 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
             case RECONNECTION_REQUEST:
             case DISCONNECTION_REQUEST:
             case FLOW_REQUEST:
+            case LOAD_BALANCE_FLOWFILES:
                 return true;
             default:
                 return false;
@@ -421,6 +426,8 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
 
                     return null;
                 }
+                case LOAD_BALANCE_FLOWFILES:
+                    return handleLoadBalanceFlowFiles((LoadBalanceFlowFilesMessage) request);
                 default:
                     throw new ProtocolException("Handler cannot handle message type: " + request.getType());
             }
@@ -542,6 +549,17 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
         }
     }
 
+    private LoadBalanceFlowFilesResponseMessage handleLoadBalanceFlowFiles(final LoadBalanceFlowFilesMessage request) {
+        final ConnectionLoadBalancer loadBalancer = controller.getConnectionLoadBalancer();
+        if (loadBalancer == null || !controller.isConnected()) {
+            final LoadBalanceFlowFilesResponseMessage response = new LoadBalanceFlowFilesResponseMessage();
+            response.setRejectionReason("Node is not connected to the cluster");
+            return response;
+        }
+
+        return loadBalancer.receive(request);
+    }
+
     private byte[] getAuthorizerFingerprint() {
         final boolean isInternalAuthorizer = (authorizer instanceof AbstractPolicyBasedAuthorizer);
         return isInternalAuthorizer ? ((AbstractPolicyBasedAuthorizer) authorizer).getFingerprint().getBytes(StandardCharsets.UTF_8) : null;
@@ -759,7 +777,7 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
             logger.info("Connecting Node: " + nodeId);
 
             // create connection request message
-            final ConnectionRequest request = new ConnectionRequest(nodeId, dataFlow);
+            final ConnectionRequest request = new ConnectionRequest(nodeId, dataFlow, true);
             final ConnectionRequestMessage requestMsg = new ConnectionRequestMessage();
             requestMsg.setConnectionRequest(request);
 
@@ -850,13 +868,38 @@ public class StandardFlowService implements FlowService, ProtocolHandler {
                             + "This node may be assigned a different UUID when the node is restarted.", ioe);
                 }
 
-                return response;
+                return applyFlowDelta(response, dataFlow);
             }
         } finally {
             readLock.unlock();
         }
     }
 
+    /**
+     * The Cluster Coordinator leaves out of its response the Process Groups that are unchanged in the flow that we sent
+     * with our connection request, so restore them from that flow before the response is used.
+     */
+    private ConnectionResponse applyFlowDelta(final ConnectionResponse response, final DataFlow requestDataFlow) throws ConnectionException {
+        final DataFlow responseDataFlow = response.getDataFlow();
+        if (responseDataFlow == null) {
+            return response;
+        }
+
+        final byte[] flow;
+        try {
+            flow = FlowDelta.applyDelta(responseDataFlow.getFlow(), requestDataFlow == null ? null : requestDataFlow.getFlow());
+        } catch (final FlowSerializationException fse) {
+            throw new ConnectionException(CONNECTION_EXCEPTION_MSG_PREFIX + "unable to apply cluster flow to local flow.", fse);
+        }
+
+        if (flow == responseDataFlow.getFlow()) {
+            return response;
+        }
+
+        final DataFlow dataFlow = new StandardDataFlow(flow, responseDataFlow.getSnippets(), responseDataFlow.getAuthorizerFingerprint());
+        return new ConnectionResponse(response.getNodeIdentifier(), dataFlow, response.getInstanceId(), response.getNodeConnectionStatuses(), response.getComponentRevisions());
+    }
+
     private void loadFromConnectionResponse(final ConnectionResponse response) throws ConnectionException {
         writeLock.lock();
         try {
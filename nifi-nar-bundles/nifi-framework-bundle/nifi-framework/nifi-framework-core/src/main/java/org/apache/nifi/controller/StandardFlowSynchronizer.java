@@ -33,7 +33,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 
@@ -54,6 +59,7 @@ import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.connectable.Funnel;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
 import org.apache.nifi.connectable.Port;
 import org.apache.nifi.connectable.Position;
 import org.apache.nifi.connectable.Size;
@@ -121,11 +127,16 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
     private final StringEncryptor encryptor;
     private final boolean autoResumeState;
     private final NiFiProperties nifiProperties;
+    private final FingerprintFactory fingerprintFactory;
+
+    // Processors that were instantiated ahead of time while adding a flow, by ID; see instantiateProcessors
+    private final Map<String, ProcessorNode> instantiatedProcessors = new HashMap<>();
 
     public StandardFlowSynchronizer(final StringEncryptor encryptor, final NiFiProperties nifiProperties) {
         this.encryptor = encryptor;
         autoResumeState = nifiProperties.getAutoResumeState();
         this.nifiProperties = nifiProperties;
+        this.fingerprintFactory = new FingerprintFactory(encryptor);
     }
 
     public static boolean isEmpty(final DataFlow dataFlow) {
@@ -156,6 +167,8 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             }
         }
 
+        final long syncStart = System.nanoTime();
+
         // determine if the controller has been initialized
         final boolean initialized = controller.isInitialized();
         logger.debug("Synching FlowController with proposed flow: Controller is Initialized = {}", initialized);
@@ -232,7 +245,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
 
         final DataFlow existingDataFlow = new StandardDataFlow(existingFlow, existingSnippets, existingAuthFingerprint);
 
+        final long existingFlowNanos = System.nanoTime() - syncStart;
+
         // check that the proposed flow is inheritable by the controller
+        final long inheritabilityStart = System.nanoTime();
         try {
             if (!existingFlowEmpty) {
                 logger.trace("Checking flow inheritability");
@@ -252,9 +268,17 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             throw new UninheritableFlowException("Proposed Authorizer is not inheritable by the flow controller because of Authorizer differences: " + authInheritability.getReason());
         }
 
+        final long inheritabilityNanos = System.nanoTime() - inheritabilityStart;
+
         // create document by parsing proposed flow bytes
         logger.trace("Parsing proposed flow bytes as DOM document");
+        final long parseStart = System.nanoTime();
         final Document configuration = parseFlowBytes(proposedFlow.getFlow());
+        final long parseNanos = System.nanoTime() - parseStart;
+
+        long instantiationNanos = 0L;
+        long processGroupNanos = 0L;
+        long controllerServicesNanos = 0L;
 
         // attempt to sync controller with proposed flow
         try {
@@ -281,11 +305,23 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                     // if this controller isn't initialized or its empty, add the root group, otherwise update
                     final ProcessGroup rootGroup;
                     if (!initialized || existingFlowEmpty) {
-                        logger.trace("Adding root process group");
-                        rootGroup = addProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion);
+                        try {
+                            final long instantiationStart = System.nanoTime();
+                            instantiateProcessors(controller, rootGroupElement);
+                            instantiationNanos = System.nanoTime() - instantiationStart;
+
+                            logger.trace("Adding root process group");
+                            final long processGroupStart = System.nanoTime();
+                            rootGroup = addProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion);
+                            processGroupNanos = System.nanoTime() - processGroupStart;
+                        } finally {
+                            instantiatedProcessors.clear();
+                        }
                     } else {
                         logger.trace("Updating root process group");
+                        final long processGroupStart = System.nanoTime();
                         rootGroup = updateProcessGroup(controller, /* parent group */ null, rootGroupElement, encryptor, encodingVersion);
+                        processGroupNanos = System.nanoTime() - processGroupStart;
                     }
 
                     // If there are any Templates that do not exist in the Proposed Flow that do exist in the 'existing flow', we need
@@ -302,6 +338,8 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                         }
                     }
 
+                    final long controllerServicesStart = System.nanoTime();
+
                     // get all the reporting task elements
                     final Element reportingTasksElement = DomUtils.getChild(rootElement, "reportingTasks");
                     final List<Element> reportingTaskElements = new ArrayList<>();
@@ -370,6 +408,8 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                     for (Map.Entry<ReportingTaskNode, ReportingTaskDTO> entry : reportingTaskNodesToDTOs.entrySet()) {
                         applyReportingTaskScheduleState(controller, entry.getValue(), entry.getKey(), initialized, existingFlowEmpty);
                     }
+
+                    controllerServicesNanos = System.nanoTime() - controllerServicesStart;
                 }
             }
 
@@ -394,12 +434,72 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
                 policyBasedAuthorizer.inheritFingerprint(proposedAuthFingerprint);
             }
 
-            logger.debug("Finished syncing flows");
+            logger.info("Finished syncing flows in {} millis (reading existing flow: {} millis, checking inheritability: {} millis, parsing proposed flow: {} millis, "
+                + "instantiating processors: {} millis, adding process groups: {} millis, controller services and reporting tasks: {} millis)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - syncStart), TimeUnit.NANOSECONDS.toMillis(existingFlowNanos),
+                TimeUnit.NANOSECONDS.toMillis(inheritabilityNanos), TimeUnit.NANOSECONDS.toMillis(parseNanos), TimeUnit.NANOSECONDS.toMillis(instantiationNanos),
+                TimeUnit.NANOSECONDS.toMillis(processGroupNanos), TimeUnit.NANOSECONDS.toMillis(controllerServicesNanos));
         } catch (final Exception ex) {
             throw new FlowSynchronizationException(ex);
         }
     }
 
+    /**
+     * Instantiates all of the Processors in the given Process Group element and its descendant groups, using one thread
+     * per available core. Loading each Processor's class from its NAR and initializing it is most of the work of adding a
+     * large flow, and Processors do not depend on one another to be created, so this can be done in any order. The
+     * Processors are then added to the flow, in order, by addProcessGroup, which takes them from instantiatedProcessors.
+     * FlowController creates a Ghost Processor for any Processor whose class cannot be instantiated, so any other failure
+     * fails the synchronization, just as it would if the Processor were created by addProcessGroup.
+     */
+    private void instantiateProcessors(final FlowController controller, final Element rootGroupElement) throws ProcessorInstantiationException {
+        final List<Element> processorElements = new ArrayList<>();
+        findProcessorElements(rootGroupElement, processorElements);
+
+        final int threadCount = Math.min(Runtime.getRuntime().availableProcessors(), processorElements.size());
+        if (threadCount < 2) {
+            return;
+        }
+
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "Instantiate Processors Thread-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final List<Future<ProcessorNode>> futures = new ArrayList<>(processorElements.size());
+            for (final Element processorElement : processorElements) {
+                final String id = getString(processorElement, "id");
+                final String type = getString(processorElement, "class");
+                futures.add(executor.submit(() -> controller.createProcessor(type, id, false)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                final Element processorElement = processorElements.get(i);
+                try {
+                    instantiatedProcessors.put(getString(processorElement, "id"), futures.get(i).get());
+                } catch (final ExecutionException ee) {
+                    throw new ProcessorInstantiationException(getString(processorElement, "class"), ee.getCause());
+                }
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.debug("Instantiated {} of {} Processors using {} threads", instantiatedProcessors.size(), processorElements.size(), threadCount);
+    }
+
+    private void findProcessorElements(final Element processGroupElement, final List<Element> processorElements) {
+        processorElements.addAll(getChildrenByTagName(processGroupElement, "processor"));
+        for (final Element childGroupElement : getChildrenByTagName(processGroupElement, "processGroup")) {
+            findProcessorElements(childGroupElement, processorElements);
+        }
+    }
+
     private void updateReportingTaskControllerServices(final Set<ReportingTaskNode> reportingTasks, final Map<String, ControllerServiceNode> controllerServiceMapping) {
         for (ReportingTaskNode reportingTask : reportingTasks) {
             if (reportingTask.getProperties() != null) {
@@ -863,6 +963,11 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             if (dto.getFlowFileExpiration() != null) {
                 connection.getFlowFileQueue().setFlowFileExpiration(dto.getFlowFileExpiration());
             }
+
+            if (dto.getLoadBalanceStrategy() != null) {
+                connection.setLoadBalanceStrategy(LoadBalanceStrategy.valueOf(dto.getLoadBalanceStrategy()));
+            }
+            connection.setLoadBalancePartitionAttribute(dto.getLoadBalancePartitionAttribute());
         }
 
         // Replace the templates with those from the proposed flow
@@ -967,7 +1072,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
         final List<Element> processorNodeList = getChildrenByTagName(processGroupElement, "processor");
         for (final Element processorElement : processorNodeList) {
             final ProcessorDTO processorDTO = FlowFromDOMFactory.getProcessor(processorElement, encryptor);
-            final ProcessorNode procNode = controller.createProcessor(processorDTO.getType(), processorDTO.getId(), false);
+            ProcessorNode procNode = instantiatedProcessors.remove(processorDTO.getId());
+            if (procNode == null) {
+                procNode = controller.createProcessor(processorDTO.getType(), processorDTO.getId(), false);
+            }
             processGroup.addProcessor(procNode);
             updateProcessor(procNode, processorDTO, processGroup, controller);
         }
@@ -1240,6 +1348,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             if (dto.getFlowFileExpiration() != null) {
                 connection.getFlowFileQueue().setFlowFileExpiration(dto.getFlowFileExpiration());
             }
+            if (dto.getLoadBalanceStrategy() != null) {
+                connection.setLoadBalanceStrategy(LoadBalanceStrategy.valueOf(dto.getLoadBalanceStrategy()));
+            }
+            connection.setLoadBalancePartitionAttribute(dto.getLoadBalancePartitionAttribute());
 
             processGroup.addConnection(connection);
         }
@@ -1334,8 +1446,12 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             return null; // no existing flow, so equivalent to proposed flow
         }
 
+        // identical flows are always inheritable, so there is no need to fingerprint them
+        if (Arrays.equals(existingFlow, proposedFlow)) {
+            return null;
+        }
+
         // check if the Flow is inheritable
-        final FingerprintFactory fingerprintFactory = new FingerprintFactory(encryptor);
         final String existingFlowFingerprintBeforeHash = fingerprintFactory.createFingerprint(existingFlow, controller);
         if (existingFlowFingerprintBeforeHash.trim().isEmpty()) {
             return null;  // no existing flow, so equivalent to proposed flow
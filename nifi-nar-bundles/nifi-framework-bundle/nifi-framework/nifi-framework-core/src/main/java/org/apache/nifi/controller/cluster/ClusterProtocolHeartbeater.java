@@ -96,6 +96,7 @@ public class ClusterProtocolHeartbeater implements Heartbeater {
             }
         }
 
+        clusterCoordinator.setNodeHealth(responseMessage.getNodeHealth());
 
         final long sendNanos = System.nanoTime() - sendStart;
         final long sendMillis = TimeUnit.NANOSECONDS.toMillis(sendNanos);
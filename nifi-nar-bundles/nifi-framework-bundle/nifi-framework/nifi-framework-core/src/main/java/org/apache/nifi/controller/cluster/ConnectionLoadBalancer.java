@@ -0,0 +1,551 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.cluster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.cluster.coordination.ClusterCoordinator;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.NodeProtocolSender;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.ContentRepository;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.RepositoryRecord;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.StandardRepositoryRecord;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.io.LimitedInputStream;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.processor.FlowFileFilter;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.remote.codec.StandardFlowFileCodec;
+import org.apache.nifi.remote.protocol.DataPacket;
+import org.apache.nifi.remote.util.StandardDataPacket;
+import org.apache.nifi.stream.io.StreamUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Distributes the FlowFiles that are queued in load-balanced Connections across the connected nodes of the cluster.
+ * Every node runs a balancer. Each run, the balancer determines which node owns each queued FlowFile, according to the
+ * Connection's {@link LoadBalanceStrategy}, and sends the FlowFiles that belong to other nodes directly to those nodes
+ * over the cluster protocol, where they are added to the queue of the same Connection. FlowFiles are encoded with the
+ * Site-to-Site {@link StandardFlowFileCodec}.
+ * </p>
+ *
+ * <p>
+ * The owner of a FlowFile is derived only from the FlowFile and the sorted list of connected nodes, so all nodes agree
+ * on it and a FlowFile is not sent back once it has reached its owner. Node health never changes the owner, because the
+ * nodes' views of the cluster's health may differ. Instead, for round robin, FlowFiles that are owned by a node that the
+ * Cluster Coordinator reports as unhealthy are held on the node they are queued on until the owner recovers. A FlowFile is
+ * removed from the sending node only after the receiving node has persisted it; if the transfer fails or is refused because the receiving queue is full,
+ * the FlowFile is returned to the local queue and tried again later.
+ * </p>
+ *
+ * <p>
+ * A batch is held in memory while it is sent, so its size is limited, and a FlowFile that is larger than a whole batch is
+ * not load balanced but stays on the node that it is queued on.
+ * </p>
+ *
+ * <p>
+ * The queue is locked while it is scanned for FlowFiles to send, so a scan gives up after a bounded number of FlowFiles
+ * that must stay on this node. FlowFiles that are queued behind them are sent once the FlowFiles ahead of them have been
+ * processed locally. A Connection is not scanned at all if none of its FlowFiles can be sent to another node.
+ * </p>
+ */
+public class ConnectionLoadBalancer implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLoadBalancer.class);
+
+    static final int MAX_BATCH_FLOWFILES = 500;
+    static final long MAX_BATCH_BYTES = 10 * 1024 * 1024L;
+    static final int MAX_REJECTED_FLOWFILES = 1000;
+    private static final long MAX_RUN_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    private static final String COMPONENT_TYPE = "Load-Balanced Connection";
+
+    private final FlowController flowController;
+    private final NodeProtocolSender protocolSender;
+    private final ClusterCoordinator clusterCoordinator;
+    private final ContentRepository contentRepository;
+    private final FlowFileRepository flowFileRepository;
+    private final ProvenanceEventRepository provenanceRepository;
+
+    public ConnectionLoadBalancer(final FlowController flowController, final NodeProtocolSender protocolSender, final ClusterCoordinator clusterCoordinator,
+        final ContentRepository contentRepository, final FlowFileRepository flowFileRepository, final ProvenanceEventRepository provenanceRepository) {
+        this.flowController = flowController;
+        this.protocolSender = protocolSender;
+        this.clusterCoordinator = clusterCoordinator;
+        this.contentRepository = contentRepository;
+        this.flowFileRepository = flowFileRepository;
+        this.provenanceRepository = provenanceRepository;
+    }
+
+    @Override
+    public void run() {
+        try {
+            final long startNanos = System.nanoTime();
+            while (balance() && System.nanoTime() - startNanos < MAX_RUN_NANOS) {
+                // keep sending full batches until the queues are drained or the time for this run is up
+            }
+        } catch (final Throwable t) {
+            logger.error("Failed to load balance FlowFiles across the cluster due to {}", t.toString(), t);
+        }
+    }
+
+    /**
+     * Sends one batch of FlowFiles from each load-balanced Connection to the nodes that own them
+     *
+     * @return <code>true</code> if any Connection filled a batch that was sent, meaning that there may be more FlowFiles to send
+     */
+    private boolean balance() {
+        final NodeIdentifier localNodeId = clusterCoordinator.getLocalNodeIdentifier();
+        if (localNodeId == null || !flowController.isConnected()) {
+            return false;
+        }
+
+        final List<NodeIdentifier> nodeIds = new ArrayList<>(clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED));
+        if (nodeIds.size() < 2 || !nodeIds.contains(localNodeId)) {
+            return false;
+        }
+        nodeIds.sort(Comparator.comparing(NodeIdentifier::getId));
+        final Set<NodeIdentifier> unhealthyNodeIds = getUnhealthyNodes(nodeIds);
+
+        final ProcessGroup rootGroup = flowController.getGroup(flowController.getRootGroupId());
+        boolean batchFilled = false;
+        for (final Connection connection : rootGroup.findAllConnections()) {
+            final LoadBalanceStrategy strategy = connection.getLoadBalanceStrategy();
+            if (strategy == null || strategy == LoadBalanceStrategy.DO_NOT_LOAD_BALANCE) {
+                continue;
+            }
+
+            // Round robin only spreads the load, so it can hold back work for unhealthy nodes; the other strategies must
+            // deliver every FlowFile to its owner.
+            batchFilled |= balance(connection, localNodeId, nodeIds,
+                strategy == LoadBalanceStrategy.ROUND_ROBIN ? unhealthyNodeIds : Collections.<NodeIdentifier> emptySet());
+        }
+
+        return batchFilled;
+    }
+
+    /**
+     * @return those of the given nodes that the Cluster Coordinator considers unhealthy. Nodes whose health is not known
+     *         are considered healthy.
+     */
+    private Set<NodeIdentifier> getUnhealthyNodes(final List<NodeIdentifier> nodeIds) {
+        final Set<NodeIdentifier> unhealthyNodeIds = new HashSet<>();
+        for (final NodeIdentifier nodeId : nodeIds) {
+            final NodeHealth nodeHealth = clusterCoordinator.getNodeHealth(nodeId);
+            if (nodeHealth != null && !nodeHealth.isHealthy()) {
+                unhealthyNodeIds.add(nodeId);
+            }
+        }
+
+        return unhealthyNodeIds;
+    }
+
+    private boolean balance(final Connection connection, final NodeIdentifier localNodeId, final List<NodeIdentifier> nodeIds,
+        final Set<NodeIdentifier> heldNodeIds) {
+        final FlowFileQueue queue = connection.getFlowFileQueue();
+        final LoadBalanceStrategy strategy = connection.getLoadBalanceStrategy();
+        if (queue.isActiveQueueEmpty() || !canSendToOtherNodes(strategy, localNodeId, nodeIds, heldNodeIds)) {
+            return false;
+        }
+
+        final String partitionAttribute = connection.getLoadBalancePartitionAttribute();
+        final Map<NodeIdentifier, List<FlowFileRecord>> flowFilesByNode = new LinkedHashMap<>();
+        final long[] batchBytes = new long[1];
+        final int[] batchCount = new int[1];
+        final boolean[] batchFull = new boolean[1];
+        final int[] rejectedCount = new int[1];
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        queue.poll(new FlowFileFilter() {
+            @Override
+            public FlowFileFilterResult filter(final FlowFile flowFile) {
+                final NodeIdentifier owner = getOwner(strategy, partitionAttribute, flowFile, nodeIds, localNodeId);
+                if (owner.equals(localNodeId) || heldNodeIds.contains(owner) || flowFile.getSize() > MAX_BATCH_BYTES) {
+                    rejectedCount[0]++;
+                    return rejectedCount[0] >= MAX_REJECTED_FLOWFILES ? FlowFileFilterResult.REJECT_AND_TERMINATE : FlowFileFilterResult.REJECT_AND_CONTINUE;
+                }
+
+                if (batchBytes[0] + flowFile.getSize() > MAX_BATCH_BYTES) {
+                    batchFull[0] = true;
+                    return FlowFileFilterResult.REJECT_AND_TERMINATE;
+                }
+
+                List<FlowFileRecord> flowFiles = flowFilesByNode.get(owner);
+                if (flowFiles == null) {
+                    flowFiles = new ArrayList<>();
+                    flowFilesByNode.put(owner, flowFiles);
+                }
+                flowFiles.add((FlowFileRecord) flowFile);
+                batchCount[0]++;
+                batchBytes[0] += flowFile.getSize();
+                if (batchCount[0] >= MAX_BATCH_FLOWFILES) {
+                    batchFull[0] = true;
+                    return FlowFileFilterResult.ACCEPT_AND_TERMINATE;
+                }
+                return FlowFileFilterResult.ACCEPT_AND_CONTINUE;
+            }
+        }, expired);
+
+        // Expired FlowFiles are left for the framework task that expires FlowFiles
+        if (!expired.isEmpty()) {
+            queue.putAll(expired);
+        }
+
+        boolean sent = false;
+        try {
+            final Iterator<Map.Entry<NodeIdentifier, List<FlowFileRecord>>> itr = flowFilesByNode.entrySet().iterator();
+            while (itr.hasNext()) {
+                final Map.Entry<NodeIdentifier, List<FlowFileRecord>> entry = itr.next();
+                itr.remove();
+                sent |= send(connection, localNodeId, entry.getKey(), entry.getValue());
+            }
+        } finally {
+            // If sending fails with an Error, the FlowFiles that were polled for the other nodes must not be lost
+            for (final List<FlowFileRecord> flowFiles : flowFilesByNode.values()) {
+                requeue(queue, flowFiles);
+            }
+        }
+
+        // If nothing could be sent, polling again would only return the same FlowFiles
+        return batchFull[0] && sent;
+    }
+
+    /**
+     * @return <code>true</code> if a Connection with the given strategy may hold FlowFiles that are owned by a node that they
+     *         can be sent to, <code>false</code> if all of its FlowFiles must stay on the local node
+     */
+    private static boolean canSendToOtherNodes(final LoadBalanceStrategy strategy, final NodeIdentifier localNodeId, final List<NodeIdentifier> sortedNodeIds,
+        final Set<NodeIdentifier> heldNodeIds) {
+        if (strategy == LoadBalanceStrategy.SINGLE_NODE) {
+            final NodeIdentifier owner = sortedNodeIds.get(0);
+            return !owner.equals(localNodeId) && !heldNodeIds.contains(owner);
+        }
+
+        for (final NodeIdentifier nodeId : sortedNodeIds) {
+            if (!nodeId.equals(localNodeId) && !heldNodeIds.contains(nodeId)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines which node owns the given FlowFile. Nodes must be sorted so that every node in the cluster makes the
+     * same choice.
+     */
+    static NodeIdentifier getOwner(final LoadBalanceStrategy strategy, final String partitionAttribute, final FlowFile flowFile,
+        final List<NodeIdentifier> sortedNodeIds, final NodeIdentifier localNodeId) {
+        switch (strategy) {
+            case SINGLE_NODE:
+                return sortedNodeIds.get(0);
+            case PARTITION_BY_ATTRIBUTE: {
+                final String value = partitionAttribute == null ? null : flowFile.getAttribute(partitionAttribute);
+                if (value == null) {
+                    return localNodeId;
+                }
+                return sortedNodeIds.get(Math.floorMod(value.hashCode(), sortedNodeIds.size()));
+            }
+            case ROUND_ROBIN: {
+                // The UUID is random, so spreading by its hash distributes FlowFiles evenly and it does not change when a FlowFile is transferred.
+                final String uuid = flowFile.getAttribute(CoreAttributes.UUID.key());
+                return sortedNodeIds.get(Math.floorMod(uuid.hashCode(), sortedNodeIds.size()));
+            }
+            default:
+                return localNodeId;
+        }
+    }
+
+    /**
+     * Sends the given FlowFiles to the given node, returning them to the queue if they are not accepted
+     *
+     * @return <code>true</code> if the node accepted the FlowFiles
+     */
+    private boolean send(final Connection connection, final NodeIdentifier localNodeId, final NodeIdentifier nodeId, final List<FlowFileRecord> flowFiles) {
+        final FlowFileQueue queue = connection.getFlowFileQueue();
+        final long sendStart = System.nanoTime();
+
+        boolean accepted = false;
+        try {
+            final LoadBalanceFlowFilesMessage msg = new LoadBalanceFlowFilesMessage();
+            msg.setNodeId(localNodeId);
+            msg.setConnectionId(connection.getIdentifier());
+            msg.setCodecVersion(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION);
+            msg.setFlowFileCount(flowFiles.size());
+            msg.setFlowFiles(encode(flowFiles, msg.getCodecVersion()));
+
+            final LoadBalanceFlowFilesResponseMessage response = protocolSender.loadBalanceFlowFiles(msg, nodeId);
+            accepted = response.isAccepted();
+            if (!accepted) {
+                logger.debug("{} did not accept {} FlowFiles from {} because {}; will try again later", nodeId, flowFiles.size(), connection, response.getRejectionReason());
+                return false;
+            }
+        } catch (final Exception e) {
+            logger.warn("Failed to send {} FlowFiles from {} to {} due to {}; will try again later", flowFiles.size(), connection, nodeId, e.toString());
+            if (logger.isDebugEnabled()) {
+                logger.warn("", e);
+            }
+            return false;
+        } finally {
+            if (!accepted) {
+                requeue(queue, flowFiles);
+            }
+        }
+
+        final long sendMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendStart);
+        final String transitUri = createTransitUri(nodeId);
+        final List<ProvenanceEventRecord> events = new ArrayList<>(flowFiles.size());
+        final List<RepositoryRecord> repoRecords = new ArrayList<>(flowFiles.size());
+        for (final FlowFileRecord flowFile : flowFiles) {
+            events.add(createEvent(ProvenanceEventType.SEND, flowFile, connection, transitUri, sendMillis, "Load balanced to " + nodeId));
+
+            final StandardRepositoryRecord record = new StandardRepositoryRecord(queue, flowFile);
+            record.markForDelete();
+            repoRecords.add(record);
+        }
+
+        // The receiving node now owns the FlowFiles, so they must not be returned to the queue even if the repositories fail to update.
+        provenanceRepository.registerEvents(events);
+        for (final FlowFileRecord flowFile : flowFiles) {
+            if (flowFile.getContentClaim() != null) {
+                contentRepository.decrementClaimantCount(flowFile.getContentClaim());
+            }
+        }
+
+        try {
+            flowFileRepository.updateRepository(repoRecords);
+        } catch (final IOException ioe) {
+            logger.error("Sent {} FlowFiles from {} to {} but failed to remove them from the FlowFile Repository due to {}; "
+                + "they may be restored to this node upon restart", flowFiles.size(), connection, nodeId, ioe.toString(), ioe);
+        }
+
+        queue.acknowledge(flowFiles);
+        logger.debug("Sent {} FlowFiles from {} to {} in {} millis", flowFiles.size(), connection, nodeId, sendMillis);
+        return true;
+    }
+
+    private void requeue(final FlowFileQueue queue, final List<FlowFileRecord> flowFiles) {
+        queue.putAll(flowFiles);
+        queue.acknowledge(flowFiles);
+    }
+
+    private byte[] encode(final List<FlowFileRecord> flowFiles, final int codecVersion) throws IOException {
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec(codecVersion);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(baos);
+
+        for (final FlowFileRecord flowFile : flowFiles) {
+            // The codec carries only attributes and content, so the dates that the framework tracks are written ahead of each FlowFile.
+            out.writeLong(flowFile.getEntryDate());
+            out.writeLong(flowFile.getLineageStartDate());
+
+            try (final InputStream in = read(flowFile)) {
+                codec.encode(new StandardDataPacket(flowFile.getAttributes(), in, flowFile.getSize()), out);
+            }
+        }
+
+        out.flush();
+        return baos.toByteArray();
+    }
+
+    private InputStream read(final FlowFileRecord flowFile) throws IOException {
+        if (flowFile.getSize() == 0L || flowFile.getContentClaim() == null) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        final InputStream rawIn = contentRepository.read(flowFile.getContentClaim());
+        try {
+            StreamUtils.skip(rawIn, flowFile.getContentClaimOffset());
+        } catch (final IOException ioe) {
+            rawIn.close();
+            throw ioe;
+        }
+        return new LimitedInputStream(rawIn, flowFile.getSize());
+    }
+
+    /**
+     * Adds the FlowFiles of the given message to the queue of the Connection that they were sent from.
+     *
+     * @param msg the message holding the FlowFiles
+     * @return a response indicating whether or not this node took ownership of the FlowFiles
+     */
+    public LoadBalanceFlowFilesResponseMessage receive(final LoadBalanceFlowFilesMessage msg) {
+        final LoadBalanceFlowFilesResponseMessage response = new LoadBalanceFlowFilesResponseMessage();
+        final Connection connection = flowController.getGroup(flowController.getRootGroupId()).findConnection(msg.getConnectionId());
+        if (connection == null) {
+            response.setRejectionReason("Connection " + msg.getConnectionId() + " does not exist");
+            return response;
+        }
+
+        final FlowFileQueue queue = connection.getFlowFileQueue();
+        if (queue.isFull()) {
+            response.setRejectionReason(connection + " is full");
+            return response;
+        }
+
+        final long receiveStart = System.nanoTime();
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(msg.getFlowFileCount());
+        try {
+            decode(msg, flowFiles);
+        } catch (final Exception e) {
+            for (final FlowFileRecord flowFile : flowFiles) {
+                destroyContent(flowFile.getContentClaim());
+            }
+
+            logger.error("Failed to receive {} FlowFiles for {} from {} due to {}", msg.getFlowFileCount(), connection, msg.getNodeId(), e.toString(), e);
+            response.setRejectionReason("Failed to receive FlowFiles due to " + e.toString());
+            return response;
+        }
+
+        final List<RepositoryRecord> repoRecords = new ArrayList<>(flowFiles.size());
+        for (final FlowFileRecord flowFile : flowFiles) {
+            // The FlowFiles are new to this node, so they are created in the repository, which writes all of their attributes.
+            final StandardRepositoryRecord record = new StandardRepositoryRecord(null);
+            record.setWorking(flowFile);
+            record.setDestination(queue);
+            repoRecords.add(record);
+        }
+
+        try {
+            flowFileRepository.updateRepository(repoRecords);
+        } catch (final IOException ioe) {
+            for (final FlowFileRecord flowFile : flowFiles) {
+                destroyContent(flowFile.getContentClaim());
+            }
+
+            logger.error("Failed to receive {} FlowFiles for {} from {} due to {}", flowFiles.size(), connection, msg.getNodeId(), ioe.toString(), ioe);
+            response.setRejectionReason("Failed to update FlowFile Repository due to " + ioe.toString());
+            return response;
+        }
+
+        final long receiveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - receiveStart);
+        final String transitUri = createTransitUri(msg.getNodeId());
+        final List<ProvenanceEventRecord> events = new ArrayList<>(flowFiles.size());
+        for (final FlowFileRecord flowFile : flowFiles) {
+            events.add(createEvent(ProvenanceEventType.RECEIVE, flowFile, connection, transitUri, receiveMillis, "Load balanced from " + msg.getNodeId()));
+        }
+        provenanceRepository.registerEvents(events);
+
+        queue.putAll(flowFiles);
+        logger.debug("Received {} FlowFiles for {} from {} in {} millis", flowFiles.size(), connection, msg.getNodeId(), receiveMillis);
+
+        response.setAccepted(true);
+        return response;
+    }
+
+    private void decode(final LoadBalanceFlowFilesMessage msg, final Collection<FlowFileRecord> flowFiles) throws IOException {
+        final StandardFlowFileCodec codec = new StandardFlowFileCodec(msg.getCodecVersion());
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(msg.getFlowFiles() == null ? new byte[0] : msg.getFlowFiles()));
+
+        for (int i = 0; i < msg.getFlowFileCount(); i++) {
+            final long entryDate = in.readLong();
+            final long lineageStartDate = in.readLong();
+            final DataPacket dataPacket = codec.decode(in);
+            if (dataPacket == null) {
+                throw new EOFException("Expected " + msg.getFlowFileCount() + " FlowFiles but received only " + i);
+            }
+
+            ContentClaim claim = null;
+            if (dataPacket.getSize() > 0L) {
+                claim = contentRepository.create(false);
+                try {
+                    contentRepository.importFrom(dataPacket.getData(), claim);
+                } catch (final IOException ioe) {
+                    destroyContent(claim);
+                    throw ioe;
+                }
+            }
+
+            flowFiles.add(new StandardFlowFileRecord.Builder()
+                .id(flowFileRepository.getNextFlowFileSequence())
+                .addAttributes(dataPacket.getAttributes())
+                .contentClaim(claim)
+                .contentClaimOffset(0L)
+                .size(dataPacket.getSize())
+                .entryDate(entryDate)
+                .lineageStart(lineageStartDate, 0L)
+                .build());
+        }
+    }
+
+    private ProvenanceEventRecord createEvent(final ProvenanceEventType eventType, final FlowFileRecord flowFile, final Connection connection, final String transitUri,
+        final long durationMillis, final String details) {
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.fromFlowFile(flowFile);
+
+        final ContentClaim claim = flowFile.getContentClaim();
+        if (claim != null) {
+            builder.setCurrentContentClaim(claim.getResourceClaim().getContainer(), claim.getResourceClaim().getSection(), claim.getResourceClaim().getId(),
+                claim.getOffset() + flowFile.getContentClaimOffset(), flowFile.getSize());
+        }
+
+        return builder.setEventType(eventType)
+            .setTransitUri(transitUri)
+            .setEventTime(System.currentTimeMillis())
+            .setEventDuration(durationMillis)
+            .setComponentId(connection.getIdentifier())
+            .setComponentType(COMPONENT_TYPE)
+            .setSourceQueueIdentifier(connection.getFlowFileQueue().getIdentifier())
+            .setDetails(details)
+            .build();
+    }
+
+    private void destroyContent(final ContentClaim claim) {
+        if (claim != null && contentRepository.decrementClaimantCount(claim) <= 0) {
+            contentRepository.remove(claim);
+        }
+    }
+
+    private static String createTransitUri(final NodeIdentifier nodeId) {
+        return "nifi://" + nodeId.getSocketAddress() + ":" + nodeId.getSocketPort();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.provenance.ProvenanceEventBuilder;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+
+/**
+ * A ProvenanceEventRepository that enforces the {@link ProvenancePolicy} of a single component before the component's
+ * events are registered with the underlying repository. Events that the policy does not record are dropped, and the
+ * number of dropped events is reported to the given callback. All other operations are delegated as-is.
+ */
+class PolicyEnforcingProvenanceEventRepository implements ProvenanceEventRepository {
+
+    private final ProvenanceEventRepository delegate;
+    private final Connectable connectable;
+    private final ProvenancePolicies policies;
+    private final LongConsumer suppressedEventCallback;
+
+    PolicyEnforcingProvenanceEventRepository(final ProvenanceEventRepository delegate, final Connectable connectable, final ProvenancePolicies policies,
+        final LongConsumer suppressedEventCallback) {
+        this.delegate = delegate;
+        this.connectable = connectable;
+        this.policies = policies;
+        this.suppressedEventCallback = suppressedEventCallback;
+    }
+
+    @Override
+    public ProvenanceEventBuilder eventBuilder() {
+        return delegate.eventBuilder();
+    }
+
+    @Override
+    public void registerEvent(final ProvenanceEventRecord event) {
+        // The policy is looked up each time because the component may be moved to another Process Group.
+        final ProvenancePolicy policy = policies.getPolicy(connectable);
+        if (policy == null) {
+            delegate.registerEvent(event);
+            return;
+        }
+
+        if (policy.isRecorded(event)) {
+            delegate.registerEvent(applyAttributeFilter(policy, event));
+        } else {
+            suppressedEventCallback.accept(1L);
+        }
+    }
+
+    @Override
+    public void registerEvents(final Iterable<ProvenanceEventRecord> events) {
+        final ProvenancePolicy policy = policies.getPolicy(connectable);
+        if (policy == null) {
+            delegate.registerEvents(events);
+            return;
+        }
+
+        final long[] suppressed = new long[1];
+        final Iterable<ProvenanceEventRecord> recorded = new Iterable<ProvenanceEventRecord>() {
+            @Override
+            public Iterator<ProvenanceEventRecord> iterator() {
+                final Iterator<ProvenanceEventRecord> itr = events.iterator();
+
+                return new Iterator<ProvenanceEventRecord>() {
+                    private ProvenanceEventRecord next = null;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (next == null && itr.hasNext()) {
+                            final ProvenanceEventRecord event = itr.next();
+                            if (event == null) {
+                                continue;
+                            }
+
+                            if (policy.isRecorded(event)) {
+                                next = applyAttributeFilter(policy, event);
+                            } else {
+                                suppressed[0]++;
+                            }
+                        }
+
+                        return next != null;
+                    }
+
+                    @Override
+                    public ProvenanceEventRecord next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        final ProvenanceEventRecord event = next;
+                        next = null;
+                        return event;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+
+        try {
+            delegate.registerEvents(recorded);
+        } finally {
+            if (suppressed[0] > 0L) {
+                suppressedEventCallback.accept(suppressed[0]);
+            }
+        }
+    }
+
+    private ProvenanceEventRecord applyAttributeFilter(final ProvenancePolicy policy, final ProvenanceEventRecord event) {
+        if (!policy.isAttributeFiltering()) {
+            return event;
+        }
+
+        return delegate.eventBuilder()
+            .fromEvent(event)
+            .setAttributes(policy.filterAttributes(event.getPreviousAttributes()), policy.filterAttributes(event.getUpdatedAttributes()))
+            .build();
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getEvents(final long firstRecordId, final int maxRecords) throws IOException {
+        return delegate.getEvents(firstRecordId, maxRecords);
+    }
+
+    @Override
+    public Long getMaxEventId() {
+        return delegate.getMaxEventId();
+    }
+
+    @Override
+    public ProvenanceEventRecord getEvent(final long id) throws IOException {
+        return delegate.getEvent(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -37,6 +37,8 @@ import org.apache.nifi.util.Connectables;
  */
 public class ProcessContext {
 
+    static final String SUPPRESSED_PROVENANCE_EVENTS_COUNTER = "Provenance Events Suppressed by Policy";
+
     private final Connectable connectable;
     private final ContentRepository contentRepo;
     private final FlowFileRepository flowFileRepo;
@@ -48,12 +50,25 @@ public class ProcessContext {
     public ProcessContext(final Connectable connectable, final AtomicLong connectionIndex, final ContentRepository contentRepository,
             final FlowFileRepository flowFileRepository, final FlowFileEventRepository flowFileEventRepository,
             final CounterRepository counterRepository, final ProvenanceEventRepository provenanceRepository) {
+        this(connectable, connectionIndex, contentRepository, flowFileRepository, flowFileEventRepository, counterRepository, provenanceRepository, ProvenancePolicies.NONE);
+    }
+
+    public ProcessContext(final Connectable connectable, final AtomicLong connectionIndex, final ContentRepository contentRepository,
+            final FlowFileRepository flowFileRepository, final FlowFileEventRepository flowFileEventRepository,
+            final CounterRepository counterRepository, final ProvenanceEventRepository provenanceRepository,
+            final ProvenancePolicies provenancePolicies) {
         this.connectable = connectable;
         contentRepo = contentRepository;
         flowFileRepo = flowFileRepository;
         flowFileEventRepo = flowFileEventRepository;
         counterRepo = counterRepository;
-        provenanceRepo = provenanceRepository;
+
+        if (provenancePolicies == null || provenancePolicies.isEmpty()) {
+            provenanceRepo = provenanceRepository;
+        } else {
+            provenanceRepo = new PolicyEnforcingProvenanceEventRepository(provenanceRepository, connectable, provenancePolicies,
+                suppressed -> adjustCounter(SUPPRESSED_PROVENANCE_EVENTS_COUNTER, suppressed));
+        }
 
         this.connectionIndex = connectionIndex;
     }
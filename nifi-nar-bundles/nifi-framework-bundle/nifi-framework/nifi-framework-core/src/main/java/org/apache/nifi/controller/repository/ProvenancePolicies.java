@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.util.NiFiProperties;
+
+/**
+ * <p>
+ * The set of {@link ProvenancePolicy Provenance Policies} that have been configured for individual components and Process Groups.
+ * Policies are configured in nifi.properties using properties of the form
+ * <code>nifi.provenance.policy.&lt;component or process group id&gt;.&lt;setting&gt;</code>, where the setting is one of:
+ * </p>
+ *
+ * <ul>
+ * <li><code>event.types</code> - a comma-separated list of the Provenance Event Types to record</li>
+ * <li><code>sampling.rate</code> - the fraction of FlowFiles, between 0.0 and 1.0, for which events are recorded</li>
+ * <li><code>attributes</code> - a comma-separated list of the FlowFile attributes to record with each event</li>
+ * </ul>
+ *
+ * <p>
+ * The policy that applies to a component is the one configured for the component itself or, if there is none, the one
+ * configured for the closest Process Group that contains it. Components without a policy record all events.
+ * </p>
+ */
+public class ProvenancePolicies {
+
+    public static final String EVENT_TYPES = "event.types";
+    public static final String SAMPLING_RATE = "sampling.rate";
+    public static final String ATTRIBUTES = "attributes";
+
+    public static final ProvenancePolicies NONE = new ProvenancePolicies(Collections.<String, ProvenancePolicy> emptyMap());
+
+    private final Map<String, ProvenancePolicy> policies;
+
+    public ProvenancePolicies(final Map<String, ProvenancePolicy> policies) {
+        this.policies = Collections.unmodifiableMap(new HashMap<>(policies));
+    }
+
+    public static ProvenancePolicies fromProperties(final NiFiProperties properties) {
+        final Map<String, Map<String, String>> settingsById = new HashMap<>();
+        for (final String propertyName : properties.getPropertyKeys()) {
+            if (!propertyName.startsWith(NiFiProperties.PROVENANCE_POLICY_PREFIX)) {
+                continue;
+            }
+
+            final String suffix = propertyName.substring(NiFiProperties.PROVENANCE_POLICY_PREFIX.length());
+            final int separator = suffix.indexOf('.');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Invalid Provenance Policy property " + propertyName
+                    + "; expected nifi.provenance.policy.<component id>.<setting>");
+            }
+
+            final String id = suffix.substring(0, separator);
+            final String setting = suffix.substring(separator + 1);
+            if (!EVENT_TYPES.equals(setting) && !SAMPLING_RATE.equals(setting) && !ATTRIBUTES.equals(setting)) {
+                throw new IllegalArgumentException("Invalid Provenance Policy property " + propertyName + "; setting must be one of "
+                    + EVENT_TYPES + ", " + SAMPLING_RATE + ", " + ATTRIBUTES);
+            }
+
+            final String value = properties.getProperty(propertyName);
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+
+            Map<String, String> settings = settingsById.get(id);
+            if (settings == null) {
+                settings = new HashMap<>();
+                settingsById.put(id, settings);
+            }
+            settings.put(setting, value.trim());
+        }
+
+        final Map<String, ProvenancePolicy> policies = new HashMap<>();
+        for (final Map.Entry<String, Map<String, String>> entry : settingsById.entrySet()) {
+            policies.put(entry.getKey(), createPolicy(entry.getKey(), entry.getValue()));
+        }
+
+        return new ProvenancePolicies(policies);
+    }
+
+    private static ProvenancePolicy createPolicy(final String id, final Map<String, String> settings) {
+        final Set<ProvenanceEventType> eventTypes = EnumSet.noneOf(ProvenanceEventType.class);
+        final String eventTypeNames = settings.get(EVENT_TYPES);
+        if (eventTypeNames != null) {
+            for (final String eventTypeName : eventTypeNames.split(",")) {
+                final String trimmed = eventTypeName.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    eventTypes.add(ProvenanceEventType.valueOf(trimmed.toUpperCase()));
+                } catch (final IllegalArgumentException iae) {
+                    throw new IllegalArgumentException("Provenance Policy for " + id + " contains invalid Event Type " + trimmed);
+                }
+            }
+        }
+
+        double samplingRate = 1D;
+        final String samplingRateValue = settings.get(SAMPLING_RATE);
+        if (samplingRateValue != null) {
+            try {
+                samplingRate = Double.parseDouble(samplingRateValue);
+            } catch (final NumberFormatException nfe) {
+                throw new IllegalArgumentException("Provenance Policy for " + id + " contains invalid Sampling Rate " + samplingRateValue);
+            }
+        }
+
+        final Set<String> attributes = new HashSet<>();
+        final String attributeNames = settings.get(ATTRIBUTES);
+        if (attributeNames != null) {
+            for (final String attributeName : attributeNames.split(",")) {
+                final String trimmed = attributeName.trim();
+                if (!trimmed.isEmpty()) {
+                    attributes.add(trimmed);
+                }
+            }
+        }
+
+        return new ProvenancePolicy(eventTypes, samplingRate, attributes);
+    }
+
+    public boolean isEmpty() {
+        return policies.isEmpty();
+    }
+
+    /**
+     * @param id the identifier of a component or Process Group
+     * @return the policy that is configured for exactly the given identifier, or <code>null</code> if there is none
+     */
+    public ProvenancePolicy getPolicy(final String id) {
+        return policies.get(id);
+    }
+
+    /**
+     * @param connectable the component
+     * @return the policy that applies to the given component, or <code>null</code> if all events should be recorded
+     */
+    public ProvenancePolicy getPolicy(final Connectable connectable) {
+        if (policies.isEmpty()) {
+            return null;
+        }
+
+        final ProvenancePolicy componentPolicy = policies.get(connectable.getIdentifier());
+        if (componentPolicy != null) {
+            return componentPolicy;
+        }
+
+        ProcessGroup group = connectable.getProcessGroup();
+        while (group != null) {
+            final ProvenancePolicy groupPolicy = policies.get(group.getIdentifier());
+            if (groupPolicy != null) {
+                return groupPolicy;
+            }
+
+            group = group.getParent();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+
+/**
+ * <p>
+ * Describes which Provenance Events a component records. A policy may limit the types of events that are recorded,
+ * record events for only a sample of FlowFiles, and limit which FlowFile attributes are recorded with each event
+ * (and therefore which attributes can be indexed).
+ * </p>
+ *
+ * <p>
+ * Sampling is based on the FlowFile's UUID rather than on a random number, so that for a given FlowFile either all
+ * or none of its events are recorded by components that share the same sampling rate. This keeps the lineage of a
+ * sampled FlowFile intact.
+ * </p>
+ *
+ * <p>
+ * This class is immutable.
+ * </p>
+ */
+public class ProvenancePolicy {
+
+    private static final int SAMPLING_RESOLUTION = 10000;
+
+    private final Set<ProvenanceEventType> eventTypes;
+    private final double samplingRate;
+    private final Set<String> attributes;
+
+    /**
+     * @param eventTypes the types of events to record, or an empty set to record all types of events
+     * @param samplingRate the fraction of FlowFiles, between 0.0 and 1.0, for which events are recorded
+     * @param attributes the names of the attributes to record, or an empty set to record all attributes. The FlowFile's core attributes are always recorded.
+     */
+    public ProvenancePolicy(final Set<ProvenanceEventType> eventTypes, final double samplingRate, final Set<String> attributes) {
+        if (samplingRate < 0D || samplingRate > 1D || Double.isNaN(samplingRate)) {
+            throw new IllegalArgumentException("Sampling rate must be between 0.0 and 1.0 but was " + samplingRate);
+        }
+
+        this.eventTypes = eventTypes == null || eventTypes.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(eventTypes));
+        this.samplingRate = samplingRate;
+
+        if (attributes == null || attributes.isEmpty()) {
+            this.attributes = Collections.emptySet();
+        } else {
+            final Set<String> recorded = new HashSet<>(attributes);
+            for (final CoreAttributes coreAttribute : CoreAttributes.values()) {
+                recorded.add(coreAttribute.key());
+            }
+            this.attributes = Collections.unmodifiableSet(recorded);
+        }
+    }
+
+    /**
+     * @return the types of events that are recorded, or an empty set if all types are recorded
+     */
+    public Set<ProvenanceEventType> getEventTypes() {
+        return eventTypes;
+    }
+
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * @return the names of the attributes that are recorded, including the core attributes, or an empty set if all attributes are recorded
+     */
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @param event the event
+     * @return <code>true</code> if the event should be recorded, <code>false</code> if it should be suppressed
+     */
+    public boolean isRecorded(final ProvenanceEventRecord event) {
+        if (!eventTypes.isEmpty() && !eventTypes.contains(event.getEventType())) {
+            return false;
+        }
+
+        return isSampled(event.getFlowFileUuid());
+    }
+
+    /**
+     * @return <code>true</code> if this policy limits the attributes that are recorded
+     */
+    public boolean isAttributeFiltering() {
+        return !attributes.isEmpty();
+    }
+
+    /**
+     * @param attributes the attributes of an event
+     * @return the attributes that should be recorded
+     */
+    public Map<String, String> filterAttributes(final Map<String, String> attributes) {
+        if (this.attributes.isEmpty() || attributes == null) {
+            return attributes;
+        }
+
+        final Map<String, String> filtered = new HashMap<>();
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (this.attributes.contains(entry.getKey())) {
+                filtered.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return filtered;
+    }
+
+    boolean isSampled(final String flowFileUuid) {
+        if (samplingRate >= 1D) {
+            return true;
+        }
+        if (samplingRate <= 0D || flowFileUuid == null) {
+            return false;
+        }
+
+        // spread the bits of the hash code so that similar UUIDs do not fall into the same bucket
+        int hash = flowFileUuid.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+
+        final int bucket = (hash & Integer.MAX_VALUE) % SAMPLING_RESOLUTION;
+        return bucket < samplingRate * SAMPLING_RESOLUTION;
+    }
+
+    @Override
+    public String toString() {
+        return "ProvenancePolicy[eventTypes=" + (eventTypes.isEmpty() ? "ALL" : eventTypes) + ", samplingRate=" + samplingRate
+            + ", attributes=" + (attributes.isEmpty() ? "ALL" : attributes) + "]";
+    }
+}
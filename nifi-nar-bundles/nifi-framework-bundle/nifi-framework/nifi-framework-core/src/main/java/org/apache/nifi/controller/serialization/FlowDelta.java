@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.nifi.util.DomUtils;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * <p>
+ * Creates and applies deltas between two serialized flows so that a node that is joining the cluster does not have to
+ * be sent the Process Groups that it already has.
+ * </p>
+ *
+ * <p>
+ * Each Process Group in a flow is given a hash that covers the Process Group and everything that it contains, including
+ * its child groups and templates. When the Cluster Coordinator answers a connection request, it creates a delta between
+ * the cluster's flow and the flow that the node sent with its request: every Process Group whose hash matches the group
+ * with the same ID in the node's flow is replaced by an empty element that holds only the group's ID and its hash. The
+ * node then applies the delta to the flow that it sent, copying those groups back in, which yields the cluster's flow.
+ * </p>
+ *
+ * <p>
+ * The hash ignores whitespace between elements, so two flows that were serialized with different formatting still
+ * match. A group whose hash does not match is sent in full, so a delta can never be less accurate than the full flow.
+ * </p>
+ */
+public final class FlowDelta {
+
+    private static final String ROOT_GROUP = "rootGroup";
+    private static final String PROCESS_GROUP = "processGroup";
+    private static final String ID = "id";
+
+    /**
+     * The attribute that marks a Process Group element that was left out of a delta. Its value is the hash of the group.
+     */
+    static final String UNCHANGED_HASH_ATTRIBUTE = "unchangedHash";
+
+    private FlowDelta() {
+    }
+
+    /**
+     * Creates a delta of the given flow, leaving out all Process Groups that are unchanged in the given base flow.
+     *
+     * @param flow the flow that the delta is to represent
+     * @param baseFlow the flow that the delta will be applied to
+     * @return the delta, or the given flow itself if either flow is empty or no Process Group could be left out
+     * @throws FlowSerializationException if either flow cannot be parsed
+     */
+    public static byte[] createDelta(final byte[] flow, final byte[] baseFlow) throws FlowSerializationException {
+        if (isEmpty(flow) || isEmpty(baseFlow)) {
+            return flow;
+        }
+
+        final Document document = parse(flow);
+        final Element rootGroup = getRootGroup(document);
+        if (rootGroup == null) {
+            return flow;
+        }
+
+        final Map<String, String> baseHashes = new HashMap<>();
+        final Element baseRootGroup = getRootGroup(parse(baseFlow));
+        if (baseRootGroup != null) {
+            hashProcessGroups(baseRootGroup, baseHashes, null);
+        }
+
+        final Map<Element, String> hashes = new IdentityHashMap<>();
+        hashProcessGroups(rootGroup, null, hashes);
+
+        if (!removeUnchangedGroups(rootGroup, hashes, baseHashes)) {
+            return flow;
+        }
+
+        return serialize(document);
+    }
+
+    /**
+     * Applies the given delta to the given base flow, restoring the Process Groups that were left out of the delta.
+     *
+     * @param delta the delta, as created by {@link #createDelta(byte[], byte[])}, or a complete flow
+     * @param baseFlow the flow that the delta was created against
+     * @return the complete flow, or the given delta itself if it is a complete flow
+     * @throws FlowSerializationException if either flow cannot be parsed, or if the base flow does not contain a Process
+     *             Group that was left out of the delta
+     */
+    public static byte[] applyDelta(final byte[] delta, final byte[] baseFlow) throws FlowSerializationException {
+        if (isEmpty(delta)) {
+            return delta;
+        }
+
+        final Document document = parse(delta);
+        final Element rootGroup = getRootGroup(document);
+        if (rootGroup == null) {
+            return delta;
+        }
+
+        final List<Element> unchangedGroups = new ArrayList<>();
+        findUnchangedGroups(rootGroup, unchangedGroups);
+        if (unchangedGroups.isEmpty()) {
+            return delta;
+        }
+
+        if (isEmpty(baseFlow)) {
+            throw new FlowSerializationException("Cannot apply flow delta because the base flow is empty");
+        }
+
+        final Element baseRootGroup = getRootGroup(parse(baseFlow));
+        if (baseRootGroup == null) {
+            throw new FlowSerializationException("Cannot apply flow delta because the base flow has no root group");
+        }
+
+        final Map<Element, String> baseHashes = new IdentityHashMap<>();
+        hashProcessGroups(baseRootGroup, null, baseHashes);
+
+        final Map<String, Element> baseGroupsById = new HashMap<>();
+        for (final Element baseGroup : baseHashes.keySet()) {
+            baseGroupsById.put(DomUtils.getChildText(baseGroup, ID), baseGroup);
+        }
+
+        for (final Element unchangedGroup : unchangedGroups) {
+            final String groupId = DomUtils.getChildText(unchangedGroup, ID);
+            final Element baseGroup = baseGroupsById.get(groupId);
+            if (baseGroup == null || !baseHashes.get(baseGroup).equals(unchangedGroup.getAttribute(UNCHANGED_HASH_ATTRIBUTE))) {
+                throw new FlowSerializationException("Cannot apply flow delta because Process Group " + groupId + " in the base flow does not match the cluster's flow");
+            }
+
+            final Node restored = document.importNode(baseGroup, true);
+            unchangedGroup.getParentNode().replaceChild(restored, unchangedGroup);
+        }
+
+        return serialize(document);
+    }
+
+    private static boolean isEmpty(final byte[] flow) {
+        return flow == null || flow.length == 0;
+    }
+
+    private static Element getRootGroup(final Document document) {
+        return DomUtils.getChild(document.getDocumentElement(), ROOT_GROUP);
+    }
+
+    /**
+     * Replaces each Process Group that is unchanged in the base flow with an element holding only its ID and hash.
+     * Groups that have changed are searched for unchanged child groups.
+     *
+     * @return <code>true</code> if any Process Group was replaced
+     */
+    private static boolean removeUnchangedGroups(final Element groupElement, final Map<Element, String> hashes, final Map<String, String> baseHashes) {
+        final String hash = hashes.get(groupElement);
+        if (hash.equals(baseHashes.get(DomUtils.getChildText(groupElement, ID)))) {
+            final Element idElement = DomUtils.getChild(groupElement, ID);
+            while (groupElement.getFirstChild() != null) {
+                groupElement.removeChild(groupElement.getFirstChild());
+            }
+
+            groupElement.appendChild(idElement);
+            groupElement.setAttribute(UNCHANGED_HASH_ATTRIBUTE, hash);
+            return true;
+        }
+
+        boolean removed = false;
+        for (final Element childGroup : DomUtils.getChildElementsByTagName(groupElement, PROCESS_GROUP)) {
+            removed |= removeUnchangedGroups(childGroup, hashes, baseHashes);
+        }
+        return removed;
+    }
+
+    private static void findUnchangedGroups(final Element groupElement, final List<Element> unchangedGroups) {
+        if (groupElement.hasAttribute(UNCHANGED_HASH_ATTRIBUTE)) {
+            unchangedGroups.add(groupElement);
+            return;
+        }
+
+        for (final Element childGroup : DomUtils.getChildElementsByTagName(groupElement, PROCESS_GROUP)) {
+            findUnchangedGroups(childGroup, unchangedGroups);
+        }
+    }
+
+    /**
+     * Calculates the hash of the given Process Group element and of all of its descendant Process Groups, recording
+     * them by group ID and/or by element.
+     *
+     * @return the hash of the given Process Group element
+     */
+    private static byte[] hashProcessGroups(final Element groupElement, final Map<String, String> hashesById, final Map<Element, String> hashesByElement) {
+        final byte[] hash = hash(groupElement, hashesById, hashesByElement);
+        final String encoded = Base64.getEncoder().encodeToString(hash);
+
+        if (hashesById != null) {
+            hashesById.put(DomUtils.getChildText(groupElement, ID), encoded);
+        }
+        if (hashesByElement != null) {
+            hashesByElement.put(groupElement, encoded);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Calculates a hash of the given element from its name, its attributes, its text and the hashes of its child
+     * elements. Text is hashed exactly as it is stored, because leading and trailing whitespace is significant in
+     * property values; only whitespace between child elements, which is formatting, is ignored. Because the hash of each element is built from the hashes of its children, every element in the
+     * flow is visited only once, even though a hash is recorded for every Process Group.
+     */
+    private static byte[] hash(final Element element, final Map<String, String> hashesById, final Map<Element, String> hashesByElement) {
+        final MessageDigest digest = createDigest();
+        update(digest, element.getNodeName());
+
+        final Map<String, String> attributes = new TreeMap<>();
+        final NamedNodeMap attributeNodes = element.getAttributes();
+        for (int i = 0; i < attributeNodes.getLength(); i++) {
+            final Attr attribute = (Attr) attributeNodes.item(i);
+            if (!UNCHANGED_HASH_ATTRIBUTE.equals(attribute.getName())) {
+                attributes.put(attribute.getName(), attribute.getValue());
+            }
+        }
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+        }
+
+        final NodeList children = element.getChildNodes();
+        final boolean hasChildElements = hasChildElements(children);
+        for (int i = 0; i < children.getLength(); i++) {
+            final Node child = children.item(i);
+            if (child instanceof Element) {
+                final Element childElement = (Element) child;
+                final byte[] childHash;
+                if (PROCESS_GROUP.equals(childElement.getNodeName())) {
+                    childHash = hashProcessGroups(childElement, hashesById, hashesByElement);
+                } else {
+                    childHash = hash(childElement, hashesById, hashesByElement);
+                }
+
+                digest.update((byte) 1);
+                digest.update(childHash);
+            } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                final String text = child.getNodeValue();
+                if (!hasChildElements || !text.trim().isEmpty()) {
+                    update(digest, text);
+                }
+            }
+        }
+
+        return digest.digest();
+    }
+
+    private static boolean hasChildElements(final NodeList children) {
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i) instanceof Element) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 0);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Document parse(final byte[] flow) throws FlowSerializationException {
+        try {
+            final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+            docFactory.setNamespaceAware(true);
+
+            final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+            return docBuilder.parse(new ByteArrayInputStream(flow));
+        } catch (final SAXException | ParserConfigurationException | IOException e) {
+            throw new FlowSerializationException(e);
+        }
+    }
+
+    private static byte[] serialize(final Document document) throws FlowSerializationException {
+        try {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.transform(new DOMSource(document), new StreamResult(baos));
+            return baos.toByteArray();
+        } catch (final TransformerException e) {
+            throw new FlowSerializationException(e);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.nifi.connectable.LoadBalanceStrategy;
 import org.apache.nifi.connectable.Size;
 import org.apache.nifi.controller.ScheduledState;
 import org.apache.nifi.controller.service.ControllerServiceState;
@@ -243,6 +244,10 @@ public class FlowFromDOMFactory {
         }
         dto.setPrioritizers(prioritizerClasses);
 
+        final String loadBalanceStrategy = getString(element, "loadBalanceStrategy");
+        dto.setLoadBalanceStrategy(loadBalanceStrategy == null ? LoadBalanceStrategy.DO_NOT_LOAD_BALANCE.name() : loadBalanceStrategy);
+        dto.setLoadBalancePartitionAttribute(getString(element, "partitioningAttribute"));
+
         return dto;
     }
 
@@ -436,6 +436,11 @@ public class StandardFlowSerializer implements FlowSerializer {
             addTextElement(element, "queuePrioritizerClass", className);
         }
 
+        addTextElement(element, "loadBalanceStrategy", connection.getLoadBalanceStrategy().name());
+        if (connection.getLoadBalancePartitionAttribute() != null) {
+            addTextElement(element, "partitioningAttribute", connection.getLoadBalancePartitionAttribute());
+        }
+
         parentElement.appendChild(element);
     }
 
@@ -20,7 +20,7 @@ import org.apache.nifi.reporting.Bulletin;
 import org.apache.nifi.reporting.BulletinQuery;
 import org.apache.nifi.reporting.BulletinRepository;
 import org.apache.nifi.reporting.ComponentType;
-import org.apache.nifi.util.RingBuffer;
+import org.apache.nifi.util.ConcurrentRingBuffer;
 import org.apache.nifi.util.RingBuffer.Filter;
 
 import java.util.ArrayList;
@@ -38,7 +38,7 @@ public class VolatileBulletinRepository implements BulletinRepository {
     private static final String SERVICE_BULLETIN_STORE_KEY = "SERVICE";
     private static final String REPORTING_TASK_BULLETIN_STORE_KEY = "REPORTING_TASK";
 
-    private final ConcurrentMap<String, ConcurrentMap<String, RingBuffer<Bulletin>>> bulletinStoreMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>>> bulletinStoreMap = new ConcurrentHashMap<>();
     private volatile BulletinProcessingStrategy processingStrategy = new DefaultBulletinProcessingStrategy();
 
     @Override
@@ -118,8 +118,8 @@ public class VolatileBulletinRepository implements BulletinRepository {
         final List<Bulletin> selected = new ArrayList<>();
         int max = bulletinQuery.getLimit() == null ? Integer.MAX_VALUE : bulletinQuery.getLimit();
 
-        for (final ConcurrentMap<String, RingBuffer<Bulletin>> componentMap : bulletinStoreMap.values()) {
-            for (final RingBuffer<Bulletin> ringBuffer : componentMap.values()) {
+        for (final ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>> componentMap : bulletinStoreMap.values()) {
+            for (final ConcurrentRingBuffer<Bulletin> ringBuffer : componentMap.values()) {
                 final List<Bulletin> bulletinsForComponent = ringBuffer.getSelectedElements(filter, max);
                 selected.addAll(bulletinsForComponent);
                 max -= bulletinsForComponent.size();
@@ -149,13 +149,13 @@ public class VolatileBulletinRepository implements BulletinRepository {
     public List<Bulletin> findBulletinsForGroupBySource(final String groupId, final int maxPerComponent) {
         final long fiveMinutesAgo = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
 
-        final ConcurrentMap<String, RingBuffer<Bulletin>> componentMap = bulletinStoreMap.get(groupId);
+        final ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>> componentMap = bulletinStoreMap.get(groupId);
         if (componentMap == null) {
             return Collections.<Bulletin>emptyList();
         }
 
         final List<Bulletin> allComponentBulletins = new ArrayList<>();
-        for (final RingBuffer<Bulletin> ringBuffer : componentMap.values()) {
+        for (final ConcurrentRingBuffer<Bulletin> ringBuffer : componentMap.values()) {
             allComponentBulletins.addAll(ringBuffer.getSelectedElements(new Filter<Bulletin>() {
                 @Override
                 public boolean select(final Bulletin bulletin) {
@@ -185,9 +185,9 @@ public class VolatileBulletinRepository implements BulletinRepository {
 
         final List<Bulletin> controllerBulletins = new ArrayList<>();
 
-        final ConcurrentMap<String, RingBuffer<Bulletin>> controllerBulletinMap = bulletinStoreMap.get(CONTROLLER_BULLETIN_STORE_KEY);
+        final ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>> controllerBulletinMap = bulletinStoreMap.get(CONTROLLER_BULLETIN_STORE_KEY);
         if (controllerBulletinMap != null) {
-            final RingBuffer<Bulletin> buffer = controllerBulletinMap.get(CONTROLLER_BULLETIN_STORE_KEY);
+            final ConcurrentRingBuffer<Bulletin> buffer = controllerBulletinMap.get(CONTROLLER_BULLETIN_STORE_KEY);
             if (buffer != null) {
                 controllerBulletins.addAll(buffer.getSelectedElements(filter, max));
             }
@@ -202,25 +202,25 @@ public class VolatileBulletinRepository implements BulletinRepository {
         return controllerBulletins;
     }
 
-    private List<RingBuffer<Bulletin>> getBulletinBuffers(final Bulletin bulletin) {
+    private List<ConcurrentRingBuffer<Bulletin>> getBulletinBuffers(final Bulletin bulletin) {
         final String storageKey = getBulletinStoreKey(bulletin);
 
-        ConcurrentMap<String, RingBuffer<Bulletin>> componentMap = bulletinStoreMap.get(storageKey);
+        ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>> componentMap = bulletinStoreMap.get(storageKey);
         if (componentMap == null) {
             componentMap = new ConcurrentHashMap<>();
-            final ConcurrentMap<String, RingBuffer<Bulletin>> existing = bulletinStoreMap.putIfAbsent(storageKey, componentMap);
+            final ConcurrentMap<String, ConcurrentRingBuffer<Bulletin>> existing = bulletinStoreMap.putIfAbsent(storageKey, componentMap);
             if (existing != null) {
                 componentMap = existing;
             }
         }
 
-        final List<RingBuffer<Bulletin>> buffers = new ArrayList<>(2);
+        final List<ConcurrentRingBuffer<Bulletin>> buffers = new ArrayList<>(2);
 
         if (isControllerBulletin(bulletin)) {
-            RingBuffer<Bulletin> bulletinBuffer = componentMap.get(CONTROLLER_BULLETIN_STORE_KEY);
+            ConcurrentRingBuffer<Bulletin> bulletinBuffer = componentMap.get(CONTROLLER_BULLETIN_STORE_KEY);
             if (bulletinBuffer == null) {
-                bulletinBuffer = new RingBuffer<>(CONTROLLER_BUFFER_SIZE);
-                final RingBuffer<Bulletin> existingBuffer = componentMap.putIfAbsent(CONTROLLER_BULLETIN_STORE_KEY, bulletinBuffer);
+                bulletinBuffer = new ConcurrentRingBuffer<>(CONTROLLER_BUFFER_SIZE);
+                final ConcurrentRingBuffer<Bulletin> existingBuffer = componentMap.putIfAbsent(CONTROLLER_BULLETIN_STORE_KEY, bulletinBuffer);
                 if (existingBuffer != null) {
                     bulletinBuffer = existingBuffer;
                 }
@@ -230,10 +230,10 @@ public class VolatileBulletinRepository implements BulletinRepository {
         }
 
         if (bulletin.getSourceType() != ComponentType.FLOW_CONTROLLER) {
-            RingBuffer<Bulletin> bulletinBuffer = componentMap.get(bulletin.getSourceId());
+            ConcurrentRingBuffer<Bulletin> bulletinBuffer = componentMap.get(bulletin.getSourceId());
             if (bulletinBuffer == null) {
-                bulletinBuffer = new RingBuffer<>(COMPONENT_BUFFER_SIZE);
-                final RingBuffer<Bulletin> existingBuffer = componentMap.putIfAbsent(bulletin.getSourceId(), bulletinBuffer);
+                bulletinBuffer = new ConcurrentRingBuffer<>(COMPONENT_BUFFER_SIZE);
+                final ConcurrentRingBuffer<Bulletin> existingBuffer = componentMap.putIfAbsent(bulletin.getSourceId(), bulletinBuffer);
                 if (existingBuffer != null) {
                     bulletinBuffer = existingBuffer;
                 }
@@ -273,7 +273,7 @@ public class VolatileBulletinRepository implements BulletinRepository {
 
         @Override
         public void update(final Bulletin bulletin) {
-            for (final RingBuffer<Bulletin> bulletinBuffer : getBulletinBuffers(bulletin)) {
+            for (final ConcurrentRingBuffer<Bulletin> bulletinBuffer : getBulletinBuffers(bulletin)) {
                 bulletinBuffer.add(bulletin);
             }
         }
@@ -19,6 +19,7 @@ package org.apache.nifi.fingerprint;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.components.ConfigurableComponent;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
 import org.apache.nifi.controller.ControllerService;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.exception.ProcessorInstantiationException;
@@ -57,10 +58,14 @@ import javax.xml.validation.SchemaFactory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -89,9 +94,25 @@ public class FingerprintFactory {
     private static final String FLOW_CONFIG_XSD = "/FlowConfiguration.xsd";
     private static final String ENCRYPTED_VALUE_PREFIX = "enc{";
     private static final String ENCRYPTED_VALUE_SUFFIX = "}";
+    // the number of flows whose fingerprints are kept, so that a flow that is fingerprinted again, such as the same flow
+    // proposed by several nodes, is not parsed again
+    private static final int MAX_CACHED_FINGERPRINTS = 2;
+
     private final StringEncryptor encryptor;
     private final DocumentBuilder flowConfigDocBuilder;
 
+    // digest of the flow -> fingerprint of the flow
+    private final Map<String, String> fingerprintCache = new LinkedHashMap<String, String>(MAX_CACHED_FINGERPRINTS + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_FINGERPRINTS;
+        }
+    };
+
+    // component type -> instance of that type, created only to determine the default values of its properties
+    private final Map<String, ConfigurableComponent> defaultValueComponents = new HashMap<>();
+    private FlowController cachedController;
+
     private static final Logger logger = LoggerFactory.getLogger(FingerprintFactory.class);
 
     public FingerprintFactory(final StringEncryptor encryptor) {
@@ -141,13 +162,59 @@ public class FingerprintFactory {
      * @throws FingerprintException if the fingerprint failed to be generated
      */
     public synchronized String createFingerprint(final byte[] flowBytes, final FlowController controller) throws FingerprintException {
+        // the default property values, and so the fingerprints, depend on the extensions that the controller has loaded
+        if (controller != cachedController) {
+            fingerprintCache.clear();
+            defaultValueComponents.clear();
+            cachedController = controller;
+        }
+
         try {
-            return createFingerprint(parseFlow(flowBytes), controller);
+            final String cacheKey = getCacheKey(flowBytes);
+            if (cacheKey != null) {
+                final String cachedFingerprint = fingerprintCache.get(cacheKey);
+                if (cachedFingerprint != null) {
+                    return cachedFingerprint;
+                }
+            }
+
+            final String fingerprint = createFingerprint(parseFlow(flowBytes), controller);
+            if (cacheKey != null) {
+                fingerprintCache.put(cacheKey, fingerprint);
+            }
+            return fingerprint;
         } catch (final NoSuchAlgorithmException e) {
             throw new FingerprintException(e);
         }
     }
 
+    private String getCacheKey(final byte[] flowBytes) throws NoSuchAlgorithmException {
+        if (flowBytes == null || flowBytes.length == 0) {
+            return null;
+        }
+
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return Base64.getEncoder().encodeToString(digest.digest(flowBytes));
+    }
+
+    /**
+     * Returns an instance of the given component type that is used only to determine the default values of its properties.
+     * Creating a component can be expensive, so one instance of each type is shared by all components of that type.
+     */
+    private <T extends ConfigurableComponent, E extends Exception> T getDefaultValueComponent(final String type, final ComponentCreator<T, E> creator) throws E {
+        @SuppressWarnings("unchecked")
+        T component = (T) defaultValueComponents.get(type);
+        if (component == null) {
+            component = creator.create();
+            defaultValueComponents.put(type, component);
+        }
+        return component;
+    }
+
+    private interface ComponentCreator<T extends ConfigurableComponent, E extends Exception> {
+        T create() throws E;
+    }
+
     /**
      * Creates a fingerprint from an XML document representing the flow.xml.
      *
@@ -482,7 +549,8 @@ public class FingerprintFactory {
         Processor processor = null;
         try {
             if (controller != null) {
-                processor = controller.createProcessor(className, UUID.randomUUID().toString(), false).getProcessor();
+                processor = getDefaultValueComponent("processor:" + className,
+                    () -> controller.createProcessor(className, UUID.randomUUID().toString(), false).getProcessor());
             }
         } catch (ProcessorInstantiationException e) {
             logger.warn("Unable to create Processor of type {} due to {}; its default properties will be fingerprinted instead of being ignored.", className, e.toString());
@@ -528,7 +596,8 @@ public class FingerprintFactory {
         Processor processorInstance = null;
         try {
             if (controller != null) {
-                processorInstance = controller.createProcessor(processor.getType(), UUID.randomUUID().toString(), false).getProcessor();
+                processorInstance = getDefaultValueComponent("processor:" + processor.getType(),
+                    () -> controller.createProcessor(processor.getType(), UUID.randomUUID().toString(), false).getProcessor());
             }
         } catch (ProcessorInstantiationException e) {
             logger.warn("Unable to create Processor of type {} due to {}; its default properties will be fingerprinted instead of being ignored.", processor.getType(), e.toString());
@@ -810,6 +879,21 @@ public class FingerprintFactory {
             builder.append(getValue(relationshipElem, "NO_VALUE"));
         }
 
+        // load balancing; nodes that distribute FlowFiles differently would send them to the wrong nodes
+        final String loadBalanceStrategy = getFirstValue(DomUtils.getChildNodesByTagName(connectionElem, "loadBalanceStrategy"), null);
+        addLoadBalanceFingerprint(builder, loadBalanceStrategy, getFirstValue(DomUtils.getChildNodesByTagName(connectionElem, "partitioningAttribute"), null));
+
+        return builder;
+    }
+
+    private StringBuilder addLoadBalanceFingerprint(final StringBuilder builder, final String loadBalanceStrategy, final String partitionAttribute) {
+        // Connections that are not load balanced add nothing, so that flows without load balancing keep their fingerprint
+        if (loadBalanceStrategy == null || LoadBalanceStrategy.DO_NOT_LOAD_BALANCE.name().equals(loadBalanceStrategy)) {
+            return builder;
+        }
+
+        builder.append(loadBalanceStrategy);
+        builder.append(getValue(partitionAttribute, NO_VALUE));
         return builder;
     }
 
@@ -829,6 +913,8 @@ public class FingerprintFactory {
             }
         }
 
+        addLoadBalanceFingerprint(builder, connection.getLoadBalanceStrategy(), connection.getLoadBalancePartitionAttribute());
+
         return builder;
     }
 
@@ -855,7 +941,8 @@ public class FingerprintFactory {
         ControllerService controllerService = null;
         try {
             if (controller != null) {
-                controllerService = controller.createControllerService(dto.getType(), UUID.randomUUID().toString(), false).getControllerServiceImplementation();
+                controllerService = getDefaultValueComponent("controllerService:" + dto.getType(),
+                    () -> controller.createControllerService(dto.getType(), UUID.randomUUID().toString(), false).getControllerServiceImplementation());
             }
         } catch (Exception e) {
             logger.warn("Unable to create ControllerService of type {} due to {}; its default properties will be fingerprinted instead of being ignored.", dto.getType(), e.toString());
@@ -891,7 +978,8 @@ public class FingerprintFactory {
         ReportingTask reportingTask = null;
         try {
             if (controller != null) {
-                reportingTask = controller.createReportingTask(dto.getType(), UUID.randomUUID().toString(), false, false).getReportingTask();
+                reportingTask = getDefaultValueComponent("reportingTask:" + dto.getType(),
+                    () -> controller.createReportingTask(dto.getType(), UUID.randomUUID().toString(), false, false).getReportingTask());
             }
         } catch (Exception e) {
             logger.warn("Unable to create ReportingTask of type {} due to {}; its default properties will be fingerprinted instead of being ignored.", dto.getType(), e.toString());
@@ -46,6 +46,7 @@ public final class StandardXMLFlowConfigurationDAO implements FlowConfigurationD
     private final StringEncryptor encryptor;
     private final FlowConfigurationArchiveManager archiveManager;
     private final NiFiProperties nifiProperties;
+    private final FlowSynchronizer flowSynchronizer;
 
     private static final Logger LOG = LoggerFactory.getLogger(StandardXMLFlowConfigurationDAO.class);
 
@@ -67,6 +68,9 @@ public final class StandardXMLFlowConfigurationDAO implements FlowConfigurationD
         this.encryptor = encryptor;
 
         this.archiveManager = new FlowConfigurationArchiveManager(flowXmlPath, nifiProperties);
+
+        // a single synchronizer is kept so that the fingerprints of flows that are synchronized again can be reused
+        this.flowSynchronizer = new StandardFlowSynchronizer(encryptor, nifiProperties);
     }
 
     @Override
@@ -79,7 +83,6 @@ public final class StandardXMLFlowConfigurationDAO implements FlowConfigurationD
     public synchronized void load(final FlowController controller, final DataFlow dataFlow)
             throws IOException, FlowSerializationException, FlowSynchronizationException, UninheritableFlowException {
 
-        final FlowSynchronizer flowSynchronizer = new StandardFlowSynchronizer(encryptor, nifiProperties);
         controller.synchronize(flowSynchronizer, dataFlow);
 
         if (StandardFlowSynchronizer.isEmpty(dataFlow)) {
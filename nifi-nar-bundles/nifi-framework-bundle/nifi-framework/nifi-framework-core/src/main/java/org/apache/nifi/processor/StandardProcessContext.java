@@ -26,6 +26,7 @@ import java.util.Set;
 import org.apache.nifi.attribute.expression.language.PreparedQuery;
 import org.apache.nifi.attribute.expression.language.Query;
 import org.apache.nifi.attribute.expression.language.StandardPropertyValue;
+import org.apache.nifi.attribute.expression.language.SubexpressionCache;
 import org.apache.nifi.attribute.expression.language.Query.Range;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.PropertyValue;
@@ -56,6 +57,8 @@ public class StandardProcessContext implements ProcessContext, ControllerService
         this.stateManager = stateManager;
         this.variableRegistry = variableRegistry;
 
+        // identical subexpressions in different properties are evaluated once per FlowFile
+        final SubexpressionCache subexpressions = new SubexpressionCache();
         preparedQueries = new HashMap<>();
         for (final Map.Entry<PropertyDescriptor, String> entry : procNode.getProperties().entrySet()) {
             final PropertyDescriptor desc = entry.getKey();
@@ -64,7 +67,7 @@ public class StandardProcessContext implements ProcessContext, ControllerService
                 value = desc.getDefaultValue();
             }
 
-            final PreparedQuery pq = Query.prepare(value);
+            final PreparedQuery pq = Query.prepare(value, subexpressions);
             preparedQueries.put(desc, pq);
         }
     }
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.nifi.cluster.coordination.ClusterCoordinator;
+import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
+import org.apache.nifi.cluster.protocol.NodeIdentifier;
+import org.apache.nifi.cluster.protocol.NodeProtocolSender;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesMessage;
+import org.apache.nifi.cluster.protocol.message.LoadBalanceFlowFilesResponseMessage;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.ContentRepository;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.WriteAheadFlowFileRepository;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.processor.FlowFileFilter;
+import org.apache.nifi.processor.FlowFileFilter.FlowFileFilterResult;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.remote.codec.StandardFlowFileCodec;
+import org.apache.nifi.remote.util.StandardDataPacket;
+import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.util.file.FileUtils;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestConnectionLoadBalancer {
+
+    private final List<NodeIdentifier> nodeIds = new ArrayList<>();
+
+    public TestConnectionLoadBalancer() {
+        for (int i = 0; i < 3; i++) {
+            nodeIds.add(new NodeIdentifier("node-" + i, "localhost", 8000 + i, "localhost", 9000 + i, "localhost", 10000 + i, 11000 + i, false));
+        }
+    }
+
+    @BeforeClass
+    public static void setupProperties() {
+        System.setProperty(NiFiProperties.PROPERTIES_FILE_PATH, TestConnectionLoadBalancer.class.getResource("/conf/nifi.properties").getFile());
+    }
+
+    @Before
+    public void clearRepo() throws IOException {
+        final File testRepo = new File("target/test-repo");
+        if (testRepo.exists()) {
+            FileUtils.deleteFile(testRepo, true);
+        }
+    }
+
+    private FlowFile createFlowFile(final String partitionValue) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(CoreAttributes.UUID.key(), UUID.randomUUID().toString());
+        if (partitionValue != null) {
+            attributes.put("partition", partitionValue);
+        }
+
+        return new StandardFlowFileRecord.Builder().id(1L).addAttributes(attributes).build();
+    }
+
+    private FlowFileRecord createFlowFile(final long size) {
+        return new StandardFlowFileRecord.Builder().id(1L).addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString()).size(size).build();
+    }
+
+    /**
+     * Creates a queue that holds the given FlowFiles and applies the filter that it is polled with to them
+     */
+    private FlowFileQueue createQueue(final List<FlowFileRecord> queued, final List<FlowFileRecord> polled) {
+        final FlowFileQueue queue = Mockito.mock(FlowFileQueue.class);
+        when(queue.getIdentifier()).thenReturn("1234");
+        when(queue.poll(any(FlowFileFilter.class), anySetOf(FlowFileRecord.class))).thenAnswer(invocation -> {
+            final FlowFileFilter filter = (FlowFileFilter) invocation.getArguments()[0];
+            for (final FlowFileRecord flowFile : queued) {
+                final FlowFileFilterResult result = filter.filter(flowFile);
+                if (result.isAccept()) {
+                    polled.add(flowFile);
+                }
+                if (!result.isContinue()) {
+                    break;
+                }
+            }
+            return polled;
+        });
+        return queue;
+    }
+
+    private ConnectionLoadBalancer createBalancer(final FlowFileQueue queue, final NodeProtocolSender protocolSender) {
+        return createBalancer(queue, protocolSender, LoadBalanceStrategy.SINGLE_NODE, createClusterCoordinator());
+    }
+
+    private ClusterCoordinator createClusterCoordinator() {
+        // node-1 is the local node, so with the single node strategy all FlowFiles belong to node-0 and are sent
+        final ClusterCoordinator clusterCoordinator = Mockito.mock(ClusterCoordinator.class);
+        when(clusterCoordinator.getLocalNodeIdentifier()).thenReturn(nodeIds.get(1));
+        when(clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED)).thenReturn(new HashSet<>(nodeIds));
+        return clusterCoordinator;
+    }
+
+    private ConnectionLoadBalancer createBalancer(final FlowFileQueue queue, final NodeProtocolSender protocolSender, final LoadBalanceStrategy strategy,
+        final ClusterCoordinator clusterCoordinator) {
+        final Connection connection = Mockito.mock(Connection.class);
+        when(connection.getIdentifier()).thenReturn("1234");
+        when(connection.getFlowFileQueue()).thenReturn(queue);
+        when(connection.getLoadBalanceStrategy()).thenReturn(strategy);
+
+        final ProcessGroup rootGroup = Mockito.mock(ProcessGroup.class);
+        when(rootGroup.findAllConnections()).thenReturn(Collections.singletonList(connection));
+        final FlowController flowController = Mockito.mock(FlowController.class);
+        when(flowController.isConnected()).thenReturn(true);
+        when(flowController.getRootGroupId()).thenReturn("root");
+        when(flowController.getGroup("root")).thenReturn(rootGroup);
+
+        return new ConnectionLoadBalancer(flowController, protocolSender, clusterCoordinator, Mockito.mock(ContentRepository.class),
+            Mockito.mock(FlowFileRepository.class), Mockito.mock(ProvenanceEventRepository.class));
+    }
+
+    @Test
+    public void testRoundRobinSpreadsAcrossNodes() {
+        final Set<NodeIdentifier> owners = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            final FlowFile flowFile = createFlowFile(null);
+            final NodeIdentifier owner = ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.ROUND_ROBIN, null, flowFile, nodeIds, nodeIds.get(1));
+            owners.add(owner);
+
+            // the owner must not change, or a FlowFile would keep moving between nodes
+            assertSame(owner, ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.ROUND_ROBIN, null, flowFile, nodeIds, nodeIds.get(1)));
+        }
+
+        assertEquals(nodeIds.size(), owners.size());
+    }
+
+    @Test
+    public void testPartitionByAttribute() {
+        final NodeIdentifier owner = ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.PARTITION_BY_ATTRIBUTE, "partition", createFlowFile("a"), nodeIds, nodeIds.get(0));
+        for (int i = 0; i < 10; i++) {
+            assertSame(owner, ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.PARTITION_BY_ATTRIBUTE, "partition", createFlowFile("a"), nodeIds, nodeIds.get(i % 3)));
+        }
+
+        // FlowFiles without the attribute stay where they are
+        assertSame(nodeIds.get(2), ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.PARTITION_BY_ATTRIBUTE, "partition", createFlowFile(null), nodeIds, nodeIds.get(2)));
+    }
+
+    @Test
+    public void testSingleNodeAndNoLoadBalancing() {
+        for (final NodeIdentifier localNodeId : nodeIds) {
+            final FlowFile flowFile = createFlowFile(null);
+            assertSame(nodeIds.get(0), ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.SINGLE_NODE, null, flowFile, nodeIds, localNodeId));
+            assertSame(localNodeId, ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.DO_NOT_LOAD_BALANCE, null, flowFile, nodeIds, localNodeId));
+        }
+    }
+
+    @Test
+    public void testReceivedFlowFilesSurviveRestart() throws IOException {
+        final List<FlowFileRecord> restored = new ArrayList<>();
+        final FlowFileQueue queue = Mockito.mock(FlowFileQueue.class);
+        when(queue.getIdentifier()).thenReturn("1234");
+        doAnswer(invocation -> restored.add((FlowFileRecord) invocation.getArguments()[0])).when(queue).put(any(FlowFileRecord.class));
+
+        final Connection connection = Mockito.mock(Connection.class);
+        when(connection.getIdentifier()).thenReturn("1234");
+        when(connection.getFlowFileQueue()).thenReturn(queue);
+
+        final ProcessGroup rootGroup = Mockito.mock(ProcessGroup.class);
+        when(rootGroup.findConnection("1234")).thenReturn(connection);
+        final FlowController flowController = Mockito.mock(FlowController.class);
+        when(flowController.getRootGroupId()).thenReturn("root");
+        when(flowController.getGroup("root")).thenReturn(rootGroup);
+
+        // Send a FlowFile without content so that the Content Repository is not needed
+        final String uuid = UUID.randomUUID().toString();
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(CoreAttributes.UUID.key(), uuid);
+        attributes.put("abc", "xyz");
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(baos);
+        out.writeLong(1000L);
+        out.writeLong(500L);
+        new StandardFlowFileCodec(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION).encode(new StandardDataPacket(attributes, new ByteArrayInputStream(new byte[0]), 0L), out);
+        out.flush();
+
+        final LoadBalanceFlowFilesMessage msg = new LoadBalanceFlowFilesMessage();
+        msg.setNodeId(nodeIds.get(1));
+        msg.setConnectionId("1234");
+        msg.setCodecVersion(StandardFlowFileCodec.ATTRIBUTE_DICTIONARY_VERSION);
+        msg.setFlowFileCount(1);
+        msg.setFlowFiles(baos.toByteArray());
+
+        try (final WriteAheadFlowFileRepository repo = new WriteAheadFlowFileRepository(NiFiProperties.createBasicNiFiProperties(null, null))) {
+            repo.initialize(new StandardResourceClaimManager());
+            repo.loadFlowFiles(() -> Collections.<FlowFileQueue> emptyList(), 0L);
+
+            final ConnectionLoadBalancer balancer = new ConnectionLoadBalancer(flowController, null, null, Mockito.mock(ContentRepository.class), repo,
+                Mockito.mock(ProvenanceEventRepository.class));
+            final LoadBalanceFlowFilesResponseMessage response = balancer.receive(msg);
+            assertTrue(response.getRejectionReason(), response.isAccepted());
+        }
+
+        // restart the repository; the received FlowFile must be restored with all of its attributes
+        try (final WriteAheadFlowFileRepository repo = new WriteAheadFlowFileRepository(NiFiProperties.createBasicNiFiProperties(null, null))) {
+            repo.initialize(new StandardResourceClaimManager());
+            repo.loadFlowFiles(() -> Collections.singletonList(queue), 0L);
+        }
+
+        assertEquals(1, restored.size());
+        final FlowFileRecord flowFile = restored.get(0);
+        assertEquals(uuid, flowFile.getAttribute(CoreAttributes.UUID.key()));
+        assertEquals("xyz", flowFile.getAttribute("abc"));
+        assertEquals(1000L, flowFile.getEntryDate());
+        assertEquals(500L, flowFile.getLineageStartDate());
+    }
+
+    @Test
+    public void testFlowFilesLargerThanBatchAreNotSent() throws Exception {
+        final FlowFileRecord large = createFlowFile(ConnectionLoadBalancer.MAX_BATCH_BYTES + 1);
+        final FlowFileRecord small = createFlowFile(0L);
+        final List<FlowFileRecord> polled = new ArrayList<>();
+        final FlowFileQueue queue = createQueue(Arrays.asList(large, small), polled);
+
+        final List<LoadBalanceFlowFilesMessage> messages = new ArrayList<>();
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+        when(protocolSender.loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), eq(nodeIds.get(0)))).thenAnswer(invocation -> {
+            messages.add((LoadBalanceFlowFilesMessage) invocation.getArguments()[0]);
+            final LoadBalanceFlowFilesResponseMessage response = new LoadBalanceFlowFilesResponseMessage();
+            response.setAccepted(true);
+            return response;
+        });
+
+        createBalancer(queue, protocolSender).run();
+
+        // the large FlowFile is never polled, so it cannot be held in memory
+        assertEquals(Collections.singletonList(small), polled);
+        assertEquals(1, messages.size());
+        assertEquals(1, messages.get(0).getFlowFileCount());
+        verify(queue).acknowledge(Collections.singletonList(small));
+    }
+
+    @Test
+    public void testFlowFilesRequeuedOnError() throws Exception {
+        final List<FlowFileRecord> polled = new ArrayList<>();
+        final FlowFileQueue queue = createQueue(Arrays.asList(createFlowFile(0L), createFlowFile(0L)), polled);
+
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+        when(protocolSender.loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), any(NodeIdentifier.class))).thenThrow(new OutOfMemoryError());
+
+        createBalancer(queue, protocolSender).run();
+
+        assertEquals(2, polled.size());
+        verify(queue).putAll(polled);
+    }
+
+    @Test
+    public void testRoundRobinHoldsFlowFilesForUnhealthyNode() throws Exception {
+        final List<FlowFileRecord> queued = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            queued.add(createFlowFile(0L));
+        }
+        final List<FlowFileRecord> polled = new ArrayList<>();
+        final FlowFileQueue queue = createQueue(queued, polled);
+
+        final Set<NodeIdentifier> recipients = new HashSet<>();
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+        when(protocolSender.loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), any(NodeIdentifier.class))).thenAnswer(invocation -> {
+            recipients.add((NodeIdentifier) invocation.getArguments()[1]);
+            final LoadBalanceFlowFilesResponseMessage response = new LoadBalanceFlowFilesResponseMessage();
+            response.setAccepted(true);
+            return response;
+        });
+
+        final ClusterCoordinator clusterCoordinator = createClusterCoordinator();
+        when(clusterCoordinator.getNodeHealth(nodeIds.get(0))).thenReturn(new NodeHealth(nodeIds.get(0), NodeHealth.UNHEALTHY_THRESHOLD - 1, 0));
+
+        createBalancer(queue, protocolSender, LoadBalanceStrategy.ROUND_ROBIN, clusterCoordinator).run();
+
+        // FlowFiles owned by the unhealthy node are neither sent to it nor reassigned to another node
+        assertEquals(Collections.singleton(nodeIds.get(2)), recipients);
+        assertFalse(polled.isEmpty());
+        for (final FlowFileRecord flowFile : polled) {
+            assertSame(nodeIds.get(2), ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.ROUND_ROBIN, null, flowFile, nodeIds, nodeIds.get(1)));
+        }
+    }
+
+    @Test
+    public void testSingleNodeOwnedByLocalNodeIsNotScanned() {
+        final FlowFileQueue queue = createQueue(Collections.singletonList(createFlowFile(0L)), new ArrayList<>());
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+
+        // node-0 owns every FlowFile, so none of them can leave it
+        final ClusterCoordinator clusterCoordinator = createClusterCoordinator();
+        when(clusterCoordinator.getLocalNodeIdentifier()).thenReturn(nodeIds.get(0));
+
+        createBalancer(queue, protocolSender, LoadBalanceStrategy.SINGLE_NODE, clusterCoordinator).run();
+
+        verify(queue, never()).poll(any(FlowFileFilter.class), anySetOf(FlowFileRecord.class));
+        verify(protocolSender, never()).loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), any(NodeIdentifier.class));
+    }
+
+    @Test
+    public void testScanStopsAfterMaxRejectedFlowFiles() {
+        // queue more FlowFiles that stay on the local node than a scan may reject, followed by one that belongs to another node
+        final List<FlowFileRecord> queued = new ArrayList<>();
+        FlowFileRecord remote = null;
+        while (queued.size() < ConnectionLoadBalancer.MAX_REJECTED_FLOWFILES || remote == null) {
+            final FlowFileRecord flowFile = createFlowFile(0L);
+            final NodeIdentifier owner = ConnectionLoadBalancer.getOwner(LoadBalanceStrategy.ROUND_ROBIN, null, flowFile, nodeIds, nodeIds.get(1));
+            if (owner.equals(nodeIds.get(1))) {
+                if (queued.size() < ConnectionLoadBalancer.MAX_REJECTED_FLOWFILES) {
+                    queued.add(flowFile);
+                }
+            } else if (remote == null) {
+                remote = flowFile;
+            }
+        }
+        queued.add(remote);
+
+        final List<FlowFileRecord> polled = new ArrayList<>();
+        final FlowFileQueue queue = createQueue(queued, polled);
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+
+        createBalancer(queue, protocolSender, LoadBalanceStrategy.ROUND_ROBIN, createClusterCoordinator()).run();
+
+        assertTrue(polled.isEmpty());
+        verify(queue, times(1)).poll(any(FlowFileFilter.class), anySetOf(FlowFileRecord.class));
+        verify(protocolSender, never()).loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), any(NodeIdentifier.class));
+    }
+
+    @Test
+    public void testNoFurtherPassWhenNothingSent() throws Exception {
+        final List<FlowFileRecord> queued = new ArrayList<>();
+        for (int i = 0; i < ConnectionLoadBalancer.MAX_BATCH_FLOWFILES + 1; i++) {
+            queued.add(createFlowFile(0L));
+        }
+        final List<FlowFileRecord> polled = new ArrayList<>();
+        final FlowFileQueue queue = createQueue(queued, polled);
+
+        final NodeProtocolSender protocolSender = Mockito.mock(NodeProtocolSender.class);
+        when(protocolSender.loadBalanceFlowFiles(any(LoadBalanceFlowFilesMessage.class), eq(nodeIds.get(0)))).thenAnswer(invocation -> {
+            final LoadBalanceFlowFilesResponseMessage response = new LoadBalanceFlowFilesResponseMessage();
+            response.setAccepted(false);
+            response.setRejectionReason("queue is full");
+            return response;
+        });
+
+        createBalancer(queue, protocolSender).run();
+
+        // the batch was full, but it was refused, so polling again would only return the same FlowFiles
+        assertEquals(ConnectionLoadBalancer.MAX_BATCH_FLOWFILES, polled.size());
+        verify(queue, times(1)).poll(any(FlowFileFilter.class), anySetOf(FlowFileRecord.class));
+        verify(queue).putAll(polled);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestProvenancePolicies {
+
+    private ProvenanceEventRecord createEvent(final ProvenanceEventType eventType, final String uuid) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("uuid", uuid);
+        attributes.put("filename", "file-" + uuid);
+        attributes.put("keep.me", "yes");
+        attributes.put("drop.me", "no");
+
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventType(eventType)
+            .setEventTime(System.currentTimeMillis())
+            .setFlowFileUUID(uuid)
+            .setComponentId("proc-1")
+            .setComponentType("Unit Test")
+            .setTransitUri("http://localhost")
+            .setCurrentContentClaim("container", "section", "identifier", 0L, 0L)
+            .setAttributes(Collections.<String, String> emptyMap(), attributes)
+            .build();
+    }
+
+    private Connectable createConnectable(final String id, final ProcessGroup group) {
+        final Connectable connectable = mock(Connectable.class);
+        when(connectable.getIdentifier()).thenReturn(id);
+        when(connectable.getProcessGroup()).thenReturn(group);
+        return connectable;
+    }
+
+    private ProcessGroup createGroup(final String id, final ProcessGroup parent) {
+        final ProcessGroup group = mock(ProcessGroup.class);
+        when(group.getIdentifier()).thenReturn(id);
+        when(group.getParent()).thenReturn(parent);
+        return group;
+    }
+
+    @Test
+    public void testFromProperties() {
+        final Map<String, String> props = new HashMap<>();
+        props.put("nifi.provenance.policy.proc-1.event.types", "receive, SEND,DROP");
+        props.put("nifi.provenance.policy.proc-1.sampling.rate", "0.25");
+        props.put("nifi.provenance.policy.group-1.attributes", "keep.me");
+        final NiFiProperties properties = NiFiProperties.createBasicNiFiProperties(null, props);
+
+        final ProvenancePolicies policies = ProvenancePolicies.fromProperties(properties);
+        assertFalse(policies.isEmpty());
+
+        final ProvenancePolicy procPolicy = policies.getPolicy("proc-1");
+        assertEquals(EnumSet.of(ProvenanceEventType.RECEIVE, ProvenanceEventType.SEND, ProvenanceEventType.DROP), procPolicy.getEventTypes());
+        assertEquals(0.25D, procPolicy.getSamplingRate(), 0.00001D);
+        assertFalse(procPolicy.isAttributeFiltering());
+
+        final ProvenancePolicy groupPolicy = policies.getPolicy("group-1");
+        assertTrue(groupPolicy.getEventTypes().isEmpty());
+        assertEquals(1D, groupPolicy.getSamplingRate(), 0.00001D);
+        assertTrue(groupPolicy.getAttributes().contains("keep.me"));
+        assertTrue(groupPolicy.getAttributes().contains("uuid"));
+
+        assertTrue(ProvenancePolicies.fromProperties(NiFiProperties.createBasicNiFiProperties(null, new HashMap<>())).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEventType() {
+        final Map<String, String> props = new HashMap<>();
+        props.put("nifi.provenance.policy.proc-1.event.types", "RECEIVE,NOT_AN_EVENT");
+        ProvenancePolicies.fromProperties(NiFiProperties.createBasicNiFiProperties(null, props));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSamplingRate() {
+        final Map<String, String> props = new HashMap<>();
+        props.put("nifi.provenance.policy.proc-1.sampling.rate", "1.5");
+        ProvenancePolicies.fromProperties(NiFiProperties.createBasicNiFiProperties(null, props));
+    }
+
+    @Test
+    public void testPolicyResolvedFromClosestGroup() {
+        final ProvenancePolicy rootPolicy = new ProvenancePolicy(EnumSet.of(ProvenanceEventType.SEND), 1D, null);
+        final ProvenancePolicy childPolicy = new ProvenancePolicy(EnumSet.of(ProvenanceEventType.RECEIVE), 1D, null);
+        final ProvenancePolicy procPolicy = new ProvenancePolicy(EnumSet.of(ProvenanceEventType.DROP), 1D, null);
+
+        final Map<String, ProvenancePolicy> policyMap = new HashMap<>();
+        policyMap.put("root", rootPolicy);
+        policyMap.put("child", childPolicy);
+        policyMap.put("proc-1", procPolicy);
+        final ProvenancePolicies policies = new ProvenancePolicies(policyMap);
+
+        final ProcessGroup root = createGroup("root", null);
+        final ProcessGroup child = createGroup("child", root);
+        final ProcessGroup grandchild = createGroup("grandchild", child);
+        final ProcessGroup other = createGroup("other", null);
+
+        assertSame(procPolicy, policies.getPolicy(createConnectable("proc-1", grandchild)));
+        assertSame(childPolicy, policies.getPolicy(createConnectable("proc-2", grandchild)));
+        assertSame(rootPolicy, policies.getPolicy(createConnectable("proc-3", root)));
+        assertNull(policies.getPolicy(createConnectable("proc-4", other)));
+    }
+
+    @Test
+    public void testSamplingIsConsistentPerFlowFile() {
+        final ProvenancePolicy policy = new ProvenancePolicy(null, 0.1D, null);
+
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            final String uuid = UUID.randomUUID().toString();
+            final boolean recorded = policy.isRecorded(createEvent(ProvenanceEventType.RECEIVE, uuid));
+            assertEquals(recorded, policy.isRecorded(createEvent(ProvenanceEventType.SEND, uuid)));
+            if (recorded) {
+                sampled++;
+            }
+        }
+
+        assertTrue("Expected roughly 10% of FlowFiles to be sampled but got " + sampled, sampled > 700 && sampled < 1300);
+
+        final String uuid = UUID.randomUUID().toString();
+        assertFalse(new ProvenancePolicy(null, 0D, null).isRecorded(createEvent(ProvenanceEventType.RECEIVE, uuid)));
+        assertTrue(new ProvenancePolicy(null, 1D, null).isRecorded(createEvent(ProvenanceEventType.RECEIVE, uuid)));
+    }
+
+    @Test
+    public void testEnforcingRepositoryFiltersEvents() {
+        final List<ProvenanceEventRecord> registered = new ArrayList<>();
+        final ProvenanceEventRepository delegate = mock(ProvenanceEventRepository.class);
+        when(delegate.eventBuilder()).thenAnswer(invocation -> new StandardProvenanceEventRecord.Builder());
+        Mockito.doAnswer(invocation -> {
+            registered.add(invocation.getArgumentAt(0, ProvenanceEventRecord.class));
+            return null;
+        }).when(delegate).registerEvent(Mockito.any(ProvenanceEventRecord.class));
+        Mockito.doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final Iterable<ProvenanceEventRecord> events = invocation.getArgumentAt(0, Iterable.class);
+            for (final ProvenanceEventRecord event : events) {
+                registered.add(event);
+            }
+            return null;
+        }).when(delegate).registerEvents(Mockito.any(Iterable.class));
+
+        final Map<String, ProvenancePolicy> policyMap = new HashMap<>();
+        policyMap.put("proc-1", new ProvenancePolicy(EnumSet.of(ProvenanceEventType.RECEIVE, ProvenanceEventType.SEND),
+            1D, new HashSet<>(Collections.singleton("keep.me"))));
+
+        final AtomicLong suppressed = new AtomicLong(0L);
+        final ProvenanceEventRepository repo = new PolicyEnforcingProvenanceEventRepository(delegate, createConnectable("proc-1", null),
+            new ProvenancePolicies(policyMap), suppressed::addAndGet);
+
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        events.add(createEvent(ProvenanceEventType.RECEIVE, "1"));
+        events.add(createEvent(ProvenanceEventType.ATTRIBUTES_MODIFIED, "1"));
+        events.add(createEvent(ProvenanceEventType.ROUTE, "1"));
+        events.add(createEvent(ProvenanceEventType.SEND, "1"));
+        repo.registerEvents(events);
+
+        assertEquals(2, registered.size());
+        assertEquals(ProvenanceEventType.RECEIVE, registered.get(0).getEventType());
+        assertEquals(ProvenanceEventType.SEND, registered.get(1).getEventType());
+        assertEquals(2L, suppressed.get());
+
+        final Map<String, String> attributes = registered.get(0).getAttributes();
+        assertEquals("yes", attributes.get("keep.me"));
+        assertEquals("file-1", attributes.get("filename"));
+        assertFalse(attributes.containsKey("drop.me"));
+
+        repo.registerEvent(createEvent(ProvenanceEventType.DROP, "2"));
+        assertEquals(2, registered.size());
+        assertEquals(3L, suppressed.get());
+
+        repo.registerEvent(createEvent(ProvenanceEventType.SEND, "2"));
+        assertEquals(3, registered.size());
+    }
+
+    @Test
+    public void testEnforcingRepositoryPassesThroughWithoutPolicy() {
+        final ProvenanceEventRepository delegate = mock(ProvenanceEventRepository.class);
+        final Map<String, ProvenancePolicy> policyMap = new HashMap<>();
+        policyMap.put("proc-1", new ProvenancePolicy(EnumSet.of(ProvenanceEventType.SEND), 1D, null));
+
+        final AtomicLong suppressed = new AtomicLong(0L);
+        final ProvenanceEventRepository repo = new PolicyEnforcingProvenanceEventRepository(delegate, createConnectable("proc-2", null),
+            new ProvenancePolicies(policyMap), suppressed::addAndGet);
+
+        final List<ProvenanceEventRecord> events = Collections.singletonList(createEvent(ProvenanceEventType.DROP, "1"));
+        repo.registerEvents(events);
+        Mockito.verify(delegate).registerEvents(events);
+        assertEquals(0L, suppressed.get());
+    }
+}
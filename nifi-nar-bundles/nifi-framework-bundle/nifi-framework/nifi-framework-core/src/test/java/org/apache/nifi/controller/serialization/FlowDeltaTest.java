@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.serialization;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class FlowDeltaTest {
+
+    private static final String CHILD_GROUP_ID = "efeece05-3934-4298-a725-658eec116470";
+
+    @Test
+    public void testUnchangedFlowIsLeftOut() throws IOException {
+        final byte[] flow = getResourceBytes("/nifi/fingerprint/flow1a.xml");
+
+        final byte[] delta = FlowDelta.createDelta(flow, flow);
+        assertTrue(delta.length < flow.length);
+
+        final String deltaXml = new String(delta, StandardCharsets.UTF_8);
+        assertTrue(deltaXml.contains("<rootGroup " + FlowDelta.UNCHANGED_HASH_ATTRIBUTE));
+        assertFalse(deltaXml.contains(CHILD_GROUP_ID));
+
+        assertSameFlow(flow, FlowDelta.applyDelta(delta, flow));
+    }
+
+    @Test
+    public void testOnlyChangedGroupsAreSent() throws IOException {
+        final byte[] clusterFlow = getResourceBytes("/nifi/fingerprint/flow1a.xml");
+        final String clusterXml = new String(clusterFlow, StandardCharsets.UTF_8);
+
+        // change a processor in the root group only
+        final String nodeXml = clusterXml.replaceFirst("<maxConcurrentTasks>1</maxConcurrentTasks>", "<maxConcurrentTasks>5</maxConcurrentTasks>");
+        final byte[] nodeFlow = nodeXml.getBytes(StandardCharsets.UTF_8);
+
+        final byte[] delta = FlowDelta.createDelta(clusterFlow, nodeFlow);
+        final String deltaXml = new String(delta, StandardCharsets.UTF_8);
+        assertTrue(deltaXml.contains("<processGroup " + FlowDelta.UNCHANGED_HASH_ATTRIBUTE));
+        assertFalse(deltaXml.contains("<rootGroup " + FlowDelta.UNCHANGED_HASH_ATTRIBUTE));
+        assertTrue(deltaXml.contains("<maxConcurrentTasks>1</maxConcurrentTasks>"));
+
+        final byte[] restored = FlowDelta.applyDelta(delta, nodeFlow);
+        assertSameFlow(clusterFlow, restored);
+        assertTrue(new String(restored, StandardCharsets.UTF_8).contains(CHILD_GROUP_ID));
+    }
+
+    @Test
+    public void testGroupsDifferingOnlyInWhitespaceAreSent() throws IOException {
+        final String flowXml = new String(getResourceBytes("/nifi/fingerprint/flow1a.xml"), StandardCharsets.UTF_8);
+        final String processorId = "<id>34caa1d6-cf14-4ec0-9f18-12859c37d55d</id>";
+
+        // a processor in the child group whose property value differs only in whitespace
+        final String clusterXml = flowXml.replace(processorId, processorId + "<property><name>Demarcator</name><value>\n</value></property>");
+        final String nodeXml = flowXml.replace(processorId, processorId + "<property><name>Demarcator</name><value> </value></property>");
+        final byte[] clusterFlow = clusterXml.getBytes(StandardCharsets.UTF_8);
+        final byte[] nodeFlow = nodeXml.getBytes(StandardCharsets.UTF_8);
+
+        final byte[] delta = FlowDelta.createDelta(clusterFlow, nodeFlow);
+        final String deltaXml = new String(delta, StandardCharsets.UTF_8);
+        assertFalse(deltaXml.contains("<processGroup " + FlowDelta.UNCHANGED_HASH_ATTRIBUTE));
+        assertTrue(deltaXml.contains(CHILD_GROUP_ID));
+
+        final byte[] restored = FlowDelta.applyDelta(delta, nodeFlow);
+        assertSameFlow(clusterFlow, restored);
+        assertFalse(new String(restored, StandardCharsets.UTF_8).contains("<value> </value>"));
+    }
+
+    @Test
+    public void testFullFlowSentWhenNothingInCommon() throws IOException {
+        final byte[] clusterFlow = getResourceBytes("/nifi/fingerprint/flow1a.xml");
+        final byte[] nodeFlow = getResourceBytes("/nifi/fingerprint/flow1b.xml");
+
+        assertSame(clusterFlow, FlowDelta.createDelta(clusterFlow, nodeFlow));
+        assertSame(clusterFlow, FlowDelta.createDelta(clusterFlow, new byte[0]));
+        assertSame(clusterFlow, FlowDelta.applyDelta(clusterFlow, nodeFlow));
+    }
+
+    @Test(expected = FlowSerializationException.class)
+    public void testDeltaRejectedForDifferentBaseFlow() throws IOException {
+        final byte[] flow = getResourceBytes("/nifi/fingerprint/flow1a.xml");
+        final byte[] delta = FlowDelta.createDelta(flow, flow);
+
+        FlowDelta.applyDelta(delta, getResourceBytes("/nifi/fingerprint/flow1b.xml"));
+    }
+
+    private void assertSameFlow(final byte[] expected, final byte[] actual) {
+        // a delta of the two flows leaves out the root group only if the two flows are the same
+        final String deltaXml = new String(FlowDelta.createDelta(expected, actual), StandardCharsets.UTF_8);
+        assertTrue(deltaXml.contains("<rootGroup " + FlowDelta.UNCHANGED_HASH_ATTRIBUTE));
+    }
+
+    private byte[] getResourceBytes(final String resource) throws IOException {
+        return IOUtils.toByteArray(FlowDeltaTest.class.getResourceAsStream(resource));
+    }
+}
@@ -18,12 +18,23 @@ package org.apache.nifi.fingerprint;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.processor.Processor;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -61,6 +72,51 @@ public class FingerprintFactoryTest {
         assertTrue(fingerprint.contains("In Connection"));
     }
 
+    @Test
+    public void testFingerprintReusedForSameFlow() throws IOException {
+        final String fp1 = fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow1a.xml"), null);
+        final String fp2 = fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow2.xml"), null);
+        assertFalse(fp1.equals(fp2));
+
+        assertSame(fp1, fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow1a.xml"), null));
+        assertSame(fp2, fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow2.xml"), null));
+    }
+
+    @Test
+    public void testOneDefaultValueProcessorPerType() throws Exception {
+        final FlowController controller = mock(FlowController.class);
+        when(controller.createProcessor(anyString(), anyString(), eq(false))).thenAnswer(invocation -> {
+            final ProcessorNode procNode = mock(ProcessorNode.class);
+            when(procNode.getProcessor()).thenReturn(mock(Processor.class));
+            return procNode;
+        });
+
+        // flow1a contains one GenerateFlowFile and two LogAttribute processors
+        fingerprinter.createFingerprint(getResourceBytes("/nifi/fingerprint/flow1a.xml"), controller);
+        verify(controller, times(2)).createProcessor(anyString(), anyString(), eq(false));
+    }
+
+    @Test
+    public void testLoadBalanceStrategyInFingerprint() throws IOException {
+        final String flow = new String(getResourceBytes("/nifi/fingerprint/flow1a.xml"), StandardCharsets.UTF_8);
+        final String fp = fingerprinter.createFingerprint(flow.getBytes(StandardCharsets.UTF_8), null);
+
+        // not load balancing is the default, so it must not change the fingerprint of existing flows
+        final String notBalanced = StringUtils.replaceOnce(flow, "</connection>", "<loadBalanceStrategy>DO_NOT_LOAD_BALANCE</loadBalanceStrategy></connection>");
+        assertEquals(fp, fingerprinter.createFingerprint(notBalanced.getBytes(StandardCharsets.UTF_8), null));
+
+        final String roundRobin = StringUtils.replaceOnce(flow, "</connection>", "<loadBalanceStrategy>ROUND_ROBIN</loadBalanceStrategy></connection>");
+        final String roundRobinFp = fingerprinter.createFingerprint(roundRobin.getBytes(StandardCharsets.UTF_8), null);
+        assertFalse(fp.equals(roundRobinFp));
+
+        final String partitioned = StringUtils.replaceOnce(flow, "</connection>",
+            "<loadBalanceStrategy>PARTITION_BY_ATTRIBUTE</loadBalanceStrategy><partitioningAttribute>a</partitioningAttribute></connection>");
+        final String otherPartitioned = StringUtils.replaceOnce(flow, "</connection>",
+            "<loadBalanceStrategy>PARTITION_BY_ATTRIBUTE</loadBalanceStrategy><partitioningAttribute>b</partitioningAttribute></connection>");
+        assertFalse(fingerprinter.createFingerprint(partitioned.getBytes(StandardCharsets.UTF_8), null)
+            .equals(fingerprinter.createFingerprint(otherPartitioned.getBytes(StandardCharsets.UTF_8), null)));
+    }
+
     private byte[] getResourceBytes(final String resource) throws IOException {
         return IOUtils.toByteArray(FingerprintFactoryTest.class.getResourceAsStream(resource));
     }
@@ -30,12 +30,20 @@ import org.apache.nifi.reporting.ReportingTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Scans through the classpath to load all FlowFileProcessors, FlowFileComparators, and ReportingTasks using the service provider API and running through all classloaders (root, NARs).
@@ -77,15 +85,41 @@ public class ExtensionManager {
         ClassLoader currentContextClassLoader = Thread.currentThread().getContextClassLoader();
 
         // consider the system class loader
-        loadExtensions(systemClassLoader);
-
-        // consider each nar class loader
-        for (final ClassLoader ncl : extensionLoaders) {
+        registerExtensions(systemClassLoader, findExtensions(systemClassLoader));
+
+        // Loading the extensions of each nar is independent of the other nars, so this is done in parallel. The extensions
+        // are then registered in the order of the given class loaders, because the extensions of a nar are also found
+        // through the class loaders of the nars that depend on it, and they must be registered to the nar that they come from.
+        final Map<ClassLoader, Future<Map<Class, List<Class<?>>>>> futures = new LinkedHashMap<>();
+        final int threadCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), extensionLoaders.size()));
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "Discover Extensions Thread-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (final ClassLoader ncl : extensionLoaders) {
+                futures.put(ncl, executor.submit(() -> {
+                    // Must set the context class loader to the nar classloader itself
+                    // so that static initialization techniques that depend on the context class loader will work properly
+                    final ClassLoader threadContextClassLoader = Thread.currentThread().getContextClassLoader();
+                    Thread.currentThread().setContextClassLoader(ncl);
+                    try {
+                        return findExtensions(ncl);
+                    } finally {
+                        Thread.currentThread().setContextClassLoader(threadContextClassLoader);
+                    }
+                }));
+            }
 
-            // Must set the context class loader to the nar classloader itself
-            // so that static initialization techniques that depend on the context class loader will work properly
-            Thread.currentThread().setContextClassLoader(ncl);
-            loadExtensions(ncl);
+            // consider each nar class loader
+            for (final Map.Entry<ClassLoader, Future<Map<Class, List<Class<?>>>>> entry : futures.entrySet()) {
+                registerExtensions(entry.getKey(), getFoundExtensions(entry.getValue()));
+            }
+        } finally {
+            executor.shutdownNow();
         }
 
         // restore the current context class loader if appropriate
@@ -94,18 +128,54 @@ public class ExtensionManager {
         }
     }
 
+    private static Map<Class, List<Class<?>>> getFoundExtensions(final Future<Map<Class, List<Class<?>>>> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while discovering extensions", ie);
+        } catch (final ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
     /**
-     * Loads extensions from the specified class loader.
+     * Finds the extensions that can be loaded from the specified class loader.
      *
      * @param classLoader from which to load extensions
+     * @return the classes of the extensions that were found, for each extension type
      */
-    @SuppressWarnings("unchecked")
-    private static void loadExtensions(final ClassLoader classLoader) {
-        for (final Map.Entry<Class, Set<Class>> entry : definitionMap.entrySet()) {
-            final ServiceLoader<?> serviceLoader = ServiceLoader.load(entry.getKey(), classLoader);
+    private static Map<Class, List<Class<?>>> findExtensions(final ClassLoader classLoader) {
+        final Map<Class, List<Class<?>>> extensions = new HashMap<>();
+        for (final Class definition : definitionMap.keySet()) {
+            final ServiceLoader<?> serviceLoader = ServiceLoader.load(definition, classLoader);
 
+            final List<Class<?>> classes = new ArrayList<>();
             for (final Object o : serviceLoader) {
-                registerServiceClass(o.getClass(), extensionClassloaderLookup, classLoader, entry.getValue());
+                classes.add(o.getClass());
+            }
+            extensions.put(definition, classes);
+        }
+        return extensions;
+    }
+
+    /**
+     * Registers the extensions that were found from the specified class loader.
+     *
+     * @param classLoader from which the extensions were loaded
+     * @param extensions the classes of the extensions, for each extension type
+     */
+    private static void registerExtensions(final ClassLoader classLoader, final Map<Class, List<Class<?>>> extensions) {
+        for (final Map.Entry<Class, Set<Class>> entry : definitionMap.entrySet()) {
+            for (final Class<?> type : extensions.get(entry.getKey())) {
+                registerServiceClass(type, extensionClassloaderLookup, classLoader, entry.getValue());
             }
         }
     }
@@ -30,10 +30,16 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -52,6 +58,10 @@ public final class NarUnpacker {
 
     private static final Logger logger = LoggerFactory.getLogger(NarUnpacker.class);
     private static String HASH_FILENAME = "nar-md5sum";
+    private static final String INDEX_FILENAME = "nar-index.properties";
+    private static final String INDEX_SIZE = "nar.size";
+    private static final String INDEX_LAST_MODIFIED = "nar.last.modified";
+    private static final String INDEX_MD5 = "nar.md5";
     private static final FileFilter NAR_FILTER = new FileFilter() {
         @Override
         public boolean accept(File pathname) {
@@ -89,9 +99,9 @@ public final class NarUnpacker {
             }
 
             if (!narFiles.isEmpty()) {
+                File frameworkNar = null;
+                final List<File> extensionNars = new ArrayList<>();
                 for (File narFile : narFiles) {
-                    logger.debug("Expanding NAR file: " + narFile.getAbsolutePath());
-
                     // get the manifest for this nar
                     try (final JarFile nar = new JarFile(narFile)) {
                         final Manifest manifest = nar.getManifest();
@@ -102,18 +112,39 @@ public final class NarUnpacker {
 
                         // determine if this is the framework
                         if (NarClassLoaders.FRAMEWORK_NAR_ID.equals(narId)) {
-                            if (unpackedFramework != null) {
+                            if (frameworkNar != null) {
                                 throw new IllegalStateException(
                                         "Multiple framework NARs discovered. Only one framework is permitted.");
                             }
 
-                            unpackedFramework = unpackNar(narFile, frameworkWorkingDir);
+                            frameworkNar = narFile;
                         } else {
-                            unpackedExtensions.add(unpackNar(narFile, extensionsWorkingDir));
+                            extensionNars.add(narFile);
                         }
                     }
                 }
 
+                // unpack the nars in parallel, as each is unpacked to its own working directory
+                final int threadCount = Math.min(Runtime.getRuntime().availableProcessors(), narFiles.size());
+                final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+                try {
+                    final Future<File> unpackedFrameworkFuture = (frameworkNar == null) ? null : submitUnpack(executor, frameworkNar, frameworkWorkingDir);
+
+                    final List<Future<File>> unpackedExtensionFutures = new ArrayList<>();
+                    for (final File extensionNar : extensionNars) {
+                        unpackedExtensionFutures.add(submitUnpack(executor, extensionNar, extensionsWorkingDir));
+                    }
+
+                    if (unpackedFrameworkFuture != null) {
+                        unpackedFramework = getUnpacked(unpackedFrameworkFuture);
+                    }
+                    for (final Future<File> unpackedExtensionFuture : unpackedExtensionFutures) {
+                        unpackedExtensions.add(getUnpacked(unpackedExtensionFuture));
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+
                 // ensure we've found the framework nar
                 if (unpackedFramework == null) {
                     throw new IllegalStateException("No framework NAR found.");
@@ -169,6 +200,31 @@ public final class NarUnpacker {
         return null;
     }
 
+    private static Future<File> submitUnpack(final ExecutorService executor, final File nar, final File baseWorkingDirectory) {
+        return executor.submit(() -> {
+            logger.debug("Expanding NAR file: " + nar.getAbsolutePath());
+            return unpackNar(nar, baseWorkingDirectory);
+        });
+    }
+
+    private static File getUnpacked(final Future<File> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while unpacking NARs", ie);
+        } catch (final ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
     private static void mapExtensions(final File workingDirectory, final File docsDirectory,
             final ExtensionMapping mapping) throws IOException {
         final File[] directoryContents = workingDirectory.listFiles();
@@ -201,6 +257,8 @@ public final class NarUnpacker {
         // if the working directory doesn't exist, unpack the nar
         if (!narWorkingDirectory.exists()) {
             unpack(nar, narWorkingDirectory, calculateMd5sum(nar));
+        } else if (isUnchangedSinceUnpacked(nar, narWorkingDirectory)) {
+            logger.debug("NAR {} has not changed since it was unpacked", nar.getAbsolutePath());
         } else {
             // the working directory does exist. Run MD5 sum against the nar
             // file and check if the nar has changed since it was deployed.
@@ -216,6 +274,8 @@ public final class NarUnpacker {
                             new Object[] { nar.getAbsolutePath() });
                     FileUtils.deleteFile(narWorkingDirectory, true);
                     unpack(nar, narWorkingDirectory, narMd5);
+                } else {
+                    writeIndex(nar, narWorkingDirectory);
                 }
             }
         }
@@ -223,6 +283,48 @@ public final class NarUnpacker {
         return narWorkingDirectory;
     }
 
+    /**
+     * Determines whether the given NAR is unchanged since it was unpacked to the given working directory, based on the
+     * index that was written when it was unpacked. The index records the size and last modified time of the NAR along
+     * with its md5 sum, so that an unchanged NAR does not have to be read in full on every startup just to calculate
+     * its md5 sum.
+     *
+     * @param nar the nar
+     * @param narWorkingDirectory the directory to which the nar was unpacked
+     * @return <code>true</code> if the index shows that the nar is unchanged
+     */
+    private static boolean isUnchangedSinceUnpacked(final File nar, final File narWorkingDirectory) {
+        final File indexFile = new File(narWorkingDirectory, INDEX_FILENAME);
+        final File workingHashFile = new File(narWorkingDirectory, HASH_FILENAME);
+        if (!indexFile.exists() || !workingHashFile.exists()) {
+            return false;
+        }
+
+        final Properties index = new Properties();
+        try (final InputStream in = new FileInputStream(indexFile)) {
+            index.load(in);
+
+            final String hash = Base64.getEncoder().encodeToString(Files.readAllBytes(workingHashFile.toPath()));
+            return String.valueOf(nar.length()).equals(index.getProperty(INDEX_SIZE))
+                    && String.valueOf(nar.lastModified()).equals(index.getProperty(INDEX_LAST_MODIFIED))
+                    && hash.equals(index.getProperty(INDEX_MD5));
+        } catch (final IOException ioe) {
+            logger.debug("Unable to read index of unpacked nar {}; will verify its md5 sum instead", nar.getAbsolutePath(), ioe);
+            return false;
+        }
+    }
+
+    private static void writeIndex(final File nar, final File narWorkingDirectory) throws IOException {
+        final Properties index = new Properties();
+        index.setProperty(INDEX_SIZE, String.valueOf(nar.length()));
+        index.setProperty(INDEX_LAST_MODIFIED, String.valueOf(nar.lastModified()));
+        index.setProperty(INDEX_MD5, Base64.getEncoder().encodeToString(Files.readAllBytes(new File(narWorkingDirectory, HASH_FILENAME).toPath())));
+
+        try (final FileOutputStream fos = new FileOutputStream(new File(narWorkingDirectory, INDEX_FILENAME))) {
+            index.store(fos, "Index of " + nar.getAbsolutePath());
+        }
+    }
+
     /**
      * Unpacks the NAR to the specified directory. Creates a checksum file that
      * used to determine if future expansion is necessary.
@@ -253,6 +355,8 @@ public final class NarUnpacker {
         try (final FileOutputStream fos = new FileOutputStream(hashFile)) {
             fos.write(hash);
         }
+
+        writeIndex(nar, workingDirectory);
     }
 
     private static void unpackDocumentation(final File jar, final File docsDirectory,
@@ -260,41 +364,55 @@ public final class NarUnpacker {
         // determine the components that may have documentation
         determineDocumentedNiFiComponents(jar, extensionMapping);
 
-        // look for all documentation related to each component
+        final List<String> componentNames = extensionMapping.getAllExtensionNames();
+        if (componentNames.isEmpty()) {
+            return;
+        }
+
+        // look for all documentation related to each component, going through the entries of this jar only once
         try (final JarFile jarFile = new JarFile(jar)) {
-            for (final String componentName : extensionMapping.getAllExtensionNames()) {
-                final String entryName = "docs/" + componentName;
-
-                // go through each entry in this jar
-                for (final Enumeration<JarEntry> jarEnumeration = jarFile.entries(); jarEnumeration
-                        .hasMoreElements();) {
-                    final JarEntry jarEntry = jarEnumeration.nextElement();
-
-                    // if this entry is documentation for this component
-                    if (jarEntry.getName().startsWith(entryName)) {
-                        final String name = StringUtils.substringAfter(jarEntry.getName(), "docs/");
-
-                        // if this is a directory create it
-                        if (jarEntry.isDirectory()) {
-                            final File componentDocsDirectory = new File(docsDirectory, name);
-
-                            // ensure the documentation directory can be created
-                            if (!componentDocsDirectory.exists()
-                                    && !componentDocsDirectory.mkdirs()) {
-                                logger.warn("Unable to create docs directory "
-                                        + componentDocsDirectory.getAbsolutePath());
-                                break;
-                            }
-                        } else {
-                            // if this is a file, write to it
-                            final File componentDoc = new File(docsDirectory, name);
-                            makeFile(jarFile.getInputStream(jarEntry), componentDoc);
-                        }
+            final Set<String> failedComponents = new HashSet<>();
+            for (final Enumeration<JarEntry> jarEnumeration = jarFile.entries(); jarEnumeration
+                    .hasMoreElements();) {
+                final JarEntry jarEntry = jarEnumeration.nextElement();
+                if (!jarEntry.getName().startsWith("docs/")) {
+                    continue;
+                }
+
+                // find the component that this entry is documentation for, if any
+                final String name = StringUtils.substringAfter(jarEntry.getName(), "docs/");
+                final String componentName = getDocumentedComponent(name, componentNames);
+                if (componentName == null || failedComponents.contains(componentName)) {
+                    continue;
+                }
+
+                // if this is a directory create it
+                if (jarEntry.isDirectory()) {
+                    final File componentDocsDirectory = new File(docsDirectory, name);
+
+                    // ensure the documentation directory can be created
+                    if (!componentDocsDirectory.exists()
+                            && !componentDocsDirectory.mkdirs()) {
+                        logger.warn("Unable to create docs directory "
+                                + componentDocsDirectory.getAbsolutePath());
+                        failedComponents.add(componentName);
                     }
+                } else {
+                    // if this is a file, write to it
+                    final File componentDoc = new File(docsDirectory, name);
+                    makeFile(jarFile.getInputStream(jarEntry), componentDoc);
                 }
+            }
+        }
+    }
 
+    private static String getDocumentedComponent(final String docName, final List<String> componentNames) {
+        for (final String componentName : componentNames) {
+            if (docName.startsWith(componentName)) {
+                return componentName;
             }
         }
+        return null;
     }
 
     private static void determineDocumentedNiFiComponents(final File jar,
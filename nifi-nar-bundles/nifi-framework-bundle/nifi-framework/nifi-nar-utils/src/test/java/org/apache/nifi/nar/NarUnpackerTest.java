@@ -109,6 +109,33 @@ public class NarUnpackerTest {
         }
     }
 
+    @Test
+    public void testUnchangedNarsAreNotUnpackedAgain() throws IOException {
+
+        NiFiProperties properties = loadSpecifiedProperties("/NarUnpacker/conf/nifi.properties", Collections.EMPTY_MAP);
+
+        assertTrue(NarUnpacker.unpackNars(properties) != null);
+
+        final File unpackedNar = new File(properties.getExtensionsWorkingDirectory(), "dummy-one.nar-unpacked");
+        assertTrue(new File(unpackedNar, "nar-index.properties").exists());
+
+        // a file that is not part of the nar is only removed if the nar is unpacked again
+        final File marker = new File(unpackedNar, "marker");
+        assertTrue(marker.createNewFile());
+
+        final ExtensionMapping extensionMapping = NarUnpacker.unpackNars(properties);
+        assertEquals(2, extensionMapping.getAllExtensionNames().size());
+        assertTrue(marker.exists());
+
+        // a nar whose index does not match is verified against its md5 sum, which is unchanged
+        final File nar = new File("./target/NarUnpacker/lib/dummy-one.nar");
+        assertTrue(nar.setLastModified(nar.lastModified() - 60000L));
+        NarUnpacker.unpackNars(properties);
+        assertTrue(marker.exists());
+
+        assertTrue(marker.delete());
+    }
+
     @Test
     public void testUnpackNarsFromEmptyDir() throws IOException {
 
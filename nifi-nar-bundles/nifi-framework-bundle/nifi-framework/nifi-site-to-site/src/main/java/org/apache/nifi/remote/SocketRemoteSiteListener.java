@@ -37,30 +37,60 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.nifi.remote.cluster.ClusterNodeInformation;
 import org.apache.nifi.util.NiFiProperties;
 
+/**
+ * <p>
+ * Listens for RAW socket Site-to-Site connections. A single listener thread uses a {@link Selector} to accept
+ * connections and to watch the connections that are waiting for their peer's next request. When a request arrives,
+ * the connection is handed to a fixed pool of worker threads, which serves requests for as long as the peer keeps
+ * sending them and then returns the connection to the selector. This allows a small number of threads to serve many
+ * peers that each keep connections open between transactions.
+ * </p>
+ *
+ * <p>
+ * The handshake and each request are still read and written with blocking semantics by the worker thread, using the
+ * existing {@link ServerProtocol}, so a transaction always completes on a single thread before the FlowFiles are
+ * handed to the port.
+ * </p>
+ */
 public class SocketRemoteSiteListener implements RemoteSiteListener {
 
     public static final String DEFAULT_FLOWFILE_PATH = "./";
 
+    private static final long SELECT_TIMEOUT_MILLIS = 1000L;
+
     private final int socketPort;
     private final SSLContext sslContext;
     private final NodeInformant nodeInformant;
     private final AtomicReference<ProcessGroup> rootGroup = new AtomicReference<>();
     private final NiFiProperties nifiProperties;
+    private final int workerThreadCount;
 
     private final AtomicBoolean stopped = new AtomicBoolean(false);
 
+    // connections that are waiting for their peer's next request; only the listener thread registers them with the selector
+    private final Queue<PeerConnection> connectionsToPark = new ConcurrentLinkedQueue<>();
+    private volatile Selector selector;
+
     private static final Logger LOG = LoggerFactory.getLogger(SocketRemoteSiteListener.class);
 
     public SocketRemoteSiteListener(final int socketPort, final SSLContext sslContext, final NiFiProperties nifiProperties) {
@@ -72,6 +102,7 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
         this.sslContext = sslContext;
         this.nifiProperties = nifiProperties;
         this.nodeInformant = nodeInformant;
+        this.workerThreadCount = Math.max(1, nifiProperties.getRemoteInputSocketThreads());
     }
 
     @Override
@@ -81,256 +112,432 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
 
     @Override
     public void start() throws IOException {
-        final boolean secure = (sslContext != null);
-
         final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
-        serverSocketChannel.configureBlocking(true);
+        serverSocketChannel.configureBlocking(false);
         serverSocketChannel.bind(new InetSocketAddress(socketPort));
+
+        final Selector selector = Selector.open();
+        final SelectionKey acceptKey = serverSocketChannel.register(selector, 0);
+        this.selector = selector;
         stopped.set(false);
 
-        final Thread listenerThread = new Thread(new Runnable() {
-            private int threadCount = 0;
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        final ExecutorService workerPool = Executors.newFixedThreadPool(workerThreadCount, runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setName("Site-to-Site Worker Thread-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
 
+        final Thread listenerThread = new Thread(new Runnable() {
             @Override
             public void run() {
-                while (!stopped.get()) {
-                    final ProcessGroup processGroup = rootGroup.get();
-                    // If nodeInformant is not null, we are in clustered mode, which means that we don't care about
-                    // the processGroup.
-                    if ((nodeInformant == null) && (processGroup == null || (processGroup.getInputPorts().isEmpty() && processGroup.getOutputPorts().isEmpty()))) {
+                try {
+                    while (!stopped.get()) {
+                        final ProcessGroup processGroup = rootGroup.get();
+                        // If nodeInformant is not null, we are in clustered mode, which means that we don't care about
+                        // the processGroup.
+                        final boolean accepting = (nodeInformant != null)
+                            || (processGroup != null && (!processGroup.getInputPorts().isEmpty() || !processGroup.getOutputPorts().isEmpty()));
+                        acceptKey.interestOps(accepting ? SelectionKey.OP_ACCEPT : 0);
+
+                        registerParkedConnections(selector);
+
                         try {
-                            Thread.sleep(2000L);
-                        } catch (final Exception e) {
+                            selector.select(SELECT_TIMEOUT_MILLIS);
+                        } catch (final IOException e) {
+                            LOG.error("RemoteSiteListener Unable to select connections due to {}", e.toString());
+                            if (LOG.isDebugEnabled()) {
+                                LOG.error("", e);
+                            }
+                            continue;
+                        }
+
+                        if (stopped.get()) {
+                            return;
                         }
-                        continue;
-                    }
 
-                    LOG.trace("Accepting Connection...");
-                    Socket acceptedSocket = null;
-                    try {
-                        serverSocketChannel.configureBlocking(false);
-                        final ServerSocket serverSocket = serverSocketChannel.socket();
-                        serverSocket.setSoTimeout(2000);
-                        while (!stopped.get() && acceptedSocket == null) {
-                            try {
-                                acceptedSocket = serverSocket.accept();
-                            } catch (final SocketTimeoutException ste) {
+                        final Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                        while (selectedKeys.hasNext()) {
+                            final SelectionKey key = selectedKeys.next();
+                            selectedKeys.remove();
+
+                            if (!key.isValid()) {
                                 continue;
                             }
+
+                            if (key == acceptKey) {
+                                acceptConnections(serverSocketChannel, workerPool);
+                            } else if (key.isReadable()) {
+                                // stop watching the connection while a worker thread is serving it
+                                key.interestOps(0);
+                                final PeerConnection connection = (PeerConnection) key.attachment();
+                                connection.readable = true;
+                                dispatch(connection, workerPool);
+                            }
                         }
-                    } catch (final IOException e) {
-                        LOG.error("RemoteSiteListener Unable to accept connection due to {}", e.toString());
-                        if (LOG.isDebugEnabled()) {
-                            LOG.error("", e);
-                        }
-                        continue;
+
+                        expireIdleConnections(selector, workerPool);
                     }
-                    LOG.trace("Got connection");
+                } finally {
+                    closeListener(serverSocketChannel, selector, workerPool);
+                }
+            }
+        });
+        listenerThread.setName("Site-to-Site Listener");
+        listenerThread.start();
+    }
+
+    private void acceptConnections(final ServerSocketChannel serverSocketChannel, final ExecutorService workerPool) {
+        while (!stopped.get()) {
+            LOG.trace("Accepting Connection...");
+            final SocketChannel socketChannel;
+            try {
+                socketChannel = serverSocketChannel.accept();
+            } catch (final IOException e) {
+                LOG.error("RemoteSiteListener Unable to accept connection due to {}", e.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", e);
+                }
+                return;
+            }
+
+            if (socketChannel == null) {
+                return;
+            }
+
+            LOG.trace("Got connection");
+            dispatch(new PeerConnection(socketChannel), workerPool);
+        }
+    }
+
+    private void dispatch(final PeerConnection connection, final ExecutorService workerPool) {
+        try {
+            LOG.debug("Handing connection {} to worker pool", connection);
+            workerPool.execute(connection);
+        } catch (final RejectedExecutionException ree) {
+            // only happens when the listener is being stopped
+            connection.close();
+        }
+    }
+
+    private void registerParkedConnections(final Selector selector) {
+        PeerConnection connection;
+        while ((connection = connectionsToPark.poll()) != null) {
+            try {
+                if (connection.selectionKey == null) {
+                    connection.selectionKey = connection.socketChannel.register(selector, SelectionKey.OP_READ, connection);
+                } else {
+                    connection.selectionKey.interestOps(SelectionKey.OP_READ);
+                }
+                connection.parkedTimestamp = System.currentTimeMillis();
+            } catch (final ClosedChannelException | CancelledKeyException e) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Closes connections whose peer has not sent a request for twice the request expiration that it asked for during the
+     * handshake, which is how long a worker thread waited for the next request before connections were multiplexed.
+     */
+    private void expireIdleConnections(final Selector selector, final ExecutorService workerPool) {
+        final long now = System.currentTimeMillis();
+        for (final SelectionKey key : selector.keys()) {
+            final Object attachment = key.attachment();
+            if (!(attachment instanceof PeerConnection) || !key.isValid() || key.interestOps() == 0) {
+                continue;
+            }
 
-                    if (stopped.get()) {
+            final PeerConnection connection = (PeerConnection) attachment;
+            if (now - connection.parkedTimestamp > 2 * connection.protocol.getRequestExpiration()) {
+                LOG.debug("Timed out waiting to receive RequestType using {} with {}", connection.protocol, connection.peer);
+                key.cancel();
+                try {
+                    workerPool.execute(connection::close);
+                } catch (final RejectedExecutionException ree) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void closeListener(final ServerSocketChannel serverSocketChannel, final Selector selector, final ExecutorService workerPool) {
+        try {
+            serverSocketChannel.close();
+        } catch (final IOException e) {
+            LOG.warn("Failed to close Site-to-Site server socket due to {}", e.toString());
+        }
+
+        workerPool.shutdown();
+
+        // Only close the connections that are waiting for a request. A connection that a worker thread is serving is closed
+        // by that thread once it finishes, because the listener is stopped, and a connection whose key was cancelled
+        // because it expired is already being closed.
+        for (final SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof PeerConnection && key.isValid() && key.interestOps() != 0) {
+                ((PeerConnection) key.attachment()).close();
+            }
+        }
+
+        PeerConnection connection;
+        while ((connection = connectionsToPark.poll()) != null) {
+            connection.close();
+        }
+
+        try {
+            selector.close();
+        } catch (final IOException e) {
+            LOG.warn("Failed to close Site-to-Site selector due to {}", e.toString());
+        }
+    }
+
+    /**
+     * A connection from a single peer. Each time it runs on a worker thread, it serves requests from the peer until no
+     * more data is available and then parks itself with the selector, or closes the connection once the peer is done.
+     * It is never run by more than one thread at a time.
+     */
+    private class PeerConnection implements Runnable {
+        private final SocketChannel socketChannel;
+        private String peerUri;
+        private CommunicationsSession commsSession;
+        private ServerProtocol protocol;
+        private Peer peer;
+
+        // accessed only by the listener thread
+        private SelectionKey selectionKey;
+        private volatile long parkedTimestamp;
+        private volatile boolean readable = false;
+
+        PeerConnection(final SocketChannel socketChannel) {
+            this.socketChannel = socketChannel;
+        }
+
+        @Override
+        public void run() {
+            boolean park = false;
+            try {
+                if (protocol == null) {
+                    if (!establish()) {
                         return;
                     }
-                    final Socket socket = acceptedSocket;
-                    final SocketChannel socketChannel = socket.getChannel();
-                    final Thread thread = new Thread(new Runnable() {
-                        @Override
-                        public void run() {
-                            LOG.debug("{} Determining URL of connection", this);
-                            final InetAddress inetAddress = socket.getInetAddress();
-                            String hostname = inetAddress.getHostName();
-                            final int slashIndex = hostname.indexOf("/");
-                            if (slashIndex == 0) {
-                                hostname = hostname.substring(1);
-                            } else if (slashIndex > 0) {
-                                hostname = hostname.substring(0, slashIndex);
-                            }
+                }
 
-                            final int port = socket.getPort();
-                            final String peerUri = "nifi://" + hostname + ":" + port;
-                            LOG.debug("{} Connection URL is {}", this, peerUri);
-
-                            final CommunicationsSession commsSession;
-                            final String dn;
-                            try {
-                                if (secure) {
-                                    final SSLSocketChannel sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
-                                    LOG.trace("Channel is secure; connecting...");
-                                    sslSocketChannel.connect();
-                                    LOG.trace("Channel connected");
-
-                                    commsSession = new SSLSocketChannelCommunicationsSession(sslSocketChannel);
-                                    dn = sslSocketChannel.getDn();
-                                    commsSession.setUserDn(dn);
-                                } else {
-                                    LOG.trace("{} Channel is not secure", this);
-                                    commsSession = new SocketChannelCommunicationsSession(socketChannel);
-                                    dn = null;
-                                }
-                            } catch (final Exception e) {
-                                LOG.error("RemoteSiteListener Unable to accept connection from {} due to {}", socket, e.toString());
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.error("", e);
-                                }
-                                try {
-                                    socketChannel.close();
-                                } catch (IOException swallow) {
-                                }
-                                return;
-                            }
+                park = serviceRequests();
+            } catch (final IOException e) {
+                LOG.error("Unable to communicate with remote instance {} due to {}; closing connection", peer, e.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", e);
+                }
+            } catch (final Throwable t) {
+                if (protocol == null || !protocol.isHandshakeSuccessful()) {
+                    LOG.error("Handshake failed when communicating with {}; closing connection. Reason for failure: {}", peerUri, t.toString());
+                } else {
+                    LOG.error("Unable to communicate with remote instance {} ({}) due to {}; closing connection", peer, protocol, t.toString());
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", t);
+                }
+            } finally {
+                if (park) {
+                    park();
+                } else {
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Secures the connection if necessary and performs the Site-to-Site handshake.
+         *
+         * @return <code>true</code> if the handshake succeeded, <code>false</code> if the connection has been closed
+         */
+        private boolean establish() throws Exception {
+            LOG.debug("{} Determining URL of connection", this);
+            final InetAddress inetAddress = socketChannel.socket().getInetAddress();
+            String hostname = inetAddress.getHostName();
+            final int slashIndex = hostname.indexOf("/");
+            if (slashIndex == 0) {
+                hostname = hostname.substring(1);
+            } else if (slashIndex > 0) {
+                hostname = hostname.substring(0, slashIndex);
+            }
 
-                            LOG.info("Received connection from {}, User DN: {}", socket.getInetAddress(), dn);
+            final int port = socketChannel.socket().getPort();
+            peerUri = "nifi://" + hostname + ":" + port;
+            LOG.debug("{} Connection URL is {}", this, peerUri);
+
+            final String dn;
+            try {
+                if (sslContext != null) {
+                    final SSLSocketChannel sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
+                    LOG.trace("Channel is secure; connecting...");
+                    sslSocketChannel.connect();
+                    LOG.trace("Channel connected");
+
+                    commsSession = new SSLSocketChannelCommunicationsSession(sslSocketChannel);
+                    dn = sslSocketChannel.getDn();
+                    commsSession.setUserDn(dn);
+                } else {
+                    LOG.trace("{} Channel is not secure", this);
+                    commsSession = new SocketChannelCommunicationsSession(socketChannel);
+                    dn = null;
+                }
+            } catch (final Exception e) {
+                LOG.error("RemoteSiteListener Unable to accept connection from {} due to {}", socketChannel, e.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", e);
+                }
+                return false;
+            }
 
-                            final InputStream socketIn;
-                            final OutputStream socketOut;
+            LOG.info("Received connection from {}, User DN: {}", inetAddress, dn);
 
-                            try {
-                                socketIn = commsSession.getInput().getInputStream();
-                                socketOut = commsSession.getOutput().getOutputStream();
-                            } catch (final IOException e) {
-                                LOG.error("Connection dropped from {} before any data was transmitted", peerUri);
-                                try {
-                                    commsSession.close();
-                                } catch (final IOException ioe) {
-                                }
+            final InputStream socketIn;
+            final OutputStream socketOut;
 
-                                return;
-                            }
+            try {
+                socketIn = commsSession.getInput().getInputStream();
+                socketOut = commsSession.getOutput().getOutputStream();
+            } catch (final IOException e) {
+                LOG.error("Connection dropped from {} before any data was transmitted", peerUri);
+                return false;
+            }
 
-                            final DataInputStream dis = new DataInputStream(socketIn);
-                            final DataOutputStream dos = new DataOutputStream(socketOut);
-
-                            ServerProtocol protocol = null;
-                            Peer peer = null;
-                            try {
-                                // ensure that we are communicating with another NiFi
-                                LOG.debug("Verifying magic bytes...");
-                                verifyMagicBytes(dis, peerUri);
-
-                                LOG.debug("Receiving Server Protocol Negotiation");
-                                protocol = RemoteResourceFactory.receiveServerProtocolNegotiation(dis, dos);
-                                protocol.setRootProcessGroup(rootGroup.get());
-                                protocol.setNodeInformant(nodeInformant);
-
-                                final PeerDescription description = new PeerDescription("localhost", getPort(), sslContext != null);
-                                peer = new Peer(description, commsSession, peerUri, "nifi://localhost:" + getPort());
-                                LOG.debug("Handshaking....");
-                                protocol.handshake(peer);
-
-                                if (!protocol.isHandshakeSuccessful()) {
-                                    LOG.error("Handshake failed with {}; closing connection", peer);
-                                    try {
-                                        peer.close();
-                                    } catch (final IOException e) {
-                                        LOG.warn("Failed to close {} due to {}", peer, e);
-                                    }
-
-                                    // no need to shutdown protocol because we failed to perform handshake
-                                    return;
-                                }
-
-                                commsSession.setTimeout((int) protocol.getRequestExpiration());
-
-                                LOG.info("Successfully negotiated ServerProtocol {} Version {} with {}", new Object[]{
-                                    protocol.getResourceName(), protocol.getVersionNegotiator().getVersion(), peer});
-
-                                try {
-                                    while (!protocol.isShutdown()) {
-                                        LOG.trace("Getting Protocol Request Type...");
-
-                                        int timeoutCount = 0;
-                                        RequestType requestType = null;
-
-                                        while (requestType == null) {
-                                            try {
-                                                requestType = protocol.getRequestType(peer);
-                                            } catch (final SocketTimeoutException e) {
-                                                // Give the timeout a bit longer (twice as long) to receive the Request Type,
-                                                // in order to attempt to receive more data without shutting down the socket if we don't
-                                                // have to.
-                                                LOG.debug("{} Timed out waiting to receive RequestType using {} with {}", new Object[]{this, protocol, peer});
-                                                timeoutCount++;
-                                                requestType = null;
-
-                                                if (timeoutCount >= 2) {
-                                                    throw e;
-                                                }
-                                            }
-                                        }
-
-                                        LOG.debug("Request type from {} is {}", protocol, requestType);
-                                        switch (requestType) {
-                                            case NEGOTIATE_FLOWFILE_CODEC:
-                                                protocol.negotiateCodec(peer);
-                                                break;
-                                            case RECEIVE_FLOWFILES:
-                                                // peer wants to receive FlowFiles, so we will transfer FlowFiles.
-                                                protocol.getPort().transferFlowFiles(peer, protocol);
-                                                break;
-                                            case SEND_FLOWFILES:
-                                                // Peer wants to send FlowFiles, so we will receive.
-                                                protocol.getPort().receiveFlowFiles(peer, protocol);
-                                                break;
-                                            case REQUEST_PEER_LIST:
-                                                final Optional<ClusterNodeInformation> nodeInfo = (nodeInformant == null) ? Optional.empty() : Optional.of(nodeInformant.getNodeInformation());
-                                                protocol.sendPeerList(
-                                                        peer,
-                                                        nodeInfo,
-                                                        nifiProperties.getRemoteInputHost(),
-                                                        nifiProperties.getRemoteInputPort(),
-                                                        nifiProperties.getRemoteInputHttpPort(),
-                                                        nifiProperties.isSiteToSiteSecure());
-                                                break;
-                                            case SHUTDOWN:
-                                                protocol.shutdown(peer);
-                                                break;
-                                        }
-                                    }
-                                    LOG.debug("Finished communicating with {} ({})", peer, protocol);
-                                } catch (final Exception e) {
-                                    LOG.error("Unable to communicate with remote instance {} ({}) due to {}; closing connection", peer, protocol, e.toString());
-                                    if (LOG.isDebugEnabled()) {
-                                        LOG.error("", e);
-                                    }
-                                }
-                            } catch (final IOException e) {
-                                LOG.error("Unable to communicate with remote instance {} due to {}; closing connection", peer, e.toString());
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.error("", e);
-                                }
-                            } catch (final Throwable t) {
-                                LOG.error("Handshake failed when communicating with {}; closing connection. Reason for failure: {}", peerUri, t.toString());
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.error("", t);
-                                }
-                            } finally {
-                                LOG.trace("Cleaning up");
-                                try {
-                                    if (protocol != null && peer != null) {
-                                        protocol.shutdown(peer);
-                                    }
-                                } catch (final Exception protocolException) {
-                                    LOG.warn("Failed to shutdown protocol due to {}", protocolException.toString());
-                                }
-
-                                try {
-                                    if (peer != null) {
-                                        peer.close();
-                                    }
-                                } catch (final Exception peerException) {
-                                    LOG.warn("Failed to close peer due to {}; some resources may not be appropriately cleaned up", peerException.toString());
-                                }
-                                LOG.trace("Finished cleaning up");
-                            }
-                        }
-                    });
-                    thread.setName("Site-to-Site Worker Thread-" + (threadCount++));
-                    LOG.debug("Handing connection to {}", thread);
-                    thread.start();
+            final DataInputStream dis = new DataInputStream(socketIn);
+            final DataOutputStream dos = new DataOutputStream(socketOut);
+
+            // ensure that we are communicating with another NiFi
+            LOG.debug("Verifying magic bytes...");
+            verifyMagicBytes(dis, peerUri);
+
+            LOG.debug("Receiving Server Protocol Negotiation");
+            final ServerProtocol protocol = RemoteResourceFactory.receiveServerProtocolNegotiation(dis, dos);
+            protocol.setRootProcessGroup(rootGroup.get());
+            protocol.setNodeInformant(nodeInformant);
+
+            final PeerDescription description = new PeerDescription("localhost", getPort(), sslContext != null);
+            peer = new Peer(description, commsSession, peerUri, "nifi://localhost:" + getPort());
+            LOG.debug("Handshaking....");
+            protocol.handshake(peer);
+
+            if (!protocol.isHandshakeSuccessful()) {
+                LOG.error("Handshake failed with {}; closing connection", peer);
+                return false;
+            }
+
+            commsSession.setTimeout((int) protocol.getRequestExpiration());
+            this.protocol = protocol;
+
+            LOG.info("Successfully negotiated ServerProtocol {} Version {} with {}", new Object[]{
+                protocol.getResourceName(), protocol.getVersionNegotiator().getVersion(), peer});
+            return true;
+        }
+
+        /**
+         * Serves requests from the peer for as long as their data is already available and the listener is running.
+         *
+         * @return <code>true</code> if the connection should wait for the peer's next request, <code>false</code> if it should be closed
+         */
+        private boolean serviceRequests() throws Exception {
+            while (!protocol.isShutdown() && !stopped.get()) {
+                if (!commsSession.isDataAvailable()) {
+                    if (readable) {
+                        // the selector reported the channel as readable but there is no data, so the peer has closed it
+                        LOG.debug("{} closed the connection", peer);
+                        return false;
+                    }
+
+                    LOG.trace("No request available from {}; waiting for the next one", peer);
+                    return true;
+                }
+                readable = false;
+
+                LOG.trace("Getting Protocol Request Type...");
+                final RequestType requestType = protocol.getRequestType(peer);
+
+                LOG.debug("Request type from {} is {}", protocol, requestType);
+                switch (requestType) {
+                    case NEGOTIATE_FLOWFILE_CODEC:
+                        protocol.negotiateCodec(peer);
+                        break;
+                    case RECEIVE_FLOWFILES:
+                        // peer wants to receive FlowFiles, so we will transfer FlowFiles.
+                        protocol.getPort().transferFlowFiles(peer, protocol);
+                        break;
+                    case SEND_FLOWFILES:
+                        // Peer wants to send FlowFiles, so we will receive.
+                        protocol.getPort().receiveFlowFiles(peer, protocol);
+                        break;
+                    case REQUEST_PEER_LIST:
+                        final Optional<ClusterNodeInformation> nodeInfo = (nodeInformant == null) ? Optional.empty() : Optional.of(nodeInformant.getNodeInformation());
+                        protocol.sendPeerList(
+                                peer,
+                                nodeInfo,
+                                nifiProperties.getRemoteInputHost(),
+                                nifiProperties.getRemoteInputPort(),
+                                nifiProperties.getRemoteInputHttpPort(),
+                                nifiProperties.isSiteToSiteSecure());
+                        break;
+                    case SHUTDOWN:
+                        protocol.shutdown(peer);
+                        break;
                 }
             }
-        });
-        listenerThread.setName("Site-to-Site Listener");
-        listenerThread.start();
+
+            LOG.debug("Finished communicating with {} ({})", peer, protocol);
+            return false;
+        }
+
+        private void park() {
+            if (stopped.get()) {
+                close();
+                return;
+            }
+
+            connectionsToPark.add(this);
+
+            // If the listener was stopped in the meantime, it may already have closed the connections that were waiting to
+            // be parked, so close this one unless the listener has taken it.
+            if (stopped.get() && connectionsToPark.remove(this)) {
+                close();
+                return;
+            }
+
+            final Selector selector = SocketRemoteSiteListener.this.selector;
+            if (selector != null) {
+                selector.wakeup();
+            }
+        }
+
+        private void close() {
+            LOG.trace("Cleaning up");
+            try {
+                if (protocol != null && peer != null && !protocol.isShutdown()) {
+                    protocol.shutdown(peer);
+                }
+            } catch (final Exception protocolException) {
+                LOG.warn("Failed to shutdown protocol due to {}", protocolException.toString());
+            }
+
+            try {
+                if (peer != null) {
+                    peer.close();
+                } else if (commsSession != null) {
+                    commsSession.close();
+                } else {
+                    socketChannel.close();
+                }
+            } catch (final Exception peerException) {
+                LOG.warn("Failed to close peer due to {}; some resources may not be appropriately cleaned up", peerException.toString());
+            }
+            LOG.trace("Finished cleaning up");
+        }
+
+        @Override
+        public String toString() {
+            return "PeerConnection[" + (peerUri == null ? socketChannel : peerUri) + "]";
+        }
     }
 
     private int getPort() {
@@ -340,6 +547,11 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
     @Override
     public void stop() {
         stopped.set(true);
+
+        final Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
     }
 
     private void verifyMagicBytes(final InputStream in, final String peerDescription) throws IOException, HandshakeException {
@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -42,6 +43,7 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.io.InputStreamCallback;
+import org.apache.nifi.remote.client.PeerStatistics;
 import org.apache.nifi.remote.client.SiteToSiteClient;
 import org.apache.nifi.remote.exception.PortNotRunningException;
 import org.apache.nifi.remote.exception.ProtocolException;
@@ -60,6 +62,8 @@ import org.slf4j.LoggerFactory;
 public class StandardRemoteGroupPort extends RemoteGroupPort {
 
     private static final long BATCH_SEND_NANOS = TimeUnit.MILLISECONDS.toNanos(500L); // send batches of up to 500 millis
+    private static final long MAX_BATCH_SEND_NANOS = TimeUnit.SECONDS.toNanos(2L);
+    private static final int MAX_BATCHES_PER_TRIGGER = 4;
     public static final String USER_AGENT = "NiFi-Site-to-Site";
     public static final String CONTENT_TYPE = "application/octet-stream";
 
@@ -78,6 +82,9 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
 
     private final AtomicReference<SiteToSiteClient> clientRef = new AtomicReference<>();
 
+    // average time spent waiting for the remote instance to confirm and commit a transaction after its data was sent
+    private volatile long averageCommitNanos = 0L;
+
     SiteToSiteClient getSiteToSiteClient() {
         return clientRef.get();
     }
@@ -252,18 +259,78 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         return remoteGroup.getYieldDuration();
     }
 
-    private int transferFlowFiles(final Transaction transaction, final ProcessContext context, final ProcessSession session, final FlowFile firstFlowFile) throws IOException, ProtocolException {
+    /**
+     * Sends the queued FlowFiles in up to {@link #MAX_BATCHES_PER_TRIGGER} sequential batches, each in its own
+     * transaction. Each transaction is confirmed and completed before the next one is started, so only one transaction
+     * is open at a time. While there is more data queued than fits into a single batch, the next batch is started right
+     * away, possibly with a different peer, instead of waiting for the port to be triggered again.
+     *
+     * The FlowFiles of a batch are removed from the session and the session is committed as soon as its transaction has
+     * completed, so that a later failure cannot cause a completed batch to be sent again. If a transaction fails, its
+     * FlowFiles are returned to the queue.
+     *
+     * @return the number of FlowFiles that were sent
+     */
+    private int transferFlowFiles(final Transaction transaction, final ProcessContext context, final ProcessSession session, final FlowFile firstFlowFile) {
+        final long batchSendNanos = getBatchSendNanos();
+        final int maxBatches = getMaxBatches();
+
+        int flowFilesSent = 0;
+        int batchCount = 0;
+        Transaction currentTransaction = transaction;
         FlowFile flowFile = firstFlowFile;
+        while (true) {
+            final OutgoingBatch batch = new OutgoingBatch(currentTransaction);
+            batchCount++;
 
-        try {
-            final String userDn = transaction.getCommunicant().getDistinguishedName();
-            final long startSendingNanos = System.nanoTime();
-            final StopWatch stopWatch = new StopWatch(true);
-            long bytesSent = 0L;
-
-            final Set<FlowFile> flowFilesSent = new HashSet<>();
-            boolean continueTransaction = true;
-            while (continueTransaction) {
+            final boolean batchFull = sendBatch(batch, session, flowFile, batchSendNanos);
+            if (batch.failure == null) {
+                completeBatch(batch, session);
+            }
+
+            if (batch.failure != null) {
+                failBatch(batch, session);
+                break;
+            }
+
+            // the batch has been received by the peer, so it must not be sent again
+            session.commit();
+
+            flowFilesSent += batch.flowFiles.size();
+            if (!batchFull || batchCount >= maxBatches) {
+                break;
+            }
+
+            flowFile = session.get();
+            if (flowFile == null) {
+                break;
+            }
+
+            currentTransaction = createAdditionalTransaction();
+            if (currentTransaction == null) {
+                session.transfer(flowFile);
+                break;
+            }
+        }
+
+        return flowFilesSent;
+    }
+
+    /**
+     * Sends the given FlowFile and then further queued FlowFiles in the given batch's transaction, until no more are
+     * queued or the batch has been sending for the given amount of time.
+     *
+     * @return <code>true</code> if the batch stopped because its time was up, so more FlowFiles may be queued
+     */
+    private boolean sendBatch(final OutgoingBatch batch, final ProcessSession session, final FlowFile firstFlowFile, final long batchSendNanos) {
+        final Transaction transaction = batch.transaction;
+        final long startSendingNanos = System.nanoTime();
+        FlowFile flowFile = firstFlowFile;
+
+        while (flowFile != null) {
+            batch.flowFiles.add(flowFile);
+
+            try {
                 final long startNanos = System.nanoTime();
                 // call codec.encode within a session callback so that we have the InputStream to read the FlowFile
                 final FlowFile toWrap = flowFile;
@@ -276,48 +343,112 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
                 });
 
                 final long transferNanos = System.nanoTime() - startNanos;
-                final long transferMillis = TimeUnit.MILLISECONDS.convert(transferNanos, TimeUnit.NANOSECONDS);
-
-                flowFilesSent.add(flowFile);
-                bytesSent += flowFile.getSize();
+                batch.transferMillis.add(TimeUnit.MILLISECONDS.convert(transferNanos, TimeUnit.NANOSECONDS));
+                batch.transitUris.add(transaction.getCommunicant().createTransitUri(flowFile.getAttribute(CoreAttributes.UUID.key())));
+                batch.bytesSent += flowFile.getSize();
                 logger.debug("{} Sent {} to {}", this, flowFile, transaction.getCommunicant().getUrl());
+            } catch (final Exception e) {
+                batch.failure = e;
+                return false;
+            }
 
-                final String transitUri = transaction.getCommunicant().createTransitUri(flowFile.getAttribute(CoreAttributes.UUID.key()));
-                session.getProvenanceReporter().send(flowFile, transitUri, "Remote DN=" + userDn, transferMillis, false);
-                session.remove(flowFile);
+            if (System.nanoTime() - startSendingNanos >= batchSendNanos) {
+                return true;
+            }
 
-                final long sendingNanos = System.nanoTime() - startSendingNanos;
-                if (sendingNanos < BATCH_SEND_NANOS) {
-                    flowFile = session.get();
-                } else {
-                    flowFile = null;
-                }
+            flowFile = session.get();
+        }
 
-                continueTransaction = (flowFile != null);
-            }
+        return false;
+    }
 
+    private void completeBatch(final OutgoingBatch batch, final ProcessSession session) {
+        final Transaction transaction = batch.transaction;
+
+        try {
+            final long startCommitNanos = System.nanoTime();
             transaction.confirm();
+            transaction.complete();
+            updateAverageCommitNanos(System.nanoTime() - startCommitNanos);
+        } catch (final Exception e) {
+            batch.failure = e;
+            return;
+        }
 
-            // consume input stream entirely, ignoring its contents. If we
-            // don't do this, the Connection will not be returned to the pool
-            stopWatch.stop();
-            final String uploadDataRate = stopWatch.calculateDataRate(bytesSent);
-            final long uploadMillis = stopWatch.getDuration(TimeUnit.MILLISECONDS);
-            final String dataSize = FormatUtils.formatDataSize(bytesSent);
+        batch.stopWatch.stop();
+        final String userDn = transaction.getCommunicant().getDistinguishedName();
+        for (int i = 0; i < batch.flowFiles.size(); i++) {
+            final FlowFile flowFile = batch.flowFiles.get(i);
+            session.getProvenanceReporter().send(flowFile, batch.transitUris.get(i), "Remote DN=" + userDn, batch.transferMillis.get(i), false);
+            session.remove(flowFile);
+        }
 
-            transaction.complete();
-            session.commit();
+        final String uploadDataRate = batch.stopWatch.calculateDataRate(batch.bytesSent);
+        final long uploadMillis = batch.stopWatch.getDuration(TimeUnit.MILLISECONDS);
+        final String dataSize = FormatUtils.formatDataSize(batch.bytesSent);
+        final String flowFileDescription = (batch.flowFiles.size() < 20) ? batch.flowFiles.toString() : batch.flowFiles.size() + " FlowFiles";
+        logger.info("{} Successfully sent {} ({}) to {} in {} milliseconds at a rate of {}", new Object[]{
+            this, flowFileDescription, dataSize, transaction.getCommunicant().getUrl(), uploadMillis, uploadDataRate});
+    }
 
-            final String flowFileDescription = (flowFilesSent.size() < 20) ? flowFilesSent.toString() : flowFilesSent.size() + " FlowFiles";
-            logger.info("{} Successfully sent {} ({}) to {} in {} milliseconds at a rate of {}", new Object[]{
-                this, flowFileDescription, dataSize, transaction.getCommunicant().getUrl(), uploadMillis, uploadDataRate});
+    private void failBatch(final OutgoingBatch batch, final ProcessSession session) {
+        final String message = String.format("%s failed to communicate with remote NiFi instance due to %s", this, batch.failure.toString());
+        logger.error("{} failed to communicate with remote NiFi instance due to {}", this, batch.failure.toString());
+        if (logger.isDebugEnabled()) {
+            logger.error("", batch.failure);
+        }
 
-            return flowFilesSent.size();
+        remoteGroup.getEventReporter().reportEvent(Severity.ERROR, CATEGORY, message);
+        batch.transaction.error();
+
+        // return the FlowFiles to the queue so that they are sent again
+        session.transfer(batch.flowFiles);
+    }
+
+    /**
+     * @return a new transaction to send additional data in, or <code>null</code> if one could not be created, in which
+     *         case the remaining data is sent the next time that the port is triggered
+     */
+    private Transaction createAdditionalTransaction() {
+        try {
+            return getSiteToSiteClient().createTransaction(transferDirection);
         } catch (final Exception e) {
-            session.rollback();
-            throw e;
+            logger.debug("{} Unable to create an additional transaction due to {}; will send the remaining data later", this, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * @return how long to keep sending data in a single transaction. This grows with the time that the remote instance
+     *         has recently taken to commit a transaction, so that slow commits are spread over more data.
+     */
+    long getBatchSendNanos() {
+        return Math.min(MAX_BATCH_SEND_NANOS, Math.max(BATCH_SEND_NANOS, 4L * averageCommitNanos));
+    }
+
+    private void updateAverageCommitNanos(final long commitNanos) {
+        final long average = averageCommitNanos;
+        averageCommitNanos = (average == 0L) ? commitNanos : average + (commitNanos - average) * 3L / 10L;
+    }
+
+    /**
+     * @return the number of batches to send one after the other each time the port is triggered, which is limited to
+     *         the number of peers that are not currently penalized so that the data is not all sent to a single peer
+     */
+    private int getMaxBatches() {
+        final Collection<PeerStatistics> peerStatistics = getSiteToSiteClient().getPeerStatistics();
+        if (peerStatistics == null) {
+            return 1;
+        }
+
+        int availablePeers = 0;
+        for (final PeerStatistics statistics : peerStatistics) {
+            if (!statistics.isPenalized()) {
+                availablePeers++;
+            }
         }
 
+        return Math.max(1, Math.min(MAX_BATCHES_PER_TRIGGER, availablePeers));
     }
 
     private int receiveFlowFiles(final Transaction transaction, final ProcessContext context, final ProcessSession session) throws IOException, ProtocolException {
@@ -472,4 +603,21 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
     public String getComponentType() {
         return "RemoteGroupPort";
     }
+
+    /**
+     * The FlowFiles that are sent in a single transaction.
+     */
+    private static class OutgoingBatch {
+        private final Transaction transaction;
+        private final StopWatch stopWatch = new StopWatch(true);
+        private final List<FlowFile> flowFiles = new ArrayList<>();
+        private final List<String> transitUris = new ArrayList<>();
+        private final List<Long> transferMillis = new ArrayList<>();
+        private long bytesSent = 0L;
+        private Exception failure;
+
+        OutgoingBatch(final Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
 }
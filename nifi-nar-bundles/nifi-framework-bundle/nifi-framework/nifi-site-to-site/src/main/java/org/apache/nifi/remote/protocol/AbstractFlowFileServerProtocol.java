@@ -213,6 +213,7 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
         }
 
         logger.debug("{} Sending FlowFiles to {}", this, peer);
+        codec.reset();
         final CommunicationsSession commsSession = peer.getCommunicationsSession();
         String remoteDn = commsSession.getUserDn();
         if (remoteDn == null) {
@@ -414,6 +415,7 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
         }
 
         logger.debug("{} receiving FlowFiles from {}", this, peer);
+        codec.reset();
 
         final CommunicationsSession commsSession = peer.getCommunicationsSession();
         final DataInputStream dis = new DataInputStream(commsSession.getInput().getInputStream());
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote;
+
+import org.apache.nifi.connectable.Port;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.remote.protocol.CommunicationsSession;
+import org.apache.nifi.remote.protocol.HandshakeProperty;
+import org.apache.nifi.remote.protocol.RequestType;
+import org.apache.nifi.remote.protocol.Response;
+import org.apache.nifi.remote.protocol.ResponseCode;
+import org.apache.nifi.remote.protocol.ServerProtocol;
+import org.apache.nifi.remote.protocol.socket.SocketFlowFileServerProtocol;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestSocketRemoteSiteListener {
+
+    private static final String PORT_ID = "input-port";
+    private static final String LISTENER_THREAD_NAME = "Site-to-Site Listener";
+
+    private RootGroupPort port;
+    private SocketRemoteSiteListener listener;
+    private int listenerPort;
+
+    @BeforeClass
+    public static void setupProperties() {
+        System.setProperty(NiFiProperties.PROPERTIES_FILE_PATH, "src/test/resources/nifi.properties");
+    }
+
+    @Before
+    public void startListener() throws IOException {
+        try (final ServerSocket serverSocket = new ServerSocket(0)) {
+            listenerPort = serverSocket.getLocalPort();
+        }
+
+        final PortAuthorizationResult authorized = mock(PortAuthorizationResult.class);
+        when(authorized.isAuthorized()).thenReturn(true);
+
+        port = mock(RootGroupPort.class);
+        when(port.checkUserAuthorization(anyString())).thenReturn(authorized);
+        when(port.isValid()).thenReturn(true);
+        when(port.isRunning()).thenReturn(true);
+
+        final ProcessGroup rootGroup = mock(ProcessGroup.class);
+        when(rootGroup.isRootGroup()).thenReturn(true);
+        when(rootGroup.getInputPort(PORT_ID)).thenReturn(port);
+        when(rootGroup.getInputPorts()).thenReturn(Collections.<Port> singleton(port));
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.REMOTE_INPUT_SOCKET_THREADS, "2");
+        listener = new SocketRemoteSiteListener(listenerPort, null, NiFiProperties.createBasicNiFiProperties(null, properties));
+        listener.setRootGroup(rootGroup);
+        listener.start();
+    }
+
+    @After
+    public void stopListener() throws InterruptedException {
+        listener.stop();
+        waitForListenerToStop();
+    }
+
+    @Test
+    public void testTransferOverSocket() throws Exception {
+        when(port.transferFlowFiles(any(Peer.class), any(ServerProtocol.class))).thenAnswer(invocation -> {
+            writeTransfer((Peer) invocation.getArguments()[0]);
+            return 1;
+        });
+
+        try (final Socket socket = connect(30000L)) {
+            final DataInputStream dis = new DataInputStream(socket.getInputStream());
+            final DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+
+            // the connection waits with the selector between requests, so each request must be handed to a worker again
+            for (int i = 0; i < 2; i++) {
+                RequestType.RECEIVE_FLOWFILES.writeRequestType(dos);
+                dos.flush();
+                assertEquals("flowfiles", dis.readUTF());
+            }
+        }
+
+        verify(port, times(2)).transferFlowFiles(any(Peer.class), any(ServerProtocol.class));
+    }
+
+    @Test
+    public void testIdleConnectionIsClosed() throws Exception {
+        try (final Socket socket = connect(100L)) {
+            // no request is sent, so the connection is closed once it has been idle for twice the request expiration
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    @Test
+    public void testStopWhileServingConnection() throws Exception {
+        final CountDownLatch serving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(port.transferFlowFiles(any(Peer.class), any(ServerProtocol.class))).thenAnswer(invocation -> {
+            serving.countDown();
+            release.await(10L, TimeUnit.SECONDS);
+            writeTransfer((Peer) invocation.getArguments()[0]);
+            return 1;
+        });
+
+        try (final Socket socket = connect(30000L)) {
+            final DataInputStream dis = new DataInputStream(socket.getInputStream());
+            final DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+
+            RequestType.RECEIVE_FLOWFILES.writeRequestType(dos);
+            dos.flush();
+            assertTrue(serving.await(10L, TimeUnit.SECONDS));
+
+            listener.stop();
+            waitForListenerToStop();
+
+            // the transfer in progress must complete on the open connection, which is closed only once it is done
+            release.countDown();
+            assertEquals("flowfiles", dis.readUTF());
+            assertEquals(-1, dis.read());
+        }
+    }
+
+    /**
+     * Connects to the listener and performs the protocol negotiation and handshake as a Site-to-Site client would
+     */
+    private Socket connect(final long requestExpirationMillis) throws IOException {
+        final Socket socket = new Socket("localhost", listenerPort);
+        socket.setSoTimeout(10000);
+
+        final DataInputStream dis = new DataInputStream(socket.getInputStream());
+        final DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+
+        dos.write(CommunicationsSession.MAGIC_BYTES);
+        dos.writeUTF(SocketFlowFileServerProtocol.RESOURCE_NAME);
+        dos.writeInt(6);
+        dos.flush();
+        assertEquals(RemoteResourceInitiator.RESOURCE_OK, dis.read());
+
+        dos.writeUTF("test-client");
+        dos.writeUTF("nifi://localhost/");
+        dos.writeInt(3);
+        dos.writeUTF(HandshakeProperty.GZIP.name());
+        dos.writeUTF("false");
+        dos.writeUTF(HandshakeProperty.REQUEST_EXPIRATION_MILLIS.name());
+        dos.writeUTF(String.valueOf(requestExpirationMillis));
+        dos.writeUTF(HandshakeProperty.PORT_IDENTIFIER.name());
+        dos.writeUTF(PORT_ID);
+        dos.flush();
+        assertEquals(ResponseCode.PROPERTIES_OK, Response.read(dis).getCode());
+
+        return socket;
+    }
+
+    private static void writeTransfer(final Peer peer) throws IOException {
+        final DataOutputStream out = new DataOutputStream(peer.getCommunicationsSession().getOutput().getOutputStream());
+        out.writeUTF("flowfiles");
+        out.flush();
+    }
+
+    private static void waitForListenerToStop() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (isListenerRunning()) {
+            assertTrue("Site-to-Site listener did not stop", System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+    private static boolean isListenerRunning() {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (LISTENER_THREAD_NAME.equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.nifi.groups.RemoteProcessGroup;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.provenance.ProvenanceReporter;
+import org.apache.nifi.remote.client.PeerStatistics;
 import org.apache.nifi.remote.client.SiteToSiteClient;
 import org.apache.nifi.remote.io.http.HttpCommunicationsSession;
 import org.apache.nifi.remote.io.socket.SocketChannelCommunicationsSession;
@@ -37,10 +38,14 @@ import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.stream.io.ByteArrayInputStream;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.nifi.util.NiFiProperties;
@@ -48,8 +53,12 @@ import org.apache.nifi.util.NiFiProperties;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class TestStandardRemoteGroupPort {
@@ -255,4 +264,56 @@ public class TestStandardRemoteGroupPort {
                 any(String.class), any(Long.class));
 
     }
+
+    @Test
+    public void testSendInMultipleTransactions() throws Exception {
+
+        setupMock(SiteToSiteTransportProtocol.RAW, TransferDirection.SEND);
+
+        final String peerUrl = "nifi://node1.example.com:9090";
+        final PeerDescription peerDescription = new PeerDescription("node1.example.com", 9090, false);
+        final PeerDescription otherPeerDescription = new PeerDescription("node2.example.com", 9090, false);
+        try (final SocketChannel socketChannel = SocketChannel.open()) {
+            final CommunicationsSession commsSession = new SocketChannelCommunicationsSession(socketChannel);
+            final Peer peer = new Peer(peerDescription, commsSession, peerUrl, REMOTE_CLUSTER_URL);
+
+            final Transaction secondTransaction = mock(Transaction.class);
+            doReturn(peer).when(transaction).getCommunicant();
+            doReturn(peer).when(secondTransaction).getCommunicant();
+            doReturn(transaction).doReturn(secondTransaction).when(siteToSiteClient).createTransaction(eq(TransferDirection.SEND));
+            doReturn(Arrays.asList(new PeerStatistics(peerDescription, 10, false, 0L, 0L, 0D), new PeerStatistics(otherPeerDescription, 10, false, 0L, 0L, 0D)))
+                .when(siteToSiteClient).getPeerStatistics();
+
+            final FlowFile firstFlowFile = mock(FlowFile.class);
+            final FlowFile secondFlowFile = mock(FlowFile.class);
+            doReturn(new QueueSize(2, 20)).when(session).getQueueSize();
+            doReturn(firstFlowFile).doReturn(secondFlowFile).doReturn(null).when(session).get();
+
+            // Every FlowFile fills a batch, so the second FlowFile is sent in another transaction.
+            doReturn(0L).when(port).getBatchSendNanos();
+            doThrow(new IOException("Intentional failure")).when(secondTransaction).confirm();
+
+            port.onTrigger(context, session);
+
+            // The first transaction is completed and committed locally before the second one is started.
+            final InOrder inOrder = inOrder(transaction, session, siteToSiteClient, secondTransaction);
+            inOrder.verify(transaction).confirm();
+            inOrder.verify(transaction).complete();
+            inOrder.verify(session).commit();
+            inOrder.verify(siteToSiteClient).createTransaction(eq(TransferDirection.SEND));
+            inOrder.verify(secondTransaction).confirm();
+
+            verify(session).remove(firstFlowFile);
+            verify(provenanceReporter).send(eq(firstFlowFile), any(String.class), any(String.class), any(Long.class), eq(false));
+
+            // The failed transaction's FlowFile is returned to the queue rather than rolling back the whole session.
+            verify(secondTransaction).error();
+            verify(session).transfer(Collections.singletonList(secondFlowFile));
+            verify(session, never()).remove(secondFlowFile);
+            verify(session, never()).rollback();
+
+            // Once for the completed batch, and once by onTrigger for the FlowFile returned to the queue.
+            verify(session, times(2)).commit();
+        }
+    }
 }
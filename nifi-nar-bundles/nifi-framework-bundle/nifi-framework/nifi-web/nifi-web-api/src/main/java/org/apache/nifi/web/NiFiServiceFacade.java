@@ -308,6 +308,15 @@ public interface NiFiServiceFacade {
      */
     ControllerStatusDTO getControllerStatus();
 
+    /**
+     * Returns the controller status of the entire cluster, computed from the latest heartbeats of the connected nodes
+     * rather than by replicating the request. Returns null if this node is not the active Cluster Coordinator or if
+     * a recent heartbeat is not available for every connected node, in which case the request must be replicated.
+     *
+     * @return status
+     */
+    ControllerStatusDTO getClusterControllerStatus();
+
     /**
      * Updates the specified counter by setting its value to 0.
      *
@@ -506,6 +515,27 @@ public interface NiFiServiceFacade {
      */
     ProcessorEntity updateProcessor(Revision revision, ProcessorDTO processorDTO);
 
+    /**
+     * Verifies the specified processors can be updated, and that they are all within the specified ProcessGroup.
+     *
+     * @param processGroupId The ProcessGroup id
+     * @param processorDTOs processors
+     */
+    void verifyUpdateProcessors(String processGroupId, Set<ProcessorDTO> processorDTOs);
+
+    /**
+     * Updates the specified Processors, claiming all of their revisions at once. Every update is verified
+     * before any Processor is changed. If an update still fails once applied, for instance because a Processor
+     * cannot be started, the Processors that were already updated keep their changes and the flow is saved,
+     * but their revisions are not incremented.
+     *
+     * @param processGroupId The id of the ProcessGroup that all of the Processors must be within
+     * @param revisions Revisions to compare with the current base revisions
+     * @param processorDTOs The processorDTOs
+     * @return The updated processors
+     */
+    Set<ProcessorEntity> updateProcessors(String processGroupId, Set<Revision> revisions, Set<ProcessorDTO> processorDTOs);
+
     /**
      * Verifies the specified processor can be removed.
      *
@@ -48,6 +48,7 @@ import org.apache.nifi.cluster.coordination.node.DisconnectionCode;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionStatus;
 import org.apache.nifi.cluster.event.NodeEvent;
+import org.apache.nifi.cluster.manager.StatusMerger;
 import org.apache.nifi.cluster.manager.exception.UnknownNodeException;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.components.PropertyDescriptor;
@@ -86,6 +87,7 @@ import org.apache.nifi.reporting.Bulletin;
 import org.apache.nifi.reporting.BulletinQuery;
 import org.apache.nifi.reporting.BulletinRepository;
 import org.apache.nifi.reporting.ComponentType;
+import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
 import org.apache.nifi.web.api.dto.AccessPolicyDTO;
 import org.apache.nifi.web.api.dto.AccessPolicySummaryDTO;
@@ -231,6 +233,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -553,6 +556,79 @@ public class StandardNiFiServiceFacade implements NiFiServiceFacade {
         return entityFactory.createProcessorEntity(snapshot.getComponent(), dtoFactory.createRevisionDTO(snapshot.getLastModification()), permissions, status, bulletinEntities);
     }
 
+    @Override
+    public void verifyUpdateProcessors(final String processGroupId, final Set<ProcessorDTO> processorDTOs) {
+        final ProcessGroup group = processGroupDAO.getProcessGroup(processGroupId);
+        for (final ProcessorDTO processorDTO : processorDTOs) {
+            if (group.findProcessor(processorDTO.getId()) == null) {
+                throw new IllegalArgumentException(String.format("Processor %s is not within Process Group %s.", processorDTO.getId(), processGroupId));
+            }
+
+            processorDAO.verifyUpdate(processorDTO);
+        }
+    }
+
+    @Override
+    public Set<ProcessorEntity> updateProcessors(final String processGroupId, final Set<Revision> revisions, final Set<ProcessorDTO> processorDTOs) {
+        final NiFiUser user = NiFiUserUtils.getNiFiUser();
+
+        final RevisionUpdate<Set<ProcessorDTO>> snapshot;
+        try {
+            snapshot = revisionManager.updateRevision(new StandardRevisionClaim(revisions), user, new UpdateRevisionTask<Set<ProcessorDTO>>() {
+                @Override
+                public RevisionUpdate<Set<ProcessorDTO>> update() {
+                    // verify every processor before updating any of them, so that an invalid request changes nothing. A standalone
+                    // instance does not run the verification phase of the request, so this is where it is checked against the group.
+                    verifyUpdateProcessors(processGroupId, processorDTOs);
+
+                    // update each processor
+                    final Set<ProcessorDTO> updatedProcessors = new HashSet<>();
+                    try {
+                        for (final ProcessorDTO processorDTO : processorDTOs) {
+                            final ProcessorNode processorNode = processorDAO.updateProcessor(processorDTO);
+                            updatedProcessors.add(dtoFactory.createProcessorDto(processorNode));
+                        }
+                    } catch (final RuntimeException e) {
+                        // the processors updated before the failure keep their changes, so save them
+                        if (!updatedProcessors.isEmpty()) {
+                            controllerFacade.save();
+                        }
+                        throw e;
+                    }
+
+                    // save the flow once for all of the processors
+                    controllerFacade.save();
+
+                    // update the revisions
+                    final Set<Revision> updatedRevisions = new HashSet<>();
+                    for (final Revision revision : revisions) {
+                        final Revision currentRevision = revisionManager.getRevision(revision.getComponentId());
+                        updatedRevisions.add(currentRevision.incrementRevision(revision.getClientId()));
+                    }
+
+                    return new StandardRevisionUpdate<>(updatedProcessors, null, updatedRevisions);
+                }
+            });
+        } catch (final ExpiredRevisionClaimException erce) {
+            throw new InvalidRevisionException("Failed to update processors", erce);
+        }
+
+        final Map<String, Revision> updatedRevisions = snapshot.getUpdatedRevisions().stream()
+                .collect(Collectors.toMap(Revision::getComponentId, Function.identity()));
+
+        return snapshot.getComponent().stream()
+            .map(processorDTO -> {
+                final ProcessorNode processorNode = processorDAO.getProcessor(processorDTO.getId());
+                final RevisionDTO revision = dtoFactory.createRevisionDTO(new FlowModification(updatedRevisions.get(processorDTO.getId()), user.getIdentity()));
+                final PermissionsDTO permissions = dtoFactory.createPermissionsDto(processorNode);
+                final ProcessorStatusDTO status = dtoFactory.createProcessorStatusDto(controllerFacade.getProcessorStatus(processorNode.getIdentifier()));
+                final List<BulletinDTO> bulletins = dtoFactory.createBulletinDtos(bulletinRepository.findBulletinsForSource(processorNode.getIdentifier()));
+                final List<BulletinEntity> bulletinEntities = bulletins.stream().map(bulletin -> entityFactory.createBulletinEntity(bulletin, permissions.getCanRead())).collect(Collectors.toList());
+                return entityFactory.createProcessorEntity(processorDTO, revision, permissions, status, bulletinEntities);
+            })
+            .collect(Collectors.toSet());
+    }
+
     @Override
     public LabelEntity updateLabel(final Revision revision, final LabelDTO labelDTO) {
         final Label labelNode = labelDAO.getLabel(labelDTO.getId());
@@ -2153,6 +2229,39 @@ public class StandardNiFiServiceFacade implements NiFiServiceFacade {
         return controllerFacade.getControllerStatus();
     }
 
+    @Override
+    public ControllerStatusDTO getClusterControllerStatus() {
+        if (clusterCoordinator == null || heartbeatMonitor == null || !clusterCoordinator.isActiveClusterCoordinator()) {
+            return null;
+        }
+
+        // a heartbeat that is more than two intervals old may no longer reflect the node's queues
+        final long heartbeatMillis = FormatUtils.getTimeDuration(properties.getNodeHeartbeatInterval(), TimeUnit.MILLISECONDS);
+        final long oldestTimestamp = System.currentTimeMillis() - 2 * heartbeatMillis;
+
+        int activeThreadCount = 0;
+        int flowFilesQueued = 0;
+        long bytesQueued = 0L;
+        for (final NodeIdentifier nodeId : clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED)) {
+            final NodeHeartbeat heartbeat = heartbeatMonitor.getLatestHeartbeat(nodeId);
+            if (heartbeat == null || heartbeat.getTimestamp() < oldestTimestamp) {
+                return null;
+            }
+
+            activeThreadCount += heartbeat.getActiveThreadCount();
+            flowFilesQueued += heartbeat.getFlowFileCount();
+            bytesQueued += heartbeat.getFlowFileBytes();
+        }
+
+        // the component counts are the same on every node, so they are taken from this node as when merging responses
+        final ControllerStatusDTO controllerStatus = controllerFacade.getControllerStatus();
+        controllerStatus.setActiveThreadCount(activeThreadCount);
+        controllerStatus.setFlowFilesQueued(flowFilesQueued);
+        controllerStatus.setBytesQueued(bytesQueued);
+        StatusMerger.updatePrettyPrintedFields(controllerStatus);
+        return controllerStatus;
+    }
+
     @Override
     public ComponentStateDTO getProcessorState(final String processorId) {
         final StateMap clusterState = isClustered() ? processorDAO.getState(processorId, Scope.CLUSTER) : null;
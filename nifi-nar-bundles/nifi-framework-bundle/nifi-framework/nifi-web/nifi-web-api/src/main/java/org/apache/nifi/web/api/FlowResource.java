@@ -744,12 +744,17 @@ public class FlowResource extends ApplicationResource {
 
         authorizeFlow();
 
+        final ControllerStatusDTO controllerStatus;
         if (isReplicateRequest()) {
-            return replicate(HttpMethod.GET);
+            // the Cluster Coordinator can answer from the nodes' heartbeats without waiting on every node
+            controllerStatus = serviceFacade.getClusterControllerStatus();
+            if (controllerStatus == null) {
+                return replicate(HttpMethod.GET);
+            }
+        } else {
+            controllerStatus = serviceFacade.getControllerStatus();
         }
 
-        final ControllerStatusDTO controllerStatus = serviceFacade.getControllerStatus();
-
         // create the response entity
         final ControllerStatusEntity entity = new ControllerStatusEntity();
         entity.setControllerStatus(controllerStatus);
@@ -98,8 +98,10 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * RESTful endpoint for managing a Group.
@@ -697,6 +699,117 @@ public class ProcessGroupResource extends ApplicationResource {
         return clusterContext(generateOkResponse(entity)).build();
     }
 
+    /**
+     * Updates a batch of processors in this process group, or in its descendant groups, at once. The request is
+     * replicated to each node once for the whole batch, and all of the processors are updated under a single revision
+     * claim, rather than once for each processor. Every update is verified before any processor is changed. If an
+     * update still fails once applied, the processors that were already updated keep their changes.
+     *
+     * @param httpServletRequest request
+     * @param groupId group id
+     * @param requestProcessorsEntity A processorsEntity holding the processors to update and their revisions.
+     * @return A processorsEntity.
+     * @throws InterruptedException if interrupted
+     */
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{id}/processors")
+    @ApiOperation(
+            value = "Updates a batch of processors in the specified Process Group",
+            response = ProcessorsEntity.class,
+            authorizations = {
+                    @Authorization(value = "Write - /processors/{uuid} - For every processor being updated", type = ""),
+                    @Authorization(value = "Read - any referenced Controller Services - /controller-services/{uuid}", type = "")
+            }
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 400, message = "NiFi was unable to complete the request because it was invalid. The request should not be retried without modification."),
+                    @ApiResponse(code = 401, message = "Client could not be authenticated."),
+                    @ApiResponse(code = 403, message = "Client is not authorized to make this request."),
+                    @ApiResponse(code = 404, message = "The specified resource could not be found."),
+                    @ApiResponse(code = 409, message = "The request was valid but NiFi was not in the appropriate state to process it. Retrying the same request later may be successful.")
+            }
+    )
+    public Response updateProcessors(
+            @Context final HttpServletRequest httpServletRequest,
+            @ApiParam(
+                    value = "The process group id.",
+                    required = true
+            )
+            @PathParam("id") final String groupId,
+            @ApiParam(
+                    value = "The processors to update, each with its revision and configuration details.",
+                    required = true
+            ) final ProcessorsEntity requestProcessorsEntity) throws InterruptedException {
+
+        if (requestProcessorsEntity == null || requestProcessorsEntity.getProcessors() == null || requestProcessorsEntity.getProcessors().isEmpty()) {
+            throw new IllegalArgumentException("Processors to update must be specified.");
+        }
+
+        final Set<String> processorIds = new HashSet<>();
+        for (final ProcessorEntity requestProcessorEntity : requestProcessorsEntity.getProcessors()) {
+            if (requestProcessorEntity.getComponent() == null || requestProcessorEntity.getComponent().getId() == null) {
+                throw new IllegalArgumentException("Processor details must be specified for every processor.");
+            }
+
+            if (requestProcessorEntity.getRevision() == null) {
+                throw new IllegalArgumentException("Revision must be specified for every processor.");
+            }
+
+            if (!processorIds.add(requestProcessorEntity.getComponent().getId())) {
+                throw new IllegalArgumentException(String.format("Processor %s is specified more than once.", requestProcessorEntity.getComponent().getId()));
+            }
+        }
+
+        if (isReplicateRequest()) {
+            return replicate(HttpMethod.PUT, requestProcessorsEntity);
+        }
+
+        // handle expects request (usually from the cluster manager)
+        final Set<Revision> requestRevisions = requestProcessorsEntity.getProcessors().stream()
+                .map(processorEntity -> getRevision(processorEntity, processorEntity.getComponent().getId()))
+                .collect(Collectors.toSet());
+        final Set<ProcessorDTO> requestProcessorDTOs = requestProcessorsEntity.getProcessors().stream()
+                .map(ProcessorEntity::getComponent)
+                .collect(Collectors.toSet());
+
+        return withWriteLock(
+                serviceFacade,
+                requestProcessorsEntity,
+                requestRevisions,
+                lookup -> {
+                    final NiFiUser user = NiFiUserUtils.getNiFiUser();
+
+                    for (final ProcessorDTO requestProcessorDTO : requestProcessorDTOs) {
+                        final ControllerServiceReferencingComponentAuthorizable authorizable = lookup.getProcessor(requestProcessorDTO.getId());
+                        authorizable.getAuthorizable().authorize(authorizer, RequestAction.WRITE, user);
+
+                        final ProcessorConfigDTO config = requestProcessorDTO.getConfig();
+                        if (config != null) {
+                            AuthorizeControllerServiceReference.authorizeControllerServiceReferences(config.getProperties(), authorizable, authorizer, lookup);
+                        }
+                    }
+                },
+                () -> serviceFacade.verifyUpdateProcessors(groupId, requestProcessorDTOs),
+                (revisions, processorsEntity) -> {
+                    final Set<ProcessorDTO> processorDTOs = processorsEntity.getProcessors().stream()
+                            .map(ProcessorEntity::getComponent)
+                            .collect(Collectors.toSet());
+
+                    // update the processors
+                    final Set<ProcessorEntity> processors = serviceFacade.updateProcessors(groupId, revisions, processorDTOs);
+
+                    // create the response entity
+                    final ProcessorsEntity entity = new ProcessorsEntity();
+                    entity.setProcessors(processorResource.populateRemainingProcessorEntitiesContent(processors));
+
+                    return clusterContext(generateOkResponse(entity)).build();
+                }
+        );
+    }
+
     // -----------
     // input ports
     // -----------
@@ -35,6 +35,7 @@ import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.authorization.user.NiFiUserUtils;
 import org.apache.nifi.cluster.coordination.ClusterCoordinator;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
+import org.apache.nifi.cluster.coordination.node.NodeHealth;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.remote.HttpRemoteSiteListener;
 import org.apache.nifi.remote.VersionNegotiator;
@@ -218,14 +219,17 @@ public class SiteToSiteResource extends ApplicationResource {
         if (properties.isNode()) {
             final Set<NodeIdentifier> nodeIds = clusterCoordinator.getNodeIdentifiers(NodeConnectionState.CONNECTED);
 
-            // TODO: Get total number of FlowFiles for each node
             for (final NodeIdentifier nodeId : nodeIds) {
                 final PeerDTO peer = new PeerDTO();
                 final String siteToSiteAddress = nodeId.getSiteToSiteAddress();
                 peer.setHostname(siteToSiteAddress == null ? nodeId.getApiAddress() : siteToSiteAddress);
                 peer.setPort(nodeId.getSiteToSiteHttpApiPort() == null ? nodeId.getApiPort() : nodeId.getSiteToSiteHttpApiPort());
                 peer.setSecure(nodeId.isSiteToSiteSecure());
-                peer.setFlowFileCount(0);
+                final NodeHealth nodeHealth = clusterCoordinator.getNodeHealth(nodeId);
+                if (nodeHealth != null) {
+                    peer.setFlowFileCount(nodeHealth.getFlowFileCount());
+                    peer.setHealthScore(nodeHealth.getHealthScore());
+                }
                 peers.add(peer);
             }
         } else {
@@ -599,6 +599,8 @@ public final class DtoFactory {
         dto.setBackPressureObjectThreshold(connection.getFlowFileQueue().getBackPressureObjectThreshold());
         dto.setBackPressureDataSizeThreshold(connection.getFlowFileQueue().getBackPressureDataSizeThreshold());
         dto.setFlowFileExpiration(connection.getFlowFileQueue().getFlowFileExpiration());
+        dto.setLoadBalanceStrategy(connection.getLoadBalanceStrategy().name());
+        dto.setLoadBalancePartitionAttribute(connection.getLoadBalancePartitionAttribute());
         dto.setPrioritizers(new ArrayList<String>());
         for (final FlowFilePrioritizer comparator : connection.getFlowFileQueue().getPriorities()) {
             dto.getPrioritizers().add(comparator.getClass().getCanonicalName());
@@ -2670,6 +2672,8 @@ public final class DtoFactory {
         copy.setBackPressureObjectThreshold(original.getBackPressureObjectThreshold());
         copy.setBackPressureDataSizeThreshold(original.getBackPressureDataSizeThreshold());
         copy.setPrioritizers(copy(original.getPrioritizers()));
+        copy.setLoadBalanceStrategy(original.getLoadBalanceStrategy());
+        copy.setLoadBalancePartitionAttribute(original.getLoadBalancePartitionAttribute());
         copy.setSource(original.getSource());
         copy.setzIndex(original.getzIndex());
         copy.setLabelIndex(original.getLabelIndex());
@@ -3010,6 +3014,7 @@ public final class DtoFactory {
             nodeDto.setNodeStartTime(new Date(nodeHeartbeat.getSystemStartTime()));
             nodeDto.setActiveThreadCount(nodeHeartbeat.getActiveThreadCount());
             nodeDto.setQueued(FormatUtils.formatCount(nodeHeartbeat.getFlowFileCount()) + " / " + FormatUtils.formatDataSize(nodeHeartbeat.getFlowFileBytes()));
+            nodeDto.setHealthScore(nodeHeartbeat.getHealthScore());
         }
 
         // populate node events
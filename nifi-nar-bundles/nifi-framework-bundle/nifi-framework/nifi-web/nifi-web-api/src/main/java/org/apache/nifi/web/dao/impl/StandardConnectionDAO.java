@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.web.dao.impl;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.authorization.Authorizer;
 import org.apache.nifi.authorization.RequestAction;
 import org.apache.nifi.authorization.resource.Authorizable;
@@ -24,6 +25,7 @@ import org.apache.nifi.authorization.user.NiFiUserUtils;
 import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.connectable.LoadBalanceStrategy;
 import org.apache.nifi.connectable.Position;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.exception.ValidationException;
@@ -177,6 +179,14 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
             connection.getFlowFileQueue().setPriorities(newPrioritizers);
         }
 
+        // update how the connection is load balanced across the cluster
+        if (isNotNull(connectionDTO.getLoadBalanceStrategy())) {
+            connection.setLoadBalanceStrategy(LoadBalanceStrategy.valueOf(connectionDTO.getLoadBalanceStrategy()));
+        }
+        if (isNotNull(connectionDTO.getLoadBalancePartitionAttribute())) {
+            connection.setLoadBalancePartitionAttribute(connectionDTO.getLoadBalancePartitionAttribute());
+        }
+
         // update the connection state
         if (isNotNull(connectionDTO.getBends())) {
             final List<Position> bendPoints = new ArrayList<>();
@@ -213,6 +223,16 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
                 validationErrors.add("Flow file expiration is not a valid time duration (ie 30 sec, 5 min)");
             }
         }
+        if (isNotNull(connectionDTO.getLoadBalanceStrategy())) {
+            try {
+                final LoadBalanceStrategy strategy = LoadBalanceStrategy.valueOf(connectionDTO.getLoadBalanceStrategy());
+                if (strategy == LoadBalanceStrategy.PARTITION_BY_ATTRIBUTE && StringUtils.isBlank(connectionDTO.getLoadBalancePartitionAttribute())) {
+                    validationErrors.add("A partition attribute is required when the load balance strategy is " + LoadBalanceStrategy.PARTITION_BY_ATTRIBUTE.name());
+                }
+            } catch (final IllegalArgumentException iae) {
+                validationErrors.add("Load balance strategy must be one of " + StringUtils.join(LoadBalanceStrategy.values(), ", "));
+            }
+        }
         if (isNotNull(connectionDTO.getLabelIndex())) {
             if (connectionDTO.getLabelIndex() < 0) {
                 validationErrors.add("The label index must be positive.");
@@ -430,6 +450,8 @@ public class StandardConnectionDAO extends ComponentDAO implements ConnectionDAO
                 connectionDTO.getBackPressureObjectThreshold(),
                 connectionDTO.getDestination(),
                 connectionDTO.getFlowFileExpiration(),
+                connectionDTO.getLoadBalanceStrategy(),
+                connectionDTO.getLoadBalancePartitionAttribute(),
                 connectionDTO.getName(),
                 connectionDTO.getPosition(),
                 connectionDTO.getPrioritizers(),
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.web;
+
+import org.apache.nifi.authorization.user.NiFiUser;
+import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.web.api.dto.DtoFactory;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.controller.ControllerFacade;
+import org.apache.nifi.web.dao.ProcessGroupDAO;
+import org.apache.nifi.web.dao.ProcessorDAO;
+import org.apache.nifi.web.revision.RevisionClaim;
+import org.apache.nifi.web.revision.RevisionManager;
+import org.apache.nifi.web.revision.UpdateRevisionTask;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestStandardNiFiServiceFacade {
+
+    private static final String GROUP_ID = "group-1";
+
+    private ProcessorDAO processorDAO;
+    private ControllerFacade controllerFacade;
+    private ProcessGroup processGroup;
+    private StandardNiFiServiceFacade serviceFacade;
+
+    private final ProcessorDTO processor1 = createProcessorDto("processor-1");
+    private final ProcessorDTO processor2 = createProcessorDto("processor-2");
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        processorDAO = mock(ProcessorDAO.class);
+        controllerFacade = mock(ControllerFacade.class);
+
+        // both processors are within the group
+        processGroup = mock(ProcessGroup.class);
+        when(processGroup.findProcessor(processor1.getId())).thenReturn(mock(ProcessorNode.class));
+        when(processGroup.findProcessor(processor2.getId())).thenReturn(mock(ProcessorNode.class));
+        final ProcessGroupDAO processGroupDAO = mock(ProcessGroupDAO.class);
+        when(processGroupDAO.getProcessGroup(GROUP_ID)).thenReturn(processGroup);
+
+        // run the update task as the revision manager would once the claim is obtained
+        final RevisionManager revisionManager = mock(RevisionManager.class);
+        when(revisionManager.updateRevision(any(RevisionClaim.class), any(NiFiUser.class), any(UpdateRevisionTask.class)))
+                .thenAnswer(invocation -> ((UpdateRevisionTask<?>) invocation.getArguments()[2]).update());
+
+        serviceFacade = new StandardNiFiServiceFacade();
+        serviceFacade.setProcessorDAO(processorDAO);
+        serviceFacade.setProcessGroupDAO(processGroupDAO);
+        serviceFacade.setControllerFacade(controllerFacade);
+        serviceFacade.setRevisionManager(revisionManager);
+        serviceFacade.setDtoFactory(mock(DtoFactory.class));
+    }
+
+    @Test
+    public void testUpdateProcessorsVerifiesAllBeforeUpdating() {
+        doThrow(new IllegalStateException("invalid")).when(processorDAO).verifyUpdate(processor2);
+
+        try {
+            serviceFacade.updateProcessors(GROUP_ID, createRevisions(), createProcessorDtos());
+            fail("Expected the update to fail verification");
+        } catch (final IllegalStateException expected) {
+            assertEquals("invalid", expected.getMessage());
+        }
+
+        verify(processorDAO, never()).updateProcessor(any(ProcessorDTO.class));
+        verify(controllerFacade, never()).save();
+    }
+
+    @Test
+    public void testUpdateProcessorsSavesProcessorsUpdatedBeforeFailure() {
+        when(processorDAO.updateProcessor(processor1)).thenReturn(mock(ProcessorNode.class));
+        when(processorDAO.updateProcessor(processor2)).thenThrow(new IllegalStateException("cannot start"));
+
+        try {
+            serviceFacade.updateProcessors(GROUP_ID, createRevisions(), createProcessorDtos());
+            fail("Expected the update to fail");
+        } catch (final IllegalStateException expected) {
+            assertEquals("cannot start", expected.getMessage());
+        }
+
+        verify(processorDAO, times(1)).updateProcessor(processor1);
+        verify(controllerFacade, times(1)).save();
+    }
+
+    @Test
+    public void testUpdateProcessorsRejectsProcessorOutsideGroup() {
+        // a standalone instance skips the verification phase, so the update itself must check the group
+        when(processGroup.findProcessor(processor2.getId())).thenReturn(null);
+
+        try {
+            serviceFacade.updateProcessors(GROUP_ID, createRevisions(), createProcessorDtos());
+            fail("Expected the update to reject a processor that is not within the group");
+        } catch (final IllegalArgumentException expected) {
+            assertEquals("Processor processor-2 is not within Process Group group-1.", expected.getMessage());
+        }
+
+        verify(processorDAO, never()).updateProcessor(any(ProcessorDTO.class));
+        verify(controllerFacade, never()).save();
+    }
+
+    private Set<ProcessorDTO> createProcessorDtos() {
+        // ordered so that the failing processor is always updated last
+        final Set<ProcessorDTO> processorDTOs = new LinkedHashSet<>();
+        processorDTOs.add(processor1);
+        processorDTOs.add(processor2);
+        return processorDTOs;
+    }
+
+    private Set<Revision> createRevisions() {
+        final Set<Revision> revisions = new LinkedHashSet<>();
+        revisions.add(new Revision(0L, "client-1", processor1.getId()));
+        revisions.add(new Revision(0L, "client-1", processor2.getId()));
+        return revisions;
+    }
+
+    private static ProcessorDTO createProcessorDto(final String id) {
+        final ProcessorDTO processorDTO = new ProcessorDTO();
+        processorDTO.setId(id);
+        return processorDTO;
+    }
+}
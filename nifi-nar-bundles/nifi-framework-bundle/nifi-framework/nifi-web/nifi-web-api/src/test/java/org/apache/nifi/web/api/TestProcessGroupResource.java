@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.web.api;
+
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.api.dto.RevisionDTO;
+import org.apache.nifi.web.api.entity.ProcessorEntity;
+import org.apache.nifi.web.api.entity.ProcessorsEntity;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class TestProcessGroupResource {
+
+    private static final String GROUP_ID = "root";
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateProcessorsRequiresProcessors() throws Exception {
+        getProcessGroupResource(new ArrayList<>()).updateProcessors(mock(HttpServletRequest.class), GROUP_ID, new ProcessorsEntity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateProcessorsRequiresRevisions() throws Exception {
+        final ProcessorEntity processor = createProcessorEntity("processor-1");
+        processor.setRevision(null);
+
+        getProcessGroupResource(new ArrayList<>()).updateProcessors(mock(HttpServletRequest.class), GROUP_ID, createProcessorsEntity(processor));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateProcessorsRejectsDuplicateProcessors() throws Exception {
+        // the entities differ, but both update the same processor
+        final ProcessorEntity duplicate = createProcessorEntity("processor-1");
+        duplicate.setId("processor-1-duplicate");
+        final ProcessorsEntity processorsEntity = createProcessorsEntity(createProcessorEntity("processor-1"), duplicate);
+
+        getProcessGroupResource(new ArrayList<>()).updateProcessors(mock(HttpServletRequest.class), GROUP_ID, processorsEntity);
+    }
+
+    @Test
+    public void testUpdateProcessorsReplicatesBatchOnce() throws Exception {
+        final List<Object> replicated = new ArrayList<>();
+        final ProcessorsEntity processorsEntity = createProcessorsEntity(createProcessorEntity("processor-1"), createProcessorEntity("processor-2"));
+
+        final Response response = getProcessGroupResource(replicated).updateProcessors(mock(HttpServletRequest.class), GROUP_ID, processorsEntity);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, replicated.size());
+        assertSame(processorsEntity, replicated.get(0));
+    }
+
+    private ProcessGroupResource getProcessGroupResource(final List<Object> replicated) {
+        return new ProcessGroupResource() {
+            @Override
+            boolean isReplicateRequest() {
+                return true;
+            }
+
+            @Override
+            protected Response replicate(final String method, final Object entity) {
+                assertEquals(HttpMethod.PUT, method);
+                replicated.add(entity);
+                return Response.ok(entity).build();
+            }
+        };
+    }
+
+    private ProcessorsEntity createProcessorsEntity(final ProcessorEntity... processors) {
+        final ProcessorsEntity processorsEntity = new ProcessorsEntity();
+        processorsEntity.setProcessors(new HashSet<>());
+        for (final ProcessorEntity processor : processors) {
+            processorsEntity.getProcessors().add(processor);
+        }
+        return processorsEntity;
+    }
+
+    private ProcessorEntity createProcessorEntity(final String id) {
+        final ProcessorDTO processor = new ProcessorDTO();
+        processor.setId(id);
+
+        final RevisionDTO revision = new RevisionDTO();
+        revision.setVersion(0L);
+
+        final ProcessorEntity processorEntity = new ProcessorEntity();
+        processorEntity.setId(id);
+        processorEntity.setComponent(processor);
+        processorEntity.setRevision(revision);
+        return processorEntity;
+    }
+}
@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -142,7 +143,7 @@ public class IndexConfiguration {
 
             final File lastDir = indexDirectories.get(indexDirectories.size() - 1);
             final long size = getSize(lastDir);
-            if (size > repoConfig.getDesiredIndexSize()) {
+            if (size > repoConfig.getDesiredIndexSize() || isPartitionDurationExceeded(lastDir, newIndexTimestamp)) {
                 final File newDir = addNewIndex(storageDirectory, provenanceLogFile, newIndexTimestamp);
                 indexDirectories.add(newDir);
                 return newDir;
@@ -154,6 +155,21 @@ public class IndexConfiguration {
         }
     }
 
+    /**
+     * Determines whether or not events with the given timestamp belong in a newer index than the given one because the
+     * index already spans the configured partition duration. Partitioning the indices by time allows entire indices to be
+     * deleted when their events expire.
+     */
+    private boolean isPartitionDurationExceeded(final File indexDirectory, final long eventTimestamp) {
+        final long partitionMillis = repoConfig.getIndexPartitionDuration(TimeUnit.MILLISECONDS);
+        if (partitionMillis <= 0L) {
+            return false;
+        }
+
+        final long indexStartTime = getIndexStartTime(indexDirectory);
+        return indexStartTime > -1L && eventTimestamp - indexStartTime >= partitionMillis;
+    }
+
     private File addNewIndex(final File storageDirectory, final File provenanceLogFile, final long newIndexTimestamp) {
         // Build the event time of the first record into the index's filename so that we can determine
         // which index files to look at when we perform a search. We use the timestamp of the first record
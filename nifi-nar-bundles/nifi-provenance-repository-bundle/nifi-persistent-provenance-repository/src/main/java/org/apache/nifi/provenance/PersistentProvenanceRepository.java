@@ -33,6 +33,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -86,9 +87,11 @@ import org.apache.nifi.provenance.lineage.Lineage;
 import org.apache.nifi.provenance.lineage.LineageComputationType;
 import org.apache.nifi.provenance.lucene.DeleteIndexAction;
 import org.apache.nifi.provenance.lucene.FieldNames;
+import org.apache.nifi.provenance.lucene.IndexCompactor;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.IndexSearch;
 import org.apache.nifi.provenance.lucene.IndexingAction;
+import org.apache.nifi.provenance.lucene.LineageCache;
 import org.apache.nifi.provenance.lucene.LineageQuery;
 import org.apache.nifi.provenance.lucene.LuceneUtil;
 import org.apache.nifi.provenance.lucene.SimpleIndexManager;
@@ -151,6 +154,8 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
     private final RepositoryConfiguration configuration;
     private final IndexConfiguration indexConfig;
     private final IndexManager indexManager;
+    private final LineageCache lineageCache;
+    private final IndexCompactor indexCompactor;
     private final boolean alwaysSync;
     private final int rolloverCheckMillis;
     private final int maxAttributeChars;
@@ -190,6 +195,8 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         configuration = null;
         indexConfig = null;
         indexManager = null;
+        lineageCache = null;
+        indexCompactor = null;
         alwaysSync = false;
         rolloverCheckMillis = 0;
         maxAttributeChars = 0;
@@ -228,10 +235,12 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         this.maxPartitionBytes = configuration.getMaxEventFileCapacity();
         this.indexConfig = new IndexConfiguration(configuration);
         this.indexManager = new SimpleIndexManager();
+        this.lineageCache = configuration.getLineageCacheSize() > 0 ? createLineageCache(configuration.getLineageCacheSize()) : null;
+        this.indexCompactor = configuration.getIndexCompactionInterval(TimeUnit.MILLISECONDS) > 0L ? new IndexCompactor(indexConfig) : null;
         this.alwaysSync = configuration.isAlwaysSync();
         this.rolloverCheckMillis = rolloverCheckMillis;
 
-        scheduledExecService = Executors.newScheduledThreadPool(3, new NamedThreadFactory("Provenance Maintenance Thread"));
+        scheduledExecService = Executors.newScheduledThreadPool(4, new NamedThreadFactory("Provenance Maintenance Thread"));
         queryExecService = Executors.newFixedThreadPool(configuration.getQueryThreadPoolSize(), new NamedThreadFactory("Provenance Query Thread"));
 
         // The number of rollover threads is a little bit arbitrary but comes from the idea that multiple storage directories generally
@@ -246,6 +255,11 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return indexManager;
     }
 
+    // protected in order to override for unit tests
+    protected LineageCache createLineageCache(final int maxEvents) {
+        return new LineageCache(maxEvents);
+    }
+
     @Override
     public void initialize(final EventReporter eventReporter, final Authorizer authorizer, final ProvenanceAuthorizableFactory resourceFactory) throws IOException {
         writeLock.lock();
@@ -310,6 +324,24 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                         }
                     }
                 }, PURGE_EVENT_MILLISECONDS, PURGE_EVENT_MILLISECONDS, TimeUnit.MILLISECONDS);
+
+                if (indexCompactor != null) {
+                    final long compactionMillis = configuration.getIndexCompactionInterval(TimeUnit.MILLISECONDS);
+                    scheduledExecService.scheduleWithFixedDelay(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                compactIndexes();
+                            } catch (final Exception e) {
+                                logger.error("Failed to compact Provenance Repository indices due to {}", e.toString());
+                                if (logger.isDebugEnabled()) {
+                                    logger.error("", e);
+                                }
+                                eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to compact Provenance Repository indices due to " + e.toString());
+                            }
+                        }
+                    }, compactionMillis, compactionMillis, TimeUnit.MILLISECONDS);
+                }
             }
 
             firstEventTimestamp = determineFirstEventTimestamp();
@@ -328,6 +360,8 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         final String rolloverTime = nifiProperties.getProperty(NiFiProperties.PROVENANCE_ROLLOVER_TIME, "5 mins");
         final String rolloverSize = nifiProperties.getProperty(NiFiProperties.PROVENANCE_ROLLOVER_SIZE, "100 MB");
         final String shardSize = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEX_SHARD_SIZE, "500 MB");
+        final String indexPartitionDuration = nifiProperties.getProperty("nifi.provenance.repository.index.partition.duration", "1 hour");
+        final String indexCompactionInterval = nifiProperties.getProperty("nifi.provenance.repository.index.compaction.interval", "1 hour");
         final int queryThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_QUERY_THREAD_POOL_SIZE, 2);
         final int indexThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_INDEX_THREAD_POOL_SIZE, 1);
         final int journalCount = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_JOURNAL_COUNT, 16);
@@ -358,6 +392,8 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             maxAttrChars = defaultMaxAttrChars;
         }
 
+        final int lineageCacheSize = nifiProperties.getIntegerProperty("nifi.provenance.repository.lineage.cache.size", 10000);
+
         final List<SearchableField> searchableFields = SearchableFieldParser.extractSearchableFields(indexedFieldString, true);
         final List<SearchableField> searchableAttributes = SearchableFieldParser.extractSearchableFields(indexedAttrString, false);
 
@@ -381,10 +417,17 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         config.setIndexThreadPoolSize(indexThreads);
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
+        config.setLineageCacheSize(lineageCacheSize);
 
         if (shardSize != null) {
             config.setDesiredIndexSize(DataUnit.parseDataSize(shardSize, DataUnit.B).longValue());
         }
+        if (indexPartitionDuration != null && !indexPartitionDuration.trim().isEmpty()) {
+            config.setIndexPartitionDuration(FormatUtils.getTimeDuration(indexPartitionDuration.trim(), TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        }
+        if (indexCompactionInterval != null && !indexCompactionInterval.trim().isEmpty()) {
+            config.setIndexCompactionInterval(FormatUtils.getTimeDuration(indexCompactionInterval.trim(), TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        }
 
         config.setAlwaysSync(alwaysSync);
 
@@ -979,8 +1022,11 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         // Age off the data.
         final Set<String> removed = new LinkedHashSet<>();
         for (File file : uniqueFilesToPurge) {
+            final File expiredFile = file;
+            final long expiredFileLastModified = file.lastModified();
             final String baseName = LuceneUtil.substringBefore(file.getName(), ".");
             ExpirationAction currentAction = null;
+            boolean expired = false;
             try {
                 for (final ExpirationAction action : expirationActions) {
                     currentAction = action;
@@ -993,11 +1039,11 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                     }
                 }
 
-                removed.add(baseName);
+                expired = true;
             } catch (final FileNotFoundException fnf) {
                 logger.warn("Failed to perform Expiration Action {} on Provenance Event file {} because the file no longer exists; will not "
                         + "perform additional Expiration Actions on this file", currentAction, file);
-                removed.add(baseName);
+                expired = true;
             } catch (final Throwable t) {
                 logger.warn("Failed to perform Expiration Action {} on Provenance Event file {} due to {}; will not perform additional "
                         + "Expiration Actions on this file at this time", currentAction, file, t.toString());
@@ -1006,6 +1052,13 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                         + " on Provenance Event file " + file + " due to " + t.toString() + "; will not perform additional Expiration Actions "
                         + "on this file at this time");
             }
+
+            if (expired) {
+                removed.add(baseName);
+                if (indexCompactor != null) {
+                    indexCompactor.eventFileExpired(expiredFile, expiredFileLastModified);
+                }
+            }
         }
 
         // Update the Map ID to Path map to not include the removed file
@@ -1033,6 +1086,12 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             logger.debug("After expiration, path map: {}", newPathMap);
         }
 
+        // Any cached lineage may reference events from the files that were just removed, and removing those
+        // files does not update the index, so we cannot rely on the index version to detect this.
+        if (!removed.isEmpty() && lineageCache != null) {
+            lineageCache.clear();
+        }
+
         purgeExpiredIndexes();
     }
 
@@ -1041,7 +1100,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         // whether or not we can delete any of the indexes. An index can be deleted if all of the
         // data that is associated with that index has already been deleted. In order to test this,
         // we will get the timestamp of the earliest event and then compare that to the latest timestamp
-        // that would be indexed by the earliest index. If the event occurred after the timestamp of
+        // that would be indexed by each index. If the event occurred after the timestamp of
         // the latest index, then we can just delete the entire index all together.
 
         // find all of the index directories
@@ -1051,15 +1110,6 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             return;
         }
 
-        // Indexes are named "index-XXX" where the XXX is the timestamp of the earliest event that
-        // could be in the index. Once we have finished with one index, we move on to another index,
-        // but we don't move on until we are finished with the previous index.
-        // Therefore, an efficient way to determine the latest timestamp of one index is to look at the
-        // timestamp of the next index (these could potentially overlap for one millisecond). This is
-        // efficient because we can determine the earliest timestamp of an index simply by looking at
-        // the name of the Index's directory.
-        final long latestTimestampOfFirstIndex = getIndexTimestamp(indexDirs.get(1));
-
         // Get the timestamp of the first event in the first Provenance Event Log File and the ID of the last event
         // in the event file.
         final List<File> logFiles = getSortedLogFiles();
@@ -1080,23 +1130,78 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                     + "events in the Provenance Repository may be inaccurate.", firstLogFile);
         }
 
-        // check if we can delete the index safely.
-        if (latestTimestampOfFirstIndex <= earliestEventTime) {
-            // we can safely delete the first index because the latest event in the index is an event
-            // that has already been expired from the repository.
-            final File indexingDirectory = indexDirs.get(0);
-            getIndexManager().removeIndex(indexingDirectory);
-            indexConfig.removeIndexDirectory(indexingDirectory);
-            deleteDirectory(indexingDirectory);
+        // Indexes are named "index-XXX" where the XXX is the timestamp of the earliest event that
+        // could be in the index. Each storage directory writes to only one index at a time, and once it
+        // has finished with one index it moves on to another index, but it doesn't move on until it is
+        // finished with the previous index. Therefore, an efficient way to determine the latest timestamp
+        // of one index is to look at the timestamp of the next index in the same storage directory (these
+        // could potentially overlap for one millisecond). This is efficient because we can determine the
+        // earliest timestamp of an index simply by looking at the name of the Index's directory.
+        // Because indexes are also partitioned by time, several of them may have expired since the last
+        // time that we checked, so we check all of them rather than only the first.
+        final Map<File, List<File>> indexDirsByStorageDir = new LinkedHashMap<>();
+        for (final File indexDir : indexDirs) {
+            final File storageDir = indexDir.getParentFile();
+            List<File> storageIndexDirs = indexDirsByStorageDir.get(storageDir);
+            if (storageIndexDirs == null) {
+                storageIndexDirs = new ArrayList<>();
+                indexDirsByStorageDir.put(storageDir, storageIndexDirs);
+            }
+            storageIndexDirs.add(indexDir);
+        }
+
+        boolean indexRemoved = false;
+        for (final List<File> storageIndexDirs : indexDirsByStorageDir.values()) {
+            for (int i = 0; i < storageIndexDirs.size() - 1; i++) {
+                final long latestTimestampOfIndex = getIndexTimestamp(storageIndexDirs.get(i + 1));
 
-            if (maxEventId > -1L) {
-                indexConfig.setMinIdIndexed(maxEventId + 1L);
+                // check if we can delete the index safely.
+                if (latestTimestampOfIndex > earliestEventTime) {
+                    break;
+                }
+
+                // we can safely delete the index because the latest event in the index is an event
+                // that has already been expired from the repository.
+                final File indexingDirectory = storageIndexDirs.get(i);
+                getIndexManager().removeIndex(indexingDirectory);
+                indexConfig.removeIndexDirectory(indexingDirectory);
+                if (lineageCache != null) {
+                    lineageCache.invalidate(indexingDirectory);
+                }
+                deleteDirectory(indexingDirectory);
+                indexRemoved = true;
+                logger.info("Removed expired index directory {}", indexingDirectory);
             }
         }
 
+        if (indexRemoved && maxEventId > -1L) {
+            indexConfig.setMinIdIndexed(maxEventId + 1L);
+        }
+
         this.firstEventTimestamp = earliestEventTime;
     }
 
+    /**
+     * Removes the documents of expired Provenance Event files from the indexes that still contain
+     * events that have not yet expired. This is synchronized with {@link #purgeOldEvents()} so that
+     * an index is not compacted while it is being deleted.
+     */
+    synchronized void compactIndexes() {
+        if (indexCompactor == null) {
+            return;
+        }
+
+        final int pendingFiles = indexCompactor.getPendingFileCount();
+        if (pendingFiles == 0) {
+            return;
+        }
+
+        final StopWatch stopWatch = new StopWatch(true);
+        final int compacted = indexCompactor.compact(getIndexManager());
+        stopWatch.stop();
+        logger.info("Removed documents for {} expired Provenance Event files from {} indexes in {}", pendingFiles, compacted, stopWatch.getDuration());
+    }
+
     private long determineFirstEventTimestamp() {
         // Get the timestamp of the first event in the first Provenance Event Log File and the ID of the last event
         // in the event file.
@@ -2586,7 +2691,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
             try {
                 final Set<ProvenanceEventRecord> matchingRecords = LineageQuery.computeLineageForFlowFiles(PersistentProvenanceRepository.this,
-                        getIndexManager(), indexDir, null, flowFileUuids, maxAttributeChars);
+                        getIndexManager(), lineageCache, indexDir, null, flowFileUuids, maxAttributeChars);
 
                 final StandardLineageResult result = submission.getResult();
                 result.update(replaceUnauthorizedWithPlaceholders(matchingRecords, user));
@@ -32,9 +32,12 @@ public class RepositoryConfiguration {
     private long eventFileMillis = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
     private long eventFileBytes = 1024L * 1024L * 5L;   // 5 MB
     private long desiredIndexBytes = 1024L * 1024L * 500L; // 500 MB
+    private long indexPartitionMillis = 0L;
+    private long indexCompactionMillis = 0L;
     private int journalCount = 16;
     private int compressionBlockBytes = 1024 * 1024;
     private int maxAttributeChars = 65536;
+    private int lineageCacheSize = 10000;
 
     private List<SearchableField> searchableFields = new ArrayList<>();
     private List<SearchableField> searchableAttributes = new ArrayList<>();
@@ -257,6 +260,54 @@ public class RepositoryConfiguration {
         return desiredIndexBytes;
     }
 
+    /**
+     * <p>
+     * Specifies the maximum amount of time that a single index shard may span. Once the events
+     * being indexed are newer than the shard's start time by this amount, a new shard is begun,
+     * even if the shard has not reached its desired size.
+     * </p>
+     *
+     * <p>
+     * Partitioning the index by time in this way means that, as events age off, entire shards
+     * can be deleted, rather than having to delete documents from a shard that also contains
+     * events that have not yet expired. A value of 0 means that shards are partitioned only by size.
+     * </p>
+     *
+     * @param duration the maximum amount of time that a single index shard may span
+     * @param timeUnit the unit of the duration
+     */
+    public void setIndexPartitionDuration(final long duration, final TimeUnit timeUnit) {
+        this.indexPartitionMillis = TimeUnit.MILLISECONDS.convert(duration, timeUnit);
+    }
+
+    /**
+     * @param timeUnit the unit in which to return the duration
+     * @return the maximum amount of time that a single index shard may span, or 0 if shards are partitioned only by size
+     */
+    public long getIndexPartitionDuration(final TimeUnit timeUnit) {
+        return timeUnit.convert(indexPartitionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Specifies how often the background compaction task removes the documents of expired
+     * event files from index shards that still contain events that have not expired. A value
+     * of 0 disables compaction, in which case such documents remain until the entire shard expires.
+     *
+     * @param interval how often to compact the index shards
+     * @param timeUnit the unit of the interval
+     */
+    public void setIndexCompactionInterval(final long interval, final TimeUnit timeUnit) {
+        this.indexCompactionMillis = TimeUnit.MILLISECONDS.convert(interval, timeUnit);
+    }
+
+    /**
+     * @param timeUnit the unit in which to return the interval
+     * @return how often index shards are compacted, or 0 if compaction is disabled
+     */
+    public long getIndexCompactionInterval(final TimeUnit timeUnit) {
+        return timeUnit.convert(indexCompactionMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * @param numJournals the number of Journal files to use when persisting records.
      */
@@ -310,4 +361,20 @@ public class RepositoryConfiguration {
         this.maxAttributeChars = maxAttributeChars;
     }
 
+    /**
+     * @return the maximum number of Provenance Events that will be cached in order to speed up
+     *         subsequent lineage computations for the same FlowFiles
+     */
+    public int getLineageCacheSize() {
+        return lineageCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of Provenance Events that will be cached in order to speed up subsequent
+     * lineage computations for the same FlowFiles. A value of 0 disables the cache.
+     */
+    public void setLineageCacheSize(final int lineageCacheSize) {
+        this.lineageCacheSize = lineageCacheSize;
+    }
+
 }
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.nifi.provenance.IndexConfiguration;
+import org.apache.nifi.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Removes the documents for expired Provenance Event files from the index shards that still hold events that have not
+ * yet expired. When an event file expires, the repository deletes only the file itself; an index shard is deleted as a
+ * whole once all of the events that it covers have expired. Until then, its documents for expired files cannot be used,
+ * but they still occupy space and are still visited by searches.
+ * </p>
+ *
+ * <p>
+ * Rather than deleting those documents one event file at a time as the files expire, which forces segment merges and
+ * heavy I/O in the middle of indexing, this class collects the names of the expired files and periodically deletes the
+ * documents for all of them at once, then rewrites any segments that contain many deleted documents. It is intended to be
+ * run from a background maintenance thread.
+ * </p>
+ */
+public class IndexCompactor {
+    private static final Logger logger = LoggerFactory.getLogger(IndexCompactor.class);
+
+    private final IndexConfiguration indexConfiguration;
+
+    // storage directory -> the expired event files in that directory
+    private final Map<File, ExpiredFiles> expiredFiles = new HashMap<>();
+
+    public IndexCompactor(final IndexConfiguration indexConfiguration) {
+        this.indexConfiguration = indexConfiguration;
+    }
+
+    /**
+     * Records that the given event file has expired, so that its documents will be removed from the index shards the next
+     * time that {@link #compact(IndexManager)} is called.
+     *
+     * @param eventFile the expired event file
+     * @param lastModified the time at which the event file was last modified, which is the latest time at which one of its
+     *            events could have been indexed
+     */
+    public synchronized void eventFileExpired(final File eventFile, final long lastModified) {
+        final File storageDirectory = eventFile.getParentFile().getAbsoluteFile();
+        ExpiredFiles files = expiredFiles.get(storageDirectory);
+        if (files == null) {
+            files = new ExpiredFiles();
+            expiredFiles.put(storageDirectory, files);
+        }
+
+        files.add(LuceneUtil.substringBefore(eventFile.getName(), "."), lastModified);
+    }
+
+    /**
+     * @return the number of expired event files whose documents have not yet been removed from the index
+     */
+    public synchronized int getPendingFileCount() {
+        int count = 0;
+        for (final ExpiredFiles files : expiredFiles.values()) {
+            count += files.basenames.size();
+        }
+        return count;
+    }
+
+    /**
+     * Removes the documents of all expired event files from the index shards in the same storage directory.
+     *
+     * @param indexManager the index manager to use for obtaining Index Writers
+     * @return the number of index shards that were compacted
+     */
+    public int compact(final IndexManager indexManager) {
+        final Map<File, ExpiredFiles> toCompact;
+        synchronized (this) {
+            if (expiredFiles.isEmpty()) {
+                return 0;
+            }
+
+            toCompact = new HashMap<>(expiredFiles);
+            expiredFiles.clear();
+        }
+
+        int compacted = 0;
+        for (final Map.Entry<File, ExpiredFiles> entry : toCompact.entrySet()) {
+            final File storageDirectory = entry.getKey();
+            final ExpiredFiles files = entry.getValue();
+
+            final Term[] terms = new Term[files.basenames.size()];
+            int i = 0;
+            for (final String basename : files.basenames) {
+                terms[i++] = new Term(FieldNames.STORAGE_FILENAME, basename);
+            }
+
+            boolean failed = false;
+            for (final File indexDirectory : getIndexDirectories(storageDirectory, files.latestModification)) {
+                try {
+                    compact(indexManager, indexDirectory, terms);
+                    compacted++;
+                } catch (final IOException ioe) {
+                    failed = true;
+                    logger.warn("Failed to remove documents for {} expired Provenance Event files from index {} due to {}; will try again later",
+                        terms.length, indexDirectory, ioe.toString());
+                    if (logger.isDebugEnabled()) {
+                        logger.warn("", ioe);
+                    }
+                }
+            }
+
+            if (failed) {
+                synchronized (this) {
+                    ExpiredFiles pending = expiredFiles.get(storageDirectory);
+                    if (pending == null) {
+                        pending = new ExpiredFiles();
+                        expiredFiles.put(storageDirectory, pending);
+                    }
+                    pending.addAll(files);
+                }
+            }
+        }
+
+        return compacted;
+    }
+
+    private void compact(final IndexManager indexManager, final File indexDirectory, final Term[] terms) throws IOException {
+        final StopWatch stopWatch = new StopWatch(true);
+
+        final IndexWriter writer = indexManager.borrowIndexWriter(indexDirectory);
+        try {
+            final int docsBefore = writer.numDocs();
+            writer.deleteDocuments(terms);
+
+            // Only segments with a significant portion of deleted documents are rewritten.
+            writer.forceMergeDeletes(true);
+            writer.commit();
+
+            stopWatch.stop();
+            logger.debug("Compacted index {} by removing {} documents for {} expired Provenance Event files in {}",
+                indexDirectory, docsBefore - writer.numDocs(), terms.length, stopWatch.getDuration());
+        } finally {
+            indexManager.returnIndexWriter(indexDirectory, writer);
+        }
+    }
+
+    /**
+     * Returns the index directories in the given storage directory that may contain documents for event files that were
+     * last modified no later than the given time. Because an index is named for the time of the earliest event that it
+     * may contain, any index that was started after that time cannot contain any of those documents.
+     */
+    private List<File> getIndexDirectories(final File storageDirectory, final long latestModification) {
+        final List<File> indexDirectories = new ArrayList<>();
+        for (final File indexDirectory : indexConfiguration.getIndexDirectories()) {
+            if (!storageDirectory.equals(indexDirectory.getParentFile().getAbsoluteFile()) || !indexDirectory.exists()) {
+                continue;
+            }
+
+            final Long indexStartTime = getIndexStartTime(indexDirectory);
+            if (indexStartTime == null || indexStartTime <= latestModification) {
+                indexDirectories.add(indexDirectory);
+            }
+        }
+        return indexDirectories;
+    }
+
+    private Long getIndexStartTime(final File indexDirectory) {
+        final String name = indexDirectory.getName();
+        try {
+            return Long.parseLong(name.substring(name.indexOf('-') + 1));
+        } catch (final NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private static class ExpiredFiles {
+        private final Set<String> basenames = new HashSet<>();
+        private long latestModification = 0L;
+
+        void add(final String basename, final long lastModified) {
+            basenames.add(basename);
+            latestModification = Math.max(latestModification, lastModified);
+        }
+
+        void addAll(final ExpiredFiles other) {
+            basenames.addAll(other.basenames);
+            latestModification = Math.max(latestModification, other.latestModification);
+        }
+    }
+}
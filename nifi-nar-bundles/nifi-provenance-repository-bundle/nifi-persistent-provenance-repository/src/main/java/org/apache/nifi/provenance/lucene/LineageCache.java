@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+
+/**
+ * <p>
+ * A bounded, LRU cache of the Provenance Events that make up the lineage of individual FlowFiles within a single
+ * index directory. Computing lineage requires a Lucene search followed by reading each of the matching events
+ * from the Provenance Event Log Files, which is expensive for FlowFiles that have a large number of events. Because
+ * the UI will often compute the lineage of the same FlowFiles repeatedly (when the lineage is opened and then again
+ * as parents and children are expanded), caching the events for each FlowFile avoids hitting the index over and over.
+ * </p>
+ *
+ * <p>
+ * Each entry is tagged with the version of the index that it was computed from. An entry is only returned if the
+ * index has not been updated since, so that the cache never returns a partial lineage.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by the total number of events that it holds, rather than by the number of FlowFiles.
+ * </p>
+ */
+public class LineageCache {
+    private final int maxEvents;
+
+    // guarded by synchronizing on 'this'
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(64, 0.75F, true);
+    private int eventCount = 0;
+
+    public LineageCache(final int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Returns the cached events for the given FlowFile in the given index directory, or <code>null</code> if
+     * there are no cached events or the events were computed against a different version of the index
+     *
+     * @param indexDirectory the index directory that the lineage was computed from
+     * @param indexVersion the current version of the index
+     * @param flowFileUuid the UUID of the FlowFile
+     * @return the cached events, or <code>null</code> if no valid entry exists
+     */
+    public synchronized Set<ProvenanceEventRecord> get(final File indexDirectory, final long indexVersion, final String flowFileUuid) {
+        final CacheKey key = new CacheKey(indexDirectory, flowFileUuid);
+        final CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.getIndexVersion() != indexVersion) {
+            entries.remove(key);
+            eventCount -= entry.getEvents().size();
+            return null;
+        }
+
+        return entry.getEvents();
+    }
+
+    /**
+     * Caches the events that make up the lineage of the given FlowFile in the given index directory. If the number of
+     * events exceeds the capacity of the cache, the events are not cached.
+     *
+     * @param indexDirectory the index directory that the lineage was computed from
+     * @param indexVersion the version of the index that the lineage was computed from
+     * @param flowFileUuid the UUID of the FlowFile
+     * @param events the events for the FlowFile
+     */
+    public synchronized void put(final File indexDirectory, final long indexVersion, final String flowFileUuid, final Set<ProvenanceEventRecord> events) {
+        if (events.size() > maxEvents) {
+            return;
+        }
+
+        final CacheEntry previous = entries.put(new CacheKey(indexDirectory, flowFileUuid), new CacheEntry(indexVersion, Collections.unmodifiableSet(events)));
+        if (previous != null) {
+            eventCount -= previous.getEvents().size();
+        }
+        eventCount += events.size();
+
+        final Iterator<CacheEntry> itr = entries.values().iterator();
+        while (eventCount > maxEvents && itr.hasNext()) {
+            final CacheEntry eldest = itr.next();
+            itr.remove();
+            eventCount -= eldest.getEvents().size();
+        }
+    }
+
+    /**
+     * Removes all cached lineage for the given index directory
+     *
+     * @param indexDirectory the index directory
+     */
+    public synchronized void invalidate(final File indexDirectory) {
+        final File absoluteDirectory = indexDirectory.getAbsoluteFile();
+        final Iterator<Map.Entry<CacheKey, CacheEntry>> itr = entries.entrySet().iterator();
+        while (itr.hasNext()) {
+            final Map.Entry<CacheKey, CacheEntry> entry = itr.next();
+            if (entry.getKey().getIndexDirectory().equals(absoluteDirectory)) {
+                itr.remove();
+                eventCount -= entry.getValue().getEvents().size();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached lineage
+     */
+    public synchronized void clear() {
+        entries.clear();
+        eventCount = 0;
+    }
+
+    /**
+     * @return the number of events that are currently cached
+     */
+    public synchronized int getEventCount() {
+        return eventCount;
+    }
+
+    private static class CacheKey {
+        private final File indexDirectory;
+        private final String flowFileUuid;
+
+        public CacheKey(final File indexDirectory, final String flowFileUuid) {
+            this.indexDirectory = indexDirectory.getAbsoluteFile();
+            this.flowFileUuid = flowFileUuid;
+        }
+
+        public File getIndexDirectory() {
+            return indexDirectory;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * indexDirectory.hashCode() + flowFileUuid.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+
+            final CacheKey other = (CacheKey) obj;
+            return indexDirectory.equals(other.indexDirectory) && flowFileUuid.equals(other.flowFileUuid);
+        }
+    }
+
+    private static class CacheEntry {
+        private final long indexVersion;
+        private final Set<ProvenanceEventRecord> events;
+
+        public CacheEntry(final long indexVersion, final Set<ProvenanceEventRecord> events) {
+            this.indexVersion = indexVersion;
+            this.events = events;
+        }
+
+        public long getIndexVersion() {
+            return indexVersion;
+        }
+
+        public Set<ProvenanceEventRecord> getEvents() {
+            return events;
+        }
+    }
+}
@@ -23,10 +23,16 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
@@ -48,6 +54,27 @@ public class LineageQuery {
 
     public static Set<ProvenanceEventRecord> computeLineageForFlowFiles(final PersistentProvenanceRepository repo, final IndexManager indexManager, final File indexDirectory,
             final String lineageIdentifier, final Collection<String> flowFileUuids, final int maxAttributeChars) throws IOException {
+        return computeLineageForFlowFiles(repo, indexManager, null, indexDirectory, lineageIdentifier, flowFileUuids, maxAttributeChars);
+    }
+
+    /**
+     * Computes the lineage for the given FlowFiles from the given index directory. If a {@link LineageCache} is provided,
+     * the events for any FlowFile whose lineage was already computed against the current version of the index are obtained
+     * from the cache, and only the remaining FlowFiles are searched for, using a single query against the index. The results
+     * of that query are then added to the cache.
+     *
+     * @param repo the repository
+     * @param indexManager the index manager to use for obtaining an IndexSearcher
+     * @param lineageCache the cache of previously computed lineage, or <code>null</code> if no caching should be performed
+     * @param indexDirectory the index directory to search
+     * @param lineageIdentifier the lineage identifier
+     * @param flowFileUuids the UUIDs of the FlowFiles whose lineage should be computed
+     * @param maxAttributeChars the maximum number of characters to retain for each attribute value
+     * @return the events that make up the lineage of the given FlowFiles
+     * @throws IOException if unable to search the index or read the events
+     */
+    public static Set<ProvenanceEventRecord> computeLineageForFlowFiles(final PersistentProvenanceRepository repo, final IndexManager indexManager, final LineageCache lineageCache,
+            final File indexDirectory, final String lineageIdentifier, final Collection<String> flowFileUuids, final int maxAttributeChars) throws IOException {
         if (requireNonNull(flowFileUuids).size() > MAX_LINEAGE_UUIDS) {
             throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.", MAX_LINEAGE_UUIDS, flowFileUuids.size()));
         }
@@ -60,18 +87,33 @@ public class LineageQuery {
         try {
             searcher = indexManager.borrowIndexSearcher(indexDirectory);
             try {
+                // Determine the version of the index, so that we know whether or not any cached lineage is still accurate.
+                final IndexReader indexReader = searcher.getIndexReader();
+                final Long indexVersion = (lineageCache != null && indexReader instanceof DirectoryReader) ? ((DirectoryReader) indexReader).getVersion() : null;
+
+                final Set<ProvenanceEventRecord> recs = new HashSet<>();
+                final Set<String> uncachedUuids = new LinkedHashSet<>();
+                for (final String flowFileUuid : flowFileUuids) {
+                    final Set<ProvenanceEventRecord> cached = indexVersion == null ? null : lineageCache.get(indexDirectory, indexVersion, flowFileUuid);
+                    if (cached == null) {
+                        uncachedUuids.add(flowFileUuid);
+                    } else {
+                        recs.addAll(cached);
+                    }
+                }
+
+                if (uncachedUuids.isEmpty()) {
+                    logger.debug("Lineage for {} in {} obtained entirely from cache", flowFileUuids, indexDirectory);
+                    return recs;
+                }
+
                 // Create a query for all Events related to the FlowFiles of interest. We do this by adding all ID's as
                 // "SHOULD" clauses and then setting the minimum required to 1.
-                final BooleanQuery flowFileIdQuery;
-                if (flowFileUuids == null || flowFileUuids.isEmpty()) {
-                    flowFileIdQuery = null;
-                } else {
-                    flowFileIdQuery = new BooleanQuery();
-                    for (final String flowFileUuid : flowFileUuids) {
-                        flowFileIdQuery.add(new TermQuery(new Term(SearchableFields.FlowFileUUID.getSearchableFieldName(), flowFileUuid)), Occur.SHOULD);
-                    }
-                    flowFileIdQuery.setMinimumNumberShouldMatch(1);
+                final BooleanQuery flowFileIdQuery = new BooleanQuery();
+                for (final String flowFileUuid : uncachedUuids) {
+                    flowFileIdQuery.add(new TermQuery(new Term(SearchableFields.FlowFileUUID.getSearchableFieldName(), flowFileUuid)), Occur.SHOULD);
                 }
+                flowFileIdQuery.setMinimumNumberShouldMatch(1);
 
                 final long searchStart = System.nanoTime();
                 logger.debug("Searching {} for {}", indexDirectory, flowFileIdQuery);
@@ -83,13 +125,19 @@ public class LineageQuery {
                 final AuthorizationCheck authCheck = event -> true;
 
                 final DocsReader docsReader = new DocsReader();
-                final Set<ProvenanceEventRecord> recs = docsReader.read(uuidQueryTopDocs, authCheck, searcher.getIndexReader(), repo.getAllLogFiles(),
+                final Set<ProvenanceEventRecord> matchingRecs = docsReader.read(uuidQueryTopDocs, authCheck, indexReader, repo.getAllLogFiles(),
                         new AtomicInteger(0), Integer.MAX_VALUE, maxAttributeChars);
+                recs.addAll(matchingRecs);
 
                 final long readDocsEnd = System.nanoTime();
                 logger.debug("Finished Lineage Query against {}; Lucene search took {} millis, reading records took {} millis",
                         indexDirectory, TimeUnit.NANOSECONDS.toMillis(searchEnd - searchStart), TimeUnit.NANOSECONDS.toMillis(readDocsEnd - searchEnd));
 
+                // If the results were truncated, we cannot be sure that we have the complete lineage for each FlowFile, so we do not cache them.
+                if (indexVersion != null && uuidQueryTopDocs.totalHits <= MAX_QUERY_RESULTS) {
+                    cacheLineage(lineageCache, indexDirectory, indexVersion, uncachedUuids, matchingRecs);
+                }
+
                 return recs;
             } finally {
                 indexManager.returnIndexSearcher(indexDirectory, searcher);
@@ -105,4 +153,58 @@ public class LineageQuery {
         }
     }
 
+    private static void cacheLineage(final LineageCache lineageCache, final File indexDirectory, final long indexVersion, final Set<String> flowFileUuids,
+            final Set<ProvenanceEventRecord> events) {
+        final Map<String, Set<ProvenanceEventRecord>> eventsByUuid = new HashMap<>(flowFileUuids.size());
+        for (final String flowFileUuid : flowFileUuids) {
+            eventsByUuid.put(flowFileUuid.toLowerCase(), new HashSet<>());
+        }
+
+        for (final ProvenanceEventRecord event : events) {
+            for (final String indexedUuid : getIndexedFlowFileUuids(event)) {
+                final Set<ProvenanceEventRecord> uuidEvents = eventsByUuid.get(indexedUuid.toLowerCase());
+                if (uuidEvents != null) {
+                    uuidEvents.add(event);
+                }
+            }
+        }
+
+        for (final String flowFileUuid : flowFileUuids) {
+            lineageCache.put(indexDirectory, indexVersion, flowFileUuid, eventsByUuid.get(flowFileUuid.toLowerCase()));
+        }
+    }
+
+    /**
+     * Determines which FlowFile UUIDs the given event is indexed under. This must remain consistent with
+     * the FlowFile UUIDs that are added to the index by {@link IndexingAction}.
+     */
+    private static Set<String> getIndexedFlowFileUuids(final ProvenanceEventRecord event) {
+        final Set<String> uuids = new HashSet<>();
+        uuids.add(event.getFlowFileUuid());
+
+        switch (event.getEventType()) {
+            case FORK:
+            case CLONE:
+            case REPLAY:
+                uuids.addAll(event.getChildUuids());
+                break;
+            case JOIN:
+                uuids.addAll(event.getParentUuids());
+                break;
+            case RECEIVE:
+                final String sourceIdentifier = event.getSourceSystemFlowFileIdentifier();
+                if (sourceIdentifier != null) {
+                    final int lastColon = sourceIdentifier.lastIndexOf(":");
+                    if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                        uuids.add(sourceIdentifier.substring(lastColon + 1));
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+
+        return uuids;
+    }
+
 }
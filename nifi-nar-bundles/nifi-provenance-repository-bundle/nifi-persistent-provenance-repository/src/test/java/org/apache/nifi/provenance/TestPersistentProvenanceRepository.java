@@ -67,6 +67,7 @@ import org.apache.nifi.provenance.lineage.LineageNodeType;
 import org.apache.nifi.provenance.lucene.CachingIndexManager;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.IndexingAction;
+import org.apache.nifi.provenance.lucene.LineageCache;
 import org.apache.nifi.provenance.search.Query;
 import org.apache.nifi.provenance.search.QueryResult;
 import org.apache.nifi.provenance.search.QuerySubmission;
@@ -947,6 +948,68 @@ public class TestPersistentProvenanceRepository {
         }
     }
 
+    @Test
+    public void testRepeatedLineageServedFromCache() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxEventFileLife(500, TimeUnit.MILLISECONDS);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        config.setLineageCacheSize(1000);
+
+        final AtomicInteger cacheHits = new AtomicInteger(0);
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS) {
+            @Override
+            protected LineageCache createLineageCache(final int maxEvents) {
+                return new LineageCache(maxEvents) {
+                    @Override
+                    public synchronized Set<ProvenanceEventRecord> get(final File indexDirectory, final long indexVersion, final String flowFileUuid) {
+                        final Set<ProvenanceEventRecord> events = super.get(indexDirectory, indexVersion, flowFileUuid);
+                        if (events != null) {
+                            cacheHits.incrementAndGet();
+                        }
+                        return events;
+                    }
+                };
+            }
+        };
+        repo.initialize(getEventReporter(), null, null);
+
+        final String uuid = "00000000-0000-0000-0000-000000000001";
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("abc", "xyz");
+        attributes.put("uuid", uuid);
+        attributes.put("filename", "file-" + uuid);
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(createFlowFile(3L, 3000L, attributes));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        repo.registerEvent(builder.build());
+
+        builder.setEventTime(System.currentTimeMillis() + 1);
+        builder.setEventType(ProvenanceEventType.DROP);
+        builder.setTransitUri(null);
+        repo.registerEvent(builder.build());
+
+        repo.waitForRollover();
+
+        final AsyncLineageSubmission first = repo.submitLineageComputation(uuid, createUser());
+        while (!first.getResult().isFinished()) {
+            Thread.sleep(100L);
+        }
+        assertEquals(3, first.getResult().getNodes().size());
+        assertEquals(0, cacheHits.get());
+
+        final AsyncLineageSubmission second = repo.submitLineageComputation(uuid, createUser());
+        while (!second.getResult().isFinished()) {
+            Thread.sleep(100L);
+        }
+        assertEquals(3, second.getResult().getNodes().size());
+        assertTrue(cacheHits.get() > 0);
+    }
+
     @Test
     public void testLineageManyToOneSpawn() throws IOException, InterruptedException, ParseException {
         final RepositoryConfiguration config = createConfiguration();
@@ -1244,6 +1307,129 @@ public class TestPersistentProvenanceRepository {
         assertEquals(1, indexDirs.length);
     }
 
+    @Test
+    public void testIndexPartitionedByTime() throws InterruptedException, IOException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxRecordLife(5, TimeUnit.MINUTES);
+        config.setMaxStorageCapacity(1024L * 1024L);
+        config.setMaxEventFileLife(500, TimeUnit.MILLISECONDS);
+        config.setMaxEventFileCapacity(1024L * 1024L);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        config.setIndexPartitionDuration(1, TimeUnit.SECONDS); // the default shard size is far larger than we'll index
+
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        final Map<String, String> attributes = new HashMap<>();
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setEventTime(10L); // make sure the events are destroyed when we call purge
+            repo.registerEvent(builder.build());
+        }
+        repo.waitForRollover();
+
+        Thread.sleep(2000L);
+
+        final long secondBatchStartTime = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000001" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setEventTime(System.currentTimeMillis());
+            repo.registerEvent(builder.build());
+        }
+        repo.waitForRollover();
+
+        // the second batch of events is more than a partition duration newer than the first, so it gets its own index
+        final FileFilter indexFileFilter = new FileFilter() {
+            @Override
+            public boolean accept(File pathname) {
+                return pathname.getName().startsWith("index");
+            }
+        };
+        File[] indexDirs = config.getStorageDirectories().get(0).listFiles(indexFileFilter);
+        assertEquals(2, indexDirs.length);
+
+        // expiring the first batch drops its entire index
+        final long timeSinceSecondBatch = System.currentTimeMillis() - secondBatchStartTime;
+        config.setMaxRecordLife(timeSinceSecondBatch + 1000L, TimeUnit.MILLISECONDS);
+        repo.purgeOldEvents();
+
+        indexDirs = config.getStorageDirectories().get(0).listFiles(indexFileFilter);
+        assertEquals(1, indexDirs.length);
+    }
+
+    @Test
+    public void testCompactIndexRemovesExpiredDocuments() throws InterruptedException, IOException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxRecordLife(5, TimeUnit.MINUTES);
+        config.setMaxStorageCapacity(1024L * 1024L);
+        config.setMaxEventFileLife(500, TimeUnit.MILLISECONDS);
+        config.setMaxEventFileCapacity(1024L * 1024L);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        config.setIndexCompactionInterval(1, TimeUnit.HOURS); // compaction is triggered explicitly below
+
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        final Map<String, String> attributes = new HashMap<>();
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setEventTime(10L);
+            repo.registerEvent(builder.build());
+        }
+        repo.waitForRollover();
+
+        Thread.sleep(2000L);
+
+        final long secondBatchStartTime = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000001" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setEventTime(System.currentTimeMillis());
+            repo.registerEvent(builder.build());
+        }
+        repo.waitForRollover();
+
+        final FileFilter indexFileFilter = new FileFilter() {
+            @Override
+            public boolean accept(File pathname) {
+                return pathname.getName().startsWith("index");
+            }
+        };
+        final File[] indexDirs = config.getStorageDirectories().get(0).listFiles(indexFileFilter);
+        assertEquals(1, indexDirs.length);
+
+        // expire the first event file. The index still covers the second file, so it cannot be deleted.
+        final long timeSinceSecondBatch = System.currentTimeMillis() - secondBatchStartTime;
+        config.setMaxRecordLife(timeSinceSecondBatch + 1000L, TimeUnit.MILLISECONDS);
+        repo.purgeOldEvents();
+        assertEquals(1, config.getStorageDirectories().get(0).listFiles(indexFileFilter).length);
+
+        try (final DirectoryReader reader = DirectoryReader.open(FSDirectory.open(indexDirs[0]))) {
+            assertEquals(20, reader.numDocs());
+        }
+
+        repo.compactIndexes();
+
+        try (final DirectoryReader reader = DirectoryReader.open(FSDirectory.open(indexDirs[0]))) {
+            assertEquals(10, reader.numDocs());
+        }
+    }
+
     @Test
     public void testNotAuthorizedGetSpecificEvent() throws IOException {
         final RepositoryConfiguration config = createConfiguration();
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import static org.apache.nifi.provenance.TestUtil.createFlowFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.junit.Test;
+
+public class TestLineageCache {
+
+    private final File indexDir = new File("target/index-1");
+
+    private Set<ProvenanceEventRecord> createEvents(final int count) {
+        final Set<ProvenanceEventRecord> events = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+            builder.fromFlowFile(createFlowFile(i, 3000L, new HashMap<>()));
+            builder.setEventTime(System.currentTimeMillis());
+            builder.setEventType(ProvenanceEventType.CREATE);
+            builder.setComponentId("component-" + i);
+            builder.setComponentType("Unit Test");
+            events.add(builder.build());
+        }
+        return events;
+    }
+
+    @Test
+    public void testGetReturnsEntryOnlyForSameIndexVersion() {
+        final LineageCache cache = new LineageCache(100);
+        cache.put(indexDir, 1L, "uuid-1", createEvents(3));
+
+        final Set<ProvenanceEventRecord> cached = cache.get(indexDir, 1L, "uuid-1");
+        assertNotNull(cached);
+        assertEquals(3, cached.size());
+
+        assertNull(cache.get(indexDir, 1L, "uuid-2"));
+        assertNull(cache.get(new File("target/index-2"), 1L, "uuid-1"));
+
+        // index has changed, so the entry is no longer valid
+        assertNull(cache.get(indexDir, 2L, "uuid-1"));
+        assertNull(cache.get(indexDir, 1L, "uuid-1"));
+        assertEquals(0, cache.getEventCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWhenFull() {
+        final LineageCache cache = new LineageCache(10);
+        cache.put(indexDir, 1L, "uuid-1", createEvents(4));
+        cache.put(indexDir, 1L, "uuid-2", createEvents(4));
+
+        // access uuid-1 so that uuid-2 is the least recently used
+        assertNotNull(cache.get(indexDir, 1L, "uuid-1"));
+
+        cache.put(indexDir, 1L, "uuid-3", createEvents(4));
+        assertNotNull(cache.get(indexDir, 1L, "uuid-1"));
+        assertNull(cache.get(indexDir, 1L, "uuid-2"));
+        assertNotNull(cache.get(indexDir, 1L, "uuid-3"));
+        assertEquals(8, cache.getEventCount());
+
+        // too large to be cached at all
+        cache.put(indexDir, 1L, "uuid-4", createEvents(11));
+        assertNull(cache.get(indexDir, 1L, "uuid-4"));
+        assertEquals(8, cache.getEventCount());
+    }
+
+    @Test
+    public void testInvalidateIndexDirectory() {
+        final LineageCache cache = new LineageCache(100);
+        final File otherDir = new File("target/index-2");
+        cache.put(indexDir, 1L, "uuid-1", createEvents(2));
+        cache.put(otherDir, 1L, "uuid-1", createEvents(2));
+
+        cache.invalidate(indexDir);
+        assertNull(cache.get(indexDir, 1L, "uuid-1"));
+        assertNotNull(cache.get(otherDir, 1L, "uuid-1"));
+        assertEquals(2, cache.getEventCount());
+
+        cache.clear();
+        assertNull(cache.get(otherDir, 1L, "uuid-1"));
+        assertEquals(0, cache.getEventCount());
+    }
+}
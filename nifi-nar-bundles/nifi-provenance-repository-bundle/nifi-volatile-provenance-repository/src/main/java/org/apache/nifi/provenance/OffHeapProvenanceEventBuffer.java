@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link ProvenanceEventBuffer} that keeps events serialized in a direct (off-heap) ByteBuffer, so that a very large
+ * number of recent events can be retained without increasing the size of the Java heap or the cost of garbage collection.
+ * Events are deserialized only when they are read.
+ * </p>
+ *
+ * <p>
+ * The direct buffer is used as a circular log of bytes. Each event claims a sequence number and a range of bytes in the log,
+ * and is written with a header containing its sequence number and length. The only on-heap state is the logical position
+ * of each of the most recent events, which costs 8 bytes per event. An event is aged off either when it is no longer among
+ * the most recent <code>maxEvents</code> events or when its bytes have been overwritten because the log has wrapped around,
+ * whichever comes first.
+ * </p>
+ *
+ * <p>
+ * Like {@link org.apache.nifi.util.ConcurrentRingBuffer}, this class does not use locks. Readers validate that an event's
+ * header still contains the expected sequence number and that no producer has claimed the bytes that the event occupies,
+ * and skip the event otherwise.
+ * </p>
+ */
+public class OffHeapProvenanceEventBuffer implements ProvenanceEventBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapProvenanceEventBuffer.class);
+
+    // sequence number (8 bytes) + length of serialized event (4 bytes)
+    private static final int HEADER_LENGTH = 12;
+
+    private final ProvenanceEventSerializer serializer = new ProvenanceEventSerializer();
+    private final ByteBuffer log;
+    private final int logCapacity;
+    private final int maxEvents;
+    private final AtomicLongArray positions;
+    private final AtomicLong nextSequence = new AtomicLong(0L);
+    private final AtomicLong nextPosition = new AtomicLong(0L);
+
+    public OffHeapProvenanceEventBuffer(final int maxEvents, final int capacityBytes) {
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("Must allow at least 1 event");
+        }
+        if (capacityBytes < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Off-heap capacity must be at least " + HEADER_LENGTH + " bytes");
+        }
+
+        this.maxEvents = maxEvents;
+        this.logCapacity = capacityBytes;
+        this.log = ByteBuffer.allocateDirect(capacityBytes);
+        this.positions = new AtomicLongArray(maxEvents);
+
+        // Initialize every slot to a position that can never be valid so that unpublished slots are always skipped.
+        for (int i = 0; i < maxEvents; i++) {
+            positions.set(i, -1L);
+        }
+    }
+
+    @Override
+    public void add(final ProvenanceEventRecord event) {
+        final byte[] serialized;
+        try {
+            serialized = serializer.serialize(event);
+        } catch (final IOException ioe) {
+            throw new RuntimeException("Failed to serialize Provenance Event " + event, ioe);
+        }
+
+        final int recordLength = HEADER_LENGTH + serialized.length;
+        if (recordLength > logCapacity) {
+            logger.warn("Provenance Event {} requires {} bytes but the off-heap Provenance buffer can hold only {} bytes; this event will not be stored",
+                event, recordLength, logCapacity);
+            return;
+        }
+
+        final long sequence = nextSequence.getAndIncrement();
+        final long position = nextPosition.getAndAdd(recordLength);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putLong(sequence);
+        header.putInt(serialized.length);
+        write(position, header.array(), HEADER_LENGTH);
+        write(position + HEADER_LENGTH, serialized, serialized.length);
+
+        // Publishing the position is a volatile write, so the bytes written above are visible to any reader that sees it.
+        positions.set(slotOf(sequence), position);
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter) {
+        return getSelectedElements(filter, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter, final int maxElements) {
+        final List<ProvenanceEventRecord> selected = new ArrayList<>();
+        if (maxElements < 1) {
+            return selected;
+        }
+
+        forEach(new ForEachEvaluator<ProvenanceEventRecord>() {
+            @Override
+            public boolean evaluate(final ProvenanceEventRecord value) {
+                if (filter.select(value)) {
+                    selected.add(value);
+                }
+
+                return selected.size() < maxElements;
+            }
+        }, IterationDirection.FORWARD);
+
+        return selected;
+    }
+
+    @Override
+    public ProvenanceEventRecord getNewestElement() {
+        final List<ProvenanceEventRecord> newest = new ArrayList<>(1);
+        forEach(new ForEachEvaluator<ProvenanceEventRecord>() {
+            @Override
+            public boolean evaluate(final ProvenanceEventRecord value) {
+                newest.add(value);
+                return false;
+            }
+        }, IterationDirection.BACKWARD);
+
+        return newest.isEmpty() ? null : newest.get(0);
+    }
+
+    @Override
+    public void forEach(final ForEachEvaluator<ProvenanceEventRecord> evaluator, final IterationDirection iterationDirection) {
+        final long end = nextSequence.get();
+        final long start = Math.max(0L, end - maxEvents);
+
+        if (iterationDirection == IterationDirection.FORWARD) {
+            for (long sequence = start; sequence < end; sequence++) {
+                final ProvenanceEventRecord event = read(sequence);
+                if (event != null && !evaluator.evaluate(event)) {
+                    return;
+                }
+            }
+        } else {
+            for (long sequence = end - 1; sequence >= start; sequence--) {
+                final ProvenanceEventRecord event = read(sequence);
+                if (event != null && !evaluator.evaluate(event)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes of off-heap memory that are used to hold events
+     */
+    public int getCapacityBytes() {
+        return logCapacity;
+    }
+
+    private ProvenanceEventRecord read(final long sequence) {
+        final long position = positions.get(slotOf(sequence));
+        if (position < 0L || isOverwritten(position)) {
+            return null;
+        }
+
+        final byte[] headerBytes = new byte[HEADER_LENGTH];
+        read(position, headerBytes, HEADER_LENGTH);
+        final ByteBuffer header = ByteBuffer.wrap(headerBytes);
+        final long storedSequence = header.getLong();
+        final int length = header.getInt();
+
+        // Check that the header was not overwritten while we read it, and that it belongs to the event we want. If the
+        // slot has not yet been published for this sequence, it will still point to an older event.
+        if (isOverwritten(position) || storedSequence != sequence || length < 0 || length > logCapacity - HEADER_LENGTH) {
+            return null;
+        }
+
+        final byte[] serialized = new byte[length];
+        read(position + HEADER_LENGTH, serialized, length);
+        if (isOverwritten(position)) {
+            return null;
+        }
+
+        try {
+            return serializer.deserialize(serialized, 0, length);
+        } catch (final IOException ioe) {
+            logger.warn("Failed to deserialize Provenance Event with sequence number {} from off-heap buffer; skipping event", sequence, ioe);
+            return null;
+        }
+    }
+
+    /**
+     * An event has been overwritten if any producer has claimed bytes that wrap around onto its starting position. Because
+     * producers claim their bytes before writing them, checking this after reading an event guarantees that it was intact.
+     */
+    private boolean isOverwritten(final long position) {
+        return nextPosition.get() - position > logCapacity;
+    }
+
+    private int slotOf(final long sequence) {
+        return (int) (sequence % maxEvents);
+    }
+
+    private void write(final long logicalPosition, final byte[] src, final int length) {
+        final ByteBuffer view = log.duplicate();
+        final int offset = (int) (logicalPosition % logCapacity);
+        final int firstChunk = Math.min(length, logCapacity - offset);
+
+        view.position(offset);
+        view.put(src, 0, firstChunk);
+        if (firstChunk < length) {
+            view.position(0);
+            view.put(src, firstChunk, length - firstChunk);
+        }
+    }
+
+    private void read(final long logicalPosition, final byte[] dest, final int length) {
+        final ByteBuffer view = log.duplicate();
+        final int offset = (int) (logicalPosition % logCapacity);
+        final int firstChunk = Math.min(length, logCapacity - offset);
+
+        view.position(offset);
+        view.get(dest, 0, firstChunk);
+        if (firstChunk < length) {
+            view.position(0);
+            view.get(dest, firstChunk, length - firstChunk);
+        }
+    }
+}
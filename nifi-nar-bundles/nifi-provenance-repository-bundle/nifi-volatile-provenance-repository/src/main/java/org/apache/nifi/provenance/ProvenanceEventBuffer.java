@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.util.List;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+
+/**
+ * A fixed-size buffer of the most recent Provenance Events that is used by the {@link VolatileProvenanceRepository}.
+ * Once the buffer is full, adding an event ages off the oldest event.
+ */
+public interface ProvenanceEventBuffer {
+
+    /**
+     * Adds the given event to the buffer, aging off the oldest event if the buffer is full
+     *
+     * @param event the event to add
+     */
+    void add(ProvenanceEventRecord event);
+
+    /**
+     * @param filter the filter to apply
+     * @return all events in the buffer that match the given filter, oldest first
+     */
+    List<ProvenanceEventRecord> getSelectedElements(Filter<ProvenanceEventRecord> filter);
+
+    /**
+     * @param filter the filter to apply
+     * @param maxElements the maximum number of events to return
+     * @return up to <code>maxElements</code> events in the buffer that match the given filter, oldest first
+     */
+    List<ProvenanceEventRecord> getSelectedElements(Filter<ProvenanceEventRecord> filter, int maxElements);
+
+    /**
+     * @return the most recently added event, or <code>null</code> if the buffer is empty
+     */
+    ProvenanceEventRecord getNewestElement();
+
+    /**
+     * Iterates over the events in the buffer in the given direction until the evaluator returns <code>false</code>
+     *
+     * @param evaluator the evaluator to call for each event
+     * @param iterationDirection the order in which to iterate over the events
+     */
+    void forEach(ForEachEvaluator<ProvenanceEventRecord> evaluator, IterationDirection iterationDirection);
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Serializes Provenance Events to and from a compact binary form so that they can be held outside of the Java heap.
+ * The layout of each event mirrors the record layout used by the Persistent Provenance Repository's event files,
+ * without the file header, table of contents and compression that are needed only for files on disk.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public class ProvenanceEventSerializer {
+
+    public byte[] serialize(final ProvenanceEventRecord record) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(512);
+        final DataOutputStream out = new DataOutputStream(baos);
+
+        final ProvenanceEventType recordType = record.getEventType();
+        out.writeLong(record.getEventId());
+        out.writeUTF(recordType.name());
+        out.writeLong(record.getEventTime());
+        out.writeLong(record.getFlowFileEntryDate());
+        out.writeLong(record.getEventDuration());
+        out.writeLong(record.getLineageStartDate());
+
+        writeNullableString(out, record.getComponentId());
+        writeNullableString(out, record.getComponentType());
+        out.writeUTF(record.getFlowFileUuid());
+        writeNullableString(out, record.getDetails());
+
+        final Map<String, String> attrs = record.getPreviousAttributes();
+        out.writeInt(attrs.size());
+        for (final Map.Entry<String, String> entry : attrs.entrySet()) {
+            writeLongString(out, entry.getKey());
+            writeLongString(out, entry.getValue());
+        }
+
+        final Map<String, String> attrUpdates = record.getUpdatedAttributes();
+        out.writeInt(attrUpdates.size());
+        for (final Map.Entry<String, String> entry : attrUpdates.entrySet()) {
+            writeLongString(out, entry.getKey());
+            writeLongNullableString(out, entry.getValue());
+        }
+
+        // The file size is always written, even when there is no content claim, so that it is not lost.
+        out.writeLong(record.getFileSize());
+        if (record.getContentClaimSection() != null && record.getContentClaimContainer() != null && record.getContentClaimIdentifier() != null) {
+            out.writeBoolean(true);
+            out.writeUTF(record.getContentClaimContainer());
+            out.writeUTF(record.getContentClaimSection());
+            out.writeUTF(record.getContentClaimIdentifier());
+            out.writeLong(record.getContentClaimOffset() == null ? 0L : record.getContentClaimOffset());
+        } else {
+            out.writeBoolean(false);
+        }
+
+        if (record.getPreviousContentClaimSection() != null && record.getPreviousContentClaimContainer() != null && record.getPreviousContentClaimIdentifier() != null) {
+            out.writeBoolean(true);
+            out.writeUTF(record.getPreviousContentClaimContainer());
+            out.writeUTF(record.getPreviousContentClaimSection());
+            out.writeUTF(record.getPreviousContentClaimIdentifier());
+            out.writeLong(record.getPreviousContentClaimOffset() == null ? 0L : record.getPreviousContentClaimOffset());
+            out.writeLong(record.getPreviousFileSize() == null ? 0L : record.getPreviousFileSize());
+        } else {
+            out.writeBoolean(false);
+        }
+
+        writeNullableString(out, record.getSourceQueueIdentifier());
+
+        // Write type-specific info
+        if (recordType == ProvenanceEventType.FORK || recordType == ProvenanceEventType.JOIN || recordType == ProvenanceEventType.CLONE || recordType == ProvenanceEventType.REPLAY) {
+            writeUUIDs(out, record.getParentUuids());
+            writeUUIDs(out, record.getChildUuids());
+        } else if (recordType == ProvenanceEventType.RECEIVE) {
+            writeNullableString(out, record.getTransitUri());
+            writeNullableString(out, record.getSourceSystemFlowFileIdentifier());
+        } else if (recordType == ProvenanceEventType.FETCH || recordType == ProvenanceEventType.SEND) {
+            writeNullableString(out, record.getTransitUri());
+        } else if (recordType == ProvenanceEventType.ADDINFO) {
+            writeNullableString(out, record.getAlternateIdentifierUri());
+        } else if (recordType == ProvenanceEventType.ROUTE) {
+            writeNullableString(out, record.getRelationship());
+        }
+
+        out.flush();
+        return baos.toByteArray();
+    }
+
+    public StandardProvenanceEventRecord deserialize(final byte[] data, final int offset, final int length) throws IOException {
+        final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+
+        final long eventId = dis.readLong();
+        final ProvenanceEventType eventType = ProvenanceEventType.valueOf(dis.readUTF());
+        builder.setEventType(eventType);
+        builder.setEventTime(dis.readLong());
+        builder.setFlowFileEntryDate(dis.readLong());
+        builder.setEventDuration(dis.readLong());
+        builder.setLineageStartDate(dis.readLong());
+
+        builder.setComponentId(readNullableString(dis));
+        builder.setComponentType(readNullableString(dis));
+        builder.setFlowFileUUID(dis.readUTF());
+        builder.setDetails(readNullableString(dis));
+
+        final Map<String, String> previousAttrs = readAttributes(dis, false);
+        final Map<String, String> attrUpdates = readAttributes(dis, true);
+        builder.setAttributes(previousAttrs, attrUpdates);
+
+        final long fileSize = dis.readLong();
+        if (dis.readBoolean()) {
+            builder.setCurrentContentClaim(dis.readUTF(), dis.readUTF(), dis.readUTF(), dis.readLong(), fileSize);
+        } else {
+            builder.setCurrentContentClaim(null, null, null, null, fileSize);
+        }
+
+        if (dis.readBoolean()) {
+            builder.setPreviousContentClaim(dis.readUTF(), dis.readUTF(), dis.readUTF(), dis.readLong(), dis.readLong());
+        }
+
+        builder.setSourceQueueIdentifier(readNullableString(dis));
+
+        // Read Event-Type specific fields.
+        if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.JOIN || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+            final int numParents = dis.readInt();
+            for (int i = 0; i < numParents; i++) {
+                builder.addParentUuid(dis.readUTF());
+            }
+
+            final int numChildren = dis.readInt();
+            for (int i = 0; i < numChildren; i++) {
+                builder.addChildUuid(dis.readUTF());
+            }
+        } else if (eventType == ProvenanceEventType.RECEIVE) {
+            builder.setTransitUri(readNullableString(dis));
+            builder.setSourceSystemFlowFileIdentifier(readNullableString(dis));
+        } else if (eventType == ProvenanceEventType.FETCH || eventType == ProvenanceEventType.SEND) {
+            builder.setTransitUri(readNullableString(dis));
+        } else if (eventType == ProvenanceEventType.ADDINFO) {
+            builder.setAlternateIdentifierUri(readNullableString(dis));
+        } else if (eventType == ProvenanceEventType.ROUTE) {
+            builder.setRelationship(readNullableString(dis));
+        }
+
+        final StandardProvenanceEventRecord record = builder.build();
+        record.setEventId(eventId);
+        return record;
+    }
+
+    private void writeUUIDs(final DataOutputStream out, final Collection<String> list) throws IOException {
+        if (list == null) {
+            out.writeInt(0);
+        } else {
+            out.writeInt(list.size());
+            for (final String value : list) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    private void writeNullableString(final DataOutputStream out, final String toWrite) throws IOException {
+        if (toWrite == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            out.writeUTF(toWrite);
+        }
+    }
+
+    private void writeLongNullableString(final DataOutputStream out, final String toWrite) throws IOException {
+        if (toWrite == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            writeLongString(out, toWrite);
+        }
+    }
+
+    private void writeLongString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private Map<String, String> readAttributes(final DataInputStream dis, final boolean valueNullable) throws IOException {
+        final int numAttributes = dis.readInt();
+        final Map<String, String> attrs = new HashMap<>(numAttributes);
+        for (int i = 0; i < numAttributes; i++) {
+            final String key = readLongString(dis);
+            final String value = valueNullable ? readLongNullableString(dis) : readLongString(dis);
+            attrs.put(key, value);
+        }
+
+        return attrs;
+    }
+
+    private String readNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private String readLongNullableString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? readLongString(in) : null;
+    }
+
+    private String readLongString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        final byte[] strBytes = new byte[length];
+        in.readFully(strBytes);
+        return new String(strBytes, StandardCharsets.UTF_8);
+    }
+}
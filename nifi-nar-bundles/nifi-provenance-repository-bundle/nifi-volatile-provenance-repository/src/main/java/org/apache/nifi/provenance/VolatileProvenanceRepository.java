@@ -36,7 +36,6 @@ import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerm;
 import org.apache.nifi.provenance.search.SearchableField;
 import org.apache.nifi.util.NiFiProperties;
-import org.apache.nifi.util.RingBuffer;
 import org.apache.nifi.util.RingBuffer.Filter;
 import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
 import org.apache.nifi.util.RingBuffer.IterationDirection;
@@ -66,11 +65,12 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     // properties
     public static final String BUFFER_SIZE = "nifi.provenance.repository.buffer.size";
+    public static final String OFF_HEAP_BUFFER_CAPACITY = "nifi.provenance.repository.buffer.off.heap.capacity";
 
     // default property values
     public static final int DEFAULT_BUFFER_SIZE = 10000;
 
-    private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+    private final ProvenanceEventBuffer ringBuffer;
     private final List<SearchableField> searchableFields;
     private final List<SearchableField> searchableAttributes;
     private final ExecutorService queryExecService;
@@ -100,7 +100,17 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
     public VolatileProvenanceRepository(final NiFiProperties nifiProperties) {
 
         final int bufferSize = nifiProperties.getIntegerProperty(BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
-        ringBuffer = new RingBuffer<>(bufferSize);
+        final String offHeapCapacity = nifiProperties.getProperty(OFF_HEAP_BUFFER_CAPACITY);
+        if (offHeapCapacity == null || offHeapCapacity.trim().isEmpty()) {
+            ringBuffer = new HeapProvenanceEventBuffer(bufferSize);
+        } else {
+            final double capacityBytes = DataUnit.parseDataSize(offHeapCapacity.trim(), DataUnit.B);
+            if (capacityBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The value of the " + OFF_HEAP_BUFFER_CAPACITY + " property cannot exceed " + Integer.MAX_VALUE + " bytes");
+            }
+
+            ringBuffer = new OffHeapProvenanceEventBuffer(bufferSize, (int) capacityBytes);
+        }
 
         final String indexedFieldString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_FIELDS);
         final String indexedAttrString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_ATTRIBUTES);
@@ -622,12 +632,12 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     private static class QueryRunnable implements Runnable {
 
-        private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+        private final ProvenanceEventBuffer ringBuffer;
         private final Filter<ProvenanceEventRecord> filter;
         private final AsyncQuerySubmission submission;
         private final int maxRecords;
 
-        public QueryRunnable(final RingBuffer<ProvenanceEventRecord> ringBuffer, final Filter<ProvenanceEventRecord> filter, final int maxRecords, final AsyncQuerySubmission submission) {
+        public QueryRunnable(final ProvenanceEventBuffer ringBuffer, final Filter<ProvenanceEventRecord> filter, final int maxRecords, final AsyncQuerySubmission submission) {
             this.ringBuffer = ringBuffer;
             this.filter = filter;
             this.submission = submission;
@@ -659,11 +669,11 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     private static class ComputeLineageRunnable implements Runnable {
 
-        private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+        private final ProvenanceEventBuffer ringBuffer;
         private final Filter<ProvenanceEventRecord> filter;
         private final AsyncLineageSubmission submission;
 
-        public ComputeLineageRunnable(final RingBuffer<ProvenanceEventRecord> ringBuffer, final Filter<ProvenanceEventRecord> filter, final AsyncLineageSubmission submission) {
+        public ComputeLineageRunnable(final ProvenanceEventBuffer ringBuffer, final Filter<ProvenanceEventRecord> filter, final AsyncLineageSubmission submission) {
             this.ringBuffer = ringBuffer;
             this.filter = filter;
             this.submission = submission;
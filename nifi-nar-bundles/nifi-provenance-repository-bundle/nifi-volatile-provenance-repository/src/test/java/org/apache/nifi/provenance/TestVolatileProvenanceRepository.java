@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestVolatileProvenanceRepository {
 
@@ -75,6 +76,77 @@ public class TestVolatileProvenanceRepository {
         }
     }
 
+    @Test
+    public void testAddAndGetOffHeap() throws IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(VolatileProvenanceRepository.OFF_HEAP_BUFFER_CAPACITY, "1 MB");
+        repo = new VolatileProvenanceRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("abc", "xyz");
+        attributes.put("xyz", "abc");
+        attributes.put("uuid", UUID.randomUUID().toString());
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(createFlowFile(3L, 3000L, attributes));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        builder.setSourceQueueIdentifier("queue-1");
+
+        for (int i = 0; i < 10; i++) {
+            repo.registerEvent(builder.build());
+        }
+
+        final List<ProvenanceEventRecord> retrieved = repo.getEvents(0L, 12);
+
+        assertEquals(10, retrieved.size());
+        for (int i = 0; i < 10; i++) {
+            final ProvenanceEventRecord recovered = retrieved.get(i);
+            assertEquals(i, recovered.getEventId());
+            assertEquals("nifi://unit-test", recovered.getTransitUri());
+            assertEquals(ProvenanceEventType.RECEIVE, recovered.getEventType());
+            assertEquals(attributes, recovered.getAttributes());
+            assertEquals(3000L, recovered.getFileSize());
+            assertEquals("queue-1", recovered.getSourceQueueIdentifier());
+        }
+
+        assertEquals(Long.valueOf(9L), repo.getMaxEventId());
+    }
+
+    @Test
+    public void testOffHeapAgesOffOldestEventsWhenCapacityExceeded() throws IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(VolatileProvenanceRepository.OFF_HEAP_BUFFER_CAPACITY, "4 KB");
+        repo = new VolatileProvenanceRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("uuid", UUID.randomUUID().toString());
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(createFlowFile(3L, 3000L, attributes));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 1000; i++) {
+            repo.registerEvent(builder.build());
+        }
+
+        // Only the most recent events fit in 4 KB, and they must be returned in order with no gaps.
+        final List<ProvenanceEventRecord> retrieved = repo.getEvents(0L, 1000);
+        assertTrue(retrieved.size() > 0);
+        assertTrue(retrieved.size() < 1000);
+        assertEquals(999L, retrieved.get(retrieved.size() - 1).getEventId());
+        for (int i = 1; i < retrieved.size(); i++) {
+            assertEquals(retrieved.get(i - 1).getEventId() + 1, retrieved.get(i).getEventId());
+        }
+    }
+
     @Test
     public void testIndexAndCompressOnRolloverAndSubsequentSearchAsync() throws InterruptedException {
         repo = new VolatileProvenanceRepository(NiFiProperties.createBasicNiFiProperties(null, null));